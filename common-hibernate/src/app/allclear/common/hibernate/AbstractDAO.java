@@ -68,7 +68,7 @@ public class AbstractDAO<E> extends io.dropwizard.hibernate.AbstractDAO<E>
 	}
 
 	/** Runs the specified action after the current transaction has completed successfully. */
-	protected void afterTrans(final Runnable fx)
+	public void afterTrans(final Runnable fx)
 	{
 		final Transaction trans = currentSession().getTransaction();
 		if (null == trans) return;
@@ -83,7 +83,7 @@ public class AbstractDAO<E> extends io.dropwizard.hibernate.AbstractDAO<E>
 	}
 
 	/** Runs the specified action after the current transaction has completed successfully or rolled back. */
-	protected void afterTrans(final Runnable onCommit, final Runnable onRollback)
+	public void afterTrans(final Runnable onCommit, final Runnable onRollback)
 	{
 		final Transaction trans = currentSession().getTransaction();
 		if (null == trans) return;
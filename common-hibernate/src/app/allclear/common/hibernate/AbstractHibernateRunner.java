@@ -51,6 +51,7 @@ public abstract class AbstractHibernateRunner<Input, Output>
 	public Output run(final Input request) throws Exception
 	{
 		Transaction trans = null;
+		Session previous = null;	// Session of an enclosing task or runner on the same factory. DLS on 10/17/2026.
 		var factory = this.factory.prepare(readOnly());
 		var session = factory.openSession();
 		try
@@ -59,7 +60,7 @@ public abstract class AbstractHibernateRunner<Input, Output>
 			session.setDefaultReadOnly(readOnly());
 			session.setCacheMode(cacheMode());
 			session.setHibernateFlushMode(flushMode());
-			ManagedSessionContext.bind(session);
+			previous = ManagedSessionContext.bind(session);
 
 			// If transactional, start the transaction.
 			trans = (transactional()) ? session.beginTransaction() : null;
@@ -81,6 +82,7 @@ public abstract class AbstractHibernateRunner<Input, Output>
 		{
 			session.close();
 			ManagedSessionContext.unbind(factory);
+			if (null != previous) ManagedSessionContext.bind(previous);	// Restore so that the enclosing operation can continue to use the current session.
 		}
 	}
 
@@ -148,7 +148,12 @@ public class HibernateQueryBuilder<T> extends QueryBuilder<T>
 	@Override
 	public List<T> run(final QueryResults<?, ?> results)
 	{
-		return run(results.firstResult(), results.pageSize);
+		if (results.exact) return run(results.firstResult(), results.pageSize);
+
+		var records = run(results.firstResult(), results.pageSize + 1);	// Fetch an extra record to determine if there is another page.
+		var size = results.fetched(records.size());
+
+		return (size < records.size()) ? records.subList(0, size) : records;
 	}
 
 	@Override
@@ -4,6 +4,7 @@ import java.util.List;
 import javax.persistence.PersistenceException;
 
 import org.hibernate.Session;
+import org.hibernate.context.internal.ManagedSessionContext;
 import org.junit.*;
 import org.junit.runners.MethodSorters;
 
@@ -177,6 +178,31 @@ public class AbstractHibernateRunnerTest
 		Assert.assertEquals("Check size", 246 - 1, records.size());	// Removed record.
 	}
 
+	@Test
+	public void remove_nested() throws Exception
+	{
+		var factory = RULE.getSessionFactory();
+		var inner = new AbstractHibernateRunner<String, Country>(factory) {
+			@Override public boolean readOnly() { return true; }
+			@Override public boolean transactional() { return false; }
+			@Override
+			public Country run(String id, Session session) {
+				return (Country) session.get(Country.class, id);
+			}
+		};
+
+		Assert.assertTrue("Check outer", (new AbstractHibernateRunner<String, Boolean>(factory) {
+			@Override
+			public Boolean run(String id, Session session) throws Exception {
+				Assert.assertNotNull("Check inner", inner.run(id));
+				Assert.assertSame("Check restored", session, factory.getCurrentSession());	// The enclosing session is still current.
+
+				return true;
+			}
+		}).run("US"));
+		Assert.assertFalse("Check unbound", ManagedSessionContext.hasBind(factory));
+	}
+
 	/** Helper method - gets by ID. */
 	private Country getById(final String id) throws Exception
 	{
@@ -14,14 +14,39 @@ public class QueryFilter implements Serializable
 {
 	private static final long serialVersionUID = 1L;
 
+	/** Represents how the total number of matching records is determined. */
+	public enum Count
+	{
+		exact,	// Runs the full COUNT.
+		estimated,	// Uses a recently cached COUNT of the same search when available.
+		none;	// Skips the COUNT. Only indicates whether another page exists.
+
+		/** Finds the count mode by name. Defaults to exact.
+		 *
+		 * @param name
+		 * @return NULL if the name is not a supported count mode.
+		 */
+		public static Count find(final String name)
+		{
+			if ((null == name) || name.isBlank()) return exact;
+
+			try { return valueOf(name.trim().toLowerCase()); }
+			catch (final IllegalArgumentException ex) { return null; }
+		}
+	}
+
 	// Members
 	public Integer page = null;
 	public Integer pageSize = null;
 	public String sortOn = null;
 	public String sortDir = null;
+	public String after = null;	// Keyset (seek) pagination token from the previous page's results. An empty value requests the first page. DLS on 10/17/2026.
+	public String count = null;	// Count mode: exact (default), estimated, or none. DLS on 10/17/2026.
 
 	// Accessors
 	public int page() { return ((null == page) || (1 > page)) ? 1 : page; }
+	public boolean seek() { return (null != after); }
+	public Count count() { return Count.find(count); }
 
 	// Mutators
 	public int pageSize(int defaultValue)
@@ -78,6 +103,8 @@ public class QueryFilter implements Serializable
 			.append(", pageSize: ").append(pageSize)
 			.append(", sortOn: ").append(sortOn)
 			.append(", sortDir: ").append(sortDir)
+			.append(", after: ").append(after)
+			.append(", count: ").append(count)
 			.append(" }").toString();
 	}
 }
@@ -22,6 +22,9 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 	/** Constant - default page size. */
 	public static final int PAGE_SIZE_DEFAULT = 20;
 
+	/** Constant - indicates that the total was not counted. */
+	public static final long TOTAL_UNKNOWN = -1L;
+
 	public long total = 0L;
 	public int page = 0;
 	public int pages = 0;
@@ -30,9 +33,14 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 	public String sortDir = null;
 	public F filter = null;
 	public List<T> records = null;
+	public String after = null;	// Keyset (seek) pagination token to retrieve the next page. NULL if there are no more pages.
+	public boolean exact = true;	// Indicates whether the total is an exact count. FALSE when the total is estimated or not counted. DLS on 10/17/2026.
+
+	@JsonIgnore
+	public boolean isEmpty() { return exact && (0L == total); }	// An estimate of zero may be stale so the page is still queried.
 
 	@JsonIgnore
-	public boolean isEmpty() { return (0L == total); }
+	public boolean hasTotal() { return (0L <= total); }
 
 	@JsonIgnore
 	public boolean noRecords() { return CollectionUtils.isEmpty(records); }
@@ -40,12 +48,56 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 	/** Helper method - calculates the Hibernate Criteria.firstResult property based on the page and page size. */
 	public int firstResult() { return (0 < page) ? ((page - 1) * pageSize) : 0; }
 
+	/** Helper method - calculates the number of pages for the total. */
+	private int pages(final long total)
+	{
+		if (0L >= total) return 0;
+
+		return (int) ((total + pageSize - 1L) / ((long) pageSize));
+	}
+
+	/** Corrects an inexact total after the page was queried with one extra record. A partial page reveals the exact total.
+	 *  A full page means that there is at least one more page.
+	 *
+	 * @param count number of records fetched - at most the page size plus one.
+	 * @return the number of fetched records that belong to the page.
+	 */
+	public int fetched(final int count)
+	{
+		if (exact) return count;
+
+		var first = (long) firstResult();
+		if (pageSize < count)
+		{
+			if (hasTotal() && (total < (first + count))) total = first + count;	// The estimate is low - still a lower bound.
+			pages = Math.max(pages(total), page + 1);
+
+			return pageSize;
+		}
+
+		if ((0 < count) || (1 == page))
+		{
+			exact = true;
+			pages = pages(total = first + count);
+			if (pages < page) page = pages;
+		}
+		else	// Requested past the end - only the upper bound of the total is known.
+		{
+			if (hasTotal() && (total > first)) total = first;
+			if (pages >= page) pages = page - 1;
+		}
+
+		return count;
+	}
+
 	@SuppressWarnings("rawtypes") public QueryResults withSortOn(String newValue) { sortOn = newValue; return this; }
 
 	@SuppressWarnings("rawtypes") public QueryResults withSortDir(String newValue) { sortDir = newValue; return this; }
 
 	public QueryResults<T, F> withRecords(List<T> newValues) { records = newValues; return this; }
 
+	public QueryResults<T, F> withAfter(String newValue) { after = newValue; return this; }
+
 	/** Empty/default. */
 	public QueryResults() {}
 
@@ -66,19 +118,58 @@ public class QueryResults<T, F extends QueryFilter> implements Serializable
 	 * @param pageSizeDefault
 	 */
 	public QueryResults(final long total, final F filter, final int pageSizeDefault)
+	{
+		this(total, filter, pageSizeDefault, true);
+	}
+
+	/** Populator - the total may be an estimate or unknown. An inexact total does not limit the requested page. Call
+	 *  <tt>fetched</tt> after querying the page with an extra record to correct the total and the number of pages.
+	 * 
+	 * @param total use TOTAL_UNKNOWN when not counted.
+	 * @param filter
+	 * @param pageSizeDefault
+	 * @param exact
+	 */
+	public QueryResults(final long total, final F filter, final int pageSizeDefault, final boolean exact)
 	{
 		this.filter = filter;
 		this.sortOn = filter.sortOn;
 		this.sortDir = filter.sortDir;
-		this.pages = (int) ((this.total = total) / ((long) (this.pageSize = filter.pageSize(pageSizeDefault))));
-		if (0 < (total % pageSize))
-			this.pages++;
+		this.total = total;
+		this.exact = exact;
+		this.pageSize = filter.pageSize(pageSizeDefault);
+		this.pages = pages(total);
 
 		this.page = filter.page();
-		if (this.pages < this.page)
+		if (exact && (this.pages < this.page))
 			this.page = this.pages;
 	}
 
+	/** Populator - keyset (seek) pagination. The total is not counted so the number of pages is unknown.
+	 * 
+	 * @param filter
+	 * @param pageSizeDefault
+	 */
+	public QueryResults(final F filter, final int pageSizeDefault)
+	{
+		this.filter = filter;
+		this.sortOn = filter.sortOn;
+		this.sortDir = filter.sortDir;
+		this.total = TOTAL_UNKNOWN;
+		this.exact = false;
+		this.pageSize = filter.pageSize(pageSizeDefault);
+		this.page = 1;
+	}
+
+	/** Populator - keyset (seek) pagination.
+	 * 
+	 * @param filter
+	 */
+	public QueryResults(final F filter)
+	{
+		this(filter, PAGE_SIZE_DEFAULT);
+	}
+
 	/** Populator.
 	 * 
 	 * @param records
@@ -97,4 +97,24 @@ public class QueryFilterTest
 		Assert.assertNull(value.pageSize);
 		Assert.assertEquals(10, value.pageSize(10));
 	}
+
+	@Test
+	public void testCount()
+	{
+		var value = new QueryFilter();
+		Assert.assertNull(value.count);
+		Assert.assertEquals(QueryFilter.Count.exact, value.count());
+
+		value.count = " ";
+		Assert.assertEquals(QueryFilter.Count.exact, value.count());
+
+		value.count = "Estimated";
+		Assert.assertEquals(QueryFilter.Count.estimated, value.count());
+
+		value.count = "none ";
+		Assert.assertEquals(QueryFilter.Count.none, value.count());
+
+		value.count = "approximate";
+		Assert.assertNull(value.count());
+	}
 }
@@ -115,4 +115,100 @@ public class QueryResultsTest
 		Assert.assertFalse(value.isEmpty());
 		Assert.assertFalse(value.noRecords());
 	}
+
+	@Test
+	public void testSeek()
+	{
+		var filter = new QueryFilter(3, 10, "name", "desc");
+		filter.after = "";
+		Assert.assertTrue(filter.seek());
+
+		var value = new QueryResults<Integer, QueryFilter>(filter);
+		Assert.assertEquals(QueryResults.TOTAL_UNKNOWN, value.total);
+		Assert.assertEquals(0, value.pages);
+		Assert.assertEquals(1, value.page);	// Page is ignored by keyset pagination.
+		Assert.assertEquals(10, value.pageSize);
+		Assert.assertEquals(0, value.firstResult());
+		Assert.assertEquals("name", value.sortOn);
+		Assert.assertEquals("desc", value.sortDir);
+		Assert.assertNull(value.after);
+		Assert.assertFalse(value.isEmpty());
+		Assert.assertFalse(value.hasTotal());
+		Assert.assertTrue(value.noRecords());
+
+		Assert.assertEquals("next", value.withAfter("next").after);
+		Assert.assertEquals(QueryResults.PAGE_SIZE_DEFAULT, new QueryResults<Integer, QueryFilter>(new QueryFilter()).pageSize);
+		Assert.assertFalse(new QueryFilter().seek());
+		Assert.assertTrue(new QueryResults<Integer, QueryFilter>(0L, new QueryFilter()).hasTotal());
+	}
+
+	@Test
+	public void testCount_estimated()
+	{
+		var filter = new QueryFilter(3, 10);
+		var value = new QueryResults<Integer, QueryFilter>(5L, filter, 20, false);
+		Assert.assertEquals(5L, value.total);
+		Assert.assertEquals(1, value.pages);
+		Assert.assertEquals(3, value.page);	// Not limited by the estimate.
+		Assert.assertEquals(20, value.firstResult());
+		Assert.assertFalse(value.exact);
+		Assert.assertFalse(value.isEmpty());
+		Assert.assertFalse(new QueryResults<Integer, QueryFilter>(0L, filter, 20, false).isEmpty());	// Estimate may be stale.
+
+		Assert.assertEquals(10, value.fetched(11));
+		Assert.assertEquals(31L, value.total);
+		Assert.assertEquals(4, value.pages);
+		Assert.assertFalse(value.exact);
+
+		value = new QueryResults<Integer, QueryFilter>(500L, filter, 20, false);
+		Assert.assertEquals(7, value.fetched(7));
+		Assert.assertEquals(27L, value.total);
+		Assert.assertEquals(3, value.pages);
+		Assert.assertEquals(3, value.page);
+		Assert.assertTrue(value.exact);
+		Assert.assertEquals(7, value.fetched(7));	// Exact totals are not changed.
+		Assert.assertEquals(27L, value.total);
+
+		value = new QueryResults<Integer, QueryFilter>(500L, filter, 20, false);
+		Assert.assertEquals(0, value.fetched(0));
+		Assert.assertEquals(20L, value.total);	// Upper bound.
+		Assert.assertEquals(2, value.pages);
+		Assert.assertFalse(value.exact);
+	}
+
+	@Test
+	public void testCount_none()
+	{
+		var value = new QueryResults<Integer, QueryFilter>(QueryResults.TOTAL_UNKNOWN, new QueryFilter(2, 10), 20, false);
+		Assert.assertEquals(QueryResults.TOTAL_UNKNOWN, value.total);
+		Assert.assertEquals(0, value.pages);
+		Assert.assertEquals(2, value.page);
+		Assert.assertFalse(value.hasTotal());
+		Assert.assertFalse(value.isEmpty());
+
+		Assert.assertEquals(10, value.fetched(11));
+		Assert.assertEquals(QueryResults.TOTAL_UNKNOWN, value.total);
+		Assert.assertEquals(3, value.pages);	// At least one more page.
+		Assert.assertFalse(value.exact);
+
+		value = new QueryResults<Integer, QueryFilter>(QueryResults.TOTAL_UNKNOWN, new QueryFilter(1, 10), 20, false);
+		Assert.assertEquals(0, value.fetched(0));
+		Assert.assertEquals(0L, value.total);
+		Assert.assertEquals(0, value.pages);
+		Assert.assertEquals(0, value.page);
+		Assert.assertTrue(value.exact);
+		Assert.assertTrue(value.isEmpty());
+	}
+
+	@Test
+	public void testCount_exact()
+	{
+		var value = new QueryResults<Integer, QueryFilter>(55L, new QueryFilter(10, 10), 20);
+		Assert.assertTrue(value.exact);
+		Assert.assertEquals(6, value.pages);
+		Assert.assertEquals(6, value.page);
+		Assert.assertEquals(10, value.fetched(10));
+		Assert.assertEquals(55L, value.total);
+		Assert.assertFalse(new QueryResults<Integer, QueryFilter>(new QueryFilter()).exact);
+	}
 }
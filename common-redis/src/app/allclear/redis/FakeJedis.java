@@ -1,11 +1,14 @@
 package app.allclear.redis;
 
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.MapUtils;
 
 import redis.clients.jedis.*;
+import redis.clients.jedis.params.SetParams;
+import redis.clients.jedis.util.SafeEncoder;
 
 /** Implements the Jedis interface with internal Java collections. Primarily used for testing.
  * 
@@ -22,18 +25,46 @@ public class FakeJedis extends Jedis
 		// super(); NOT necessary
 	}
 
+	/** Supported Lua scripts - a single command guarded by the value of the first key. */
+	private static final Pattern GUARDED = Pattern.compile("if redis\\.call\\('get', KEYS\\[1\\]\\) == ARGV\\[1\\] then return redis\\.call\\('(\\w+)'((?:, (?:KEYS|ARGV)\\[\\d+\\])*)\\) else return (-?\\d+) end");
+	private static final Pattern GUARDED_ARG = Pattern.compile("(KEYS|ARGV)\\[(\\d+)\\]");
+
+	/** Supported Lua scripts - moves the members of a sorted set that are due onto either end of a list. */
+	private static final Pattern PROMOTE = Pattern.compile("local ids = redis\\.call\\('zrangebyscore', KEYS\\[1\\], '-inf', ARGV\\[1\\], 'LIMIT', 0, ARGV\\[2\\]\\) for _, id in ipairs\\(ids\\) do redis\\.call\\('zrem', KEYS\\[1\\], id\\) redis\\.call\\('(lpush|rpush)', KEYS\\[2\\], id\\) end return #ids");
+
 	/** Internal structures. */
 	private final Map<String, String> map = new HashMap<>();
 	private final Map<String, Integer> expirations = new HashMap<>();
-	private final Map<String, Queue<String>> queues = new HashMap<>();
+	private final Map<String, Long> deadlines = new HashMap<>();	// Millisecond expirations that are enforced when the key is accessed. DLS on 10/17/2026.
+	private final Map<String, Deque<String>> queues = new HashMap<>();	// The head is the left end of the Redis list. DLS on 10/17/2026.
 	private final Map<String, Set<String>> sets = new HashMap<>();
 	private final Map<String, Map<String, String>> maps = new HashMap<>();
+	private final Map<String, Map<String, Double>> zsets = new HashMap<>();	// Score by member. DLS on 10/17/2026.
 
 	@Override
 	public void close() { /** Do NOT clear the cache since this is called after each usage of the fake Jedis pool. */ }
 
 	@Override
-	public String get(final String key) { return map.get(key); }
+	public String get(final String key) { expired(key); return map.get(key); }
+
+	/** Supports the NX, XX, EX, and PX options. */
+	@Override
+	public String set(final String key, final String value, final SetParams params)
+	{
+		expired(key);
+		var options = Arrays.stream(params.getByteParams()).map(v -> SafeEncoder.encode(v).toLowerCase()).collect(Collectors.toList());
+		if (options.contains("nx") && map.containsKey(key)) return null;
+		if (options.contains("xx") && !map.containsKey(key)) return null;
+
+		map.put(key, value);
+		deadlines.remove(key);
+
+		var i = options.indexOf("ex");
+		if (0 <= i) pexpire(key, Long.parseLong(options.get(i + 1)) * 1000L);
+		if (0 <= (i = options.indexOf("px"))) pexpire(key, Long.parseLong(options.get(i + 1)));
+
+		return "OK";
+	}
 
 	@Override
 	public String set(final String key, final String value) { return map.put(key, value); }
@@ -56,10 +87,12 @@ public class FakeJedis extends Jedis
 	@Override
 	public Long del(final String key)
 	{
+		deadlines.remove(key);
 		if (null != map.remove(key)) return 1L;
 		if (null != maps.remove(key)) return 1L;
 		if (null != sets.remove(key)) return 1L;
 		if (null != queues.remove(key)) return 1L;
+		if (null != zsets.remove(key)) return 1L;
 
 		return 0L;
 	}
@@ -67,7 +100,8 @@ public class FakeJedis extends Jedis
 	@Override
 	public Boolean exists(final String key)
 	{
-		return map.containsKey(key) || maps.containsKey(key) || sets.containsKey(key) || queues.containsKey(key);
+		expired(key);
+		return map.containsKey(key) || maps.containsKey(key) || sets.containsKey(key) || queues.containsKey(key) || zsets.containsKey(key);
 	}
 
 	@Override
@@ -77,6 +111,44 @@ public class FakeJedis extends Jedis
 		return 1L;
 	}
 
+	@Override
+	public Long pexpire(final String key, final long milliseconds)
+	{
+		if (!exists(key)) return 0L;
+
+		expirations.put(key, (int) (milliseconds / 1000L));
+		deadlines.put(key, System.currentTimeMillis() + milliseconds);
+		return 1L;
+	}
+
+	/** Supports only a single command guarded by the value of the first key, i.e.
+	 *  "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+	 *  and the promotion of the due members of a sorted set onto a list.
+	 */
+	@Override
+	public Object eval(final String script, final List<String> keys, final List<String> args)
+	{
+		var p = PROMOTE.matcher(script.trim());
+		if (p.matches()) return promote(keys.get(0), keys.get(1), args.get(0), Integer.parseInt(args.get(1)), "lpush".equals(p.group(1)));
+
+		var m = GUARDED.matcher(script.trim());
+		if (!m.matches()) throw new UnsupportedOperationException("The script is not supported: " + script);
+		if (!args.get(0).equals(get(keys.get(0)))) return Long.valueOf(m.group(3));
+
+		var params = new ArrayList<String>();
+		for (var o = GUARDED_ARG.matcher(m.group(2)); o.find(); )
+			params.add(("KEYS".equals(o.group(1)) ? keys : args).get(Integer.parseInt(o.group(2)) - 1));
+
+		switch (m.group(1).toLowerCase())
+		{
+			case "del": return del(params.get(0));
+			case "hdel": return hdel(params.get(0), params.subList(1, params.size()).toArray(new String[0]));
+			case "hset": return hset(params.get(0), params.get(1), params.get(2));
+			case "pexpire": return pexpire(params.get(0), Long.parseLong(params.get(1)));
+			default: throw new UnsupportedOperationException("The command '" + m.group(1) + "' is not supported.");
+		}
+	}
+
 	@Override
 	public Long incr(final String key)
 	{
@@ -113,7 +185,7 @@ public class FakeJedis extends Jedis
 
 	public int size()
 	{
-		return map.size() + queues.size() + sets.size() + maps.size();
+		return map.size() + queues.size() + sets.size() + maps.size() + zsets.size();
 	}
 
 	@Override
@@ -129,6 +201,7 @@ public class FakeJedis extends Jedis
 		values.addAll(queues.keySet());
 		values.addAll(sets.keySet());
 		values.addAll(maps.keySet());
+		values.addAll(zsets.keySet());
 
 		return values;
 	}
@@ -136,10 +209,12 @@ public class FakeJedis extends Jedis
 	@Override
 	public String flushDB()
 	{
+		deadlines.clear();
 		map.clear();
 		queues.clear();
 		sets.clear();
 		maps.clear();
+		zsets.clear();
 
 		return "";
 	}
@@ -147,15 +222,58 @@ public class FakeJedis extends Jedis
 	@Override
 	public String type(final String key)
 	{
-		return map.containsKey(key) ? "string" : (queues.containsKey(key) ? "list" : (sets.containsKey(key) ? "set" : (maps.containsKey(key) ? "hash" : "none")));
+		return map.containsKey(key) ? "string" : (queues.containsKey(key) ? "list" : (sets.containsKey(key) ? "set" : (maps.containsKey(key) ? "hash" : (zsets.containsKey(key) ? "zset" : "none"))));
 	}
 
 	@Override
 	public Long lpush(final String key, final String... values)
 	{
 		var o = queues.computeIfAbsent(key, k -> new LinkedList<>());
+		for (var v : values) o.addFirst(v);
 
-		return Arrays.stream(values).filter(v -> o.offer(v)).count();
+		return (long) o.size();
+	}
+
+	@Override
+	public Long rpush(final String key, final String... values)
+	{
+		var o = queues.computeIfAbsent(key, k -> new LinkedList<>());
+		for (var v : values) o.addLast(v);
+
+		return (long) o.size();
+	}
+
+	@Override
+	public String rpop(final String key)
+	{
+		var queue = queues.get(key);
+		if (null == queue) return null;
+
+		return queue.pollLast();
+	}
+
+	@Override
+	public String rpoplpush(final String source, final String destination)
+	{
+		var value = rpop(source);
+		if (null != value) lpush(destination, value);
+
+		return value;
+	}
+
+	/** Polls the source until the timeout (seconds) since the fake cannot be signaled by another client. */
+	@Override
+	public String brpoplpush(final String source, final String destination, final int timeout)
+	{
+		var deadline = System.currentTimeMillis() + (timeout * 1000L);
+		String value = null;
+		while ((null == (value = rpoplpush(source, destination))) && (System.currentTimeMillis() < deadline))
+		{
+			try { Thread.sleep(10L); }
+			catch (final InterruptedException ex) { Thread.currentThread().interrupt(); return null; }
+		}
+
+		return value;
 	}
 
 	@Override
@@ -164,19 +282,22 @@ public class FakeJedis extends Jedis
 		var queue = queues.get(key);
 		if (null == queue) return null;
 
-		return queue.poll();
+		return queue.pollFirst();
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public List<String> lrange(final String key, final long start, final long stop)
 	{
-		var stop_ = (int) stop;
 		var values = (List<String>) queues.get(key);
 		if (0L > start) throw new IllegalArgumentException("The start parameter cannot be less than zero.");
-		if (values.size() < stop_) stop_ = values.size();
+		if (null == values) return List.of();
+
+		var stop_ = (0L > stop) ? values.size() + (int) stop : (int) stop;	// Inclusive like Redis. Negative counts from the end. DLS on 10/17/2026.
+		if (values.size() <= stop_) stop_ = values.size() - 1;
+		if (start > stop_) return List.of();
 
-		return values.subList((int) start, stop_);
+		return new ArrayList<>(values.subList((int) start, stop_ + 1));
 	}
 
 	public Long lclear(final String key)
@@ -200,10 +321,14 @@ public class FakeJedis extends Jedis
 		if (null == values) return 0L;
 
 		long count_ = 0L;
-		for (long i = 0L; i < count; i++)
+		var it = (0L > count) ? values.descendingIterator() : values.iterator();	// Negative counts remove from the right end. DLS on 10/17/2026.
+		while (it.hasNext() && ((0L == count) || (count_ < Math.abs(count))))
 		{
-			if (values.remove(key)) count_++;
-			else return count_;
+			if (value.equals(it.next()))
+			{
+				it.remove();
+				count_++;
+			}
 		}
 
 		return count_;
@@ -255,13 +380,29 @@ public class FakeJedis extends Jedis
 	@Override
 	public String hget(final String key, final String field)
 	{
+		expired(key);
 		var values = maps.get(key);
 		return (null != values) ? values.get(field) : null;
 	}
 
+	@Override
+	public Long hsetnx(final String key, final String field, final String value)
+	{
+		return (null == maps.computeIfAbsent(key, k -> new HashMap<>()).putIfAbsent(field, value)) ? 1L : 0L;
+	}
+
+	@Override
+	public List<String> hmget(final String key, final String... fields)
+	{
+		expired(key);
+		var values = maps.get(key);
+		return Arrays.stream(fields).map(f -> (null != values) ? values.get(f) : null).collect(Collectors.toList());
+	}
+
 	@Override
 	public Map<String, String> hgetAll(final String key)
 	{
+		expired(key);
 		return maps.get(key);
 	}
 
@@ -297,4 +438,76 @@ public class FakeJedis extends Jedis
 	{
 		return new ScanResult<Map.Entry<String, String>>("0", new ArrayList<>(maps.get(key).entrySet()));
 	}
+
+	@Override
+	public Long zadd(final String key, final double score, final String member)
+	{
+		return (null == zsets.computeIfAbsent(key, k -> new HashMap<>()).put(member, score)) ? 1L : 0L;
+	}
+
+	@Override
+	public Set<String> zrange(final String key, final long start, final long stop)
+	{
+		var values = sorted(key);
+		var size = values.size();
+		var first = (int) Math.max(0L, (0L > start) ? size + start : start);
+		var last = (int) Math.min(size - 1L, (0L > stop) ? size + stop : stop);
+
+		return (first > last) ? new LinkedHashSet<>() : new LinkedHashSet<>(values.subList(first, last + 1));
+	}
+
+	@Override
+	public Long zcard(final String key)
+	{
+		var o = zsets.get(key);
+		return (null != o) ? (long) o.size() : 0L;
+	}
+
+	@Override
+	public Long zrem(final String key, final String... members)
+	{
+		var o = zsets.get(key);
+		if (null == o) return 0L;
+
+		var count = Arrays.stream(members).filter(v -> (null != o.remove(v))).count();
+		if (o.isEmpty()) zsets.remove(key);
+
+		return count;
+	}
+
+	/** Helper method - lists the members of a sorted set by score and then by member. */
+	private List<String> sorted(final String key)
+	{
+		var o = zsets.get(key);
+		if (null == o) return List.of();
+
+		return o.entrySet().stream()
+			.sorted(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+			.map(e -> e.getKey())
+			.collect(Collectors.toList());
+	}
+
+	/** Helper method - implements the promotion script. */
+	private Long promote(final String key, final String destination, final String max, final int limit, final boolean left)
+	{
+		var o = zsets.get(key);
+		if (null == o) return 0L;
+
+		var ceiling = "+inf".equals(max) ? Double.POSITIVE_INFINITY : Double.parseDouble(max);
+		var ids = sorted(key).stream().filter(v -> o.get(v) <= ceiling).limit(limit).collect(Collectors.toList());
+		for (var id : ids)
+		{
+			zrem(key, id);
+			if (left) lpush(destination, id); else rpush(destination, id);
+		}
+
+		return (long) ids.size();
+	}
+
+	/** Helper method - removes the key once its millisecond expiration has passed. */
+	private void expired(final String key)
+	{
+		var o = deadlines.get(key);
+		if ((null != o) && (o <= System.currentTimeMillis())) del(key);
+	}
 }
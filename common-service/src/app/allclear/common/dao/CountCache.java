@@ -0,0 +1,91 @@
+package app.allclear.common.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Bounded, in-process cache of recent search COUNTs keyed by the normalized query. Provides the totals for searches
+ *  that request an estimated count. Entries expire after a short time-to-live and are not invalidated by writes
+ *  because the totals are only presented as estimates.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class CountCache
+{
+	public static final int MAX_ENTRIES = 1000;
+	public static final long TTL = 60000L;	// Milliseconds that a COUNT is used as an estimate.
+
+	/** Represents a single cached COUNT. */
+	private static class Entry
+	{
+		final long value;
+		final long expiresAt;
+
+		Entry(final long value, final long expiresAt)
+		{
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	private final int maxEntries;
+	private final long ttl;
+	private final Map<String, Entry> entries;
+
+	public CountCache()
+	{
+		this(MAX_ENTRIES, TTL);
+	}
+
+	public CountCache(final int maxEntries, final long ttl)
+	{
+		this.maxEntries = maxEntries;
+		this.ttl = ttl;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {	// Access order - least recently used first.
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest)
+			{
+				return (size() > CountCache.this.maxEntries);
+			}
+		};
+	}
+
+	/** Gets the cached COUNT.
+	 *
+	 * @param key
+	 * @return NULL if not found or expired.
+	 */
+	public synchronized Long get(final String key)
+	{
+		var o = entries.get(key);
+		if (null == o) return null;
+		if (System.currentTimeMillis() < o.expiresAt) return o.value;
+
+		entries.remove(key);
+		return null;
+	}
+
+	/** Caches the COUNT.
+	 *
+	 * @param key
+	 * @param value
+	 * @return the supplied value.
+	 */
+	public synchronized long put(final String key, final long value)
+	{
+		entries.put(key, new Entry(value, System.currentTimeMillis() + ttl));
+
+		return value;
+	}
+
+	/** Removes all entries. */
+	public synchronized void clear() { entries.clear(); }
+
+	/** Number of cached COUNTs. */
+	public synchronized int size() { return entries.size(); }
+}
@@ -0,0 +1,144 @@
+package app.allclear.common.dao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigDecimal;
+import java.util.Base64;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import app.allclear.common.ObjectUtils;
+import app.allclear.common.errors.ValidationException;
+
+/** Value object that represents the position of the last record of a keyset (seek) paginated query.
+ *  Serialized to an opaque, URL safe "after" token that is returned to the caller and passed back to fetch the next page.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class Keyset
+{
+	public static final String ID = "id";	// Entity identifier property.
+
+	private static final char SEPARATOR = '\u001F';	// ASCII unit separator - will not appear in the sort values.
+	private static final Pattern PATTERN_SEPARATOR = Pattern.compile(String.valueOf(SEPARATOR));
+	private static final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder decoder = Base64.getUrlDecoder();
+
+	public final String key;	// The OrderByBuilder sort key.
+	public final Object value;	// The sort field value of the last record. Can be NULL.
+	public final Object id;	// The identifier of the last record - breaks ties on the sort field.
+
+	public Keyset(final String key, final Object value, final Object id)
+	{
+		this.key = key;
+		this.value = value;
+		this.id = id;
+	}
+
+	/** Serializes the keyset to the opaque "after" token.
+	 *
+	 * @return never NULL.
+	 * @throws ValidationException if the sort value type is not supported.
+	 */
+	public String encode() throws ValidationException
+	{
+		var o = new StringBuilder(key).append(SEPARATOR).append(toText(value)).append(SEPARATOR).append(toText(id));
+
+		return encoder.encodeToString(o.toString().getBytes(UTF_8));
+	}
+
+	/** Deserializes the opaque "after" token.
+	 *
+	 * @param token
+	 * @return NULL if the token is blank - indicates the first page.
+	 * @throws ValidationException if the token is malformed.
+	 */
+	public static Keyset decode(final String token) throws ValidationException
+	{
+		if (StringUtils.isBlank(token)) return null;
+
+		try
+		{
+			var values = PATTERN_SEPARATOR.split(new String(decoder.decode(token.trim()), UTF_8), -1);
+			if ((3 != values.length) || values[0].isEmpty()) throw new IllegalArgumentException("Wrong number of fields: " + values.length);
+
+			var id = fromText(values[2]);
+			if (null == id) throw new IllegalArgumentException("Missing identifier.");
+
+			return new Keyset(values[0], fromText(values[1]), id);
+		}
+		catch (final IllegalArgumentException ex)
+		{
+			throw new ValidationException("after", "The 'after' token is invalid.");
+		}
+	}
+
+	/** Reads a property value from a query result record. Used to build the keyset of the last record on a page.
+	 *
+	 * @param record
+	 * @param property
+	 * @return the property value - can be NULL.
+	 * @throws IllegalArgumentException if the property cannot be read.
+	 */
+	public static Object read(final Object record, final String property) throws IllegalArgumentException
+	{
+		var name = StringUtils.capitalize(property);
+		try
+		{
+			if (null != MethodUtils.getAccessibleMethod(record.getClass(), "get" + name))
+				return MethodUtils.invokeMethod(record, "get" + name);
+			if (null != MethodUtils.getAccessibleMethod(record.getClass(), "is" + name))
+				return MethodUtils.invokeMethod(record, "is" + name);
+
+			return FieldUtils.readField(record, property, true);
+		}
+		catch (final ReflectiveOperationException ex)
+		{
+			throw new IllegalArgumentException("Could not read the '" + property + "' property of " + record.getClass().getName() + ".", ex);
+		}
+	}
+
+	/** Helper method - converts a sort or identifier value to its type tagged text. */
+	static String toText(final Object value) throws ValidationException
+	{
+		if (null == value) return "0";
+		if (value instanceof String) return "S" + value;
+		if (value instanceof Long) return "L" + value;
+		if (value instanceof Integer) return "I" + value;
+		if (value instanceof Boolean) return "B" + value;
+		if (value instanceof BigDecimal) return "N" + ((BigDecimal) value).toPlainString();
+		if (value instanceof Date) return "D" + ((Date) value).getTime();
+
+		throw new ValidationException("sortOn", "The sort value type, " + value.getClass().getSimpleName() + ", does not support the 'after' token.");
+	}
+
+	/** Helper method - converts the type tagged text back to its value. */
+	static Object fromText(final String value) throws IllegalArgumentException
+	{
+		if (value.isEmpty()) throw new IllegalArgumentException("Missing value.");
+
+		var text = value.substring(1);
+		switch (value.charAt(0))
+		{
+			case '0': return null;
+			case 'S': return text;
+			case 'L': return Long.valueOf(text);
+			case 'I': return Integer.valueOf(text);
+			case 'B': return Boolean.valueOf(text);
+			case 'N': return new BigDecimal(text);
+			case 'D': return new Date(Long.parseLong(text));
+			default: throw new IllegalArgumentException("Invalid type: " + value.charAt(0));
+		}
+	}
+
+	@Override
+	public String toString() { return ObjectUtils.toString(this); }
+}
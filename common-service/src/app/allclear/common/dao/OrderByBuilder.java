@@ -173,6 +173,29 @@ public class OrderByBuilder
 		return sort;
 	}
 
+	/** Prefixes the entity property with the default alias. Used to build the identifier tie-breaker for keyset pagination.
+	 *
+	 * @param property
+	 * @return never NULL.
+	 */
+	public String field(final String property)
+	{
+		return (null != defaultAlias) ? defaultAlias + property : property;
+	}
+
+	/** Finds the entity property that backs the sort. Only sorts on a property of the root entity can be used for keyset pagination.
+	 *
+	 * @param sort
+	 * @return NULL if the sort is on a joined entity or a calculated field.
+	 */
+	public String property(final Sort sort)
+	{
+		if (null != sort.joins) return null;
+		if (null == defaultAlias) return sort.field;
+
+		return sort.field.startsWith(defaultAlias) ? sort.field.substring(defaultAlias.length()) : null;
+	}
+
 	/** Helper method - converts a key and sort value to a Sort object. */
 	private Sort toSort(final String key, String dir)
 	{
@@ -11,6 +11,8 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.*;
 
+import app.allclear.common.errors.ValidationException;
+
 /** Abstract builder class that helps construct database queries including joins and where clause.
  *  Can be used by Hibernate or JDBI to implement framework specified query builders.
  * 
@@ -31,6 +33,7 @@ public abstract class QueryBuilder<T>
 	public final Class<T> entity;
 	public final String groupBy;
 	public Sort orderBy;
+	public String seekId;	// Identifier field appended to the ORDER BY clause as a tie-breaker for keyset pagination.
 	public final StringBuilder where = new StringBuilder();
 	private String conjunction = AND;
 	public final Map<String, Object> parameters = new HashMap<>();
@@ -287,6 +290,134 @@ public abstract class QueryBuilder<T>
 		return this;
 	}
 
+	/** Adds the keyset (seek) pagination segment. Orders by the sort field and the identifier. If a keyset is provided,
+	 *  only records that follow it are included: <tt>WHERE (sortField, id) &gt; (:afterValue, :afterId)</tt> expanded
+	 *  for ascending/descending sorts and NULL sort values (NULLs sort first when ascending). Call after all other segments.
+	 *
+	 * @param sort
+	 * @param idField identifier field including its alias.
+	 * @param after the last record of the previous page - NULL for the first page.
+	 * @return SELF
+	 */
+	public QueryBuilder<T> seek(final Sort sort, final String idField, final Keyset after)
+	{
+		orderBy(sort);
+		seekId = idField;
+		if (null == after) return this;
+
+		var f = sort.field;
+		var op = sort.asc ? " > " : " < ";
+		var afterId = idField + op + ":afterId";
+		parameters.put("afterId", after.id);
+
+		if (f.equals(idField))
+			seek(afterId);
+		else if (null == after.value)
+			seek(sort.asc ? "(" + f + " IS NOT NULL OR " + afterId + ")" : "(" + f + " IS NULL AND " + afterId + ")");
+		else
+		{
+			parameters.put("afterValue", after.value);
+			seek("(" + f + op + ":afterValue OR (" + f + " = :afterValue AND " + afterId + ")" + (sort.asc ? "" : " OR " + f + " IS NULL") + ")");
+		}
+
+		return this;
+	}
+
+	/** Helper method - ANDs the keyset segment to the WHERE clause regardless of the current conjunction. */
+	private void seek(final String segment)
+	{
+		if (0 < where.length())
+		{
+			if (OR.equals(conjunction)) where.insert(0, '(').append(')');
+			where.append(AND);
+		}
+		where.append(segment);
+	}
+
+	/** Runs the query in keyset (seek) mode. The "after" token on the results' filter positions the page. No OFFSET is used and
+	 *  no COUNT is performed. Sets the "after" token on the results when there is another page.
+	 *
+	 * @param order the acceptable sorts - used to normalize the results' sort and to find the backing entity property.
+	 * @param results provides the sort, page size, and the "after" token.
+	 * @return the page of records.
+	 * @throws ValidationException if the sort does not support keyset pagination or the "after" token is invalid.
+	 */
+	public List<T> seek(final OrderByBuilder order, final QueryResults<?, ?> results) throws ValidationException
+	{
+		var sort = order.normalize(results);
+		var property = order.property(sort);
+		if (null == property) throw new ValidationException("sortOn", "The '" + sort.key + "' sort does not support the 'after' token.");
+
+		var after = Keyset.decode(results.filter.after);
+		if ((null != after) && !sort.key.equals(after.key)) throw new ValidationException("after", "The 'after' token does not match the '" + sort.key + "' sort.");
+
+		var records = seek(sort, order.field(Keyset.ID), after).run(0, results.pageSize + 1);	// Fetch an extra record to determine if there is another page.
+		if (records.size() <= results.pageSize) return records;
+
+		records = new ArrayList<>(records.subList(0, results.pageSize));
+		var last = records.get(results.pageSize - 1);
+		results.after = new Keyset(sort.key, Keyset.read(last, property), Keyset.read(last, Keyset.ID)).encode();
+
+		return records;
+	}
+
+	/** Counts the records per the filter's count mode and creates the results. An exact count runs the COUNT. An estimated
+	 *  count uses the cached COUNT of the same query when available. No count skips the COUNT. Queries run with the
+	 *  results of an estimated or skipped count fetch an extra record to determine if there is another page.
+	 *
+	 * @param select aggregate SELECT and FROM clause.
+	 * @param filter
+	 * @param cache recent COUNTs - optional. When NULL, an estimated count is exact.
+	 * @return never NULL.
+	 * @throws ValidationException if the count mode is invalid.
+	 */
+	public <V, F extends QueryFilter> QueryResults<V, F> count(final String select, final F filter, final CountCache cache) throws ValidationException
+	{
+		return count(select, filter, QueryResults.PAGE_SIZE_DEFAULT, cache);
+	}
+
+	/** Counts the records per the filter's count mode and creates the results.
+	 *
+	 * @param select aggregate SELECT and FROM clause.
+	 * @param filter
+	 * @param pageSizeDefault
+	 * @param cache recent COUNTs - optional. When NULL, an estimated count is exact.
+	 * @return never NULL.
+	 * @throws ValidationException if the count mode is invalid.
+	 */
+	public <V, F extends QueryFilter> QueryResults<V, F> count(final String select, final F filter, final int pageSizeDefault, final CountCache cache)
+		throws ValidationException
+	{
+		var mode = filter.count();
+		if (null == mode) throw new ValidationException("count", "The count '" + filter.count + "' is invalid. Please use 'exact', 'estimated', or 'none'.");
+		if (QueryFilter.Count.none == mode) return new QueryResults<>(QueryResults.TOTAL_UNKNOWN, filter, pageSizeDefault, false);
+		if (null == cache) return new QueryResults<>(aggregate(select), filter, pageSizeDefault);
+
+		var key = countKey(select);
+		if (QueryFilter.Count.estimated == mode)
+		{
+			var o = cache.get(key);
+			if (null != o) return new QueryResults<>(o, filter, pageSizeDefault, false);
+		}
+
+		return new QueryResults<>(cache.put(key, aggregate(select)), filter, pageSizeDefault);
+	}
+
+	/** Builds the key of the COUNT cache from the normalized query. Excludes the ORDER BY clause and sorts the parameters.
+	 *
+	 * @param select aggregate SELECT and FROM clause.
+	 * @return never NULL.
+	 */
+	public String countKey(final String select)
+	{
+		var o = new StringBuilder(select);
+		joins.forEach(v -> o.append(" ").append(v));
+		if (0 < where.length()) o.append(" WHERE ").append(where);
+		if (null != groupBy) o.append(" ").append(groupBy);
+
+		return o.append(" ").append(new TreeMap<>(parameters)).toString();
+	}
+
 	/** Sets the sort. */
 	public QueryBuilder<T> orderBy(final Sort value)
 	{
@@ -320,7 +451,11 @@ public abstract class QueryBuilder<T>
 			results.append(" ").append(groupBy);
 
 		if (null != orderBy)
+		{
 			results.append(" ORDER BY ").append(orderBy.field).append(" ").append(orderBy.dir);
+			if ((null != seekId) && !seekId.equals(orderBy.field))
+				results.append(", ").append(seekId).append(" ").append(orderBy.dir);
+		}
 
 		if (log.isDebugEnabled())
 			log.debug("QUERY-BUILDER-SQL: {} [ {} ]", results.toString(), parameters.entrySet().stream().map(o -> o.getKey() + ": " + o.getValue()).collect(joining(", ")));
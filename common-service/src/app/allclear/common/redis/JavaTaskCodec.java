@@ -0,0 +1,43 @@
+package app.allclear.common.redis;
+
+import java.io.*;
+import java.util.Base64;
+
+import app.allclear.common.task.TaskRequest;
+
+/** TaskCodec that uses Base64 encoded Java serialization. Keeps the value's type in the class descriptors so the value's class
+ *  is not needed to decode. The original RedisQueue format.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class JavaTaskCodec implements TaskCodec
+{
+	public static final String PREFIX = "rO0";	// Base64 of the serialization stream magic number.
+
+	@Override
+	public String encode(final TaskRequest<?> value) throws IOException
+	{
+		var out = new ByteArrayOutputStream();
+		(new ObjectOutputStream(out)).writeObject(value);
+
+		return Base64.getEncoder().encodeToString(out.toByteArray());
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> TaskRequest<T> decode(final String value, final Class<T> clazz) throws IOException
+	{
+		try
+		{
+			return (TaskRequest<T>) (new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value)))).readObject();
+		}
+		catch (final ClassNotFoundException ex) { throw new IOException(ex); }
+	}
+
+	@Override
+	public boolean accepts(final String value) { return value.startsWith(PREFIX); }
+}
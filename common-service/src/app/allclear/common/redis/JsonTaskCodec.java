@@ -0,0 +1,47 @@
+package app.allclear.common.redis;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.task.TaskRequest;
+
+/** TaskCodec that uses JSON. Much smaller than Java serialization since the value's type is supplied by the TaskOperator instead
+ *  of being written with every request. Without the type, i.e. when listing a queue, the value is decoded as a Map.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class JsonTaskCodec implements TaskCodec
+{
+	private final ObjectMapper mapper;
+
+	public JsonTaskCodec()
+	{
+		this(JacksonUtils.createMapper());
+	}
+
+	public JsonTaskCodec(final ObjectMapper mapper)
+	{
+		this.mapper = mapper;
+	}
+
+	@Override
+	public String encode(final TaskRequest<?> value) throws IOException
+	{
+		return mapper.writeValueAsString(value);
+	}
+
+	@Override
+	public <T> TaskRequest<T> decode(final String value, final Class<T> clazz) throws IOException
+	{
+		return mapper.readValue(value, mapper.getTypeFactory().constructParametricType(TaskRequest.class, (null != clazz) ? clazz : Object.class));
+	}
+
+	@Override
+	public boolean accepts(final String value) { return value.startsWith("{"); }
+}
@@ -5,6 +5,7 @@ import java.util.*;
 import java.util.function.Function;
 
 import redis.clients.jedis.*;
+import redis.clients.jedis.params.SetParams;
 
 import com.codahale.metrics.health.HealthCheck;
 
@@ -26,6 +27,23 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 	/** Represents the return value from the "remove" method if no keys were removed. */
 	public static final String EMPTY = "0";
 
+	/** Lease keys and scripts. The scripts only act while the lease key still holds the caller's fencing token. DLS on 10/17/2026. */
+	public static final String LEASE_KEY = "lease:%s";
+	public static final String LEASE_FENCE = "lease:%s:fence";
+	public static final Long LEASE_LOST = Long.valueOf(-1L);
+	public static final String LEASE_RENEW = guarded("'pexpire', KEYS[1], ARGV[2]");
+	public static final String LEASE_RELEASE = guarded("'del', KEYS[1]");
+	public static final String LEASE_HASH = guarded("'hset', KEYS[2], ARGV[2], ARGV[3]");
+	public static final String LEASE_EXPIRE = guarded("'pexpire', KEYS[2], ARGV[2]");
+	private static String guarded(final String command) { return "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call(" + command + ") else return " + LEASE_LOST + " end"; }
+	public static String leaseKey(final String name) { return String.format(LEASE_KEY, name); }
+	public static String leaseFence(final String name) { return String.format(LEASE_FENCE, name); }
+
+	/** Scripts that atomically move the due members of a sorted set onto the right or left end of a list. DLS on 10/17/2026. */
+	public static final String PROMOTE = promote("rpush");
+	public static final String PROMOTE_LEFT = promote("lpush");
+	private static String promote(final String command) { return "local ids = redis.call('zrangebyscore', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2]) for _, id in ipairs(ids) do redis.call('zrem', KEYS[1], id) redis.call('" + command + "', KEYS[2], id) end return #ids"; }
+
 	/** Jedis connection pool. */
 	private final JedisPool pool;
 
@@ -268,6 +286,76 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 		}
 	}
 
+	/** Adds a textual value to the left end of the specified Redis queue. Used with "take", which removes from the right end.
+	 * 
+	 * @param queueName
+	 * @param value
+	 */
+	public void offer(final String queueName, final String value)
+	{
+		try (var cache = pool.getResource()) { cache.lpush(queueName, value); }
+	}
+
+	/** Moves the oldest value of the specified Redis queue onto a processing list so that the value is not lost if the caller
+	 *  fails before removing it from the processing list with "unqueue".
+	 * 
+	 * @param queueName
+	 * @param processing
+	 * @param timeout seconds to block while the queue is empty. Zero does not block.
+	 * @return NULL if the queue is empty.
+	 */
+	public String take(final String queueName, final String processing, final int timeout)
+	{
+		try (var cache = pool.getResource())
+		{
+			return (0 < timeout) ? cache.brpoplpush(queueName, processing, timeout) : cache.rpoplpush(queueName, processing);
+		}
+	}
+
+	/** Moves all the values of a processing list back onto the specified Redis queue.
+	 * 
+	 * @param processing
+	 * @param queueName
+	 * @return the number of values moved.
+	 */
+	public int requeue(final String processing, final String queueName)
+	{
+		int count = 0;
+		try (var cache = pool.getResource())
+		{
+			while (null != cache.rpoplpush(processing, queueName)) count++;
+		}
+
+		return count;
+	}
+
+	/** Lists a range of items from the specified Redis queue.
+	 * 
+	 * @param queueName
+	 * @param start zero-based index of the first item.
+	 * @param stop zero-based index of the last item. Negative counts from the end.
+	 * @return empty if none found.
+	 */
+	public List<String> range(final String queueName, final long start, final long stop)
+	{
+		try (var cache = pool.getResource()) { return cache.lrange(queueName, start, stop); }
+	}
+
+	/** Atomically moves the members of a sorted set with a score at or below the maximum onto a Redis queue in score order.
+	 * 
+	 * @param key sorted set.
+	 * @param queueName
+	 * @param max highest score to move.
+	 * @param limit maximum number of members to move.
+	 * @param left TRUE to add to the left end of the queue for use with "take". FALSE to add to the right end for use with "pop".
+	 * @return the number of members moved.
+	 */
+	public int promote(final String key, final String queueName, final long max, final int limit, final boolean left)
+	{
+		var o = operation(j -> j.eval(left ? PROMOTE_LEFT : PROMOTE, List.of(key, queueName), List.of(Long.toString(max), Integer.toString(limit))));
+		return (null != o) ? ((Long) o).intValue() : 0;
+	}
+
 	/** Gets the number of items in the specified Redis queue.
 	 * 
 	 * @param queueName
@@ -320,6 +408,56 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 		try (var cache = pool.getResource()) { cache.srem(key, values); }
 	}
 
+	/*******************************************************************************************************************
+	 * 
+	 * Sorted set methods
+	 * 
+	 ******************************************************************************************************************/
+
+	/** Adds a textual item to the specified Redis sorted set or changes its score.
+	 * 
+	 * @param key
+	 * @param score
+	 * @param value
+	 */
+	public void zset(final String key, final double score, final String value)
+	{
+		try (var cache = pool.getResource()) { cache.zadd(key, score, value); }
+	}
+
+	/** Lists a range of items from the specified Redis sorted set in score order.
+	 * 
+	 * @param key
+	 * @param start zero-based index of the first item.
+	 * @param stop zero-based index of the last item. Negative counts from the end.
+	 * @return empty if none found.
+	 */
+	public List<String> zset(final String key, final long start, final long stop)
+	{
+		try (var cache = pool.getResource()) { return new ArrayList<>(cache.zrange(key, start, stop)); }
+	}
+
+	/** Gets the size of the sorted set.
+	 * 
+	 * @param key
+	 * @return zero if the sorted set does not exist.
+	 */
+	public int zsetSize(final String key)
+	{
+		try (var cache = pool.getResource()) { return cache.zcard(key).intValue(); }
+	}
+
+	/** Removes one or more items from the specified Redis sorted set.
+	 * 
+	 * @param key
+	 * @param values
+	 * @return the number of items removed.
+	 */
+	public int unzset(final String key, final String... values)
+	{
+		try (var cache = pool.getResource()) { return cache.zrem(key, values).intValue(); }
+	}
+
 	/*******************************************************************************************************************
 	 * 
 	 * Hash/map methods
@@ -358,6 +496,31 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 		try (var cache = pool.getResource()) { return cache.hgetAll(key); }
 	}
 
+	/** Gets several values from the hash/map by key and fields.
+	 * 
+	 * @param key
+	 * @param fields
+	 * @return a value per field in the same order. NULL for each field that is not found.
+	 */
+	public List<String> hash(final String key, final List<String> fields)
+	{
+		if (fields.isEmpty()) return List.of();
+
+		try (var cache = pool.getResource()) { return cache.hmget(key, fields.toArray(new String[fields.size()])); }
+	}
+
+	/** Adds a key-value pair to a hash/map only if the field is not already set.
+	 * 
+	 * @param key
+	 * @param field
+	 * @param value
+	 * @return TRUE if added.
+	 */
+	public boolean hashIfAbsent(final String key, final String field, final String value)
+	{
+		try (var cache = pool.getResource()) { return 0L < cache.hsetnx(key, field, value); }
+	}
+
 	/** Adds key-value pairs to a hash/map.
 	 * 
 	 * @param key
@@ -383,10 +546,95 @@ public class RedisClient extends HealthCheck implements Closeable, Map<String, S
 	 * 
 	 * @param key
 	 * @param field
+	 * @return the number of fields removed.
+	 */
+	public int unhash(final String key, final String... fields)
+	{
+		try (var cache = pool.getResource()) { return cache.hdel(key, fields).intValue(); }
+	}
+
+	/*******************************************************************************************************************
+	 * 
+	 * Lease methods
+	 * 
+	 ******************************************************************************************************************/
+
+	/** Acquires an exclusive lease (SET NX PX) with a new fencing token.
+	 * 
+	 * @param name identifies the leased resource.
+	 * @param millis duration of the lease.
+	 * @return NULL if the lease is held by another owner.
 	 */
-	public void unhash(final String key, final String... fields)
+	public RedisLease lease(final String name, final long millis)
 	{
-		try (var cache = pool.getResource()) { cache.hdel(key, fields); }
+		var key = leaseKey(name);
+		return operation(j -> {
+			var token = j.incr(leaseFence(name));
+			return "OK".equals(j.set(key, token.toString(), SetParams.setParams().nx().px(millis))) ? new RedisLease(name, key, token) : null;
+		});
+	}
+
+	/** Extends a lease that is still held.
+	 * 
+	 * @param lease
+	 * @param millis new duration of the lease from now.
+	 * @return FALSE if the lease has been lost.
+	 */
+	public boolean renew(final RedisLease lease, final long millis)
+	{
+		return guarded(lease, LEASE_RENEW, List.of(lease.key), Long.toString(millis));
+	}
+
+	/** Releases a lease if it is still held.
+	 * 
+	 * @param lease
+	 * @return FALSE if the lease had already been lost.
+	 */
+	public boolean release(final RedisLease lease)
+	{
+		return guarded(lease, LEASE_RELEASE, List.of(lease.key));
+	}
+
+	/** Indicates that the lease is still held. */
+	public boolean leased(final RedisLease lease)
+	{
+		return Long.toString(lease.token).equals(get(lease.key));
+	}
+
+	/** Adds a key-value pair to a hash/map only while the lease is held. Used to write checkpoints that a lease holder
+	 *  that has been replaced can no longer overwrite.
+	 * 
+	 * @param lease
+	 * @param key
+	 * @param field
+	 * @param value
+	 * @return FALSE if the lease has been lost.
+	 */
+	public boolean hash(final RedisLease lease, final String key, final String field, final String value)
+	{
+		return guarded(lease, LEASE_HASH, List.of(lease.key, key), field, value);
+	}
+
+	/** Sets the expiration of a key only while the lease is held.
+	 * 
+	 * @param lease
+	 * @param key
+	 * @param millis
+	 * @return FALSE if the lease has been lost.
+	 */
+	public boolean expire(final RedisLease lease, final String key, final long millis)
+	{
+		return guarded(lease, LEASE_EXPIRE, List.of(lease.key, key), Long.toString(millis));
+	}
+
+	/** Helper method - runs a script that only acts while the lease key holds the lease's fencing token. */
+	private boolean guarded(final RedisLease lease, final String script, final List<String> keys, final String... args)
+	{
+		var values = new ArrayList<String>(args.length + 1);
+		values.add(Long.toString(lease.token));
+		values.addAll(Arrays.asList(args));
+
+		return !LEASE_LOST.equals(operation(j -> j.eval(script, keys, values)));
 	}
 
 	/** Runs the specified function with a Jedis cache. Used to perform multi Redis cache actions with the same connection.
@@ -0,0 +1,33 @@
+package app.allclear.common.redis;
+
+import java.io.Serializable;
+
+import app.allclear.common.ObjectUtils;
+
+/** Value object that represents an exclusive, expiring lease held in Redis. The token is a fencing token: each lease granted
+ *  for the same name receives a higher token, so a write guarded by the token is rejected once the lease has been lost.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class RedisLease implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public final String name;
+	public final String key;
+	public final long token;
+
+	public RedisLease(final String name, final String key, final long token)
+	{
+		this.name = name;
+		this.key = key;
+		this.token = token;
+	}
+
+	@Override
+	public String toString() { return ObjectUtils.toString(this); }
+}
@@ -1,15 +1,37 @@
 package app.allclear.common.redis;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import app.allclear.common.task.TaskQueue;
 import app.allclear.common.task.TaskRequest;
 
 /** Represents an in-memory Task Queue.
+ *  The requests are written with the supplied TaskCodec. The requests are read with whichever codec wrote them so that the
+ *  codec can be changed with a rolling deploy: first deploy every node with the new code but the same codec, and then switch
+ *  the codec.
+ * 
+ *  By default, the requests are written in full to the list so that nodes running earlier versions can still read them.
+ *  Once every node runs this version, "withIds" switches the list to only hold the request IDs. The request bodies are then
+ *  stored in a hash per queue keyed by the request ID so that a single request can be found, modified, or removed without
+ *  reading the list. Request IDs must be unique within a queue. Both formats are always read.
+ * 
+ *  Requests that are not ready are held in a sorted set per queue scored by their next run time. "promoteTasks" moves the
+ *  due requests onto the list with a single Lua script so that the list only holds runnable requests. Sizes and listings
+ *  include the delayed requests after the runnable ones.
+ * 
+ *  In reliable mode, requests are pushed onto the left end of the list and taken from the right end into a processing list
+ *  per worker, where they remain until acknowledged. The bodies of the in-flight requests are moved to a hash per worker so
+ *  that a request can be re-pushed onto its queue before the in-flight copy is acknowledged. Each worker holds a heartbeat
+ *  key while taking and processing requests. The in-flight requests of a worker whose heartbeat has expired are returned to the
+ *  queue by "reapTasks". A blocking take waits for at most MAX_WAIT so that idle workers do not hold the pooled connections.
+ *  Listings show the newest request first.
  * 
  * @author smalleyd
  * @version 1.0.0
@@ -19,108 +41,262 @@ import app.allclear.common.task.TaskRequest;
 
 public class RedisQueue implements TaskQueue
 {
+	public static final List<TaskCodec> CODECS = List.of(new JsonTaskCodec(), new JavaTaskCodec());	// Every format that can be read.
+	public static final String PROCESSING = "processing:%s";	// Set of the workers of a queue.
+	public static final String PROCESSING_LIST = "processing:%s:%s";	// In-flight requests of a single worker.
+	public static final String PROCESSING_ALIVE = "processing:%s:%s:alive";	// Heartbeat of a single worker.
+	public static final String PROCESSING_TASKS = "processing:%s:%s:tasks";	// In-flight request bodies of a single worker.
+	public static final String TASKS = "tasks:%s";	// Request bodies of a queue by request ID.
+	public static final String DELAYED = "delayed:%s";	// Request IDs of a queue that are not ready, scored by "nextRunAt".
+	public static final int PROMOTE_LIMIT = 1000;	// Maximum number of requests promoted by a single script call.
+	public static final long MAX_WAIT = 1000L;	// Longest blocking take in milliseconds. Each blocked take holds a pooled connection.
+
+	public static String processing(final String queueName) { return String.format(PROCESSING, queueName); }
+	public static String processing(final String queueName, final String worker) { return String.format(PROCESSING_LIST, queueName, worker); }
+	public static String alive(final String queueName, final String worker) { return String.format(PROCESSING_ALIVE, queueName, worker); }
+	public static String tasks(final String queueName) { return String.format(TASKS, queueName); }
+	public static String tasks(final String queueName, final String worker) { return String.format(PROCESSING_TASKS, queueName, worker); }
+	public static String delayed(final String queueName) { return String.format(DELAYED, queueName); }
+
 	private final RedisClient client;
+	private final TaskCodec codec;
+	private boolean reliable = false;
+	private boolean ids = false;	// Writes only the request IDs to the lists. Nodes running earlier versions cannot read them.
+	private final Map<String, Long> heartbeats = new ConcurrentHashMap<>();	// Next heartbeat renewal by heartbeat key.
 
-	/** Populator.
+	public RedisQueue withReliable(final boolean newValue) { reliable = newValue; return this; }
+	public RedisQueue withIds(final boolean newValue) { ids = newValue; return this; }
+
+	/** Populator - writes with Java serialization that can be read by nodes without the codecs.
 	 * 
 	 * @param client
 	 */
 	public RedisQueue(final RedisClient client)
+	{
+		this(client, new JavaTaskCodec());
+	}
+
+	/** Populator.
+	 * 
+	 * @param client
+	 * @param codec writes the requests.
+	 */
+	public RedisQueue(final RedisClient client, final TaskCodec codec)
 	{
 		this.client = client;
+		this.codec = codec;
 	}
 
 	@Override
 	public void pushTask(final String queueName, final TaskRequest<?> value)
 		throws Exception
 	{
-		// Use Java serialization instead of JSON because of the TaskRequest generics.
-		client.push(queueName, serialize(value));
+		var body = codec.encode(value);
+
+		// Store the body before the ID so that the ID is never popped without its body.
+		if (ids) client.hash(tasks(queueName), value.id, body);
+
+		var member = ids ? value.id : body;
+		if (!value.ready())
+			client.zset(delayed(queueName), value.nextRunAt, member);
+		else if (reliable)
+			client.offer(queueName, member);
+		else
+			client.push(queueName, member);
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T> TaskRequest<T> popTask(final String queueName, final Class<T> clazz)
 		throws Exception
 	{
-		// Use Java deserialization instead of JSON because of the TaskRequest generics.
-		var value = client.pop(queueName);
-		if (null != value)
-			return (TaskRequest<T>) deserialize(value);
+		String value = null;
+		while (null != (value = client.pop(queueName)))
+		{
+			if (inline(value)) return deserialize(value, clazz);
+
+			var body = client.hash(tasks(queueName), value);
+			if (null == body) continue;	// Removed by ID or already popped as a duplicate.
+
+			client.unhash(tasks(queueName), value);
+
+			return deserialize(body, clazz);
+		}
 
 		return null;
 	}
 
+	@Override
+	public <T> TaskRequest<T> getRequest(final String queueName, final String id, final Class<T> clazz) throws Exception
+	{
+		var body = client.hash(tasks(queueName), id);
+		if (null != body) return deserialize(body, clazz);
+
+		var value = find(queueName, id);
+		return (null != value) ? deserialize(value, clazz) : null;
+	}
+
+	@Override
+	public int promoteTasks(final String queueName) throws Exception
+	{
+		return promote(queueName, System.currentTimeMillis());
+	}
+
+	@Override
+	public boolean reliable() { return reliable; }
+
+	@Override
+	public <T> TaskRequest<T> takeTask(final String queueName, final String worker, final Class<T> clazz, final long timeout, final long expiration)
+		throws Exception
+	{
+		if (!reliable) return popTask(queueName, clazz);
+
+		// Renew the heartbeat at half its expiration to save the round trips on most takes.
+		if (System.currentTimeMillis() >= heartbeats.getOrDefault(alive(queueName, worker), 0L)) heartbeat(queueName, worker, expiration);
+
+		String value = null;
+		var wait = (0L < timeout) ? seconds(Math.min(timeout, MAX_WAIT)) : 0;
+		while (null != (value = client.take(queueName, processing(queueName, worker), wait)))
+		{
+			if (inline(value)) return deserialize(value, clazz).withReceipt(value);
+
+			var body = client.hash(tasks(queueName), value);
+			if (null == body)	// Removed by ID or already taken as a duplicate.
+			{
+				client.unqueue(processing(queueName, worker), value);
+				wait = 0;
+				continue;
+			}
+
+			// Move the body in flight so that the request can be re-pushed before it is acknowledged.
+			client.hash(tasks(queueName, worker), value, body);
+			client.unhash(tasks(queueName), value);
+
+			return deserialize(body, clazz).withReceipt(value);
+		}
+
+		return null;
+	}
+
+	@Override
+	public boolean heartbeat(final String queueName, final String worker, final long expiration) throws Exception
+	{
+		if (!reliable) return false;
+
+		var key = alive(queueName, worker);
+		client.set(processing(queueName), worker);
+		client.put(key, worker, seconds(expiration));
+		heartbeats.put(key, System.currentTimeMillis() + (expiration / 2L));
+
+		return true;
+	}
+
+	@Override
+	public boolean ackTask(final String queueName, final String worker, final TaskRequest<?> value) throws Exception
+	{
+		if (!reliable || (null == value.receipt())) return true;
+
+		var receipt = value.receipt();
+		if (!inline(receipt)) client.unhash(tasks(queueName, worker), receipt);
+
+		return client.unqueue(processing(queueName, worker), receipt);
+	}
+
+	@Override
+	public int reapTasks(final String queueName) throws Exception
+	{
+		if (!reliable) return 0;
+
+		var workers = client.set(processing(queueName));
+		if (CollectionUtils.isEmpty(workers))
+			return 0;
+
+		int count = 0;
+		for (var worker : new ArrayList<>(workers))
+		{
+			if (client.containsKey(alive(queueName, worker))) continue;
+
+			// Return the bodies before the IDs. Keep any body that was re-pushed before the worker stopped responding.
+			var bodies = client.hash(tasks(queueName, worker));
+			if (MapUtils.isNotEmpty(bodies))
+			{
+				bodies.forEach((k, v) -> client.hashIfAbsent(tasks(queueName), k, v));
+				client.remove(tasks(queueName, worker));
+			}
+
+			count+= client.requeue(processing(queueName, worker), queueName);
+			client.unset(processing(queueName), worker);
+		}
+
+		return count;
+	}
+
 	@Override
 	public int getQueueSize(final String queueName) throws Exception
 	{
-		return client.queueSize(queueName);
+		return client.queueSize(queueName) + client.zsetSize(delayed(queueName));
 	}
 
 	@Override
 	public List<TaskRequest<?>> listRequests(final String queueName) throws Exception
 	{
-		var values = client.list(queueName);
+		var values = ids(queueName);
 		if (CollectionUtils.isEmpty(values))
 			return null;
 
-		return values.stream().map(v -> (TaskRequest<?>) deserialize(v)).collect(Collectors.toList());
+		return bodies(queueName, values).stream().map(v -> (TaskRequest<?>) deserialize(v, null)).collect(Collectors.toList());
 	}
 
 	@Override
 	public List<TaskRequest<?>> listRequests(final String queueName, final int page,
 		int pageSize) throws Exception
 	{
-		var values = client.list(queueName, page, pageSize);
+		var values = ids(queueName, page, pageSize);
 		if (null == values)
 			return null;
 
-		return values.stream().map(v -> (TaskRequest<?>) deserialize(v)).collect(Collectors.toList());
+		return bodies(queueName, values).stream().map(v -> (TaskRequest<?>) deserialize(v, null)).collect(Collectors.toList());
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T> List<TaskRequest<T>> listRequests(final String queueName,
 		final Class<T> clazz) throws Exception
 	{
-		var values = client.list(queueName);
+		var values = ids(queueName);
 		if (CollectionUtils.isEmpty(values))
 			return null;
 
-		return values.stream().map(v -> (TaskRequest<T>) deserialize(v)).collect(Collectors.toList());
+		return bodies(queueName, values).stream().map(v -> deserialize(v, clazz)).collect(Collectors.toList());
 	}
 
 	@Override
 	public boolean removeRequest(final String queueName, final String id)
 	{
-		// Get the list of actual values. Needed to propertly perform the removal from the list/queue.
-		var values = client.list(queueName);
-		if (CollectionUtils.isEmpty(values))
-			return false;
-
-		// Loop throug and, deserialize one at a time to compare the IDs. Most likely will NOT need to deserialize the entire list. DLS on 10/9/2015.
-		for (var value : values)
+		// Removing the body is enough to drop the request. Remove the ID too so that the queue size stays accurate. DLS on 10/17/2026.
+		if (0 < client.unhash(tasks(queueName), id))
 		{
-			var request = (TaskRequest<?>) deserialize(value);
-			if (id.equals(request.id))
-			{
-				client.unqueue(queueName, value);
-				return true;
-			}
+			if (!client.unqueue(queueName, id)) client.unzset(delayed(queueName), id);
+			return true;
 		}
 
-		return false;
+		var value = find(queueName, id);
+		return (null != value) && (client.unqueue(queueName, value) || (0 < client.unzset(delayed(queueName), value)));
 	}
 
 	@Override
 	public int clearRequests(final String queueName) throws Exception
 	{
-		return client.unqueue(queueName);
+		var waiting = client.zsetSize(delayed(queueName));
+		client.remove(delayed(queueName));
+		client.remove(tasks(queueName));
+
+		return client.unqueue(queueName) + waiting;
 	}
 
 	@Override
 	public <T> int moveRequests(final String fromQueue, final String toQueue, final Class<T> clazz) throws Exception
 	{
+		promote(fromQueue, Long.MAX_VALUE);	// Move the delayed requests too.
+
 		int count = 0;
 		TaskRequest<T> value = null;
 		while (null != (value = popTask(fromQueue, clazz)))
@@ -133,24 +309,106 @@ public class RedisQueue implements TaskQueue
 		return count;
 	}
 
-	/** Helper method - serialize the class to a String. */
-	private String serialize(final Serializable value) throws IOException
+	/** Helper method - moves the delayed requests that are due by the specified time onto the list in batches.
+	 * 
+	 * @param queueName
+	 * @param max the latest "nextRunAt" to move.
+	 * @return number of requests moved.
+	 */
+	private int promote(final String queueName, final long max)
+	{
+		int count = 0, moved = 0;
+		do
+		{
+			count+= (moved = client.promote(delayed(queueName), queueName, max, PROMOTE_LIMIT, reliable));
+		}
+		while (PROMOTE_LIMIT == moved);
+
+		return count;
+	}
+
+	/** Helper method - lists the IDs of the runnable requests followed by the IDs of the delayed requests. */
+	private List<String> ids(final String queueName)
+	{
+		var values = new ArrayList<String>(client.list(queueName));
+		values.addAll(client.zset(delayed(queueName), 0L, -1L));
+
+		return values;
+	}
+
+	/** Helper method - lists a page of the IDs of the runnable requests followed by the IDs of the delayed requests.
+	 * 
+	 * @param queueName
+	 * @param page 1-based page number.
+	 * @param pageSize number of items on a page.
+	 * @return NULL if both are empty.
+	 */
+	private List<String> ids(final String queueName, final int page, final int pageSize)
+	{
+		long size = client.queueSize(queueName), total = size + client.zsetSize(delayed(queueName));
+		if (0L == total)
+			return null;
+
+		long first = (long) (page - 1) * pageSize, last = Math.min(first + pageSize, total) - 1L;
+		var values = new ArrayList<String>(pageSize);
+		if (first < size) values.addAll(client.range(queueName, first, Math.min(last, size - 1L)));
+		if (last >= size) values.addAll(client.zset(delayed(queueName), Math.max(first - size, 0L), last - size));
+
+		return values;
+	}
+
+	/** Helper method - indicates that the list value is a full request instead of a request ID. */
+	private boolean inline(final String value)
+	{
+		return codec.accepts(value) || CODECS.stream().anyMatch(o -> o.accepts(value));
+	}
+
+	/** Helper method - gets the bodies of the list values with a single HMGET. Skips the IDs that no longer have a body. */
+	private List<String> bodies(final String queueName, final List<String> values)
 	{
-		var out = new ByteArrayOutputStream();
-		(new ObjectOutputStream(out)).writeObject(value);
+		var ids = values.stream().filter(v -> !inline(v)).collect(Collectors.toList());
+		var found = client.hash(tasks(queueName), ids).iterator();
 
-		return Base64.getEncoder().encodeToString(out.toByteArray());
+		return values.stream().map(v -> inline(v) ? v : found.next()).filter(v -> null != v).collect(Collectors.toList());
 	}
 
-	/** Helper method - deserialize a String to a class. */
-	private Object deserialize(final String value)
+	/** Helper method - finds a request written in full to the list or to the delayed set.
+	 * 
+	 * @param queueName
+	 * @param id
+	 * @return NULL if not found.
+	 */
+	private String find(final String queueName, final String id)
+	{
+		// Get the list of actual values. Needed to propertly perform the removal from the list/queue.
+		var values = ids(queueName);
+		if (CollectionUtils.isEmpty(values))
+			return null;
+
+		// Loop throug and, deserialize one at a time to compare the IDs. Most likely will NOT need to deserialize the entire list. DLS on 10/9/2015.
+		for (var value : values)
+		{
+			if (inline(value) && id.equals(deserialize(value, null).id))
+				return value;
+		}
+
+		return null;
+	}
+
+	/** Helper method - converts milliseconds to whole seconds for the Redis commands. Rounds up to at least one second. */
+	private int seconds(final long millis) { return (int) Math.max(1L, (millis + 999L) / 1000L); }
+
+	/** Helper method - deserialize a String with the codec that wrote it. */
+	private <T> TaskRequest<T> deserialize(final String value, final Class<T> clazz)
 	{
 		// Throw Runtime so that deserialize can be used within a Lambda.
 		try
 		{
-			return (new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(value)))).readObject();
+			if (codec.accepts(value)) return codec.decode(value, clazz);
+			for (var o : CODECS) if (o.accepts(value)) return o.decode(value, clazz);
 		}
 		catch (final IOException ex) { throw new RuntimeException(ex); }
-		catch (final ClassNotFoundException ex) { throw new RuntimeException(ex); }
+
+		throw new IllegalArgumentException("The queue value '" + StringUtils.abbreviate(value, 32) + "' is not in a supported format.");
 	}
 }
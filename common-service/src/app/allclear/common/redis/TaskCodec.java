@@ -0,0 +1,30 @@
+package app.allclear.common.redis;
+
+import java.io.IOException;
+
+import app.allclear.common.task.TaskRequest;
+
+/** Interface that converts a TaskRequest to and from the textual value stored in a Redis queue.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public interface TaskCodec
+{
+	/** Converts the request to its queue value. */
+	public String encode(final TaskRequest<?> value) throws IOException;
+
+	/** Converts a queue value back to a request.
+	 *
+	 * @param value
+	 * @param clazz type of the request's value. NULL when unknown, i.e. when listing a queue.
+	 * @return never NULL
+	 */
+	public <T> TaskRequest<T> decode(final String value, final Class<T> clazz) throws IOException;
+
+	/** Indicates that the queue value was written by this codec. Used to read queues that hold a mix of formats. */
+	public boolean accepts(final String value);
+}
@@ -191,6 +191,23 @@ public class QueueResource
 		return value.withRecords(task.listDLQ(name, value.page, value.pageSize));
 	}
 
+	@GET
+	@Path("/{name}/concurrency") @Timed
+	@ApiOperation(value="getConcurrency", notes="Retrieves the concurrency settings of the specified queue's operator.", response=OperatorConcurrency.class)
+	public OperatorConcurrency getConcurrency(@PathParam("name") @ApiParam(name="name", value="Represents the name of the queue.") final String name) throws Exception
+	{
+		return task.concurrency(name);
+	}
+
+	@PUT
+	@Path("/{name}/concurrency") @Timed
+	@ApiOperation(value="updateConcurrency", notes="Changes the minimum & maximum number of threads and the weight of the specified queue's operator while running.", response=OperatorConcurrency.class)
+	public OperatorConcurrency updateConcurrency(@PathParam("name") @ApiParam(name="name", value="Represents the name of the queue.") final String name,
+		final OperatorConcurrency value) throws Exception
+	{
+		return task.concurrency(name, value);
+	}
+
 	@GET
 	@Path("/stats") @Timed
 	@ApiOperation(value="stats", notes="Retrieves the statistics for each operator in the TaskManager.", response=OperatorStats.class, responseContainer="List")
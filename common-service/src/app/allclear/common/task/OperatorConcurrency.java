@@ -0,0 +1,48 @@
+package app.allclear.common.task;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** Value object that represents the concurrency settings of a TaskOperator and the number of threads currently processing it.
+ * 
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class OperatorConcurrency implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public final String name;
+	public final int min;
+	public final int max;
+	public final int weight;
+	public final int running;	// Ignored on update.
+
+	public OperatorConcurrency(@JsonProperty("name") final String name,
+		@JsonProperty("min") final int min,
+		@JsonProperty("max") final int max,
+		@JsonProperty("weight") final int weight,
+		@JsonProperty("running") final int running)
+	{
+		this.name = name;
+		this.min = min;
+		this.max = max;
+		this.weight = weight;
+		this.running = running;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new StringBuilder("{ name: '").append(name)
+			.append("', min: ").append(min)
+			.append(", max: ").append(max)
+			.append(", weight: ").append(weight)
+			.append(", running: ").append(running)
+			.append(" }").toString();
+	}
+}
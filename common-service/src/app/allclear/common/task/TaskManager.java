@@ -1,9 +1,10 @@
 package app.allclear.common.task;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 import java.util.stream.Collectors;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.*;
 
 import io.dropwizard.lifecycle.Managed;
@@ -19,6 +20,16 @@ import app.allclear.common.jackson.JacksonUtils;
  *  NOTE: with some future release of Dropwizard, I hope that they include a
  *        better mechanism to queue & process tasks.
  *
+ *  With a reliable queue, each thread keeps the requests that it is processing in its own in-flight list until they are
+ *  handled, and an idle thread blocks on the queue of one of the operators, in turn, for up to the "sleep" duration instead
+ *  of sleeping. The in-flight requests of unresponsive threads, on any node, are periodically returned to their queues.
+ *
+ *  The background threads are a fixed pool shared by the operators. Each thread repeatedly takes the next operator that is
+ *  below its maximum concurrency and processes a batch of its requests. Operators below their minimum concurrency go first
+ *  unless their last batch came up empty, so an idle operator does not hold the threads that its minimum reserves.
+ *  Otherwise the operator that has received the least service relative to its weight goes next, so every operator with
+ *  requests is eventually served. The concurrency and weight can be changed while running.
+ *
  * @author smalleyd
  * @version 1.0.0
  * @since 3/22/2020
@@ -49,6 +60,11 @@ public class TaskManager implements Managed, Runnable
 	public void addOperator(TaskOperator<?> newValue) { operators.put(newValue.name, newValue); }
 	public TaskOperator<?> removeOperator(final String name) { return operators.remove(name); }
 
+	/** Represents the maximum number of requests that a background thread processes from one operator before moving to the next. */
+	public int getBatchSize() { return batchSize; }
+	private int batchSize = 100;
+	public TaskManager withBatchSize(final int newValue) { batchSize = newValue; return this; }
+
 	/** Represents the optional prefix to the queue. */
 	public String getQueuePrefix() { return queuePrefix; }
 	private String queuePrefix = "";
@@ -67,7 +83,7 @@ public class TaskManager implements Managed, Runnable
 	/** Represents the maximum time in seconds to delay the retry of a request. Leave open to externally configure. */
 	private long maxDelay = 60L * 60L;	// One hour.
 
-	private boolean noSuffocating = true;	// By default ensure that a single TaskOperator does not monopolize all the threads. DLS on 8/23/2017.
+	private boolean noSuffocating = true;	// By default ensure that a single TaskOperator does not monopolize all the threads. DLS on 8/23/2017. Caps each operator at its maxConcurrency. When off, each operator can use every thread. DLS on 10/17/2026.
 	public TaskManager withNoSuffocating(final boolean newValue) { noSuffocating = newValue; return this; } 
 
 	private Runnable beforeRun = null;	// Action to run at the start of each thread. DLS on 5/5/2018.
@@ -76,8 +92,24 @@ public class TaskManager implements Managed, Runnable
 	private Runnable afterRun = null;	// Action to run at the end of each thread. DLS on 5/5/2018.
 	public TaskManager withAfterRun(final Runnable newValue) { afterRun = newValue; return this; }
 
+	/** Represents the minimum duration in milliseconds between returning the in-flight requests of unresponsive threads to their queues. */
+	public long getReapInterval() { return reapInterval; }
+	private long reapInterval = 60000L;
+	public TaskManager withReapInterval(final long newValue) { reapInterval = newValue; return this; }
+
+	private final String node = UUID.randomUUID().toString();	// Distinguishes the in-flight lists of this instance from the other nodes. DLS on 10/17/2026.
+	private final AtomicInteger turn = new AtomicInteger();	// Next operator for an idle thread to wait on.
+	private final AtomicLong reapedAt = new AtomicLong(System.currentTimeMillis());
+
+	/** Scheduling state by operator name. Guarded by this instance. */
+	private final Map<String, Integer> running = new HashMap<>();	// Number of threads processing each operator.
+	private final Map<String, Double> passes = new HashMap<>();	// Service received by each operator divided by its weight.
+	private final Set<String> empty = new HashSet<>();	// Operators whose last batch found no requests. Their minimum concurrency is not reserved.
+
 	/** Executor of the threads. */
-	private List<Thread> executor = null;
+	private ExecutorService executor = null;
+	private ScheduledThreadPoolExecutor heartbeats = null;	// Renews the heartbeats of the threads while they process requests on a reliable queue. DLS on 10/17/2026.
+	private final List<Thread> workers = new CopyOnWriteArrayList<>();
 
 	/** Populator.
 	 * 
@@ -92,7 +124,6 @@ public class TaskManager implements Managed, Runnable
 			this.operators.put(o.name, o);
 
 		this.threads = threads;
-		this.executor = new ArrayList<>(threads);
 	}
 
 	/** Populator.
@@ -123,13 +154,26 @@ public class TaskManager implements Managed, Runnable
 	public void start() throws Exception
 	{
 		available = true;
-		Thread thread = null;
-		for (int i = 0; i < threads; i++)
-		{
-			executor.add(thread = new Thread(this));
+		var count = new AtomicInteger();
+		executor = Executors.newFixedThreadPool(threads, r -> {
+			var thread = new Thread(r);
 			thread.setDaemon(true);
-			thread.setName("TaskManager-" + i);
-			thread.start();
+			thread.setName("TaskManager-" + count.getAndIncrement());
+			workers.add(thread);
+
+			return thread;
+		});
+		for (int i = 0; i < threads; i++) executor.execute(this);
+
+		if (queue.reliable())
+		{
+			heartbeats = new ScheduledThreadPoolExecutor(1, r -> {
+				var thread = new Thread(r, "TaskManager-heartbeat");
+				thread.setDaemon(true);
+
+				return thread;
+			});
+			heartbeats.setRemoveOnCancelPolicy(true);	// One renewal is scheduled per request so drop each as soon as its request is done.
 		}
 	}
 
@@ -150,12 +194,21 @@ public class TaskManager implements Managed, Runnable
 	{
 		// Stop the thread when the current operation is over.
 		available = false;
+		if (null == executor) return;
 
 		// Do NOT exit until all threads have terminated.
-		while (executor.stream().anyMatch(Thread::isAlive))
+		executor.shutdown();
+		while (!executor.awaitTermination(100L, TimeUnit.MILLISECONDS) || workers.stream().anyMatch(Thread::isAlive))
 			Thread.sleep(100L);
 
-		executor.clear();
+		executor = null;
+		workers.clear();
+
+		if (null != heartbeats)
+		{
+			heartbeats.shutdownNow();
+			heartbeats = null;
+		}
 	}
 
 	@Override
@@ -163,14 +216,34 @@ public class TaskManager implements Managed, Runnable
 	{
 		if (null != beforeRun) beforeRun.run();
 
+		int idle = 0;	// Consecutive batches without a request.
 		while (available)
 		{
 			try
 			{
-				process();
+				if (0 < dispatch())
+					idle = 0;
 
-				// Give CPU a short break otherwise pegs the processor. DLS on 11/29/2016.
-				if (0L < sleep) Thread.sleep(sleep);
+				// Rest once every operator has come up empty. DLS on 10/17/2026.
+				else if (++idle >= Math.max(1, operators.size()))
+				{
+					idle = 0;
+					if (queue.reliable())
+					{
+						// Block on the queue when idle. Only sleep for the rest of the duration when the wait ended early without a request, i.e. requests not yet ready. DLS on 10/17/2026.
+						var time = System.currentTimeMillis();
+						if (0 == await())
+						{
+							var rest = sleep - (System.currentTimeMillis() - time);
+							if (0L < rest) Thread.sleep(rest);
+						}
+					}
+
+					// Give CPU a short break otherwise pegs the processor. DLS on 11/29/2016.
+					else if (0L < sleep) Thread.sleep(sleep);
+				}
+
+				if (queue.reliable()) reap();
 			}
 			catch (Throwable ex)	// Use Throwable to ensure that the thread never bombs out. DLS on 6/27/2016.
 			{
@@ -193,16 +266,172 @@ public class TaskManager implements Managed, Runnable
 				return count;
 
 			var operator = entry.getValue();
-			if (operator.available)	// Only one thread per instance of the TaskManager should be leveraged for a single task. Anymore could suffocate other tasks if a single task is way backed up. DLS on 8/3/2017.
+			if (acquire(operator))	// Limit the threads per operator. Anymore could suffocate other tasks if a single task is way backed up. DLS on 8/3/2017.
 			{
-				if (noSuffocating)
-					operator.available = false;
+				int processed = 0;
+				try { count+= (processed = process(operator, operator.clazz)); }
+				finally { release(operator, processed); }	// No matter what MUST make this call after processing (even on error) or it will become permanently unavailable! DLS on 8/3/2017.
+			}
+		}
+
+		return count;
+	}
+
+	/** Processes a batch of requests from the next operator in the schedule.
+	 * 
+	 * @return number of requests processed. Zero if the operator's queue was empty or every operator is at its maximum concurrency.
+	 */
+	public int dispatch() throws Exception
+	{
+		var operator = acquire();
+		if (null == operator)
+			return 0;
+
+		int count = 0;
+		try { return count = process(operator, operator.clazz, 0L, batchSize); }
+		finally { release(operator, count); }
+	}
+
+	/** Gets the concurrency settings of an operator.
+	 * 
+	 * @param name
+	 * @return never NULL.
+	 * @throws ValidationException if the queue does not exist.
+	 */
+	public synchronized OperatorConcurrency concurrency(final String name) throws ValidationException
+	{
+		var o = getOperator(name);
+		return new OperatorConcurrency(o.name, o.minConcurrency, o.maxConcurrency, o.weight, running.getOrDefault(o.name, 0));
+	}
+
+	/** Changes the concurrency settings of an operator. Takes effect as the threads move between operators.
+	 * 
+	 * @param name
+	 * @param value the "running" property is ignored.
+	 * @return the new settings.
+	 * @throws ValidationException if the queue does not exist or the settings are invalid.
+	 */
+	public synchronized OperatorConcurrency concurrency(final String name, final OperatorConcurrency value) throws ValidationException
+	{
+		var o = getOperator(name);
+		if (0 > value.min) throw new ValidationException("min", "The minimum concurrency cannot be less than zero.");
+		if (1 > value.max) throw new ValidationException("max", "The maximum concurrency must be at least one.");
+		if (value.min > value.max) throw new ValidationException("min", "The minimum concurrency cannot exceed the maximum concurrency.");
+		if (1 > value.weight) throw new ValidationException("weight", "The weight must be at least one.");
+
+		o.withConcurrency(value.min, value.max).withWeight(value.weight);
+
+		return concurrency(name);
+	}
 
-				try { count+= process(operator, operator.clazz); }
-				finally { operator.available = true; }	// No matter what MUST make this call after processing (even on error) or it will become permanently unavailable! DLS on 8/3/2017.
+	/** Helper method - takes the next operator to process. Operators below their minimum concurrency go first unless their last
+	 *  batch was empty, and then the operator with the least service relative to its weight. Ties go to the operator with the fewest threads.
+	 * 
+	 * @return NULL if every operator is at its maximum concurrency.
+	 */
+	private synchronized TaskOperator<?> acquire()
+	{
+		TaskOperator<?> value = null;
+		boolean reserved = false;
+		for (var o : operators.values())
+		{
+			var count = running.getOrDefault(o.name, 0);
+			if (!o.available || (count >= maxConcurrency(o)))
+				continue;
+
+			var below = (count < o.minConcurrency) && !empty.contains(o.name);
+			if ((null == value) || (below && !reserved) || ((below == reserved) && before(o, value)))
+			{
+				value = o;
+				reserved = below;
 			}
 		}
 
+		if (null != value)
+			running.merge(value.name, 1, Integer::sum);
+
+		return value;
+	}
+
+	/** Helper method - takes a specific operator if it is below its maximum concurrency. */
+	private synchronized boolean acquire(final TaskOperator<?> operator)
+	{
+		if (!operator.available || (running.getOrDefault(operator.name, 0) >= maxConcurrency(operator)))
+			return false;
+
+		running.merge(operator.name, 1, Integer::sum);
+		return true;
+	}
+
+	/** Helper method - returns a thread from an operator and charges the operator for the requests processed. An empty batch
+	 *  is charged as a full batch so that idle operators do not build up credit while they wait for requests.
+	 */
+	private synchronized void release(final TaskOperator<?> operator, final int count)
+	{
+		running.merge(operator.name, -1, Integer::sum);
+		if (0 < count) empty.remove(operator.name);
+		else empty.add(operator.name);
+
+		// Start new operators at the least service of the others so that they do not take over the threads to catch up.
+		var floor = operators.values().stream().filter(o -> o != operator).mapToDouble(o -> passes.getOrDefault(o.name, 0d)).min().orElse(0d);
+		var pass = passes.getOrDefault(operator.name, floor);
+		passes.put(operator.name, pass + ((double) ((0 < count) ? count : Math.max(1, batchSize))) / Math.max(1, operator.weight));
+	}
+
+	/** Helper method - indicates that the first operator has received less weighted service than the second. */
+	private boolean before(final TaskOperator<?> a, final TaskOperator<?> b)
+	{
+		var x = passes.getOrDefault(a.name, 0d);
+		var y = passes.getOrDefault(b.name, 0d);
+		if (x != y) return x < y;
+
+		return running.getOrDefault(a.name, 0) < running.getOrDefault(b.name, 0);
+	}
+
+	/** Helper method - gets the maximum number of threads for an operator. */
+	private int maxConcurrency(final TaskOperator<?> operator)
+	{
+		return noSuffocating ? operator.maxConcurrency : Math.max(operator.maxConcurrency, threads);
+	}
+
+	/** Waits up to the "sleep" duration for a request on the queue of the next operator, and then processes that queue.
+	 * 
+	 * @return number of requests processed.
+	 */
+	public int await() throws Exception
+	{
+		var values = new ArrayList<>(operators.values());
+		if (values.isEmpty() || !available)
+			return 0;
+
+		var operator = values.get(Math.floorMod(turn.getAndIncrement(), values.size()));
+		if (!acquire(operator))
+			return 0;
+
+		int count = 0;
+		try { return count = process(operator, operator.clazz, sleep, batchSize); }
+		finally { release(operator, count); }
+	}
+
+	/** Returns the in-flight requests of unresponsive threads to their queues at most once per "reapInterval" per instance.
+	 * 
+	 * @return number of requests returned.
+	 */
+	public int reap() throws Exception
+	{
+		var time = reapedAt.get();
+		var now = System.currentTimeMillis();
+		if ((now - time < reapInterval) || !reapedAt.compareAndSet(time, now))
+			return 0;
+
+		int count = 0;
+		for (var o : operators.values())
+		{
+			var reaped = queue.reapTasks(o.name);
+			if (0 < reaped) logger.warn("Reaped {} in-flight requests of unresponsive workers on {}.", reaped, o.name);
+			count+= reaped;
+		}
+
 		return count;
 	}
 
@@ -427,20 +656,15 @@ public class TaskManager implements Managed, Runnable
 	/** Processes a single item in a queue. */
 	public boolean process(final String name, final String id) throws Exception
 	{
-		// Get all the requests in the queue.
-		var queueName = queueName(name);
-		var requests = queue.listRequests(queueName);
-		if (CollectionUtils.isEmpty(requests))
-			throw new ValidationException("queueName", "No items in queue '" + name + "'.");
-
 		// Find the request.
-		var request = requests.stream().filter(v -> id.equals(v.id)).findFirst();
-		if (!request.isPresent())
+		var queueName = queueName(name);
+		var operator = getOperator_(queueName);
+		var request = queue.getRequest(queueName, id, operator.clazz);
+		if (null == request)
 			throw new ValidationException("id", String.format("The item '%s' was not found in queue '%s'.", id, name));
 
 		// Process request.
-		var operator = getOperator_(queueName);
-		boolean result = process(operator, request.get(), operator.clazz);
+		boolean result = process(operator, request, operator.clazz);
 
 		// Remove after successful processing of the request.
 		if (result) queue.removeRequest(queueName, id);
@@ -451,20 +675,15 @@ public class TaskManager implements Managed, Runnable
 	/** Processes a single item in a queue. */
 	public boolean processDLQ(final String name, final String id) throws Exception
 	{
-		// Get all the requests in the queue.
-		var queueName = dlqName(name);
-		var requests = queue.listRequests(queueName);
-		if (CollectionUtils.isEmpty(requests))
-			throw new ValidationException("queueName", "No items in queue '" + name + "'.");
-
 		// Find the request.
-		var request = requests.stream().filter(v -> id.equals(v.id)).findFirst();
-		if (!request.isPresent())
+		var queueName = dlqName(name);
+		var operator = getOperator_(queueName(name));
+		var request = queue.getRequest(queueName, id, operator.clazz);
+		if (null == request)
 			throw new ValidationException("id", String.format("The item '%s' was not found in DLQ '%s'.", id, name));
 
 		// Process request.
-		var operator = getOperator_(queueName(name));
-		boolean result = process(operator, request.get(), operator.clazz);
+		boolean result = process(operator, request, operator.clazz);
 
 		// Remove after successful processing of the request.
 		if (result) queue.removeRequest(queueName, id);
@@ -484,34 +703,70 @@ public class TaskManager implements Managed, Runnable
 			if (success)
 			{
 				op.callback.onSuccess(req);
-				operator.successes++;
+				operator.incrementSuccesses();
 			}
 			else
-				operator.skips++;
+				operator.incrementSkips();
 
 			return success;
 		}
 		catch (Exception ex)
 		{
-			operator.errors++;
+			operator.incrementErrors();
 
 			throw ex;
 		}
 	}
 
 	/** Processes the entire queue. */
-	@SuppressWarnings("unchecked")
 	public <T> int process(final TaskOperator<?> operator, final Class<T> clazz) throws Exception
+	{
+		return process(operator, clazz, 0L);
+	}
+
+	/** Processes the entire queue.
+	 * 
+	 * @param operator
+	 * @param clazz
+	 * @param wait milliseconds to wait for the first request of a reliable queue.
+	 * @return number of requests processed.
+	 * @throws Exception
+	 */
+	public <T> int process(final TaskOperator<?> operator, final Class<T> clazz, final long wait) throws Exception
+	{
+		return process(operator, clazz, wait, Integer.MAX_VALUE);
+	}
+
+	/** Processes the queue up to the limit.
+	 * 
+	 * @param operator
+	 * @param clazz
+	 * @param wait milliseconds to wait for the first request of a reliable queue.
+	 * @param limit maximum number of requests to take from the queue.
+	 * @return number of requests processed.
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> int process(final TaskOperator<?> operator, final Class<T> clazz, final long wait, final int limit) throws Exception
 	{
 		int count = 0;
 		TaskRequest<T> request = null;
 		var op = (TaskOperator<T>) operator;
 		var dlq = new LinkedList<TaskRequest<T>>();	// Dead letter queue for requests that have exceeded their maximum number of tries. DLS on 7/14/2016.
 		var skipped = new LinkedList<TaskRequest<T>>();
+		var worker = worker();
+		var expiration = Math.max(1000L, op.timeout * 1000L);	// In-flight requests are reaped once the worker is unresponsive for longer than a process attempt.
+		var timeout = wait;
+		int taken = 0;
+
+		queue.promoteTasks(operator.name);	// Delayed requests that are now ready. DLS on 10/17/2026.
 
 		// Include "available" property to ensure earliest possible exit when requested.
-		while (available && (null != (request = queue.popTask(operator.name, clazz))))
+		while (available && (taken < limit) && (null != (request = queue.takeTask(operator.name, worker, clazz, timeout, expiration))))
 		{
+			timeout = 0L;	// Only wait for the first request.
+			taken++;
+
 			// If the request has run the maximum number of tries, put in the dead letter queue (DLQ). DLS on 7/14/2016.
 			if (operator.maxTries <= request.tries)
 			{
@@ -530,15 +785,22 @@ public class TaskManager implements Managed, Runnable
 			{
 				final long time = System.currentTimeMillis();
 
+				// Keep the request in flight while a long process attempt runs past the heartbeat's expiration.
+				boolean processed;
+				var beat = heartbeat(op.name, worker, expiration);
+				try { processed = op.callback.process(request.value); }
+				finally { if (null != beat) beat.cancel(false); }
+
 				// Put back on queue if skipped.
-				if (op.callback.process(request.value))
+				if (processed)
 				{
 					op.callback.onSuccess(request);
-					op.successes++;
+					op.incrementSuccesses();
+					queue.ackTask(op.name, worker, request);
 				}
 				else
 				{
-					op.skips++;
+					op.incrementSkips();
 					skipped.add(request);
 				}
 
@@ -557,7 +819,7 @@ public class TaskManager implements Managed, Runnable
 
 			catch (final Exception ex)
 			{
-				op.errors++;
+				op.incrementErrors();
 
 				// Only log an error if this is at least the second try. Sometimes there is a timing issue with the first try
 				// before its originating transaction is complete.
@@ -572,19 +834,48 @@ public class TaskManager implements Managed, Runnable
 			}
 		}
 
-		// Re-add skipped items.
+		// Re-add skipped items. Acknowledge each only after its replacement is pushed.
 		if (!dlq.isEmpty())
 			for (var q : dlq)
+			{
 				queue.pushTask(operator.dlq, q);
+				queue.ackTask(operator.name, worker, q);
+			}
 
 		// Move items that have exceeded their maximum tries to the DLQ. DLS on 7/14/2016.
 		if (!skipped.isEmpty())
 			for (var skip : skipped)
+			{
 				queue.pushTask(operator.name, skip);
+				queue.ackTask(operator.name, worker, skip);
+			}
 
 		return count;
 	}
 
+	/** Helper method - renews the worker's heartbeat now and then at half its expiration until cancelled. The first renewal runs
+	 *  on the calling thread because the take may have last renewed it almost half an expiration ago.
+	 *
+	 * @return NULL if the queue is not reliable or the manager has not been started.
+	 */
+	private ScheduledFuture<?> heartbeat(final String queueName, final String worker, final long expiration)
+	{
+		var o = heartbeats;
+		if (null == o) return null;
+
+		Runnable fx = () -> {
+			try { queue.heartbeat(queueName, worker, expiration); }
+			catch (final Exception ex) { logger.warn("Heartbeat of {} on {} failed: {}", worker, queueName, ex.getMessage()); }
+		};
+		fx.run();
+
+		var interval = Math.max(1L, expiration / 2L);
+		return o.scheduleAtFixedRate(fx, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/** Helper method - identifies the in-flight list of the current thread. */
+	private String worker() { return node + ":" + Thread.currentThread().getName(); }
+
 	/** Helper method - calculates the next run time based on a backoff algo as milliseconds. */
 	private long calcNextRunAt(final int tries) { return calcNextRunAt(tries, maxDelay); }
 
@@ -31,12 +31,22 @@ public class TaskOperator<T> implements Serializable
 	public int successes = 0;	// Represents the total number of requests that have been processed successfully.
 	public int errors = 0;	// Represents the total number of errors that have occurred with this operation.
 	public int skips = 0;	// Represents the total number of skips that have occurred with this operation.
-	public boolean available = true;	// Indicates that the process is not yet taken by a background thread.
+	public boolean available = true;	// Indicates that the operator can be processed by the background threads.
+	public int minConcurrency = 0;	// Number of background threads that the operator is given ahead of the others when its queue has requests.
+	public int maxConcurrency = 1;	// Maximum number of background threads that process the operator at the same time.
+	public int weight = 1;	// Relative share of the background threads when the operators compete for them.
+
+	// Mutators - synchronized because an operator can be processed by several threads at once.
+	public synchronized int incrementSuccesses() { return ++successes; }
+	public synchronized int incrementErrors() { return ++errors; }
+	public synchronized int incrementSkips() { return ++skips; }
 
 	public long delayMS() { return (long) (delay * 1000); }	// Converted to milliseconds
 	public long maxDelayMS() { return (long) (maxDelay * 1000); }	// Converted to milliseconds
 
 	public TaskOperator<T> withAvailable(final boolean newValue) { available = newValue; return this; }	// Set to false to make unavailable for processing but available for reporting. DLS on 8/4/2017.
+	public TaskOperator<T> withConcurrency(final int min, final int max) { minConcurrency = min; maxConcurrency = max; return this; }
+	public TaskOperator<T> withWeight(final int newValue) { weight = newValue; return this; }
 
 	/** Populator.
 	 * 
@@ -23,6 +23,61 @@ public interface TaskQueue
 	/** Pulls a request from the queue. */
 	public <T> TaskRequest<T> popTask(final String queueName, final Class<T> clazz) throws Exception;
 
+	/** Moves the delayed requests that are now ready onto the queue. Queues that do not hold delayed requests apart return zero.
+	 * 
+	 * @param queueName
+	 * @return number of requests moved.
+	 * @throws Exception
+	 */
+	public default int promoteTasks(final String queueName) throws Exception { return 0; }
+
+	/** Indicates that the requests pulled with "takeTask" remain in flight until acknowledged with "ackTask". */
+	public default boolean reliable() { return false; }
+
+	/** Pulls a request from the queue into the worker's in-flight list. Queues that are not reliable just pop the request.
+	 * 
+	 * @param queueName
+	 * @param worker identifies the in-flight list of a single thread.
+	 * @param clazz type of object in the request.
+	 * @param timeout milliseconds to wait for a request when the queue is empty. Zero does not wait.
+	 * @param expiration milliseconds until the in-flight requests of an unresponsive worker are returned to the queue.
+	 * @return NULL if the queue is empty.
+	 * @throws Exception
+	 */
+	public default <T> TaskRequest<T> takeTask(final String queueName, final String worker, final Class<T> clazz, final long timeout, final long expiration) throws Exception
+	{
+		return popTask(queueName, clazz);
+	}
+
+	/** Renews the heartbeat of a worker while it processes a request so that its in-flight requests are not returned to the queue.
+	 *  Queues that are not reliable do nothing.
+	 * 
+	 * @param queueName
+	 * @param worker
+	 * @param expiration milliseconds until the in-flight requests of an unresponsive worker are returned to the queue.
+	 * @return TRUE if renewed.
+	 * @throws Exception
+	 */
+	public default boolean heartbeat(final String queueName, final String worker, final long expiration) throws Exception { return false; }
+
+	/** Removes a request taken with "takeTask" from the worker's in-flight list once it has been handled.
+	 * 
+	 * @param queueName
+	 * @param worker
+	 * @param value
+	 * @return TRUE if the request was still in flight.
+	 * @throws Exception
+	 */
+	public default boolean ackTask(final String queueName, final String worker, final TaskRequest<?> value) throws Exception { return true; }
+
+	/** Returns the in-flight requests of the workers that have stopped responding to the queue.
+	 * 
+	 * @param queueName
+	 * @return number of requests returned.
+	 * @throws Exception
+	 */
+	public default int reapTasks(final String queueName) throws Exception { return 0; }
+
 	/** Gets the size of the queue. */
 	public int getQueueSize(final String queueName) throws Exception;
 
@@ -42,6 +97,23 @@ public interface TaskQueue
 	/** Lists the task requests in a queue. */
 	public <T> List<TaskRequest<T>> listRequests(final String queueName, final Class<T> clazz) throws Exception;
 
+	/** Gets a single request from the specified queue.
+	 * 
+	 * @param queueName
+	 * @param id
+	 * @param clazz type of object in the request.
+	 * @return NULL if not found.
+	 * @throws Exception
+	 */
+	public default <T> TaskRequest<T> getRequest(final String queueName, final String id, final Class<T> clazz) throws Exception
+	{
+		var values = listRequests(queueName, clazz);
+		if (null == values)
+			return null;
+
+		return values.stream().filter(v -> id.equals(v.id)).findFirst().orElse(null);
+	}
+
 	/** Removes a single request from the specified queue.
 	 * 
 	 * @param queueName
@@ -23,9 +23,12 @@ public class TaskRequest<T> implements Serializable
 	public T value;
 	public int tries = 0;
 	public Long nextRunAt = null;
+	private transient String receipt = null;	// The raw queue value of a request taken from a reliable queue. Needed to acknowledge it. DLS on 10/17/2026.
 
 	// Mutators
 	public int incrementTries() { return ++tries; }
+	public String receipt() { return receipt; }
+	public TaskRequest<T> withReceipt(final String newValue) { receipt = newValue; return this; }
 
 	/** Represents the earliest time that the request should be processed. Used to delay
 	 *  subsequent attempts to process the request. NULL indicates to run ASAP.
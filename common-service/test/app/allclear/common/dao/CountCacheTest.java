@@ -0,0 +1,57 @@
+package app.allclear.common.dao;
+
+import org.junit.*;
+
+/** Unit test class that verifies the CountCache class.
+ * 
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class CountCacheTest
+{
+	@Test
+	public void testGet()
+	{
+		var o = new CountCache();
+		Assert.assertNull(o.get("a"));
+		Assert.assertEquals(5L, o.put("a", 5L));
+		Assert.assertEquals(Long.valueOf(5L), o.get("a"));
+		Assert.assertEquals(7L, o.put("a", 7L));
+		Assert.assertEquals(Long.valueOf(7L), o.get("a"));
+		Assert.assertEquals(1, o.size());
+
+		o.clear();
+		Assert.assertNull(o.get("a"));
+		Assert.assertEquals(0, o.size());
+	}
+
+	@Test
+	public void testExpired() throws Exception
+	{
+		var o = new CountCache(10, 50L);
+		o.put("a", 5L);
+		Assert.assertEquals(Long.valueOf(5L), o.get("a"));
+
+		Thread.sleep(60L);
+		Assert.assertNull(o.get("a"));
+		Assert.assertEquals(0, o.size());
+	}
+
+	@Test
+	public void testMaxEntries()
+	{
+		var o = new CountCache(2, CountCache.TTL);
+		o.put("a", 1L);
+		o.put("b", 2L);
+		o.get("a");	// Most recently used.
+		o.put("c", 3L);
+
+		Assert.assertEquals(2, o.size());
+		Assert.assertEquals(Long.valueOf(1L), o.get("a"));
+		Assert.assertNull(o.get("b"));
+		Assert.assertEquals(Long.valueOf(3L), o.get("c"));
+	}
+}
@@ -0,0 +1,89 @@
+package app.allclear.common.dao;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.*;
+
+import app.allclear.common.errors.ValidationException;
+
+/** Unit test class that verifies the Keyset class.
+ * 
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class KeysetTest
+{
+	public static class Record
+	{
+		private final Long id;
+		private final boolean active;
+		public String name;
+
+		public Record(final Long id, final boolean active, final String name)
+		{
+			this.id = id;
+			this.active = active;
+			this.name = name;
+		}
+
+		public Long getId() { return id; }
+		public boolean isActive() { return active; }
+	}
+
+	@Test
+	public void testDecode_blank()
+	{
+		Assert.assertNull(Keyset.decode(null));
+		Assert.assertNull(Keyset.decode(""));
+		Assert.assertNull(Keyset.decode("  "));
+	}
+
+	@Test(expected=ValidationException.class)
+	public void testDecode_invalid() { Keyset.decode("not a token"); }
+
+	@Test(expected=ValidationException.class)
+	public void testDecode_missingFields() { Keyset.decode(new Keyset("name", "Dave", 5L).encode().substring(0, 8)); }
+
+	@Test
+	public void testEncode()
+	{
+		check(new Keyset("name", "Dave", 5L));
+		check(new Keyset("name", "", 5L));
+		check(new Keyset("name", null, 5L));
+		check(new Keyset("id", "abc123", "abc123"));
+		check(new Keyset("age", 42, 7L));
+		check(new Keyset("active", true, 7L));
+		check(new Keyset("latitude", new BigDecimal("45.12345678"), 7L));
+		check(new Keyset("createdAt", new Date(1592000000000L), 7L));
+	}
+
+	@Test(expected=ValidationException.class)
+	public void testEncode_unsupported() { new Keyset("score", 1.5d, 7L).encode(); }
+
+	@Test
+	public void testRead()
+	{
+		var o = new Record(5L, true, "Dave");
+		Assert.assertEquals(5L, Keyset.read(o, "id"));
+		Assert.assertEquals(true, Keyset.read(o, "active"));
+		Assert.assertEquals("Dave", Keyset.read(o, "name"));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRead_invalid() { Keyset.read(new Record(5L, true, "Dave"), "invalid"); }
+
+	private void check(final Keyset value)
+	{
+		var token = value.encode();
+		Assert.assertFalse("Check URL safe: " + token, token.contains("=") || token.contains("/") || token.contains("+"));
+
+		var o = Keyset.decode(token);
+		Assert.assertEquals("Check key", value.key, o.key);
+		Assert.assertEquals("Check value", value.value, o.value);
+		Assert.assertEquals("Check id", value.id, o.id);
+	}
+}
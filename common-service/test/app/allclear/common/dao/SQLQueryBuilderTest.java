@@ -4,6 +4,8 @@ import java.util.List;
 
 import org.junit.*;
 
+import app.allclear.common.errors.ValidationException;
+
 /** Unit test class that verifies the SQLQueryBuilder class.
  * 
  * @author smalleyd
@@ -179,7 +181,86 @@ public class SQLQueryBuilderTest
 			b.orderBy(o.find("postalCode", "asc")).build());
 	}
 
-	private OrderByBuilder orderBy()
+	@Test
+	public void testSeek()
+	{
+		var o = orderBy();
+		var select = "SELECT id, first_name, last_name, city, postal_code FROM person";
+
+		Assert.assertEquals(select + " ORDER BY first_name ASC, id ASC",
+			new SQLQueryBuilder(select).seek(o.find("first_name"), "id", null).build());
+		Assert.assertEquals(select + " WHERE (first_name > :afterValue OR (first_name = :afterValue AND id > :afterId)) ORDER BY first_name ASC, id ASC",
+			new SQLQueryBuilder(select).seek(o.find("first_name"), "id", new Keyset("first_name", "Dave", 5L)).build());
+		Assert.assertEquals(select + " WHERE (last_name < :afterValue OR (last_name = :afterValue AND id < :afterId) OR last_name IS NULL) ORDER BY last_name DESC, id DESC",
+			new SQLQueryBuilder(select).seek(o.find("last_name"), "id", new Keyset("last_name", "Small", 5L)).build());
+		Assert.assertEquals(select + " WHERE (first_name IS NOT NULL OR id > :afterId) ORDER BY first_name ASC, id ASC",
+			new SQLQueryBuilder(select).seek(o.find("first_name"), "id", new Keyset("first_name", null, 5L)).build());
+		Assert.assertEquals(select + " WHERE (last_name IS NULL AND id < :afterId) ORDER BY last_name DESC, id DESC",
+			new SQLQueryBuilder(select).seek(o.find("last_name"), "id", new Keyset("last_name", null, 5L)).build());
+		Assert.assertEquals(select + " WHERE id > :afterId ORDER BY id ASC",
+			new SQLQueryBuilder(select).seek(new OrderByBuilder("id", "ASC").find("id"), "id", new Keyset("id", 5L, 5L)).build());
+
+		// Always ANDed to the existing criteria.
+		var b = new SQLQueryBuilder(select).or().add("first", "first_name = :first", "Dave").add("last", "last_name = :last", "Small");
+		Assert.assertEquals(select + " WHERE (first_name = :first OR last_name = :last) AND (first_name > :afterValue OR (first_name = :afterValue AND id > :afterId)) ORDER BY first_name ASC, id ASC",
+			b.seek(o.find("first_name"), "id", new Keyset("first_name", "Dave", 5L)).build());
+		Assert.assertEquals("Dave", b.parameters.get("afterValue"));
+		Assert.assertEquals(5L, b.parameters.get("afterId"));
+	}
+
+	@Test
+	public void testCount() throws ValidationException
+	{
+		var calls = new int[] { 0 };
+		var select = "SELECT COUNT(id) FROM person";
+		var cache = new CountCache();
+		var filter = new QueryFilter(2, 10, "first_name", "ASC");
+		var b = new SQLQueryBuilder("SELECT id FROM person", new OrderByBuilder.Sort("first_name", "first_name", "ASC", true, null)) {
+			@Override public long aggregate(final String select) { calls[0]++; return 42L; }
+		}.add("last", "last_name = :last", "Small").add("city", "city = :city", "Nashville");
+
+		Assert.assertEquals(select + " WHERE last_name = :last AND city = :city {city=Nashville, last=Small}", b.countKey(select));	// Excludes the ORDER BY.
+
+		filter.count = "estimated";
+		QueryResults<Void, QueryFilter> v = b.count(select, filter, null);
+		Assert.assertEquals(42L, v.total);
+		Assert.assertTrue(v.exact);	// No cache.
+		Assert.assertEquals(1, calls[0]);
+
+		v = b.count(select, filter, cache);
+		Assert.assertEquals(42L, v.total);
+		Assert.assertTrue(v.exact);	// Cache miss.
+		Assert.assertEquals(2, calls[0]);
+		Assert.assertEquals(1, cache.size());
+
+		v = b.count(select, filter, cache);
+		Assert.assertEquals(42L, v.total);
+		Assert.assertEquals(5, v.pages);
+		Assert.assertEquals(2, v.page);
+		Assert.assertFalse(v.exact);	// Cache hit.
+		Assert.assertEquals(2, calls[0]);
+
+		filter.count = null;
+		Assert.assertTrue(b.count(select, filter, cache).exact);
+		Assert.assertEquals(3, calls[0]);
+
+		filter.count = "none";
+		v = b.count(select, filter, cache);
+		Assert.assertEquals(QueryResults.TOTAL_UNKNOWN, v.total);
+		Assert.assertFalse(v.exact);
+		Assert.assertEquals(3, calls[0]);
+	}
+
+	@Test(expected=ValidationException.class)
+	public void testCount_invalid() throws ValidationException
+	{
+		var filter = new QueryFilter();
+		filter.count = "approximate";
+
+		new SQLQueryBuilder("SELECT id FROM person").count("SELECT COUNT(id) FROM person", filter, new CountCache());
+	}
+
+		private OrderByBuilder orderBy()
 	{
 		return new OrderByBuilder("first_name", "ASC", "last_name", "DESC", "city", "ASC", "postalCode", "DESC,postal_code");
 	}
@@ -352,4 +352,91 @@ public abstract class AbstractRedisClientTest
 		for (int i = 1; i <= 10; i+=2)
 			Assert.assertEquals("Check field_" + i, "value " + i, client.hash("hash:values", "field_" + i));
 	}
+
+	@Test
+	public void test_50_zset()
+	{
+		client.zset("zset:values", 300d, "third");
+		client.zset("zset:values", 100d, "first");
+		client.zset("zset:values", 200d, "second");
+		client.zset("zset:values", 400d, "fourth");
+
+		Assert.assertEquals("Check size", 4, client.zsetSize("zset:values"));
+		Assert.assertEquals("Check range", List.of("first", "second", "third", "fourth"), client.zset("zset:values", 0L, -1L));
+		Assert.assertEquals("Check range: partial", List.of("second", "third"), client.zset("zset:values", 1L, 2L));
+	}
+
+	@Test
+	public void test_51_promote()
+	{
+		client.push("zset:queue", "existing");
+
+		Assert.assertEquals("Check promote: none due", 0, client.promote("zset:values", "zset:queue", 99L, 10, false));
+		Assert.assertEquals("Check promote: limited", 1, client.promote("zset:values", "zset:queue", 250L, 1, false));
+		Assert.assertEquals("Check promote", 1, client.promote("zset:values", "zset:queue", 250L, 10, false));
+		Assert.assertEquals("Check promote: left", 1, client.promote("zset:values", "zset:queue", 300L, 10, true));
+		Assert.assertEquals("Check queue", List.of("third", "existing", "first", "second"), client.list("zset:queue"));
+		Assert.assertEquals("Check range", List.of("fourth"), client.zset("zset:values", 0L, -1L));
+	}
+
+	@Test
+	public void test_52_unzset()
+	{
+		Assert.assertEquals("Check remove", 1, client.unzset("zset:values", "fourth", "invalid"));
+		Assert.assertEquals("Check size", 0, client.zsetSize("zset:values"));
+		Assert.assertEquals("Check range", List.of(), client.zset("zset:values", 0L, -1L));
+	}
+
+	private static RedisLease LEASE = null;
+
+	@Test
+	public void test_40_lease()
+	{
+		Assert.assertNotNull("Check lease", LEASE = client.lease("leased", 60000L));
+		Assert.assertNull("Check lease: held", client.lease("leased", 60000L));
+		Assert.assertTrue("Check leased", client.leased(LEASE));
+		Assert.assertTrue("Check renew", client.renew(LEASE, 60000L));
+	}
+
+	@Test
+	public void test_40_lease_hash()
+	{
+		Assert.assertTrue("Check hash", client.hash(LEASE, "lease:values", "lastId", "ABC"));
+		Assert.assertEquals("Check lastId", "ABC", client.hash("lease:values", "lastId"));
+	}
+
+	@Test
+	public void test_41_release()
+	{
+		Assert.assertTrue("Check release", client.release(LEASE));
+		Assert.assertFalse("Check release again", client.release(LEASE));
+		Assert.assertFalse("Check leased", client.leased(LEASE));
+		Assert.assertFalse("Check renew", client.renew(LEASE, 60000L));
+		Assert.assertFalse("Check hash", client.hash(LEASE, "lease:values", "lastId", "DEF"));
+		Assert.assertEquals("Check lastId", "ABC", client.hash("lease:values", "lastId"));
+	}
+
+	@Test
+	public void test_42_expired() throws Exception
+	{
+		var o = client.lease("leased", 50L);
+		Assert.assertNotNull("Check lease", o);
+		assertThat(o.token).as("Check token").isGreaterThan(LEASE.token);
+
+		Thread.sleep(100L);
+
+		Assert.assertFalse("Check leased: expired", client.leased(o));
+		var next = client.lease("leased", 60000L);
+		Assert.assertNotNull("Check lease: next", next);
+		assertThat(next.token).as("Check token: next").isGreaterThan(o.token);
+		Assert.assertFalse("Check hash: expired", client.hash(o, "lease:values", "lastId", "GHI"));
+		Assert.assertTrue("Check hash: next", client.hash(next, "lease:values", "lastId", "JKL"));
+		Assert.assertEquals("Check lastId", "JKL", client.hash("lease:values", "lastId"));
+		Assert.assertTrue("Check expire", client.expire(next, "lease:values", 50L));
+		Assert.assertTrue("Check release", client.release(next));
+
+		Thread.sleep(100L);
+
+		Assert.assertNull("Check lastId: expired", client.hash("lease:values", "lastId"));
+	}
 }
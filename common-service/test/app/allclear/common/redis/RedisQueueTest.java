@@ -0,0 +1,351 @@
+package app.allclear.common.redis;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import app.allclear.common.errors.ErrorInfo;
+import app.allclear.common.task.TaskRequest;
+
+/** Functional test class that verifies the RedisQueue TaskCodecs including a queue that holds a mix of formats.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+public class RedisQueueTest
+{
+	public static final String QUEUE_NAME = "codec";
+
+	private static final RedisClient client = new FakeRedisClient();
+	private static final RedisQueue java = new RedisQueue(client);
+	private static final RedisQueue json = new RedisQueue(client, new JsonTaskCodec()).withIds(true);
+	private static final RedisQueue reliable = new RedisQueue(client, new JsonTaskCodec()).withIds(true).withReliable(true);
+	private static final String RELIABLE = "reliable";
+	private static final String DELAY = "delay";
+
+	private static final TaskRequest<ErrorInfo> REQUEST_1 = new TaskRequest<>("1", new ErrorInfo("Error 1", "Stack Trace 1", null));
+	private static final TaskRequest<ErrorInfo> REQUEST_2 = new TaskRequest<>("2", new ErrorInfo("Error 2", "Stack Trace 2", null)).withNextRunAt(1000L);
+	private static final TaskRequest<ErrorInfo> REQUEST_3 = new TaskRequest<>("3", new ErrorInfo("Error 3", "Stack Trace 3", null));
+
+	@AfterAll
+	public static void down()
+	{
+		client.close();
+	}
+
+	public static Stream<Arguments> codec()
+	{
+		return Stream.of(
+			arguments(new JavaTaskCodec(), "rO0"),
+			arguments(new JsonTaskCodec(), "{"));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void codec(final TaskCodec codec, final String prefix) throws Exception
+	{
+		REQUEST_2.tries = 2;
+		var value = codec.encode(REQUEST_2);
+		assertThat(value).as("Check value").startsWith(prefix);
+		assertThat(codec.accepts(value)).as("Check accepts").isTrue();
+		RedisQueue.CODECS.stream().filter(o -> o.getClass() != codec.getClass()).forEach(o -> assertThat(o.accepts(value)).as("Check other accepts").isFalse());
+
+		var o = codec.decode(value, ErrorInfo.class);
+		assertThat(o).as("Check decode").isEqualTo(REQUEST_2);
+		assertThat(o.value).as("Check value").isEqualTo(REQUEST_2.value);
+		assertThat(o.value.stacktrace).as("Check value.stacktrace").isEqualTo("Stack Trace 2");
+		assertThat(o.tries).as("Check tries").isEqualTo(2);
+		assertThat(o.nextRunAt).as("Check nextRunAt").isEqualTo(1000L);
+	}
+
+	@Test
+	public void codec_json_smaller() throws Exception
+	{
+		assertThat(new JsonTaskCodec().encode(REQUEST_1).length()).as("Check size").isLessThan(new JavaTaskCodec().encode(REQUEST_1).length() / 2);
+	}
+
+	@Test
+	public void codec_json_untyped() throws Exception
+	{
+		var o = new JsonTaskCodec().decode(new JsonTaskCodec().encode(REQUEST_1), null);
+		assertThat(o.id).as("Check id").isEqualTo("1");
+		assertThat(o.value).as("Check value").isInstanceOf(Map.class);
+		assertThat(((Map<?, ?>) o.value).get("message")).as("Check value.message").isEqualTo("Error 1");
+	}
+
+	@Test
+	public void delay_00_push() throws Exception
+	{
+		var now = System.currentTimeMillis();
+		json.pushTask(DELAY, new TaskRequest<>("d1", new ErrorInfo("Error d1", null, null)).withNextRunAt(now + 60000L));
+		json.pushTask(DELAY, new TaskRequest<>("d2", new ErrorInfo("Error d2", null, null)));
+		json.pushTask(DELAY, new TaskRequest<>("d3", new ErrorInfo("Error d3", null, null)).withNextRunAt(now - 1000L));
+		json.pushTask(DELAY, new TaskRequest<>("d4", new ErrorInfo("Error d4", null, null)).withNextRunAt(now + 200L));
+
+		assertThat(json.getQueueSize(DELAY)).as("Check size").isEqualTo(4);
+		assertThat(client.queueSize(DELAY)).as("Check size: ready").isEqualTo(2);
+		assertThat(client.zsetSize(RedisQueue.delayed(DELAY))).as("Check size: delayed").isEqualTo(2);
+		assertThat(json.listRequests(DELAY, ErrorInfo.class)).as("Check list").containsExactly(
+			new TaskRequest<>("d2", null), new TaskRequest<>("d3", null), new TaskRequest<>("d4", null), new TaskRequest<>("d1", null));
+		assertThat(json.listRequests(DELAY, 1, 3)).as("Check page #1").containsExactly(
+			new TaskRequest<>("d2", null), new TaskRequest<>("d3", null), new TaskRequest<>("d4", null));
+		assertThat(json.listRequests(DELAY, 2, 3)).as("Check page #2").containsExactly(new TaskRequest<>("d1", null));
+		assertThat(json.getRequest(DELAY, "d1", ErrorInfo.class).value.message).as("Check get: delayed").isEqualTo("Error d1");
+
+		assertThat(json.promoteTasks(DELAY)).as("Check promote").isEqualTo(0);
+		assertThat(json.popTask(DELAY, ErrorInfo.class).id).as("Check pop #1").isEqualTo("d2");
+		assertThat(json.popTask(DELAY, ErrorInfo.class).id).as("Check pop #2").isEqualTo("d3");
+		assertThat(json.popTask(DELAY, ErrorInfo.class)).as("Check pop #3").isNull();	// Delayed requests are not touched.
+	}
+
+	@Test
+	public void delay_01_promote() throws Exception
+	{
+		Thread.sleep(250L);
+
+		assertThat(json.promoteTasks(DELAY)).as("Check promote").isEqualTo(1);
+		assertThat(json.promoteTasks(DELAY)).as("Check promote again").isEqualTo(0);
+
+		var o = json.popTask(DELAY, ErrorInfo.class);
+		assertThat(o.id).as("Check pop").isEqualTo("d4");
+		assertThat(o.ready()).as("Check pop: ready").isTrue();
+		assertThat(json.popTask(DELAY, ErrorInfo.class)).as("Check pop again").isNull();
+	}
+
+	@Test
+	public void delay_02_remove() throws Exception
+	{
+		assertThat(json.removeRequest(DELAY, "d1")).as("Check remove").isTrue();
+		assertThat(client.zsetSize(RedisQueue.delayed(DELAY))).as("Check size: delayed").isEqualTo(0);
+		assertThat(json.getQueueSize(DELAY)).as("Check size").isEqualTo(0);
+	}
+
+	@Test
+	public void delay_03_move() throws Exception
+	{
+		json.pushTask(DELAY, new TaskRequest<>("d5", new ErrorInfo("Error d5", null, null)).withNextRunAt(System.currentTimeMillis() + 60000L));
+
+		assertThat(json.moveRequests(DELAY, DELAY + "-moved", ErrorInfo.class)).as("Check move").isEqualTo(1);	// Includes the delayed requests.
+		assertThat(json.getQueueSize(DELAY)).as("Check size").isEqualTo(0);
+		assertThat(json.getQueueSize(DELAY + "-moved")).as("Check size: moved").isEqualTo(1);
+		assertThat(json.clearRequests(DELAY + "-moved")).as("Check clear").isEqualTo(1);
+		assertThat(client.containsKey(RedisQueue.delayed(DELAY + "-moved"))).as("Check delayed").isFalse();
+	}
+
+	@Test
+	public void push_00_mixed() throws Exception
+	{
+		java.pushTask(QUEUE_NAME, REQUEST_1);	// Written by a node that has not switched yet.
+		json.pushTask(QUEUE_NAME, REQUEST_2);
+		java.pushTask(QUEUE_NAME, REQUEST_3);
+
+		assertThat(json.getQueueSize(QUEUE_NAME)).as("Check size").isEqualTo(3);
+	}
+
+	@Test
+	public void push_01_list() throws Exception
+	{
+		assertThat(java.listRequests(QUEUE_NAME, ErrorInfo.class)).as("Check java").containsExactly(REQUEST_1, REQUEST_2, REQUEST_3);
+		assertThat(json.listRequests(QUEUE_NAME, ErrorInfo.class)).as("Check json").containsExactly(REQUEST_1, REQUEST_2, REQUEST_3);
+		assertThat(json.listRequests(QUEUE_NAME)).as("Check untyped").hasSize(3);
+		assertThat(json.listRequests(QUEUE_NAME, 1, 2)).as("Check page").hasSize(2);
+	}
+
+	@Test
+	public void push_02_pop() throws Exception
+	{
+		var o = json.popTask(QUEUE_NAME, ErrorInfo.class);
+		assertThat(o).as("Check pop #1").isEqualTo(REQUEST_1);
+		assertThat(o.value.message).as("Check pop #1: value").isEqualTo("Error 1");
+
+		o = java.popTask(QUEUE_NAME, ErrorInfo.class);
+		assertThat(o).as("Check pop #2").isEqualTo(REQUEST_2);
+		assertThat(o.value.message).as("Check pop #2: value").isEqualTo("Error 2");
+	}
+
+	@Test
+	public void push_03_move() throws Exception
+	{
+		assertThat(json.moveRequests(QUEUE_NAME, QUEUE_NAME + "-moved", ErrorInfo.class)).as("Check moved").isEqualTo(1);
+		assertThat(json.getQueueSize(QUEUE_NAME)).as("Check size").isEqualTo(0);
+		assertThat(client.list(QUEUE_NAME + "-moved")).as("Check IDs").containsExactly("3");
+		assertThat(client.hash(RedisQueue.tasks(QUEUE_NAME + "-moved"), "3")).as("Check rewritten").startsWith("{");	// Rewritten with the new codec.
+		assertThat(client.hashSize(RedisQueue.tasks(QUEUE_NAME))).as("Check bodies").isEqualTo(0);
+	}
+
+	@Test
+	public void push_04_invalid()
+	{
+		client.hash(RedisQueue.tasks(QUEUE_NAME), "4", "invalid");
+		client.push(QUEUE_NAME, "4");
+		assertThat(Assertions.assertThrows(IllegalArgumentException.class, () -> json.popTask(QUEUE_NAME, ErrorInfo.class)))
+			.hasMessage("The queue value 'invalid' is not in a supported format.");
+	}
+
+	@Test
+	public void push_05_orphan() throws Exception
+	{
+		client.push(QUEUE_NAME, "5");	// ID without a body.
+		json.pushTask(QUEUE_NAME, REQUEST_1);
+
+		assertThat(json.listRequests(QUEUE_NAME, ErrorInfo.class)).as("Check list").containsExactly(REQUEST_1);
+		assertThat(json.popTask(QUEUE_NAME, ErrorInfo.class)).as("Check pop").isEqualTo(REQUEST_1);
+		assertThat(json.getQueueSize(QUEUE_NAME)).as("Check size").isEqualTo(0);
+	}
+
+	@Test
+	public void push_06_inline() throws Exception
+	{
+		client.push(QUEUE_NAME, new JavaTaskCodec().encode(REQUEST_1));	// Written in full by an earlier version.
+		json.pushTask(QUEUE_NAME, REQUEST_2);
+		client.push(QUEUE_NAME, new JsonTaskCodec().encode(REQUEST_3));
+
+		assertThat(json.listRequests(QUEUE_NAME, ErrorInfo.class)).as("Check list").containsExactly(REQUEST_1, REQUEST_2, REQUEST_3);
+		assertThat(json.listRequests(QUEUE_NAME, 2, 2)).as("Check page").containsExactly(REQUEST_3);
+		assertThat(json.getRequest(QUEUE_NAME, "3", ErrorInfo.class)).as("Check get: inline").isEqualTo(REQUEST_3);
+		assertThat(json.removeRequest(QUEUE_NAME, "1")).as("Check remove: inline").isTrue();
+		assertThat(json.popTask(QUEUE_NAME, ErrorInfo.class)).as("Check pop #1").isEqualTo(REQUEST_2);
+		assertThat(json.popTask(QUEUE_NAME, ErrorInfo.class)).as("Check pop #2").isEqualTo(REQUEST_3);
+		assertThat(json.popTask(QUEUE_NAME, ErrorInfo.class)).as("Check pop #3").isNull();
+	}
+
+	@Test
+	public void push_07_by_id() throws Exception
+	{
+		json.pushTask(QUEUE_NAME, REQUEST_1);
+		json.pushTask(QUEUE_NAME, REQUEST_2);
+		json.pushTask(QUEUE_NAME, REQUEST_3);
+
+		var o = json.getRequest(QUEUE_NAME, "2", ErrorInfo.class);
+		assertThat(o).as("Check get").isEqualTo(REQUEST_2);
+		assertThat(o.value.message).as("Check get: value").isEqualTo("Error 2");
+		assertThat(json.getRequest(QUEUE_NAME, "4", ErrorInfo.class)).as("Check get: invalid").isNull();
+
+		assertThat(json.removeRequest(QUEUE_NAME, "2")).as("Check remove").isTrue();
+		assertThat(json.removeRequest(QUEUE_NAME, "2")).as("Check remove again").isFalse();
+		assertThat(json.getRequest(QUEUE_NAME, "2", ErrorInfo.class)).as("Check get: removed").isNull();
+		assertThat(json.getQueueSize(QUEUE_NAME)).as("Check size").isEqualTo(2);
+		assertThat(json.listRequests(QUEUE_NAME, ErrorInfo.class)).as("Check list").containsExactly(REQUEST_1, REQUEST_3);
+
+		assertThat(json.clearRequests(QUEUE_NAME)).as("Check clear").isEqualTo(2);
+		assertThat(client.containsKey(RedisQueue.tasks(QUEUE_NAME))).as("Check bodies").isFalse();
+	}
+
+	@Test
+	public void push_08_full() throws Exception
+	{
+		var queueName = QUEUE_NAME + "-full";
+		java.pushTask(queueName, REQUEST_1);
+		java.pushTask(queueName, new TaskRequest<>("d1", new ErrorInfo("Error d1", null, null)).withNextRunAt(System.currentTimeMillis() + 60000L));
+
+		assertThat(client.list(queueName)).as("Check list").containsExactly(new JavaTaskCodec().encode(REQUEST_1));	// Readable by earlier versions.
+		assertThat(client.containsKey(RedisQueue.tasks(queueName))).as("Check bodies").isFalse();
+		assertThat(java.getRequest(queueName, "d1", ErrorInfo.class).value.message).as("Check get: delayed").isEqualTo("Error d1");
+		assertThat(java.removeRequest(queueName, "d1")).as("Check remove: delayed").isTrue();
+		assertThat(client.zsetSize(RedisQueue.delayed(queueName))).as("Check size: delayed").isEqualTo(0);
+		assertThat(json.popTask(queueName, ErrorInfo.class)).as("Check pop").isEqualTo(REQUEST_1);
+		assertThat(java.getQueueSize(queueName)).as("Check size").isEqualTo(0);
+	}
+
+	@Test
+	public void reliable_00_take() throws Exception
+	{
+		reliable.pushTask(RELIABLE, REQUEST_1);
+		reliable.pushTask(RELIABLE, REQUEST_2);
+		reliable.pushTask(RELIABLE, REQUEST_3);
+
+		var o = reliable.takeTask(RELIABLE, "w1", ErrorInfo.class, 0L, 60000L);
+		assertThat(o).as("Check take").isEqualTo(REQUEST_1);	// First in, first out.
+		assertThat(o.value.message).as("Check take: value").isEqualTo("Error 1");
+		assertThat(o.receipt()).as("Check take: receipt").isNotNull();
+		assertThat(reliable.getQueueSize(RELIABLE)).as("Check size").isEqualTo(2);
+		assertThat(client.queueSize(RedisQueue.processing(RELIABLE, "w1"))).as("Check in-flight").isEqualTo(1);
+		assertThat(client.set(RedisQueue.processing(RELIABLE))).as("Check workers").containsOnly("w1");
+		assertThat(client.containsKey(RedisQueue.alive(RELIABLE, "w1"))).as("Check alive").isTrue();
+
+		assertThat(client.hash(RedisQueue.tasks(RELIABLE, "w1"), "1")).as("Check in-flight body").isNotNull();
+		assertThat(client.hash(RedisQueue.tasks(RELIABLE), "1")).as("Check queued body").isNull();
+
+		assertThat(reliable.ackTask(RELIABLE, "w1", o)).as("Check ack").isTrue();
+		assertThat(reliable.ackTask(RELIABLE, "w1", o)).as("Check ack again").isFalse();
+		assertThat(client.queueSize(RedisQueue.processing(RELIABLE, "w1"))).as("Check in-flight after ack").isEqualTo(0);
+		assertThat(client.hashSize(RedisQueue.tasks(RELIABLE, "w1"))).as("Check in-flight bodies after ack").isEqualTo(0);
+	}
+
+	@Test
+	public void reliable_01_reap() throws Exception
+	{
+		var o = reliable.takeTask(RELIABLE, "w2", ErrorInfo.class, 0L, 60000L);
+		assertThat(o).as("Check take").isEqualTo(REQUEST_2);
+		assertThat(reliable.reapTasks(RELIABLE)).as("Check reap: alive").isEqualTo(0);
+
+		client.remove(RedisQueue.alive(RELIABLE, "w2"));	// Worker stopped responding.
+		assertThat(reliable.reapTasks(RELIABLE)).as("Check reap: expired").isEqualTo(1);
+		assertThat(reliable.getQueueSize(RELIABLE)).as("Check size").isEqualTo(2);
+		assertThat(client.queueSize(RedisQueue.processing(RELIABLE, "w2"))).as("Check in-flight").isEqualTo(0);
+		assertThat(client.set(RedisQueue.processing(RELIABLE))).as("Check workers").doesNotContain("w2");
+		assertThat(client.containsKey(RedisQueue.tasks(RELIABLE, "w2"))).as("Check in-flight bodies").isFalse();
+		assertThat(client.hash(RedisQueue.tasks(RELIABLE), "2")).as("Check queued body").isNotNull();
+	}
+
+	@Test
+	public void reliable_02_retake() throws Exception
+	{
+		assertThat(reliable.takeTask(RELIABLE, "w3", ErrorInfo.class, 0L, 60000L)).as("Check take #1").isEqualTo(REQUEST_3);
+		assertThat(reliable.takeTask(RELIABLE, "w3", ErrorInfo.class, 0L, 60000L)).as("Check take #2").isEqualTo(REQUEST_2);	// Reaped requests go to the back of the queue.
+		assertThat(reliable.takeTask(RELIABLE, "w3", ErrorInfo.class, 100L, 60000L)).as("Check take #3").isNull();
+		assertThat(client.queueSize(RedisQueue.processing(RELIABLE, "w3"))).as("Check in-flight").isEqualTo(2);
+	}
+
+	@Test
+	public void reliable_03_repush() throws Exception
+	{
+		var o = reliable.takeTask(RELIABLE, "w3", ErrorInfo.class, 0L, 60000L);	// Nothing queued.
+		assertThat(o).as("Check take: empty").isNull();
+
+		reliable.pushTask(RELIABLE, REQUEST_1);
+		o = reliable.takeTask(RELIABLE, "w3", ErrorInfo.class, 0L, 60000L);
+		o.tries = 1;
+		reliable.pushTask(RELIABLE, o);	// Retry is re-pushed before the in-flight copy is acknowledged.
+		assertThat(reliable.ackTask(RELIABLE, "w3", o)).as("Check ack").isTrue();
+
+		var v = reliable.getRequest(RELIABLE, "1", ErrorInfo.class);
+		assertThat(v).as("Check get").isEqualTo(REQUEST_1);
+		assertThat(v.tries).as("Check get: tries").isEqualTo(1);
+		assertThat(reliable.takeTask(RELIABLE, "w3", ErrorInfo.class, 0L, 60000L)).as("Check retake").isEqualTo(REQUEST_1);
+	}
+
+	@Test
+	public void reliable_03_heartbeat() throws Exception
+	{
+		client.remove(RedisQueue.alive(RELIABLE, "w3"));	// Worker stopped taking requests while processing.
+		assertThat(reliable.heartbeat(RELIABLE, "w3", 60000L)).as("Check heartbeat").isTrue();
+		assertThat(reliable.reapTasks(RELIABLE)).as("Check reap: renewed").isEqualTo(0);
+		assertThat(client.containsKey(RedisQueue.alive(RELIABLE, "w3"))).as("Check alive").isTrue();
+		assertThat(json.heartbeat(RELIABLE, "w3", 60000L)).as("Check heartbeat: unreliable").isFalse();
+	}
+
+	@Test
+	public void reliable_03_unreliable() throws Exception
+	{
+		json.pushTask(RELIABLE + "-x", REQUEST_1);
+
+		var o = json.takeTask(RELIABLE + "-x", "w4", ErrorInfo.class, 0L, 60000L);
+		assertThat(o).as("Check take").isEqualTo(REQUEST_1);
+		assertThat(o.receipt()).as("Check receipt").isNull();
+		assertThat(json.ackTask(RELIABLE + "-x", "w4", o)).as("Check ack").isTrue();
+		assertThat(json.reapTasks(RELIABLE + "-x")).as("Check reap").isEqualTo(0);
+		assertThat(client.containsKey(RedisQueue.processing(RELIABLE + "-x", "w4"))).as("Check in-flight").isFalse();
+	}
+}
@@ -0,0 +1,135 @@
+package app.allclear.common.redis;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import app.allclear.common.errors.ErrorInfo;
+import app.allclear.common.task.TaskRequest;
+import app.allclear.redis.JedisConfig;
+
+/** Compares the RedisQueue TaskCodecs by the size of each queued request and by the throughput of the codec alone and of a
+ *  push & pop through a RedisQueue. Uses the in-memory FakeRedisClient unless a Redis server is supplied.
+ *
+ *  Run from the command line with "name=value" arguments, i.e. "tasks=100000 redis=localhost:6379".
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class TaskCodecBenchmark implements AutoCloseable
+{
+	public static final String QUEUE_NAME = "benchmark";
+
+	/** Represents the measurements of a single codec. */
+	public static class Result
+	{
+		public final String codec;
+		public final double bytes;	// Average bytes per request.
+		public final double codecOps;	// Encodes & decodes per second.
+		public final double queueOps;	// Pushes & pops per second.
+
+		public Result(final String codec, final double bytes, final double codecOps, final double queueOps)
+		{
+			this.codec = codec;
+			this.bytes = bytes;
+			this.codecOps = codecOps;
+			this.queueOps = queueOps;
+		}
+
+		@Override
+		public String toString() { return String.format("%-16s %10.1f %14.0f %14.0f", codec, bytes, codecOps, queueOps); }
+	}
+
+	private final int tasks;
+	private final int warmup;
+	private final RedisClient client;
+	private final List<TaskRequest<ErrorInfo>> requests;
+
+	/** Populator.
+	 *
+	 * @param tasks number of requests measured per codec.
+	 * @param warmup number of requests run through each codec before measuring.
+	 * @param client NULL uses the FakeRedisClient.
+	 */
+	public TaskCodecBenchmark(final int tasks, final int warmup, final RedisClient client)
+	{
+		this.tasks = tasks;
+		this.warmup = warmup;
+		this.client = (null != client) ? client : new FakeRedisClient();
+		this.requests = IntStream.range(0, tasks)
+			.mapToObj(i -> new TaskRequest<>(new ErrorInfo("Error " + i, "Stack Trace " + i, null)).withNextRunAt((0 == (i % 2)) ? null : System.currentTimeMillis()))
+			.collect(Collectors.toList());
+	}
+
+	/** Measures each codec in turn. */
+	public List<Result> run() throws Exception
+	{
+		var values = new ArrayList<Result>(RedisQueue.CODECS.size());
+		for (var o : RedisQueue.CODECS) values.add(run(o));
+
+		return values;
+	}
+
+	/** Measures a single codec. */
+	public Result run(final TaskCodec codec) throws Exception
+	{
+		for (int i = 0; i < warmup; i++) codec.decode(codec.encode(requests.get(i % tasks)), ErrorInfo.class);
+
+		long bytes = 0L;
+		var start = System.nanoTime();
+		for (var o : requests)
+		{
+			var value = codec.encode(o);
+			bytes+= value.length();	// Both formats are ASCII.
+			codec.decode(value, ErrorInfo.class);
+		}
+		var codecNanos = System.nanoTime() - start;
+
+		var queue = new RedisQueue(client, codec);
+		queue.clearRequests(QUEUE_NAME);
+		start = System.nanoTime();
+		for (var o : requests) queue.pushTask(QUEUE_NAME, o);
+		while (null != queue.popTask(QUEUE_NAME, ErrorInfo.class));
+		var queueNanos = System.nanoTime() - start;
+
+		return new Result(codec.getClass().getSimpleName(), ((double) bytes) / tasks, ops(tasks, codecNanos), ops(tasks, queueNanos));
+	}
+
+	private double ops(final int count, final long nanos) { return (count * 1000000000d) / Math.max(1L, nanos); }
+
+	@Override
+	public void close()
+	{
+		client.close();
+	}
+
+	/** Parses "name=value" arguments and prints a row per codec. */
+	public static void main(final String... args) throws Exception
+	{
+		int tasks = 10000, warmup = 10000;
+		RedisClient client = null;
+		for (var arg : args)
+		{
+			var i = arg.indexOf('=');
+			if (0 > i) throw new IllegalArgumentException("Expected name=value but found '" + arg + "'.");
+
+			var value = arg.substring(i + 1);
+			switch (arg.substring(0, i))
+			{
+				case "tasks": tasks = Integer.parseInt(value); break;
+				case "warmup": warmup = Integer.parseInt(value); break;
+				case "redis": var hostPort = value.split(":"); client = new RedisClient(new JedisConfig(hostPort[0], Integer.parseInt(hostPort[1]), 200L, 5)); break;
+				default: throw new IllegalArgumentException("The option '" + arg.substring(0, i) + "' is not supported.");
+			}
+		}
+
+		try (var o = new TaskCodecBenchmark(tasks, warmup, client))
+		{
+			System.out.println(String.format("%-16s %10s %14s %14s", "CODEC", "BYTES", "CODEC OPS/SEC", "QUEUE OPS/SEC"));
+			o.run().forEach(System.out::println);
+		}
+	}
+}
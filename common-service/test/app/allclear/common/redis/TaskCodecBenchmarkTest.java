@@ -0,0 +1,43 @@
+package app.allclear.common.redis;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.*;
+
+/** Functional test class that verifies that the TaskCodec benchmark completes a small run.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class TaskCodecBenchmarkTest
+{
+	@Test
+	public void run() throws Exception
+	{
+		try (var o = new TaskCodecBenchmark(200, 100, null))
+		{
+			var values = o.run();
+			assertThat(values).as("Check size").hasSize(RedisQueue.CODECS.size());
+
+			var json = values.get(0);
+			var java = values.get(1);
+			assertThat(json.codec).as("Check json").isEqualTo("JsonTaskCodec");
+			assertThat(java.codec).as("Check java").isEqualTo("JavaTaskCodec");
+			assertThat(json.bytes).as("Check bytes").isLessThan(java.bytes);
+			values.forEach(v -> {
+				assertThat(v.codecOps).as("Check codecOps: " + v.codec).isGreaterThan(0d);
+				assertThat(v.queueOps).as("Check queueOps: " + v.codec).isGreaterThan(0d);
+			});
+		}
+	}
+
+	@Test
+	public void main_invalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> TaskCodecBenchmark.main("tasks"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> TaskCodecBenchmark.main("invalid=1"));
+	}
+}
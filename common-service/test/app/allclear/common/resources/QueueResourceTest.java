@@ -73,6 +73,11 @@ public class QueueResourceTest
 		when(manager.process("auditLog", "xyz")).thenReturn(true);
 		when(manager.modifyRequest(any(String.class), any(TaskRequest.class))).thenReturn(new TaskRequest());
 		when(manager.stats()).thenReturn(Arrays.asList(new OperatorStats("queue1", 1, 2, 3, 4, 5)));
+		when(manager.concurrency("auditLog")).thenReturn(new OperatorConcurrency("auditLog", 0, 1, 1, 1));
+		when(manager.concurrency(eq("auditLog"), any(OperatorConcurrency.class))).thenAnswer(i -> {
+			var v = (OperatorConcurrency) i.getArgument(1);
+			return new OperatorConcurrency("auditLog", v.min, v.max, v.weight, 1);
+		});
 	}
 
 	@Test
@@ -86,6 +91,34 @@ public class QueueResourceTest
 		Assert.assertEquals("Check count", 5, results.count);
 	}
 
+	@Test
+	public void concurrency()
+	{
+		var response = request("concurrency").get();
+		Assert.assertEquals("Status", TestingUtils.HTTP_STATUS_OK, response.getStatus());
+
+		var value = response.readEntity(OperatorConcurrency.class);
+		Assert.assertNotNull("Exists", value);
+		Assert.assertEquals("Check name", "auditLog", value.name);
+		Assert.assertEquals("Check min", 0, value.min);
+		Assert.assertEquals("Check max", 1, value.max);
+		Assert.assertEquals("Check weight", 1, value.weight);
+		Assert.assertEquals("Check running", 1, value.running);
+	}
+
+	@Test
+	public void concurrency_update()
+	{
+		var response = request("concurrency").put(Entity.entity(new OperatorConcurrency(null, 1, 4, 2, 0), UTF8MediaType.APPLICATION_JSON_TYPE));
+		Assert.assertEquals("Status", TestingUtils.HTTP_STATUS_OK, response.getStatus());
+
+		var value = response.readEntity(OperatorConcurrency.class);
+		Assert.assertNotNull("Exists", value);
+		Assert.assertEquals("Check min", 1, value.min);
+		Assert.assertEquals("Check max", 4, value.max);
+		Assert.assertEquals("Check weight", 2, value.weight);
+	}
+
 	@Test
 	public void get()
 	{
@@ -0,0 +1,118 @@
+package app.allclear.common.task;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import app.allclear.junit.redis.RedisServerRule;
+import app.allclear.common.ThreadUtils;
+import app.allclear.common.errors.ErrorInfo;
+import app.allclear.common.redis.*;
+import app.allclear.redis.JedisConfig;
+
+/** Function test that verifies the TaskManager with a reliable RedisQueue.
+ * 
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class ReliableRedisTaskManagerTest extends TaskManagerTest
+{
+	public static final RedisServerRule SERVER = new RedisServerRule();
+
+	private RedisClient client;
+
+	@BeforeEach
+	public void up() throws Exception
+	{
+		client = new RedisClient(new JedisConfig("localhost", 6378, 200L, 5));
+		client.clear();	// Always start from scratch.
+
+		reset();
+		queue = new RedisQueue(client).withReliable(true);
+		manager = new TaskManager(queue, 1,
+			operator = new TaskOperator<ErrorInfo>(QUEUE_NAME, x -> { System.out.println(x.stacktrace); return true; }, ErrorInfo.class));
+		managerX = new TaskManager(queue, 1,
+			operatorX = new TaskOperator<ErrorInfo>(QUEUE_NAME,
+				new TaskCallback<ErrorInfo>() {
+					@Override public boolean process(final ErrorInfo x) { System.out.println(x.stacktrace); return true; }
+					@Override public void onSuccess(final TaskRequest<ErrorInfo> req) { System.out.println("On Success"); onSuccess++; }
+				},
+				ErrorInfo.class));
+
+		operatorInvalid = new TaskOperator<ErrorInfo>(QUEUE_NAME, x -> {
+			if ("Error 4".equals(x.message))
+				throw new RuntimeException();
+
+			System.out.println(x.stacktrace); return true;
+		}, ErrorInfo.class, 1);
+	}
+
+	@Test
+	public void reliable_await() throws Exception
+	{
+		var manager = new TaskManager(queue, 5000L, 1, operator);	// Idle threads wait up to five seconds.
+		try
+		{
+			manager.start();
+			ThreadUtils.sleep(500L);	// Let the thread block on the queue.
+
+			var time = System.currentTimeMillis();
+			queue.pushTask(QUEUE_NAME, new TaskRequest<>(new ErrorInfo("Error 1", "Stack Trace 1", null)));
+			while ((0 == operator.successes) && (5000L > (System.currentTimeMillis() - time))) ThreadUtils.sleep(10L);
+
+			assertThat(operator.successes).as("Check successes").isEqualTo(1);
+			assertThat(System.currentTimeMillis() - time).as("Check latency").isLessThan(1000L);	// Woken by the push instead of the sleep interval.
+			for (var worker : client.set(RedisQueue.processing(QUEUE_NAME)))
+				assertThat(client.queueSize(RedisQueue.processing(QUEUE_NAME, worker))).as("Check in-flight: " + worker).isEqualTo(0);	// Acknowledged.
+		}
+		finally { manager.stop(); }
+	}
+
+	@Test
+	public void reliable_heartbeat() throws Exception
+	{
+		var runs = new AtomicInteger();
+		var slow = new TaskOperator<ErrorInfo>(QUEUE_NAME, x -> { runs.incrementAndGet(); ThreadUtils.sleep(2500L); return true; }, ErrorInfo.class, 10, 1, 60, 3600);	// Runs past its one second heartbeat.
+		var manager = new TaskManager(queue, 100L, 1, slow);
+		try
+		{
+			manager.start();
+			queue.pushTask(QUEUE_NAME, new TaskRequest<>(new ErrorInfo("Error 1", "Stack Trace 1", null)));
+			ThreadUtils.sleep(2000L);	// Still processing.
+			assertThat(queue.reapTasks(QUEUE_NAME)).as("Check reap: renewed").isEqualTo(0);
+
+			var time = System.currentTimeMillis();
+			while ((0 == slow.successes) && (5000L > (System.currentTimeMillis() - time))) ThreadUtils.sleep(10L);
+
+			assertThat(slow.successes).as("Check successes").isEqualTo(1);
+			assertThat(runs.get()).as("Check runs").isEqualTo(1);	// Not reaped and run again.
+			assertThat(queue.getQueueSize(QUEUE_NAME)).as("Check size").isEqualTo(0);
+		}
+		finally { manager.stop(); }
+	}
+
+	@Test
+	public void reliable_reap() throws Exception
+	{
+		queue.pushTask(QUEUE_NAME, new TaskRequest<>(new ErrorInfo("Error 1", "Stack Trace 1", null)));
+		assertThat(queue.takeTask(QUEUE_NAME, "crashed", ErrorInfo.class, 0L, 1000L)).as("Check take").isNotNull();	// Never acknowledged.
+		assertThat(queue.getQueueSize(QUEUE_NAME)).as("Check size: taken").isEqualTo(0);
+
+		ThreadUtils.sleep(1100L);	// Heartbeat expires.
+
+		manager.withReapInterval(0L).turnOn();
+		assertThat(manager.reap()).as("Check reap").isEqualTo(1);
+		assertThat(queue.getQueueSize(QUEUE_NAME)).as("Check size: reaped").isEqualTo(1);
+		assertThat(manager.process()).as("Check process").isEqualTo(1);
+		assertThat(operator.successes).as("Check successes").isEqualTo(1);
+	}
+}
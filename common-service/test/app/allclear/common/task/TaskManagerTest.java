@@ -4,6 +4,7 @@ import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.*;
 
 import org.junit.jupiter.api.*;
@@ -14,6 +15,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import app.allclear.common.ThreadUtils;
 import app.allclear.common.errors.ErrorInfo;
 import app.allclear.common.errors.ThrottledException;
+import app.allclear.common.errors.ValidationException;
 
 /** Functional test class for the TaskManager background processor.
  * 
@@ -384,6 +386,110 @@ public class TaskManagerTest
 		Assertions.assertEquals(8, onSuccess, "Check onSuccess");
 	}
 
+	@Test
+	public void testConcurrency() throws Exception
+	{
+		var value = manager.concurrency(QUEUE_NAME);
+		Assertions.assertEquals(QUEUE_NAME, value.name, "Check name");
+		Assertions.assertEquals(0, value.min, "Check min");
+		Assertions.assertEquals(1, value.max, "Check max");
+		Assertions.assertEquals(1, value.weight, "Check weight");
+		Assertions.assertEquals(0, value.running, "Check running");
+
+		value = manager.concurrency(QUEUE_NAME, new OperatorConcurrency(null, 1, 3, 2, 0));
+		Assertions.assertEquals(1, value.min, "Check min: updated");
+		Assertions.assertEquals(3, value.max, "Check max: updated");
+		Assertions.assertEquals(2, value.weight, "Check weight: updated");
+		Assertions.assertEquals(3, operator.maxConcurrency, "Check operator.maxConcurrency");
+
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> manager.concurrency(QUEUE_NAME, new OperatorConcurrency(null, 4, 3, 1, 0))))
+			.hasMessage("The minimum concurrency cannot exceed the maximum concurrency.");
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> manager.concurrency(QUEUE_NAME, new OperatorConcurrency(null, 0, 0, 1, 0))))
+			.hasMessage("The maximum concurrency must be at least one.");
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> manager.concurrency(QUEUE_NAME, new OperatorConcurrency(null, 0, 1, 0, 0))))
+			.hasMessage("The weight must be at least one.");
+		assertThat(Assertions.assertThrows(ValidationException.class, () -> manager.concurrency("invalid", new OperatorConcurrency(null, 0, 1, 1, 0))))
+			.hasMessage("The queue 'invalid' does not exist.");
+	}
+
+	@Test
+	public void testDispatch_maxConcurrency() throws Exception
+	{
+		var current = new AtomicInteger();
+		var peak = new AtomicInteger();
+		var queueName = "concurrent";
+		var operator = new TaskOperator<String>(queueName, x -> {
+			peak.accumulateAndGet(current.incrementAndGet(), Math::max);
+			ThreadUtils.sleep(20L);
+			current.decrementAndGet();
+			return true;
+		}, String.class).withConcurrency(0, 2);
+		var manager = new TaskManager(queue, 0L, 4, operator).withBatchSize(1);
+
+		for (int j = 0; j < 20; j++) queue.pushTask(queueName, new TaskRequest<String>("Request: " + j));
+
+		manager.start();
+		try
+		{
+			var time = System.currentTimeMillis();
+			while ((20 > operator.successes) && (5000L > (System.currentTimeMillis() - time))) ThreadUtils.sleep(10L);
+		}
+		finally { manager.stop(); }
+
+		Assertions.assertEquals(20, operator.successes, "Check successes");
+		Assertions.assertEquals(2, peak.get(), "Check peak concurrency");
+		Assertions.assertEquals(0, manager.concurrency(queueName).running, "Check running");
+	}
+
+	@Test
+	public void testDispatch_minConcurrency() throws Exception
+	{
+		var reserved = new TaskOperator<String>("reserved", x -> true, String.class).withConcurrency(1, 1);
+		var busy = new TaskOperator<String>("busy", x -> true, String.class);
+		var manager = new TaskManager(queue, 1, reserved, busy).withBatchSize(1);
+
+		for (int j = 0; j < 30; j++) queue.pushTask(busy.name, new TaskRequest<String>("Busy: " + j));
+
+		manager.turnOn();
+		for (int j = 0; j < 20; j++) manager.dispatch();
+
+		assertThat(reserved.successes).as("Check reserved").isEqualTo(0);
+		assertThat(busy.successes).as("Check busy").isGreaterThanOrEqualTo(8);	// Not starved by the empty operator's minimum concurrency.
+
+		for (int j = 0; j < 5; j++) queue.pushTask(reserved.name, new TaskRequest<String>("Reserved: " + j));
+		for (int j = 0; j < 10; j++) manager.dispatch();
+
+		assertThat(reserved.successes).as("Check reserved: found requests").isEqualTo(5);	// Goes first again once a batch finds requests.
+	}
+
+	@Test
+	public void testDispatch_weighted() throws Exception
+	{
+		var heavy = new TaskOperator<String>("heavy", x -> true, String.class).withWeight(3);
+		var light = new TaskOperator<String>("light", x -> true, String.class);
+		var empty = new TaskOperator<String>("empty", x -> true, String.class);
+		var manager = new TaskManager(queue, 1, heavy, light, empty).withBatchSize(1);
+
+		for (int j = 0; j < 30; j++)
+		{
+			queue.pushTask(heavy.name, new TaskRequest<String>("Heavy: " + j));
+			queue.pushTask(light.name, new TaskRequest<String>("Light: " + j));
+		}
+
+		manager.turnOn();
+		for (int j = 0; j < 25; j++) manager.dispatch();
+
+		assertThat(heavy.successes).as("Check heavy").isGreaterThanOrEqualTo(14).isLessThanOrEqualTo(16);	// Three shares of five.
+		assertThat(light.successes).as("Check light").isGreaterThanOrEqualTo(4).isLessThanOrEqualTo(6);	// One share. The empty operator takes the last share without starving either.
+
+		int heavy_ = heavy.successes, light_ = light.successes;
+		manager.concurrency("light", new OperatorConcurrency(null, 0, 1, 3, 0));	// Rebalance while running.
+		for (int j = 0; j < 14; j++) manager.dispatch();
+
+		assertThat(heavy.successes - heavy_).as("Check heavy: rebalanced").isGreaterThanOrEqualTo(5).isLessThanOrEqualTo(7);	// Three shares of seven.
+		assertThat(light.successes - light_).as("Check light: rebalanced").isGreaterThanOrEqualTo(5).isLessThanOrEqualTo(7);
+	}
+
 	@Test
 	public void testThrottling() throws Exception
 	{
@@ -0,0 +1,80 @@
+package app.allclear.platform.filter;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import app.allclear.common.ObjectUtils;
+
+/** Value object that represents the latitude/longitude bounding box that encloses a GEO radius search.
+ *  Used as an index friendly prefilter so that the exact great-circle distance is only calculated for the rows inside the box.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class GeoBox implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public static final int SRID = 4326;	// WGS 84 - same as the facility.location column.
+	public static final double EARTH_RADIUS = 6370986d;	// Meters - same as the MySQL ST_DISTANCE_SPHERE default. Also used by the in-process facility indices.
+	public static final double METERS_PER_DEGREE = EARTH_RADIUS * Math.PI / 180d;
+
+	public final double latitudeFrom;
+	public final double latitudeTo;
+	public final double longitudeFrom;
+	public final double longitudeTo;
+
+	public GeoBox(final double latitudeFrom, final double latitudeTo, final double longitudeFrom, final double longitudeTo)
+	{
+		this.latitudeFrom = latitudeFrom;
+		this.latitudeTo = latitudeTo;
+		this.longitudeFrom = longitudeFrom;
+		this.longitudeTo = longitudeTo;
+	}
+
+	/** Creates the box that encloses the radius around the origin.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @return NULL if the box reaches a pole or crosses the antimeridian - callers should skip the prefilter.
+	 */
+	public static GeoBox of(final BigDecimal latitude, final BigDecimal longitude, final long meters)
+	{
+		if ((null == latitude) || (null == longitude)) return null;
+
+		var lat = latitude.doubleValue();
+		var lon = longitude.doubleValue();
+		var deltaLat = meters / METERS_PER_DEGREE;
+		if (90d <= (Math.abs(lat) + deltaLat)) return null;
+
+		// Longitude degrees shrink toward the poles so widen the box by the widest latitude covered.
+		var deltaLon = deltaLat / Math.cos(Math.toRadians(Math.abs(lat) + deltaLat));
+		if ((-180d > (lon - deltaLon)) || (180d < (lon + deltaLon))) return null;
+
+		return new GeoBox(lat - deltaLat, lat + deltaLat, lon - deltaLon, lon + deltaLon);
+	}
+
+	/** Well-known text polygon of the box in longitude-latitude axis order. */
+	public String wkt()
+	{
+		return "POLYGON((" +
+			longitudeFrom + " " + latitudeFrom + ", " +
+			longitudeTo + " " + latitudeFrom + ", " +
+			longitudeTo + " " + latitudeTo + ", " +
+			longitudeFrom + " " + latitudeTo + ", " +
+			longitudeFrom + " " + latitudeFrom + "))";
+	}
+
+	/** Indicates whether the coordinates fall inside the box. */
+	public boolean contains(final double latitude, final double longitude)
+	{
+		return (latitudeFrom <= latitude) && (latitude <= latitudeTo) && (longitudeFrom <= longitude) && (longitude <= longitudeTo);
+	}
+
+	@Override
+	public String toString() { return ObjectUtils.toString(this); }
+}
@@ -49,6 +49,7 @@ public class GeoFilter implements Serializable
 	}
 
 	public long meters() { return ((null != miles) ? milesToMeters(miles) : kmToMeters(km)); }
+	public GeoBox box() { return GeoBox.of(latitude, longitude, meters()); }	// NULL when the prefilter cannot be used. DLS on 10/17/2026.
 	public boolean valid()
 	{
 		return ((null != latitude) && (null != longitude) && ((null != miles) || (null != km)));
@@ -0,0 +1,61 @@
+package app.allclear.platform.model;
+
+import java.io.Serializable;
+import java.util.*;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import app.allclear.common.ObjectUtils;
+
+/** Value object that represents the aggregated progress of the Facility Alert initialization of a single timezone.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class AlertInitProgress implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public final String timezoneId;
+	public final Integer shards;	// Number of ID ranges that the run was split into.
+	public final int completed;	// Number of ID ranges scanned.
+	public final int people;	// Number of people scanned by the completed ID ranges.
+	public final Date startedAt;
+
+	public boolean done() { return (null != shards) && (completed >= shards); }
+
+	public AlertInitProgress(@JsonProperty("timezoneId") final String timezoneId,
+		@JsonProperty("shards") final Integer shards,
+		@JsonProperty("completed") final int completed,
+		@JsonProperty("people") final int people,
+		@JsonProperty("startedAt") final Date startedAt)
+	{
+		this.timezoneId = timezoneId;
+		this.shards = shards;
+		this.completed = completed;
+		this.people = people;
+		this.startedAt = startedAt;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (!(o instanceof AlertInitProgress)) return false;
+
+		var v = (AlertInitProgress) o;
+		return Objects.equals(timezoneId, v.timezoneId) &&
+			Objects.equals(shards, v.shards) &&
+			(completed == v.completed) &&
+			(people == v.people) &&
+			Objects.equals(startedAt, v.startedAt);
+	}
+
+	@Override
+	public int hashCode() { return Objects.hash(timezoneId, completed); }
+
+	@Override
+	public String toString() { return ObjectUtils.toString(this); }
+}
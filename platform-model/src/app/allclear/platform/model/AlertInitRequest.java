@@ -22,10 +22,28 @@ public class AlertInitRequest implements Serializable
 	private static final long serialVersionUID = 1L;
 
 	public final String timezoneId;
+	public final Integer shard;	// Restricts the request to a single ID range of the timezone. NULL handles the whole timezone. DLS on 10/17/2026.
+	public final Integer shards;	// Number of ID ranges that the timezone was split into. NULL uses the task's default. DLS on 10/17/2026.
 
-	public AlertInitRequest(@JsonProperty("timezoneId") final String timezoneId)
+	public boolean sharded() { return (null != shard); }
+
+	public AlertInitRequest(final String timezoneId)
+	{
+		this(timezoneId, null);
+	}
+
+	public AlertInitRequest(final String timezoneId, final Integer shard)
+	{
+		this(timezoneId, shard, null);
+	}
+
+	public AlertInitRequest(@JsonProperty("timezoneId") final String timezoneId,
+		@JsonProperty("shard") final Integer shard,
+		@JsonProperty("shards") final Integer shards)
 	{
 		this.timezoneId = StringUtils.trimToNull(timezoneId);
+		this.shard = shard;
+		this.shards = shards;
 	}
 
 	@Override
@@ -34,11 +52,11 @@ public class AlertInitRequest implements Serializable
 		if (!(o instanceof AlertInitRequest)) return false;
 
 		var v = (AlertInitRequest) o;
-		return Objects.equals(timezoneId, v.timezoneId);
+		return Objects.equals(timezoneId, v.timezoneId) && Objects.equals(shard, v.shard) && Objects.equals(shards, v.shards);
 	}
 
 	@Override
-	public int hashCode() { return Objects.hashCode(timezoneId); }
+	public int hashCode() { return Objects.hash(timezoneId, shard, shards); }
 
 	@Override
 	public String toString() { return ObjectUtils.toString(this); }
@@ -1,6 +1,7 @@
 package app.allclear.platform.model;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Objects;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -8,6 +9,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import app.allclear.common.ObjectUtils;
 
 /** Value object that represents a request to run the Facility Alert task for the specific user.
+ *  A batch request carries many users in the personIds property instead so that a single queue message covers them all.
  * 
  * @author smalleyd
  * @version 1.0.109
@@ -19,11 +21,38 @@ public class AlertRequest implements Serializable
 {
 	private static final long serialVersionUID = 1L;
 
+	public static final int BATCH_SIZE = 50;	// Maximum number of users per batch request. DLS on 10/17/2026.
+
 	public final String personId;
+	public final List<String> personIds;	// Batch of users. DLS on 10/17/2026.
+	public final Integer tries;	// Number of times that the failed users of a batch have been requeued. DLS on 10/17/2026.
+
+	public boolean batch() { return (null != personIds); }
+	public int tries() { return (null != tries) ? tries : 0; }
+
+	/** Creates a single request for one user or a batch request for more. */
+	public static AlertRequest of(final List<String> personIds)
+	{
+		return (1 == personIds.size()) ? new AlertRequest(personIds.get(0)) : new AlertRequest(List.copyOf(personIds), null);
+	}
+
+	public AlertRequest(final String personId)
+	{
+		this(personId, null, null);
+	}
+
+	public AlertRequest(final List<String> personIds, final Integer tries)
+	{
+		this(null, personIds, tries);
+	}
 
-	public AlertRequest(@JsonProperty("personId") final String personId)
+	public AlertRequest(@JsonProperty("personId") final String personId,
+		@JsonProperty("personIds") final List<String> personIds,
+		@JsonProperty("tries") final Integer tries)
 	{
 		this.personId = personId;
+		this.personIds = personIds;
+		this.tries = tries;
 	}
 
 	@Override
@@ -32,11 +61,11 @@ public class AlertRequest implements Serializable
 		if (!(o instanceof AlertRequest)) return false;
 
 		var v = (AlertRequest) o;
-		return Objects.equals(personId, v.personId);
+		return Objects.equals(personId, v.personId) && Objects.equals(personIds, v.personIds) && Objects.equals(tries, v.tries);
 	}
 
 	@Override
-	public int hashCode() { return Objects.hashCode(personId); }
+	public int hashCode() { return Objects.hash(personId, personIds); }
 
 	@Override
 	public String toString() { return ObjectUtils.toString(this); }
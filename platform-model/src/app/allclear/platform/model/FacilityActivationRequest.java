@@ -0,0 +1,57 @@
+package app.allclear.platform.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import app.allclear.common.ObjectUtils;
+
+/** Value object that represents a request to push Facility Alerts to the people near a newly activated facility.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityActivationRequest implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public final Long facilityId;
+	public final BigDecimal latitude;
+	public final BigDecimal longitude;
+	public final Date activatedAt;
+
+	public FacilityActivationRequest(@JsonProperty("facilityId") final Long facilityId,
+		@JsonProperty("latitude") final BigDecimal latitude,
+		@JsonProperty("longitude") final BigDecimal longitude,
+		@JsonProperty("activatedAt") final Date activatedAt)
+	{
+		this.facilityId = facilityId;
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.activatedAt = activatedAt;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (!(o instanceof FacilityActivationRequest)) return false;
+
+		var v = (FacilityActivationRequest) o;
+		return Objects.equals(facilityId, v.facilityId) &&
+			Objects.equals(latitude, v.latitude) &&
+			Objects.equals(longitude, v.longitude) &&
+			Objects.equals(activatedAt, v.activatedAt);
+	}
+
+	@Override
+	public int hashCode() { return Objects.hashCode(facilityId); }
+
+	@Override
+	public String toString() { return ObjectUtils.toString(this); }
+}
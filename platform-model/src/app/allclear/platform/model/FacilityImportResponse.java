@@ -0,0 +1,81 @@
+package app.allclear.platform.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import app.allclear.common.ObjectUtils;
+
+/** Value object that represents the outcome of a single row of a bulk facility import.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityImportResponse implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	public static final String ADD = "add";
+	public static final String UPDATE = "update";
+	public static final String ERROR = "error";
+
+	public final int index;	// Position of the row in the import request.
+	public final Long id;
+	public final String name;
+	public final String action;
+	public final String message;	// Populated when the action is "error".
+
+	public boolean error() { return ERROR.equals(action); }
+
+	public FacilityImportResponse(@JsonProperty("index") final int index,
+		@JsonProperty("id") final Long id,
+		@JsonProperty("name") final String name,
+		@JsonProperty("action") final String action,
+		@JsonProperty("message") final String message)
+	{
+		this.index = index;
+		this.id = id;
+		this.name = name;
+		this.action = action;
+		this.message = message;
+	}
+
+	public FacilityImportResponse(final int index, final Long id, final String name, final String action)
+	{
+		this(index, id, name, action, null);
+	}
+
+	public FacilityImportResponse(final int index, final String name, final Exception ex)
+	{
+		this(index, null, name, ERROR, ex.getMessage());
+	}
+
+	/** Shifts the row position to account for the rows imported in earlier batches. */
+	public FacilityImportResponse offset(final int value)
+	{
+		return (0 == value) ? this : new FacilityImportResponse(index + value, id, name, action, message);
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (!(o instanceof FacilityImportResponse)) return false;
+
+		var v = (FacilityImportResponse) o;
+		return (index == v.index) &&
+			Objects.equals(id, v.id) &&
+			Objects.equals(name, v.name) &&
+			Objects.equals(action, v.action) &&
+			Objects.equals(message, v.message);
+	}
+
+	@Override
+	public int hashCode() { return Objects.hash(index, id); }
+
+	@Override
+	public String toString() { return ObjectUtils.toString(this); }
+}
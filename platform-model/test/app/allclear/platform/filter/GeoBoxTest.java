@@ -0,0 +1,73 @@
+package app.allclear.platform.filter;
+
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.math.BigDecimal;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Unit test class that verifies the GeoBox POJO.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class GeoBoxTest
+{
+	public static Stream<Arguments> of()
+	{
+		return Stream.of(
+			arguments(null, null, 1000L, false),
+			arguments(null, "40", 1000L, false),
+			arguments("30", null, 1000L, false),
+			arguments("0", "0", 111195L, true),
+			arguments("36.16", "-86.78", 160900L, true),
+			arguments("89.5", "10", 111195L, false),	// Reaches the north pole.
+			arguments("-89.5", "10", 111195L, false),	// Reaches the south pole.
+			arguments("0", "179.5", 111195L, false),	// Crosses the antimeridian.
+			arguments("0", "-179.5", 111195L, false));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void of(final String latitude, final String longitude, final long meters, final boolean expected)
+	{
+		var o = GeoBox.of((null != latitude) ? new BigDecimal(latitude) : null, (null != longitude) ? new BigDecimal(longitude) : null, meters);
+
+		Assertions.assertEquals(expected, null != o, "Check exists");
+		if (null == o) return;
+
+		var lat = Double.parseDouble(latitude);
+		var lon = Double.parseDouble(longitude);
+		var deltaLat = meters / GeoBox.METERS_PER_DEGREE;
+		Assertions.assertEquals(lat - deltaLat, o.latitudeFrom, 0.000001d, "Check latitudeFrom");
+		Assertions.assertEquals(lat + deltaLat, o.latitudeTo, 0.000001d, "Check latitudeTo");
+		Assertions.assertTrue(o.longitudeFrom <= (lon - deltaLat), "Check longitudeFrom");
+		Assertions.assertTrue(o.longitudeTo >= (lon + deltaLat), "Check longitudeTo");
+		Assertions.assertTrue(o.contains(lat, lon), "Check contains: origin");
+		Assertions.assertFalse(o.contains(lat + 2d * deltaLat, lon), "Check contains: north");
+		Assertions.assertFalse(o.contains(lat, lon - 2d * (lon - o.longitudeFrom)), "Check contains: west");
+	}
+
+	@Test
+	public void wkt()
+	{
+		var o = new GeoBox(1d, 2d, -4d, -3d);
+
+		Assertions.assertEquals("POLYGON((-4.0 1.0, -3.0 1.0, -3.0 2.0, -4.0 2.0, -4.0 1.0))", o.wkt());
+	}
+
+	@Test
+	public void box()
+	{
+		Assertions.assertNotNull(new GeoFilter(new BigDecimal("36.16"), new BigDecimal("-86.78"), 100).box(), "Check box");
+		Assertions.assertNull(new GeoFilter(new BigDecimal("36.16"), new BigDecimal("-179.9"), 100).box(), "Check box: antimeridian");
+	}
+}
@@ -1,6 +1,7 @@
 package app.allclear.platform;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
 import org.slf4j.*;
@@ -52,9 +53,10 @@ public class App extends Application<Config>
 	public static final String QUEUE_ALERT = "alert";
 	public static final String QUEUE_ALERT_INIT = "alert-init";
 	public static final String QUEUE_FACILITATE = "facilitate";
+	public static final String QUEUE_FACILITY_ACTIVATION = "facility-activation";
 	public static final String SESSION = "session-cache";
 
-	public static final Class<?>[] ENTITIES = new Class<?>[] { Conditions.class, CountByBoolean.class, CountByName.class, Experiences.class, ExperiencesTag.class, Exposures.class, Facility.class, FacilityX.class, FacilityTestType.class, Friend.class, Friendship.class, Name.class, Named.class, People.class, PeopleFacility.class, PeopleField.class, Symptoms.class, SymptomsLog.class, Tests.class, Total.class };
+	public static final Class<?>[] ENTITIES = new Class<?>[] { Conditions.class, CountByBoolean.class, CountByName.class, Experiences.class, ExperiencesTag.class, Exposures.class, Facility.class, FacilityActivation.class, FacilityPoint.class, FacilityX.class, FacilityTestType.class, Friend.class, Friendship.class, Name.class, Named.class, People.class, PeopleFacility.class, PeopleField.class, PeoplePoint.class, Symptoms.class, SymptomsLog.class, Tests.class, Total.class };
 
 	private final HibernateBundle<Config> transHibernateBundle = new HibernateBundle<>(People.class, ENTITIES) {
 		@Override public DataSourceFactory getDataSourceFactory(final Config conf) { return conf.trans; }
@@ -110,15 +112,39 @@ public class App extends Application<Config>
 		var sessionDao = new SessionDAO(session, twilio, conf);
 		var auditor = new AuditLogDAO(factory, sessionDao, conf.auditLog);
 		var customerDao = new CustomerDAO(conf.env, conf.admins, session);
-		var facilityDao = new FacilityDAO(factory, auditor);
+		var facilityDao = new FacilityDAO(factory, auditor,
+			new FacilityGeoIndex(), new FacilityNameIndex(), new FacilitySearchCache(session, env.metrics()), new FacilityFacets(), new FacilityAttributeIndex(), new FacilityActivationTimeline());
 		var peopleDao = new PeopleDAO(factory);
 		var registrationDao = new RegistrationDAO(session, twilio, conf);
 
+		var facilityIndexer = new FacilityIndexTask(factory, facilityDao);
+		facilityIndexer.run();	// Build the in-process facility indices before serving requests. DLS on 10/17/2026.
+		lifecycle.scheduledExecutorService("facility-index").build().scheduleWithFixedDelay(facilityIndexer, 5L, 5L, TimeUnit.MINUTES);	// Picks up changes made by other nodes.
+
+		var alertTask = new AlertTask(factory, peopleDao, facilityDao, sessionDao);
+		var activationTask = new FacilityActivationTask(factory, peopleDao, AlertRequest.BATCH_SIZE);
 		var task = new QueueManager(conf.queue, conf.task(), 2,
-			new TaskOperator<>(QUEUE_ALERT, new AlertTask(factory, peopleDao, facilityDao, sessionDao), AlertRequest.class, 10, 5, 60, 3600),
+			new TaskOperator<>(QUEUE_ALERT, alertTask, AlertRequest.class, 10, 5, 60, 3600),
+			new TaskOperator<>(QUEUE_FACILITY_ACTIVATION, activationTask, FacilityActivationRequest.class, 10, 30, 60, 3600),
 			new TaskOperator<>(QUEUE_FACILITATE, new FacilitateTask(adminDao, twilio, conf), FacilitateValue.class, 3, 30, 60, 3600));
 
-		lifecycle.manage(task.addOperator(new TaskOperator<>(QUEUE_ALERT_INIT, new AlertInitTask(factory, peopleDao, task.queue(QUEUE_ALERT)), AlertInitRequest.class, 10, 120, 60, 3600)));
+		alertTask.withQueue(task.queue(QUEUE_ALERT));	// Requeues the failed users of a batch. DLS on 10/17/2026.
+		var alertedBuffer = new PeopleAlertedBuffer(factory, peopleDao);
+		lifecycle.manage(new AutoCloseableManager(alertedBuffer));	// Managed before the dispatcher so that it is closed after it.
+		alertTask.withAlerted(alertedBuffer);	// Writes the alert checks in bulk. DLS on 10/17/2026.
+		if (0 < conf.alertConcurrency)
+		{
+			var alertDispatcher = new AlertDispatcher(sessionDao, conf.alertConcurrency);
+			lifecycle.manage(new AutoCloseableManager(alertDispatcher));
+			alertTask.withDispatcher(alertDispatcher);	// Sends the alert SMS messages after the checks commit. DLS on 10/17/2026.
+		}
+		activationTask.withQueue(task.queue(QUEUE_ALERT));
+		facilityDao.withActivations(FacilityActivationTask.enqueue(task.queue(QUEUE_FACILITY_ACTIVATION)));	// Push alerts to the people near newly activated facilities. DLS on 10/17/2026.
+		var alertInitTask = new AlertInitTask(factory, peopleDao, facilityDao, task.queue(QUEUE_ALERT), AlertRequest.BATCH_SIZE)
+			.withLeases(new AlertInitLeaseDAO(session), AlertInitTask.SHARDS)	// Only one node scans each ID range of a timezone at a time. DLS on 10/17/2026.
+			.withShardSize(AlertInitTask.SHARD_SIZE);	// More ranges for the more populated timezones. DLS on 10/17/2026.
+		lifecycle.manage(task.addOperator(new TaskOperator<>(QUEUE_ALERT_INIT, alertInitTask, AlertInitRequest.class, 10, 120, 60, 3600)));
+		alertInitTask.withInitQueue(task.queue(QUEUE_ALERT_INIT));	// Spreads the ID ranges across the nodes.
 
 		var hc = env.healthChecks();
 		hc.register(SESSION, session);
@@ -145,7 +171,7 @@ public class App extends Application<Config>
         jersey.register(new CustomerResource(customerDao));
         jersey.register(new ExperiencesResource(new ExperiencesDAO(factory, sessionDao)));
         jersey.register(new FacilitateResource(new FacilitateDAO(conf.auditLog, facilityDao, sessionDao, task.queue(QUEUE_FACILITATE))));
-        jersey.register(new FacilityResource(facilityDao, sessionDao, map));
+        jersey.register(new FacilityResource(facilityDao, sessionDao, map, new FacilityExporter(factory, facilityDao), new FacilityImportTask(factory, facilityDao)));
         jersey.register(new FriendResource(new FriendDAO(factory), sessionDao));
         jersey.register(new MapResource(map));
 		jersey.register(new PeopleResource(peopleDao, registrationDao, sessionDao, task.queue(QUEUE_ALERT)));
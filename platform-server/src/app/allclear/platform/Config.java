@@ -28,6 +28,8 @@ public class Config extends Configuration implements Serializable
 {
 	private static final long serialVersionUID = 1L;
 
+	public static final int ALERT_CONCURRENCY = 10;
+
 	private static final Pattern PATTERN_BASE_URL = Pattern.compile("\\$\\{baseUrl\\}");
 	public static String baseUrl(final String name, final String baseUrl)
 	{
@@ -54,6 +56,7 @@ public class Config extends Configuration implements Serializable
 
 	public final int task;	// Number of seconds for the QueueManager to delay between polling checks.
 	public final String queue;	// Connection string to the queue space.
+	public final int alertConcurrency;	// Maximum number of facility alert SMS messages sent at once. Zero sends them inside the alert transaction.
 	public final String admins;
 	public final String auditLog;
 	public final JedisConfig geocode;
@@ -74,6 +77,7 @@ public class Config extends Configuration implements Serializable
 		@JsonProperty("registrationPhone") final String registrationPhone,
 		@JsonProperty("task") final Integer task,
 		@JsonProperty("queue") final String queue,
+		@JsonProperty("alertConcurrency") final Integer alertConcurrency,
 		@JsonProperty("admins") final String admins,
 		@JsonProperty("auditLog") final String auditLog,
 		@JsonProperty("geocode") final JedisConfig geocode,
@@ -108,6 +112,7 @@ public class Config extends Configuration implements Serializable
 
 		this.task = (null != task) ? task : 0;
 		this.queue = queue;
+		this.alertConcurrency = (null != alertConcurrency) ? alertConcurrency : ALERT_CONCURRENCY;
 		this.admins = admins;
 		this.auditLog = auditLog;
 		this.geocode = geocode;
@@ -0,0 +1,214 @@
+package app.allclear.platform.dao;
+
+import java.util.*;
+
+import app.allclear.common.redis.RedisClient;
+import app.allclear.common.redis.RedisLease;
+import app.allclear.platform.model.AlertInitProgress;
+import app.allclear.platform.type.Timezone;
+
+/** Data access object that coordinates the alert initialization across the cluster. Each ID range (shard) of a timezone is
+ *  processed under an exclusive Redis lease so that only one node scans it at a time. The scan records its progress in a
+ *  checkpoint that is guarded by the lease's fencing token so that a crashed scan can be resumed by another node, and so that
+ *  a node that has lost its lease cannot overwrite the progress of its successor. The completed shards of a run are tallied
+ *  per timezone to report the progress of the whole run.
+ *  
+ *  The number of shards is fixed by the first request of a run and stored with its progress. Later requests join the run with
+ *  its split until every shard has completed so that two splits never scan overlapping ranges at once.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class AlertInitLeaseDAO
+{
+	public static final long DURATION = 5L * 60L * 1000L;	// Lease duration. Renewed with every checkpoint.
+	public static final long CHECKPOINT_DURATION = 6L * 60L * 60L * 1000L;	// Keeps an abandoned checkpoint from being resumed by the next day's run.
+	public static final long COMPLETED_DURATION = 60L * 60L * 1000L;	// Keeps retried or duplicate requests from scanning a completed shard again.
+	public static final long START_DURATION = 30L * 1000L;	// Serializes the start of a run across the cluster.
+	public static final String LAST_ID = "lastId";
+	public static final String COMPLETED_AT = "completedAt";
+	public static final String COUNT = "count";
+	public static final String SHARDS = "shards";
+	public static final String STARTED_AT = "startedAt";
+	public static final String SHARD = "shard:";	// Prefix of the progress fields that hold the number of people scanned by each completed shard.
+
+	private static final String NAME = "alert-init:%s:%d/%d";	// The shard number is qualified by the number of shards because the ranges change with the number.
+	private static final String CHECKPOINT = "alert-init:%s:%d/%d:checkpoint";
+	private static final String PROGRESS = "alert-init:%s:progress";
+	private static final String START = "alert-init:%s:start";
+
+	public static String name(final Timezone zone, final int shards, final int shard) { return String.format(NAME, zone.id, shard, shards); }
+	public static String checkpointKey(final Timezone zone, final int shards, final int shard) { return String.format(CHECKPOINT, zone.id, shard, shards); }
+	public static String progressKey(final Timezone zone) { return String.format(PROGRESS, zone.id); }
+	public static String startName(final Timezone zone) { return String.format(START, zone.id); }
+
+	private final RedisClient redis;
+
+	public AlertInitLeaseDAO(final RedisClient redis)
+	{
+		this.redis = redis;
+	}
+
+	/** Acquires the lease of a single shard.
+	 *
+	 * @param zone
+	 * @param shards
+	 * @param shard
+	 * @return NULL if another node is scanning the shard.
+	 */
+	public RedisLease acquire(final Timezone zone, final int shards, final int shard)
+	{
+		return redis.lease(name(zone, shards, shard), DURATION);
+	}
+
+	/** Indicates that the shard was recently completed. */
+	public boolean completed(final Timezone zone, final int shards, final int shard)
+	{
+		return null != redis.hash(checkpointKey(zone, shards, shard), COMPLETED_AT);
+	}
+
+	/** Gets the last ID processed by an earlier scan of the shard that did not complete.
+	 *
+	 * @param zone
+	 * @param shards
+	 * @param shard
+	 * @return NULL if there is nothing to resume.
+	 */
+	public String lastId(final Timezone zone, final int shards, final int shard)
+	{
+		return redis.hash(checkpointKey(zone, shards, shard), LAST_ID);
+	}
+
+	/** Records the progress of the scan and extends the lease.
+	 *
+	 * @param lease
+	 * @param zone
+	 * @param shards
+	 * @param shard
+	 * @param lastId the last ID processed.
+	 * @return FALSE if the lease has been lost and the scan must stop.
+	 */
+	public boolean checkpoint(final RedisLease lease, final Timezone zone, final int shards, final int shard, final String lastId)
+	{
+		var key = checkpointKey(zone, shards, shard);
+		return redis.hash(lease, key, LAST_ID, lastId) && redis.expire(lease, key, CHECKPOINT_DURATION) && redis.renew(lease, DURATION);
+	}
+
+	/** Marks the shard as completed and adds it to the progress of the run. The progress field is keyed by the shard so that a
+	 *  shard completed twice is only counted once.
+	 *
+	 * @param lease
+	 * @param zone
+	 * @param shards
+	 * @param shard
+	 * @param count number of people scanned by this lease.
+	 * @return FALSE if the lease has been lost.
+	 */
+	public boolean complete(final RedisLease lease, final Timezone zone, final int shards, final int shard, final int count)
+	{
+		var key = checkpointKey(zone, shards, shard);
+		return redis.hash(lease, key, COUNT, Integer.toString(count)) &&
+			redis.hash(lease, key, COMPLETED_AT, Long.toString(System.currentTimeMillis())) &&
+			redis.expire(lease, key, COMPLETED_DURATION) &&
+			progress(lease, zone, shard, count);
+	}
+
+	/** Adds a shard that was completed by an earlier request to the progress of the current run.
+	 *
+	 * @param lease
+	 * @param zone
+	 * @param shards
+	 * @param shard
+	 * @return FALSE if the lease has been lost.
+	 */
+	public boolean tally(final RedisLease lease, final Timezone zone, final int shards, final int shard)
+	{
+		var count = redis.hash(checkpointKey(zone, shards, shard), COUNT);
+		return progress(lease, zone, shard, (null != count) ? Integer.parseInt(count) : 0);
+	}
+
+	/** Helper method - records the number of people scanned by a completed shard. */
+	private boolean progress(final RedisLease lease, final Timezone zone, final int shard, final int count)
+	{
+		var key = progressKey(zone);
+		return redis.hash(lease, key, SHARD + shard, Integer.toString(count)) && redis.expire(lease, key, CHECKPOINT_DURATION);
+	}
+
+	/** Starts a new run of the timezone unless a run is already going. A run that is going keeps its split and its progress.
+	 *
+	 * @param zone
+	 * @param shards number of ID ranges to split a new run into.
+	 * @return the number of ID ranges that the current run is split into. NULL if another node is starting a run.
+	 */
+	public Integer started(final Timezone zone, final int shards)
+	{
+		var lease = redis.lease(startName(zone), START_DURATION);
+		if (null == lease) return null;
+
+		try
+		{
+			var o = progress(zone);
+			if ((null != o) && (null != o.shards) && !o.done()) return o.shards;
+
+			var key = progressKey(zone);
+			redis.remove(key);
+			redis.hash(key, Map.of(SHARDS, Integer.toString(shards), STARTED_AT, Long.toString(System.currentTimeMillis())));
+			redis.expire(key, (int) (CHECKPOINT_DURATION / 1000L));
+
+			return shards;
+		}
+		finally { redis.release(lease); }
+	}
+
+	/** Gets the split of the latest run of the timezone for a single shard. Starts a run if the timezone has not been run recently.
+	 *  Unlike "started", a completed run is not restarted so that a duplicate request for a shard does not reset the progress.
+	 *
+	 * @param zone
+	 * @param shards number of ID ranges to split a new run into.
+	 * @return the number of ID ranges that the latest run is split into. NULL if another node is starting a run.
+	 */
+	public Integer joined(final Timezone zone, final int shards)
+	{
+		var o = redis.hash(progressKey(zone), SHARDS);
+
+		return (null != o) ? Integer.valueOf(o) : started(zone, shards);
+	}
+
+	/** Gets the progress of the latest run of the timezone.
+	 *
+	 * @param zone
+	 * @return NULL if the timezone has not been run recently.
+	 */
+	public AlertInitProgress progress(final Timezone zone)
+	{
+		var values = redis.hash(progressKey(zone));
+		if (values.isEmpty()) return null;
+
+		int completed = 0, people = 0;
+		for (var o : values.entrySet())
+		{
+			if (!o.getKey().startsWith(SHARD)) continue;
+
+			completed++;
+			people+= Integer.parseInt(o.getValue());
+		}
+
+		var startedAt = values.get(STARTED_AT);
+		return new AlertInitProgress(zone.id, toInteger(values.get(SHARDS)), completed, people, (null != startedAt) ? new Date(Long.parseLong(startedAt)) : null);
+	}
+
+	private Integer toInteger(final String value) { return (null != value) ? Integer.valueOf(value) : null; }
+
+	/** Releases the lease so that another node can take the shard.
+	 *
+	 * @param lease
+	 * @return FALSE if the lease had already been lost.
+	 */
+	public boolean release(final RedisLease lease)
+	{
+		return redis.release(lease);
+	}
+}
@@ -9,12 +9,16 @@ import static com.microsoft.azure.storage.table.TableQuery.QueryComparisons.*;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.tuple.Pair;
 import org.hibernate.SessionFactory;
+import org.slf4j.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.azure.storage.StorageException;
@@ -42,6 +46,8 @@ import app.allclear.platform.value.AuditLogValue;
 
 public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 {
+	private static final Logger log = LoggerFactory.getLogger(AuditLogDAO.class);
+
 	@SuppressWarnings("unused")
 	private static final OrderByBuilder ORDER = new OrderByBuilder('o', 
 		"id", ASC,
@@ -98,6 +104,47 @@ public class AuditLogDAO extends AbstractDAO<AuditLog> implements Auditor
 		return o;
 	}
 
+	@Override public List<AuditLogValue> add(final List<? extends Auditable> values) { return insert(values, "add"); }
+	@Override public List<AuditLogValue> update(final List<? extends Auditable> values) { return insert(values, "update"); }
+
+	/** Audits the entries of a bulk operation. Entries are written once the transaction commits with a single hook.
+	 *  An entry that fails to write is logged and skipped - the hook never throws because the data is already committed.
+	 *  The partition key is the entity ID and an Azure table batch can only hold entries of one partition, so a bulk
+	 *  operation across many entities gains nothing from table batches. The entries are written one at a time.
+	 *
+	 * @param values
+	 * @param action
+	 * @return never NULL.
+	 */
+	public List<AuditLogValue> insert(final List<? extends Auditable> values, final String action)
+	{
+		if (values.isEmpty()) return List.of();
+
+		var s = sessionDao.current();
+		var now = System.currentTimeMillis();
+		var entries = new LinkedList<Pair<String, AuditLog>>();
+		var results = new ArrayList<AuditLogValue>(values.size());
+		for (var value : values)
+		{
+			var o = new AuditLogValue(value.id(), now, s.type, s.name, action, json(value), value.updatedAt());
+			entries.add(Pair.of(value.tableName(), new AuditLog(o)));
+			results.add(o);
+		}
+
+		afterTrans(() -> {
+			for (var o : entries)
+			{
+				try { table(o.getLeft()).execute(TableOperation.insert(o.getRight())); }
+				catch (final StorageException | RuntimeException ex)
+				{
+					log.error("AUDIT_FAILED ({} - {}): {}", o.getLeft(), o.getRight().id(), ex.getMessage(), ex);
+				}
+			}
+		});
+
+		return results;
+	}
+
 	private String json(final Auditable value)
 	{
 		try { return mapper.writeValueAsString(value); }
@@ -1,5 +1,9 @@
 package app.allclear.platform.dao;
 
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+
 import app.allclear.platform.value.Auditable;
 import app.allclear.platform.value.AuditLogValue;
 
@@ -18,4 +22,10 @@ public interface Auditor
 	public AuditLogValue add(final Auditable value);
 	public AuditLogValue update(final Auditable value);
 	public AuditLogValue remove(final Auditable value);
+
+	/** Audits the additions of a bulk operation. Defaults to one entry at a time. */
+	public default List<AuditLogValue> add(final List<? extends Auditable> values) { return values.stream().map(this::add).collect(toList()); }
+
+	/** Audits the updates of a bulk operation. Defaults to one entry at a time. */
+	public default List<AuditLogValue> update(final List<? extends Auditable> values) { return values.stream().map(this::update).collect(toList()); }
 }
@@ -288,6 +288,12 @@ public class ExperiencesDAO extends AbstractDAO<Experiences>
 	public QueryResults<ExperiencesValue, ExperiencesFilter> search(final ExperiencesFilter filter) throws ValidationException
 	{
 		var builder = createQueryBuilder(filter.clean(), SELECT);
+		if (filter.seek())
+		{
+			var v = new QueryResults<ExperiencesValue, ExperiencesFilter>(filter);
+			return v.withRecords(cmr(builder.seek(ORDER, v).stream().map(o -> o.toValue()).collect(toList())));
+		}
+
 		var v = new QueryResults<ExperiencesValue, ExperiencesFilter>(builder.aggregate(COUNT), filter);
 		if (v.isEmpty()) return v;
 
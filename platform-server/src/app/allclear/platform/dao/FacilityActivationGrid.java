@@ -0,0 +1,24 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.*;
+
+import app.allclear.platform.entity.FacilityActivation;
+
+/** In-memory grid of recently activated facilities. Built once per alert run so that each alertable person is matched
+ *  against the new facilities with a few grid cell lookups instead of a spatial query per person.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityActivationGrid extends FacilityActivationTimeline
+{
+	public FacilityActivationGrid(final Collection<FacilityActivation> values)
+	{
+		load(values.stream().map(o -> Entry.of(o.id, o.latitude, o.longitude, o.activatedAt)).filter(Objects::nonNull).collect(toList()));
+	}
+}
@@ -0,0 +1,329 @@
+package app.allclear.platform.dao;
+
+import static app.allclear.platform.dao.FacilityGeoIndex.*;
+import static app.allclear.platform.filter.GeoBox.EARTH_RADIUS;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import app.allclear.common.ObjectUtils;
+
+/** In-process timeline of the facility activations. Facilities are bucketed into the same latitude/longitude cells as the
+ *  FacilityGeoIndex and each cell keeps its facilities ordered by activation date. Counting the facilities near a point that
+ *  were activated since a date is a binary search per cell: cells that lie entirely within the radius are counted from the
+ *  search position without visiting their facilities and only the facilities of the cells on the edge of the radius are measured.
+ *
+ *  Reads are lock free - each cell is an immutable sorted array that a write replaces. Writes are serialized and an entire
+ *  reload swaps in a new timeline.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityActivationTimeline
+{
+	/** Cells are only counted as a whole for radii well short of the opposite side of the earth. */
+	public static final double MAX_WHOLE_CELL_METERS = EARTH_RADIUS * Math.PI / 2d;
+
+	/** Represents a single activated facility. */
+	public static class Entry
+	{
+		public final long id;
+		public final double latitude;
+		public final double longitude;
+		public final long activatedAt;
+		public final int cell;
+
+		public Entry(final long id, final double latitude, final double longitude, final long activatedAt)
+		{
+			this.id = id;
+			this.latitude = latitude;
+			this.longitude = longitude;
+			this.activatedAt = activatedAt;
+			this.cell = FacilityGeoIndex.cell(row(latitude), column(longitude));
+		}
+
+		/** Creates an entry from the facility properties. Returns NULL if any property is missing. */
+		public static Entry of(final Long id, final BigDecimal latitude, final BigDecimal longitude, final Date activatedAt)
+		{
+			if ((null == id) || (null == latitude) || (null == longitude) || (null == activatedAt)) return null;
+
+			return new Entry(id, latitude.doubleValue(), longitude.doubleValue(), activatedAt.getTime());
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	/** Immutable contents of a single cell ordered by activation date. */
+	private static class Cell
+	{
+		private static final Comparator<Entry> ORDER = Comparator.comparingLong((Entry o) -> o.activatedAt).thenComparingLong(o -> o.id);
+
+		private final Entry[] entries;
+		private final long[] activatedAts;
+
+		private Cell(final Entry[] entries)
+		{
+			Arrays.sort(entries, ORDER);
+
+			this.entries = entries;
+			this.activatedAts = new long[entries.length];
+			for (int i = 0; i < entries.length; i++) activatedAts[i] = entries[i].activatedAt;
+		}
+
+		/** Position of the first facility activated on or after the specified time. */
+		private int from(final long activatedAt)
+		{
+			int low = 0, high = activatedAts.length;
+			while (low < high)
+			{
+				var mid = (low + high) >>> 1;
+				if (activatedAts[mid] < activatedAt) low = mid + 1;
+				else high = mid;
+			}
+
+			return low;
+		}
+
+		private Cell with(final Entry value)
+		{
+			var o = Arrays.copyOf(entries, entries.length + 1);
+			o[entries.length] = value;
+
+			return new Cell(o);
+		}
+
+		/** @return NULL if the cell is empty without the facility. */
+		private Cell without(final long id)
+		{
+			var o = Arrays.stream(entries).filter(v -> v.id != id).toArray(Entry[]::new);
+
+			return (0 < o.length) ? new Cell(o) : null;
+		}
+	}
+
+	/** Holds the full state of the timeline so that a reload can be swapped in atomically. */
+	private static class Timeline
+	{
+		private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+		private final Map<Integer, Cell> cells = new ConcurrentHashMap<>();
+
+		private Timeline() {}
+
+		private Timeline(final Collection<Entry> values)
+		{
+			var o = new HashMap<Integer, List<Entry>>();
+			values.forEach(v -> entries.put(v.id, v));
+			entries.values().forEach(v -> o.computeIfAbsent(v.cell, k -> new ArrayList<>()).add(v));
+			o.forEach((k, v) -> cells.put(k, new Cell(v.toArray(new Entry[v.size()]))));
+		}
+
+		private void put(final Entry value)
+		{
+			var o = entries.put(value.id, value);
+			if (null != o) remove(o);
+
+			var cell = cells.get(value.cell);
+			cells.put(value.cell, (null != cell) ? cell.with(value) : new Cell(new Entry[] { value }));
+		}
+
+		private void remove(final Entry value)
+		{
+			var cell = cells.get(value.cell);
+			if (null == cell) return;
+
+			var o = cell.without(value.id);
+			if (null != o) cells.put(value.cell, o);
+			else cells.remove(value.cell);
+		}
+	}
+
+	private volatile Timeline timeline = new Timeline();
+	private volatile boolean loaded = false;
+
+	/** Indicates that the timeline has been fully loaded at least once. Counts should fall back to SQL until it has. */
+	public boolean loaded() { return loaded; }
+
+	/** Number of facilities in the timeline. */
+	public int size() { return timeline.entries.size(); }
+
+	/** Indicates whether the timeline is empty. */
+	public boolean isEmpty() { return timeline.entries.isEmpty(); }
+
+	/** Indicates whether the specified facility is in the timeline. */
+	public boolean contains(final Long id) { return timeline.entries.containsKey(id); }
+
+	/** Replaces the entire contents of the timeline with the supplied entries.
+	 *
+	 * @param values
+	 * @return the number of facilities in the timeline.
+	 */
+	public synchronized int load(final Collection<Entry> values)
+	{
+		var o = new Timeline(values);
+
+		timeline = o;
+		loaded = true;
+
+		return o.entries.size();
+	}
+
+	/** Adds, moves, or re-dates a single facility in the timeline. Facilities without an activation date are removed.
+	 *
+	 * @param id
+	 * @param latitude
+	 * @param longitude
+	 * @param activatedAt
+	 */
+	public synchronized void put(final Long id, final BigDecimal latitude, final BigDecimal longitude, final Date activatedAt)
+	{
+		var o = Entry.of(id, latitude, longitude, activatedAt);
+		if (null != o) timeline.put(o);
+		else if (null != id) remove(id);
+	}
+
+	/** Removes a single facility from the timeline.
+	 *
+	 * @param id
+	 * @return TRUE if the facility was in the timeline.
+	 */
+	public synchronized boolean remove(final Long id)
+	{
+		var t = timeline;
+		var o = t.entries.remove(id);
+		if (null == o) return false;
+
+		t.remove(o);
+
+		return true;
+	}
+
+	/** Counts the facilities within the radius that were activated on or after the specified date.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @param activatedAtFrom NULL never matches - same as the SQL comparison.
+	 * @return zero if none.
+	 */
+	public int count(final BigDecimal latitude, final BigDecimal longitude, final long meters, final Date activatedAtFrom)
+	{
+		return count(latitude, longitude, meters, activatedAtFrom, (Date) null);
+	}
+
+	/** Counts the facilities within the radius that were activated on or after the "from" date and before the "to" date.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @param activatedAtFrom NULL never matches - same as the SQL comparison.
+	 * @param activatedAtTo exclusive. NULL for no upper bound.
+	 * @return zero if none.
+	 */
+	public int count(final BigDecimal latitude, final BigDecimal longitude, final long meters, final Date activatedAtFrom, final Date activatedAtTo)
+	{
+		if ((null == activatedAtFrom) || (null == latitude) || (null == longitude)) return 0;
+
+		var t = timeline;
+		if (t.cells.isEmpty()) return 0;
+
+		var lat = latitude.doubleValue();
+		var lon = longitude.doubleValue();
+		var from = activatedAtFrom.getTime();
+		var whole = MAX_WHOLE_CELL_METERS > meters;
+
+		int count = 0;
+		for (var c : cells(lat, lon, meters))
+		{
+			var cell = t.cells.get(c);
+			if (null == cell) continue;
+
+			var i = cell.from(from);
+			var to = (null != activatedAtTo) ? cell.from(activatedAtTo.getTime()) : cell.entries.length;
+			if (i >= to) continue;
+
+			if (whole && within(c, lat, lon, meters)) count+= to - i;
+			else
+				for (; i < to; i++)
+				{
+					var o = cell.entries[i];
+					if (distance(lat, lon, o.latitude, o.longitude) <= meters) count++;
+				}
+		}
+
+		return count;
+	}
+
+	/** Counts the facilities activated on or after the specified date among the nearest facilities within the radius. Same rule as
+	 *  the database count of new facilities - the facilities activated earlier still take up places among the nearest.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @param activatedAtFrom NULL never matches - same as the SQL comparison.
+	 * @param nearest number of the closest facilities considered.
+	 * @return zero if none.
+	 */
+	public int count(final BigDecimal latitude, final BigDecimal longitude, final long meters, final Date activatedAtFrom, final int nearest)
+	{
+		return count(latitude, longitude, meters, activatedAtFrom, null, nearest);
+	}
+
+	/** Counts the facilities activated on or after the "from" date and before the "to" date among the nearest facilities within the radius.
+	 *  The facilities activated outside of the range still take up places among the nearest.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @param activatedAtFrom NULL never matches - same as the SQL comparison.
+	 * @param activatedAtTo exclusive. NULL for no upper bound.
+	 * @param nearest number of the closest facilities considered.
+	 * @return zero if none.
+	 */
+	public int count(final BigDecimal latitude, final BigDecimal longitude, final long meters, final Date activatedAtFrom, final Date activatedAtTo, final int nearest)
+	{
+		var count = count(latitude, longitude, meters, activatedAtFrom, activatedAtTo);
+		if (0 == count) return 0;	// Most checks end here without measuring the older facilities.
+
+		var t = timeline;
+		var lat = latitude.doubleValue();
+		var lon = longitude.doubleValue();
+		var hits = new ArrayList<Hit>();
+		for (var c : cells(lat, lon, meters))
+		{
+			var cell = t.cells.get(c);
+			if (null == cell) continue;
+
+			for (var o : cell.entries)
+			{
+				var d = distance(lat, lon, o.latitude, o.longitude);
+				if (d <= meters) hits.add(new Hit(o.id, Math.round(d)));
+			}
+		}
+		if (nearest >= hits.size()) return count;
+
+		var from = activatedAtFrom.getTime();
+		var to = (null != activatedAtTo) ? activatedAtTo.getTime() : Long.MAX_VALUE;
+		return (int) hits.stream().sorted().limit(nearest).map(o -> t.entries.get(o.id)).filter(o -> (null != o) && (from <= o.activatedAt) && (to > o.activatedAt)).count();
+	}
+
+	/** Helper method - indicates whether the entire cell lies within the radius. The farthest point of a cell within a quarter of
+	 *  the earth's circumference of the origin is one of its corners.
+	 */
+	static boolean within(final int cell, final double lat, final double lon, final long meters)
+	{
+		var latFrom = ((cell / COLUMNS) * CELL_SIZE) - 90d;
+		var lonFrom = ((cell % COLUMNS) * CELL_SIZE) - 180d;
+		var latTo = latFrom + CELL_SIZE;
+		var lonTo = lonFrom + CELL_SIZE;
+
+		return (distance(lat, lon, latFrom, lonFrom) <= meters) &&
+			(distance(lat, lon, latFrom, lonTo) <= meters) &&
+			(distance(lat, lon, latTo, lonFrom) <= meters) &&
+			(distance(lat, lon, latTo, lonTo) <= meters);
+	}
+}
@@ -0,0 +1,345 @@
+package app.allclear.platform.dao;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import org.apache.commons.collections4.CollectionUtils;
+
+import app.allclear.common.ObjectUtils;
+import app.allclear.platform.entity.Facility;
+import app.allclear.platform.entity.FacilityPoint;
+import app.allclear.platform.filter.FacilityFilter;
+
+/** In-process bitmap index of the active facilities' boolean and type attributes. Each attribute value holds a bitmap of the
+ *  facility IDs that have it so that any combination of the attribute filters resolves to an ID set with bitmap AND and ANDNOT
+ *  operations instead of a predicate or an EXISTS subquery per attribute.
+ *
+ *  The facility IDs are auto-incremented so they are dense - an uncompressed bitmap uses one bit per facility ever created.
+ *  IDs beyond the range of a bitmap disable the index and the searches fall back to SQL.
+ *
+ *  Searches share a read lock. Writes are serialized and an entire reload swaps in a new set of bitmaps.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityAttributeIndex
+{
+	public static final String TEST_TYPE = "testType";
+
+	/** Represents a single indexed attribute along with its filter value and its facility value. */
+	static class Attribute
+	{
+		final String name;
+		final Function<FacilityFilter, Object> filter;
+		final Function<Entry, Object> entry;
+
+		Attribute(final String name, final Function<FacilityFilter, Object> filter, final Function<Entry, Object> entry)
+		{
+			this.name = name;
+			this.filter = filter;
+			this.entry = entry;
+		}
+	}
+
+	/** Attributes matched by equality. The test types and the 'notTestCriteriaId' filter are handled separately. */
+	static final List<Attribute> ATTRIBUTES = List.of(
+		new Attribute("typeId", f -> f.typeId, e -> e.typeId),
+		new Attribute("driveThru", f -> f.driveThru, e -> e.driveThru),
+		new Attribute("appointmentRequired", f -> f.appointmentRequired, e -> e.appointmentRequired),
+		new Attribute("acceptsThirdParty", f -> f.acceptsThirdParty, e -> e.acceptsThirdParty),
+		new Attribute("referralRequired", f -> f.referralRequired, e -> e.referralRequired),
+		new Attribute("testCriteriaId", f -> f.testCriteriaId, e -> e.testCriteriaId),
+		new Attribute("governmentIdRequired", f -> f.governmentIdRequired, e -> e.governmentIdRequired),
+		new Attribute("firstResponderFriendly", f -> f.firstResponderFriendly, e -> e.firstResponderFriendly),
+		new Attribute("telescreeningAvailable", f -> f.telescreeningAvailable, e -> e.telescreeningAvailable),
+		new Attribute("acceptsInsurance", f -> f.acceptsInsurance, e -> e.acceptsInsurance),
+		new Attribute("freeOrLowCost", f -> f.freeOrLowCost, e -> e.freeOrLowCost),
+		new Attribute("canDonatePlasma", f -> f.canDonatePlasma, e -> e.canDonatePlasma));
+
+	/** Represents the attributes of a single indexed facility. */
+	public static class Entry
+	{
+		public final long id;
+		public final String typeId;
+		public final Boolean driveThru;
+		public final Boolean appointmentRequired;
+		public final Boolean acceptsThirdParty;
+		public final Boolean referralRequired;
+		public final String testCriteriaId;
+		public final Boolean governmentIdRequired;
+		public final Boolean firstResponderFriendly;
+		public final Boolean telescreeningAvailable;
+		public final Boolean acceptsInsurance;
+		public final Boolean freeOrLowCost;
+		public final Boolean canDonatePlasma;
+		public final Set<String> testTypes;
+
+		public Entry(final Facility o, final Collection<String> testTypes)
+		{
+			this(o.getId(), o.getTypeId(), o.isDriveThru(), o.isAppointmentRequired(), o.isAcceptsThirdParty(), o.isReferralRequired(),
+				o.getTestCriteriaId(), o.isGovernmentIdRequired(), o.isFirstResponderFriendly(), o.isTelescreeningAvailable(),
+				o.isAcceptsInsurance(), o.isFreeOrLowCost(), o.isCanDonatePlasma(), testTypes);
+		}
+
+		public Entry(final FacilityPoint o, final Collection<String> testTypes)
+		{
+			this(o.id, o.typeId, o.driveThru, o.appointmentRequired, o.acceptsThirdParty, o.referralRequired,
+				o.testCriteriaId, o.governmentIdRequired, o.firstResponderFriendly, o.telescreeningAvailable,
+				o.acceptsInsurance, o.freeOrLowCost, o.canDonatePlasma, testTypes);
+		}
+
+		public Entry(final long id,
+			final String typeId,
+			final Boolean driveThru,
+			final Boolean appointmentRequired,
+			final Boolean acceptsThirdParty,
+			final Boolean referralRequired,
+			final String testCriteriaId,
+			final Boolean governmentIdRequired,
+			final Boolean firstResponderFriendly,
+			final Boolean telescreeningAvailable,
+			final Boolean acceptsInsurance,
+			final Boolean freeOrLowCost,
+			final Boolean canDonatePlasma,
+			final Collection<String> testTypes)
+		{
+			this.id = id;
+			this.typeId = typeId;
+			this.driveThru = driveThru;
+			this.appointmentRequired = appointmentRequired;
+			this.acceptsThirdParty = acceptsThirdParty;
+			this.referralRequired = referralRequired;
+			this.testCriteriaId = testCriteriaId;
+			this.governmentIdRequired = governmentIdRequired;
+			this.firstResponderFriendly = firstResponderFriendly;
+			this.telescreeningAvailable = telescreeningAvailable;
+			this.acceptsInsurance = acceptsInsurance;
+			this.freeOrLowCost = freeOrLowCost;
+			this.canDonatePlasma = canDonatePlasma;
+			this.testTypes = (null != testTypes) ? new HashSet<>(testTypes) : Set.of();
+		}
+
+		/** Gets the bitmap keys of each attribute value. NULL values are not indexed. */
+		List<String> keys()
+		{
+			var o = new ArrayList<String>(ATTRIBUTES.size() + testTypes.size());
+			for (var a : ATTRIBUTES)
+			{
+				var v = a.entry.apply(this);
+				if (null != v) o.add(key(a.name, v));
+			}
+			testTypes.forEach(v -> o.add(key(TEST_TYPE, v)));
+
+			return o;
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	/** Holds the full state of the index so that a reload can be swapped in atomically. */
+	private static class Bitmaps
+	{
+		private final BitSet all = new BitSet();
+		private final Map<String, BitSet> values = new HashMap<>();
+		private final Map<Long, Entry> entries = new HashMap<>();
+		private boolean overflow = false;	// An ID could not be indexed.
+
+		private void put(final Entry value)
+		{
+			if (Integer.MAX_VALUE < value.id)
+			{
+				overflow = true;
+				return;
+			}
+
+			var o = entries.put(value.id, value);
+			if (null != o) remove(o);
+
+			var i = (int) value.id;
+			all.set(i);
+			value.keys().forEach(k -> values.computeIfAbsent(k, x -> new BitSet()).set(i));
+		}
+
+		private void remove(final Entry value)
+		{
+			var i = (int) value.id;
+			all.clear(i);
+			for (var k : value.keys())
+			{
+				var ids = values.get(k);
+				if (null == ids) continue;
+
+				ids.clear(i);
+				if (ids.isEmpty()) values.remove(k);
+			}
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private Bitmaps bitmaps = new Bitmaps();	// Guarded by "lock".
+	private volatile boolean loaded = false;
+
+	/** Indicates that the index has been fully loaded at least once and holds every active facility. Searches should fall back to SQL until it has. */
+	public boolean loaded()
+	{
+		if (!loaded) return false;
+
+		lock.readLock().lock();
+		try { return !bitmaps.overflow; }
+		finally { lock.readLock().unlock(); }
+	}
+
+	/** Number of facilities in the index. */
+	public int size()
+	{
+		lock.readLock().lock();
+		try { return bitmaps.entries.size(); }
+		finally { lock.readLock().unlock(); }
+	}
+
+	/** Indicates whether the specified facility is indexed. */
+	public boolean contains(final Long id)
+	{
+		lock.readLock().lock();
+		try { return bitmaps.entries.containsKey(id); }
+		finally { lock.readLock().unlock(); }
+	}
+
+	/** Replaces the entire contents of the index with the supplied entries.
+	 *
+	 * @param values
+	 * @return the number of facilities indexed.
+	 */
+	public int load(final Collection<Entry> values)
+	{
+		var o = new Bitmaps();
+		values.forEach(o::put);
+
+		lock.writeLock().lock();
+		try
+		{
+			bitmaps = o;
+			loaded = true;
+		}
+		finally { lock.writeLock().unlock(); }
+
+		return o.entries.size();
+	}
+
+	/** Adds or replaces the attributes of a single facility in the index.
+	 *
+	 * @param value
+	 */
+	public void put(final Entry value)
+	{
+		lock.writeLock().lock();
+		try { bitmaps.put(value); }
+		finally { lock.writeLock().unlock(); }
+	}
+
+	/** Removes a single facility from the index.
+	 *
+	 * @param id
+	 * @return TRUE if the facility was indexed.
+	 */
+	public boolean remove(final Long id)
+	{
+		lock.writeLock().lock();
+		try
+		{
+			var o = bitmaps.entries.remove(id);
+			if (null == o) return false;
+
+			bitmaps.remove(o);
+
+			return true;
+		}
+		finally { lock.writeLock().unlock(); }
+	}
+
+	/** Indicates whether the filter contains any attribute criteria that can be resolved by the index. */
+	public static boolean supports(final FacilityFilter filter)
+	{
+		return ATTRIBUTES.stream().anyMatch(a -> null != a.filter.apply(filter)) ||
+			(null != filter.notTestCriteriaId) ||
+			CollectionUtils.isNotEmpty(filter.includeTestTypes) ||
+			CollectionUtils.isNotEmpty(filter.excludeTestTypes);
+	}
+
+	/** Finds the facilities that match all of the attribute criteria of the filter. The remaining filter criteria are ignored.
+	 *
+	 * @param filter
+	 * @return never NULL - a private bitmap of the matching facility IDs.
+	 */
+	public BitSet search(final FacilityFilter filter)
+	{
+		lock.readLock().lock();
+		try
+		{
+			var p = bitmaps;
+			var results = (BitSet) p.all.clone();
+			for (var a : ATTRIBUTES)
+			{
+				var v = a.filter.apply(filter);
+				if (null != v) and(p, results, key(a.name, v));
+			}
+			if (null != filter.notTestCriteriaId) andNot(p, results, key("testCriteriaId", filter.notTestCriteriaId));
+			if (CollectionUtils.isNotEmpty(filter.includeTestTypes))	// Any of the test types.
+			{
+				var o = new BitSet();
+				filter.includeTestTypes.stream().map(v -> p.values.get(key(TEST_TYPE, v))).filter(Objects::nonNull).forEach(o::or);
+				results.and(o);
+			}
+			if (CollectionUtils.isNotEmpty(filter.excludeTestTypes))	// None of the test types.
+				filter.excludeTestTypes.forEach(v -> andNot(p, results, key(TEST_TYPE, v)));
+
+			return results;
+		}
+		finally { lock.readLock().unlock(); }
+	}
+
+	/** Helper method - keeps only the IDs with the attribute value. */
+	private static void and(final Bitmaps p, final BitSet results, final String key)
+	{
+		var o = p.values.get(key);
+		if (null == o) results.clear();
+		else results.and(o);
+	}
+
+	/** Helper method - removes the IDs with the attribute value. */
+	private static void andNot(final Bitmaps p, final BitSet results, final String key)
+	{
+		var o = p.values.get(key);
+		if (null != o) results.andNot(o);
+	}
+
+	/** Converts the bitmap to a list of facility IDs in ascending order. */
+	public static List<Long> ids(final BitSet values)
+	{
+		var o = new ArrayList<Long>(values.cardinality());
+		values.stream().forEach(i -> o.add((long) i));
+
+		return o;
+	}
+
+	/** Converts the facility IDs to a bitmap. IDs beyond the range of a bitmap are ignored. */
+	public static BitSet bitmap(final Collection<Long> values)
+	{
+		var o = new BitSet();
+		values.stream().filter(v -> (null != v) && (Integer.MAX_VALUE >= v)).forEach(v -> o.set(v.intValue()));
+
+		return o;
+	}
+
+	/** Helper method - bitmap key of a single attribute value. Upper cased to match the case insensitive database collation. */
+	static String key(final String attribute, final Object value)
+	{
+		return attribute + ":" + value.toString().toUpperCase(Locale.ROOT);
+	}
+}
@@ -4,23 +4,36 @@ import static java.util.stream.Collectors.*;
 import static app.allclear.common.dao.OrderByBuilder.*;
 
 import java.math.BigDecimal;
-import java.util.Date;
-import java.util.List;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.*;
 
 import app.allclear.common.dao.*;
 import app.allclear.common.errors.*;
 import app.allclear.common.hibernate.AbstractDAO;
+import app.allclear.common.hibernate.HibernateQueryBuilder;
 import app.allclear.common.hibernate.NativeQueryBuilder;
 import app.allclear.common.time.StopWatch;
 import app.allclear.common.value.CreatedValue;
 import app.allclear.platform.entity.*;
 import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.filter.GeoBox;
+import app.allclear.platform.model.FacilityImportResponse;
 import app.allclear.platform.type.*;
 import app.allclear.platform.value.FacilityValue;
 import app.allclear.platform.value.PeopleValue;
@@ -41,7 +54,14 @@ public class FacilityDAO extends AbstractDAO<Facility>
 
 	private static final String SELECT = "SELECT OBJECT(o) FROM Facility o";
 	private static final String COUNT = "SELECT COUNT(o.id) FROM Facility o";
+	private static final String SELECT_EXPORT = "SELECT o, x FROM Facility o";
+	private static final String COLUMNS_ = "name, address, city, state, latitude, longitude, phone, appointment_phone, email, url, appointment_url, hours, type_id, drive_thru, appointment_required, accepts_third_party, referral_required, test_criteria_id, other_test_criteria, tests_per_day, government_id_required, minimum_age, doctor_referral_criteria, first_responder_friendly, telescreening_available, accepts_insurance, insurance_providers_accepted, free_or_low_cost, can_donate_plasma, notes, active, activated_at";
+	private static final String INSERT_ = "INSERT INTO facility (" + COLUMNS_ + ", created_at, updated_at) VALUES (" + StringUtils.repeat("?", ", ", 34) + ")";
+	private static final String UPDATE_ = "UPDATE facility SET " + Arrays.stream(COLUMNS_.split(", ")).map(o -> o + " = ?").collect(joining(", ")) + ", updated_at = ? WHERE id = ?";
+	private static final String INSERT_TEST_TYPE_ = "INSERT INTO facility_test_type (facility_id, test_type_id, created_at) VALUES (?, ?, ?)";
+	private static final String DELETE_TEST_TYPE_ = "DELETE FROM facility_test_type WHERE facility_id = ? AND test_type_id = ?";
 	private static final String COUNT_ = "SELECT COUNT(o.id) FROM facility o";
+	private static final String SELECT_POINT = "SELECT o.id, o.latitude, o.longitude FROM Facility o";
 	private static final String SELECT_ = "SELECT o.id, o.name, o.address, o.city, o.state, o.latitude, o.longitude, o.phone, o.appointment_phone, o.email, o.url, o.appointment_url, o.hours, o.type_id, o.drive_thru, o.appointment_required, o.accepts_third_party, o.referral_required, o.test_criteria_id, o.other_test_criteria, o.tests_per_day, o.government_id_required, o.minimum_age, o.doctor_referral_criteria, o.first_responder_friendly, o.telescreening_available, o.accepts_insurance, o.insurance_providers_accepted, o.free_or_low_cost, o.can_donate_plasma, o.notes, o.active, o.activated_at, o.created_at, o.updated_at, ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:fromLongitude, :fromLatitude)) AS meters FROM facility o";
 	private static final OrderByBuilder ORDER = new OrderByBuilder('o', 
 		"id", DESC,
@@ -80,17 +100,85 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		"createdAt", DESC,
 		"updatedAt", DESC,
 		"meters", ASC + ",meters");	// Need to leave off the "o." alias.
+	private static final Sort EXPORT_ORDER = new Sort("id", "o.id ASC, x.testTypeId", ASC, true, null);	// Keeps the test types of each facility adjacent and in the same order as the search.
+	private static final Sort NAME_ORDER = new Sort("name", "o.name", ASC, true, null);	// Same order as the findActiveFacilitiesByName query.
 
 	/** Native SQL clauses. */
 	public static final String FROM_ALIAS = "o";
 
+	/** Maximum number of spatial or attribute index hits to send to the database as a literal IN clause. Beyond that, the matching IDs are intersected in memory or left to the database. */
+	public static final int MAX_GEO_INDEX_IN = 5000;
+
+	/** Milliseconds subtracted from the start of an index load to allow for replica lag, clock skew between the nodes, and long transactions.
+	 *  Facilities updated since are always checked by the database whether or not they are in this node's indices.
+	 */
+	public static final long INDEX_LAG = 5L * 60L * 1000L;
+
+	/** Number of rows the export cursor fetches per round trip where the driver supports it. */
+	public static final int EXPORT_FETCH_SIZE = 1000;
+
+	/** Number of exported facilities between clearing the session of the entities already written. */
+	public static final int EXPORT_CLEAR_SIZE = 100;
+
 	private final Auditor auditor;
+	private final FacilityGeoIndex geoIndex;	// Optional - when NULL, radius searches are performed by the database. DLS on 10/17/2026.
+	private final FacilityNameIndex nameIndex;	// Optional - when NULL, name searches are performed by the database. DLS on 10/17/2026.
+	private final FacilitySearchCache searchCache;	// Optional - when NULL, searches are not cached. DLS on 10/17/2026.
+	private final FacilityFacets facets;	// Optional - when NULL, the state and city counts are aggregated by the database. DLS on 10/17/2026.
+	private final FacilityAttributeIndex attributeIndex;	// Optional - when NULL, the attribute filters are performed by the database. DLS on 10/17/2026.
+	private final FacilityActivationTimeline timeline;	// Optional - when NULL, the alert counts of new facilities are performed by the database. DLS on 10/17/2026.
+	private final CountCache counts = new CountCache();	// Recent search COUNTs for estimated totals. DLS on 10/17/2026.
+	private Consumer<FacilityActivation> activations = null;	// Optional - notified once a facility's first activation commits. DLS on 10/17/2026.
+	private long indexLag = INDEX_LAG;
+	private volatile Date indexedAt = null;	// Start of the last index load less the lag. NULL until the indices are first loaded. DLS on 10/17/2026.
+
+	public FacilityDAO withActivations(final Consumer<FacilityActivation> newValue) { activations = newValue; return this; }
+	public FacilityDAO withIndexLag(final long newValue) { indexLag = newValue; return this; }
 
 	public FacilityDAO(final SessionFactory factory, final Auditor auditor)
+	{
+		this(factory, auditor, null, null, null, null);
+	}
+
+	public FacilityDAO(final SessionFactory factory,
+		final Auditor auditor,
+		final FacilityGeoIndex geoIndex,
+		final FacilityNameIndex nameIndex,
+		final FacilitySearchCache searchCache,
+		final FacilityFacets facets)
+	{
+		this(factory, auditor, geoIndex, nameIndex, searchCache, facets, null);
+	}
+
+	public FacilityDAO(final SessionFactory factory,
+		final Auditor auditor,
+		final FacilityGeoIndex geoIndex,
+		final FacilityNameIndex nameIndex,
+		final FacilitySearchCache searchCache,
+		final FacilityFacets facets,
+		final FacilityAttributeIndex attributeIndex)
+	{
+		this(factory, auditor, geoIndex, nameIndex, searchCache, facets, attributeIndex, null);
+	}
+
+	public FacilityDAO(final SessionFactory factory,
+		final Auditor auditor,
+		final FacilityGeoIndex geoIndex,
+		final FacilityNameIndex nameIndex,
+		final FacilitySearchCache searchCache,
+		final FacilityFacets facets,
+		final FacilityAttributeIndex attributeIndex,
+		final FacilityActivationTimeline timeline)
 	{
 		super(factory);
 
 		this.auditor = auditor;
+		this.geoIndex = geoIndex;
+		this.nameIndex = nameIndex;
+		this.searchCache = searchCache;
+		this.facets = facets;
+		this.attributeIndex = attributeIndex;
+		this.timeline = timeline;
 	}
 
 	/** Adds a single Facility value.
@@ -119,9 +207,13 @@ public class FacilityDAO extends AbstractDAO<Facility>
 			record = findWithException(value.id);
 
 		var s = currentSession();
+		Set<String> testTypes;
+		Date activatedAt = null;	// Before the change.
 		if (null != record)
 		{
+			activatedAt = record.getActivatedAt();
 			record.update(value, admin);
+			testTypes = (null != value.testTypes) ? testTypeIds(value) : record.getTestTypes().stream().map(o -> o.getTestTypeId()).collect(toSet());
 
 			var rec = record;	// Needs to be effectively final to be used in lambdas below.
 			update(s, record, record.getTestTypes(), value.testTypes, v -> new FacilityTestType(rec, v), "deleteFacilityTestTypes");
@@ -132,6 +224,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		{
 			if (!admin) value.withActive(false);	// Editors can only add inactive facilities.
 			record = persist(new Facility(value));
+			testTypes = (null != value.testTypes) ? testTypeIds(value) : Set.of();
 
 			var rec = record;	// Needs to be effectively final to be used in lambdas below.
 			add(s, value.testTypes, v -> new FacilityTestType(rec, v));
@@ -139,9 +232,101 @@ public class FacilityDAO extends AbstractDAO<Facility>
 			auditor.add(value.withId(record.getId()));
 		}
 
+		index(record, testTypes);
+		if (null == activatedAt) activated(record);
+
 		return value;
 	}
 
+	/** Helper method - notifies the activation listener once the transaction commits if the facility has just been activated. */
+	private void activated(final Facility record)
+	{
+		if ((null == activations) || (null == record.getActivatedAt())) return;
+
+		var o = new FacilityActivation(record.getId(), record.getLatitude(), record.getLongitude(), record.getActivatedAt());
+		var listener = activations;
+		afterTrans(() -> listener.accept(o));
+	}
+
+	/** Helper method - keeps the spatial, name, and attribute indices, the activation timeline, and the facet counts current once the transaction commits. */
+	private void index(final Facility record, final Set<String> testTypes)
+	{
+		if (null != searchCache) afterTrans(searchCache::invalidate);	// Any write can change the active-only search results. DLS on 10/17/2026.
+
+		var id = record.getId();
+		if (record.isActive())
+		{
+			var name = record.getName();
+			var city = record.getCity();
+			var state = record.getState();
+			var latitude = record.getLatitude();
+			var longitude = record.getLongitude();
+			if (null != geoIndex) afterTrans(() -> geoIndex.put(id, latitude, longitude));
+			if (null != nameIndex) afterTrans(() -> nameIndex.put(id, name));
+			if (null != facets) afterTrans(() -> facets.put(id, state, city));
+			if (null != attributeIndex)
+			{
+				var o = new FacilityAttributeIndex.Entry(record, testTypes);
+				afterTrans(() -> attributeIndex.put(o));
+			}
+			if (null != timeline)
+			{
+				var activatedAt = record.getActivatedAt();
+				afterTrans(() -> timeline.put(id, latitude, longitude, activatedAt));
+			}
+		}
+		else
+			unindex(id);
+	}
+
+	/** Helper method - keeps the indices current after a bulk import. The rows were written with JDBC so their cached entities are evicted as well. */
+	private void index(final List<Facility> records, final Map<Long, Set<String>> testTypes)
+	{
+		if (records.isEmpty()) return;
+
+		var cache = currentSession().getSessionFactory().getCache();
+		var ids = records.stream().map(o -> o.getId()).collect(toList());
+		afterTrans(() -> {
+			ids.forEach(id -> cache.evictEntityData(Facility.class, id));
+			cache.evictEntityData(FacilityTestType.class);
+		});
+		if (null != searchCache) afterTrans(searchCache::invalidate);	// Once for the whole batch.
+
+		var actives = records.stream().filter(o -> o.isActive()).collect(toList());
+		var inactives = records.stream().filter(o -> !o.isActive()).map(o -> o.getId()).collect(toList());
+		var attributes = actives.stream().map(o -> new FacilityAttributeIndex.Entry(o, testTypes.get(o.getId()))).collect(toList());
+		afterTrans(() -> {
+			for (var o : actives)
+			{
+				if (null != geoIndex) geoIndex.put(o.getId(), o.getLatitude(), o.getLongitude());
+				if (null != nameIndex) nameIndex.put(o.getId(), o.getName());
+				if (null != facets) facets.put(o.getId(), o.getState(), o.getCity());
+			}
+			if (null != attributeIndex) attributes.forEach(attributeIndex::put);
+			if (null != timeline) actives.forEach(o -> timeline.put(o.getId(), o.getLatitude(), o.getLongitude(), o.getActivatedAt()));
+			for (var id : inactives)
+			{
+				if (null != geoIndex) geoIndex.remove(id);
+				if (null != nameIndex) nameIndex.remove(id);
+				if (null != facets) facets.remove(id);
+				if (null != attributeIndex) attributeIndex.remove(id);
+				if (null != timeline) timeline.remove(id);
+			}
+		});
+	}
+
+	/** Helper method - removes the facility from the spatial and name indices and the facet counts once the transaction commits. */
+	private void unindex(final Long id)
+	{
+		if (null != searchCache) afterTrans(searchCache::invalidate);
+
+		if (null != geoIndex) afterTrans(() -> geoIndex.remove(id));
+		if (null != nameIndex) afterTrans(() -> nameIndex.remove(id));
+		if (null != facets) afterTrans(() -> facets.remove(id));
+		if (null != attributeIndex) afterTrans(() -> attributeIndex.remove(id));
+		if (null != timeline) afterTrans(() -> timeline.remove(id));
+	}
+
 	private void add(final Session s, final List<CreatedValue> values, final Function<CreatedValue, ? extends FacilityChild> toEntity)
 	{
 		if (CollectionUtils.isEmpty(values)) return;
@@ -186,6 +371,18 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 * @throws ValidationException
 	 */
 	private Object[] _validate(final FacilityValue value) throws ValidationException
+	{
+		check(value);
+
+		return new Object[] { find(value.name) };
+	}
+
+	/** Helper method - validates the fields and foreign keys of a single Facility value without touching the database.
+	 *
+	 * @param value
+	 * @throws ValidationException
+	 */
+	private void check(final FacilityValue value) throws ValidationException
 	{
 		value.clean();
 		var validator = new Validator();
@@ -222,8 +419,204 @@ public class FacilityDAO extends AbstractDAO<Facility>
 			value.testTypes.stream().filter(v -> null != v).forEach(v -> validator.ensureExistsAndContains("testTypes", "Test Type", v.clean().id, TestType.VALUES));
 
 		validator.check();
+	}
 
-		return new Object[] { find(value.name) };
+	/** Adds or updates a batch of Facility values matched by name. Rows are validated in memory, the existing facilities are
+	 *  fetched with a single query, and the writes are sent as JDBC batches. Invalid rows are reported and skipped - they do
+	 *  not prevent the remaining rows from being imported.
+	 *
+	 * @param values
+	 * @param admin can the caller activate facilities?
+	 * @return one response per supplied row in the same order.
+	 */
+	public List<FacilityImportResponse> importAll(final List<FacilityValue> values, final boolean admin)
+	{
+		var results = new FacilityImportResponse[values.size()];
+		var valid = new TreeMap<String, Integer>(String.CASE_INSENSITIVE_ORDER);	// Names are unique regardless of case.
+		for (int i = 0; i < values.size(); i++)
+		{
+			var value = values.get(i);
+			try
+			{
+				if (null == value) throw new ValidationException("The row is empty.");
+				check(value);
+				if (null != valid.putIfAbsent(value.name, i)) throw new ValidationException("name", "The name '" + value.name + "' appears more than once in the import.");
+			}
+			catch (final ValidationException ex) { results[i] = new FacilityImportResponse(i, (null != value) ? value.name : null, ex); }
+		}
+		if (valid.isEmpty()) return List.of(results);
+
+		var s = currentSession();
+		var existing = namedQuery("findFacilitiesByNames").setParameterList("names", valid.keySet()).setReadOnly(true).stream()
+			.collect(toMap(o -> o.getName(), o -> o, (a, b) -> a, () -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER)));
+		var testTypes = existing.isEmpty() ? Map.<Long, Set<String>>of() :
+			namedQuery("findFacilityTestTypes", FacilityTestType.class).setParameterList("facilityIds", existing.values().stream().map(o -> o.getId()).collect(toList())).stream()
+				.collect(groupingBy(o -> o.getFacilityId(), mapping(o -> o.getTestTypeId(), toSet())));
+		existing.values().forEach(s::evict);	// Written below with JDBC.
+
+		var adds = new ArrayList<Pair<Facility, FacilityValue>>();
+		var updates = new ArrayList<Pair<Facility, FacilityValue>>();
+		var newlyActivated = new ArrayList<Facility>();
+		for (var name : valid.keySet())
+		{
+			var value = values.get(valid.get(name));
+			var record = existing.get(name);
+			if (null != record)
+			{
+				if (null == record.getActivatedAt()) newlyActivated.add(record);	// Activated below if the feed marks it active.
+				updates.add(Pair.of(record.update(value.withId(record.getId()), admin), value));
+			}
+			else
+			{
+				if (!admin) value.withActive(false);	// Editors can only add inactive facilities.
+				adds.add(Pair.of(new Facility(value), value));
+			}
+		}
+
+		s.doWork(c -> {
+			try (var ps = c.prepareStatement(INSERT_))
+			{
+				for (var o : adds)
+				{
+					var i = bind(ps, o.getLeft());
+					ps.setTimestamp(i++, timestamp(o.getLeft().getCreatedAt()));
+					ps.setTimestamp(i++, timestamp(o.getLeft().getUpdatedAt()));
+					ps.addBatch();
+				}
+				if (!adds.isEmpty()) ps.executeBatch();
+			}
+			try (var ps = c.prepareStatement(UPDATE_))
+			{
+				for (var o : updates)
+				{
+					var i = bind(ps, o.getLeft());
+					ps.setTimestamp(i++, timestamp(o.getLeft().getUpdatedAt()));
+					ps.setLong(i++, o.getLeft().getId());
+					ps.addBatch();
+				}
+				if (!updates.isEmpty()) ps.executeBatch();
+			}
+		});
+
+		if (!adds.isEmpty())	// Retrieve the generated identifiers in a single query rather than rely on the driver's support for keys from batches.
+		{
+			var ids = namedQuery("getFacilityIdsByNames", Name.class).setParameterList("names", adds.stream().map(o -> o.getRight().name).collect(toList())).stream()
+				.collect(toMap(o -> o.name, o -> o.id, (a, b) -> a, () -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER)));
+			adds.forEach(o -> {
+				var id = ids.get(o.getRight().name);
+				o.getLeft().setId(id);
+				o.getRight().withId(id);
+			});
+		}
+
+		s.doWork(c -> {
+			try (var deletes = c.prepareStatement(DELETE_TEST_TYPE_); var inserts = c.prepareStatement(INSERT_TEST_TYPE_))
+			{
+				int deleted = 0, inserted = 0;
+				var now = timestamp(new Date());
+				for (var o : adds)
+				{
+					var value = o.getRight();
+					if (CollectionUtils.isNotEmpty(value.testTypes))
+						for (var id : testTypeIds(value))
+						{
+							inserts.setLong(1, value.id); inserts.setString(2, id); inserts.setTimestamp(3, now); inserts.addBatch(); inserted++;
+						}
+				}
+				for (var o : updates)
+				{
+					var value = o.getRight();
+					if (null == value.testTypes) continue;	// Leave the test types unchanged.
+
+					var current = testTypes.getOrDefault(value.id, Set.of());
+					var ids = testTypeIds(value);
+					for (var id : ids)
+						if (!current.contains(id)) { inserts.setLong(1, value.id); inserts.setString(2, id); inserts.setTimestamp(3, now); inserts.addBatch(); inserted++; }
+					for (var id : current)
+						if (!ids.contains(id)) { deletes.setLong(1, value.id); deletes.setString(2, id); deletes.addBatch(); deleted++; }
+				}
+				if (0 < deleted) deletes.executeBatch();
+				if (0 < inserted) inserts.executeBatch();
+			}
+		});
+
+		adds.forEach(o -> results[valid.get(o.getRight().name)] = new FacilityImportResponse(valid.get(o.getRight().name), o.getRight().id, o.getRight().name, FacilityImportResponse.ADD));
+		updates.forEach(o -> results[valid.get(o.getRight().name)] = new FacilityImportResponse(valid.get(o.getRight().name), o.getRight().id, o.getRight().name, FacilityImportResponse.UPDATE));
+
+		var records = new ArrayList<Facility>(adds.size() + updates.size());
+		var finalTestTypes = new HashMap<Long, Set<String>>();
+		adds.forEach(o -> {
+			records.add(o.getLeft());
+			finalTestTypes.put(o.getRight().id, (null != o.getRight().testTypes) ? testTypeIds(o.getRight()) : Set.of());
+		});
+		updates.forEach(o -> {
+			records.add(o.getLeft());
+			finalTestTypes.put(o.getRight().id, (null != o.getRight().testTypes) ? testTypeIds(o.getRight()) : testTypes.getOrDefault(o.getRight().id, Set.of()));
+		});
+		index(records, finalTestTypes);
+		adds.forEach(o -> activated(o.getLeft()));
+		newlyActivated.forEach(this::activated);
+
+		// Audited after the index and activation hooks are registered so that their after-commit actions always run first.
+		auditor.add(adds.stream().map(o -> o.getRight()).collect(toList()));
+		auditor.update(updates.stream().map(o -> o.getRight()).collect(toList()));
+
+		return List.of(results);
+	}
+
+	/** Helper method - binds the columns common to the INSERT and UPDATE statements.
+	 *
+	 * @return the next parameter index.
+	 */
+	private int bind(final PreparedStatement ps, final Facility o) throws SQLException
+	{
+		int i = 1;
+		ps.setString(i++, o.getName());
+		ps.setString(i++, o.getAddress());
+		ps.setString(i++, o.getCity());
+		ps.setString(i++, o.getState());
+		ps.setBigDecimal(i++, o.getLatitude());
+		ps.setBigDecimal(i++, o.getLongitude());
+		ps.setString(i++, o.getPhone());
+		ps.setString(i++, o.getAppointmentPhone());
+		ps.setString(i++, o.getEmail());
+		ps.setString(i++, o.getUrl());
+		ps.setString(i++, o.getAppointmentUrl());
+		ps.setString(i++, o.getHours());
+		ps.setString(i++, o.getTypeId());
+		ps.setBoolean(i++, o.isDriveThru());
+		ps.setObject(i++, o.isAppointmentRequired(), Types.BOOLEAN);
+		ps.setObject(i++, o.isAcceptsThirdParty(), Types.BOOLEAN);
+		ps.setBoolean(i++, o.isReferralRequired());
+		ps.setString(i++, o.getTestCriteriaId());
+		ps.setString(i++, o.getOtherTestCriteria());
+		ps.setObject(i++, o.getTestsPerDay(), Types.INTEGER);
+		ps.setBoolean(i++, o.isGovernmentIdRequired());
+		ps.setObject(i++, o.getMinimumAge(), Types.INTEGER);
+		ps.setString(i++, o.getDoctorReferralCriteria());
+		ps.setBoolean(i++, o.isFirstResponderFriendly());
+		ps.setBoolean(i++, o.isTelescreeningAvailable());
+		ps.setBoolean(i++, o.isAcceptsInsurance());
+		ps.setString(i++, o.getInsuranceProvidersAccepted());
+		ps.setBoolean(i++, o.isFreeOrLowCost());
+		ps.setBoolean(i++, o.isCanDonatePlasma());
+		ps.setString(i++, o.getNotes());
+		ps.setBoolean(i++, o.isActive());
+		ps.setTimestamp(i++, timestamp(o.getActivatedAt()));
+
+		return i;
+	}
+
+	/** Helper method - distinct test type IDs of the value. */
+	private Set<String> testTypeIds(final FacilityValue value)
+	{
+		return value.testTypes.stream().filter(v -> null != v).map(v -> v.id).collect(toCollection(LinkedHashSet::new));
+	}
+
+	/** Helper method - converts to a JDBC timestamp. */
+	private Timestamp timestamp(final Date value)
+	{
+		return (null != value) ? new Timestamp(value.getTime()) : null;
 	}
 
 	/** Removes a single Facility value.
@@ -241,6 +634,7 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		currentSession().delete(record);
 
 		auditor.remove(value);
+		unindex(id);
 
 		return true;
 	}
@@ -283,13 +677,104 @@ public class FacilityDAO extends AbstractDAO<Facility>
 
 	List<FacilityX> findActiveByNameAndDistance(final String name, final BigDecimal latitude, final BigDecimal longitude, final long meters)
 	{
-		return namedQuery("findActiveFacilitiesByNameAndDistance", FacilityX.class)
+		var box = box(latitude, longitude, meters);
+		var q = namedQuery((null != box) ? "findActiveFacilitiesByNameAndBoxAndDistance" : "findActiveFacilitiesByNameAndDistance", FacilityX.class)
 			.setParameter("name", "%" + name + "%")
 			.setParameter("latitude", latitude)
 			.setParameter("longitude", longitude)
 			.setParameter("meters", meters)
-			.setMaxResults(100)
-			.list();
+			.setMaxResults(100);
+		if (null != box) q.setParameter("box", box.wkt());
+
+		return q.list();
+	}
+
+	/** Helper method - narrows the radius search with the spatial and name indices and then loads only the closest matching rows by ID. */
+	private List<FacilityValue> getActiveByNameAndIndex(final String name, final BigDecimal latitude, final BigDecimal longitude, final long meters)
+	{
+		var indexedAt = this.indexedAt;	// Read before the indices so that the changed facilities cover anything missing from them.
+		var hits = geoIndex.search(latitude, longitude, meters);
+		if (nameIndexed(name))	// Narrow the candidates by name. The database still verifies the name. DLS on 10/17/2026.
+		{
+			var ids = nameIndex.search(name);
+			hits = hits.stream().filter(o -> ids.contains(o.id)).collect(toList());
+		}
+
+		var builder = (HibernateQueryBuilder<Facility>) createQueryBuilder(null)
+			.addContains("name", "o.name LIKE :name", name)
+			.add("active", "o.active = :active", true);
+
+		return toValues(verify(builder, hits, indexedAt, latitude, longitude, meters).stream().limit(100L).collect(toList()));
+	}
+
+	/** Helper method - rechecks the spatial index candidates with the database. The index on this node may be behind the writes made
+	 *  by the other nodes so it is only a pre-filter: the query keeps all of its predicates, is limited to the candidates plus any facility
+	 *  changed since the indices were loaded, and the distances are calculated from the stored coordinates.
+	 *
+	 * @param builder query with the remaining filter criteria.
+	 * @param hits spatial index candidates.
+	 * @param indexedAt start of the last index load less the lag.
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @return never NULL - ordered by distance ascending.
+	 */
+	private List<FacilityGeoIndex.Hit> verify(final HibernateQueryBuilder<Facility> builder,
+		final List<FacilityGeoIndex.Hit> hits,
+		final Date indexedAt,
+		final BigDecimal latitude,
+		final BigDecimal longitude,
+		final long meters)
+	{
+		var box = GeoBox.of(latitude, longitude, meters);
+		if (null != box)
+			builder.add("boxLatitudeFrom", "o.latitude >= :boxLatitudeFrom", BigDecimal.valueOf(box.latitudeFrom))
+				.add("boxLatitudeTo", "o.latitude <= :boxLatitudeTo", BigDecimal.valueOf(box.latitudeTo))
+				.add("boxLongitudeFrom", "o.longitude >= :boxLongitudeFrom", BigDecimal.valueOf(box.longitudeFrom))
+				.add("boxLongitudeTo", "o.longitude <= :boxLongitudeTo", BigDecimal.valueOf(box.longitudeTo));
+		if (MAX_GEO_INDEX_IN >= hits.size()) candidates(builder, FacilityGeoIndex.ids(hits), indexedAt);	// Otherwise the box and the remaining criteria are left to the database.
+
+		var lat = latitude.doubleValue();
+		var lon = longitude.doubleValue();
+		var results = new ArrayList<FacilityGeoIndex.Hit>();
+		for (var o : builder.bind(builder.create(SELECT_POINT, Object[].class), Object[].class).list())
+		{
+			var d = FacilityGeoIndex.distance(lat, lon, ((BigDecimal) o[1]).doubleValue(), ((BigDecimal) o[2]).doubleValue());
+			if (d <= meters) results.add(new FacilityGeoIndex.Hit((Long) o[0], Math.round(d)));
+		}
+
+		Collections.sort(results);
+
+		return results;
+	}
+
+	/** Helper method - limits the query to the index candidates and to the facilities changed since the indices were loaded.
+	 *
+	 * @param builder
+	 * @param ids index candidates.
+	 * @param indexedAt start of the last index load less the lag.
+	 * @return the supplied builder.
+	 */
+	private <T> QueryBuilder<T> candidates(final QueryBuilder<T> builder, final Collection<Long> ids, final Date indexedAt)
+	{
+		var changed = "o.updatedAt >= :indexedAt";
+		if (ids.isEmpty()) return builder.add("indexedAt", changed, indexedAt);
+
+		return builder.add("indexedAt", "(o.id IN " + ids.stream().map(String::valueOf).collect(joining(",", "(", ")")) + " OR " + changed + ")", indexedAt);
+	}
+
+	/** Helper method - loads the Facility rows for the spatial index hits and returns them in distance order. Facilities deactivated since the hits were verified are skipped. */
+	private List<FacilityValue> toValues(final List<FacilityGeoIndex.Hit> hits)
+	{
+		if (hits.isEmpty()) return List.of();
+
+		var records = namedQuery("findActiveFacilitiesByIds").setParameterList("ids", FacilityGeoIndex.ids(hits)).stream()
+			.collect(toMap(o -> o.getId(), o -> o));
+
+		return hits.stream()
+			.filter(o -> records.containsKey(o.id))
+			.map(o -> records.get(o.id).toValue().withMeters(o.meters))
+			.collect(toList());
 	}
 
 	/** Gets a single Facility value by identifier.
@@ -335,6 +820,20 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 */
 	public List<FacilityValue> getActiveByName(final String name)
 	{
+		if (nameIndexed(name))
+		{
+			var indexedAt = this.indexedAt;	// Read before the index so that the changed facilities cover anything missing from it.
+			var ids = nameIndex.search(name);
+			if (MAX_GEO_INDEX_IN >= ids.size())	// Otherwise too many candidates to send to the database.
+			{
+				var builder = createQueryBuilder(SELECT)
+					.addContains("name", "o.name LIKE :name", name)
+					.add("active", "o.active = :active", true);
+
+				return candidates(builder, ids, indexedAt).orderBy(NAME_ORDER).run(0, 100).stream().map(o -> o.toValue()).collect(toList());
+			}
+		}
+
 		return findActiveByName(name).stream().map(o -> o.toValue()).collect(toList());
 	}
 
@@ -345,11 +844,17 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 */
 	public List<FacilityValue> getActiveByNameAndDistance(final String name, final BigDecimal latitude, final BigDecimal longitude, final long meters)
 	{
+		if (geoIndexed()) return getActiveByNameAndIndex(name, latitude, longitude, meters);
+
 		return findActiveByNameAndDistance(name, latitude, longitude, meters).stream().map(o -> o.toValue()).collect(toList());
 	}
 
 	/** Gets the Activated timestamps for facilities within the specified range. Used by the AlertTask to determine if a user has new facilities in their area.
+	 *  With an upper bound from "timelinedAt", the activation timeline counts the facilities among the nearest page of facilities
+	 *  instead of the database. Both count only the active facilities.
 	 * 
+	 * @param activatedAtFrom
+	 * @param activatedAtTo exclusive. NULL counts the activations up to now in the database.
 	 * @param latitude
 	 * @param longitude
 	 * @param meters
@@ -358,18 +863,53 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 */
 	public Long countActivatedAtByDistance(
 		final Date activatedAtFrom,
+		final Date activatedAtTo,
 		final BigDecimal latitude,
 		final BigDecimal longitude,
 		final long meters,
 		final int pageSize)
 	{
-		return namedQuery("countFacilitiesActivatedAtByDistance", Total.class)
+		if ((null != activatedAtTo) && timelined()) return (long) timeline.count(latitude, longitude, meters, activatedAtFrom, activatedAtTo, pageSize);
+
+		var box = box(latitude, longitude, meters);
+		var q = namedQuery((null != box) ? "countFacilitiesActivatedAtByBoxAndDistance" : "countFacilitiesActivatedAtByDistance", Total.class)
 			.setParameter("activatedAtFrom", activatedAtFrom)
 			.setParameter("latitude", latitude)
 			.setParameter("longitude", longitude)
 			.setParameter("meters", meters)
-			.setParameter("pageSize", pageSize)
-			.uniqueResultOptional().orElse(Total.ZERO).total;
+			.setParameter("pageSize", pageSize);
+		if (null != box) q.setParameter("box", box.wkt());
+
+		return q.uniqueResultOptional().orElse(Total.ZERO).total;
+	}
+
+	/** Gets the coordinates and activation dates of the facilities activated since the specified date within a longitude range.
+	 *  Used by the AlertInitTask to match the new facilities against all the alertable people of a timezone at once.
+	 * 
+	 * @param activatedAtFrom
+	 * @param longitudeFrom inclusive
+	 * @param longitudeTo exclusive
+	 * @return never NULL
+	 */
+	public List<FacilityActivation> getActivationsByLongitude(final Date activatedAtFrom, final BigDecimal longitudeFrom, final BigDecimal longitudeTo)
+	{
+		return namedQuery("getFacilityActivationsByLongitude", FacilityActivation.class)
+			.setParameter("activatedAtFrom", activatedAtFrom)
+			.setParameter("longitudeFrom", longitudeFrom)
+			.setParameter("longitudeTo", longitudeTo)
+			.list();
+	}
+
+	/** Gets the coordinates and activation dates of all the activated facilities within a longitude range. Used by the AlertTask to rank
+	 *  the new facilities among the nearest facilities to each user of a batch.
+	 * 
+	 * @param longitudeFrom inclusive
+	 * @param longitudeTo exclusive
+	 * @return never NULL
+	 */
+	public List<FacilityActivation> getActivationsByLongitude(final BigDecimal longitudeFrom, final BigDecimal longitudeTo)
+	{
+		return getActivationsByLongitude(new Date(0L), longitudeFrom, longitudeTo);
 	}
 
 	/** Gets a person's favorite facility IDs. Returns an empty list if the user is an admin.
@@ -392,6 +932,8 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 */
 	public List<CountByName> getDistinctCitiesByState(final String state)
 	{
+		if (faceted()) return facets.getCitiesByState(state);
+
 		return namedQuery("getFacilityCitiesByState", CountByName.class).setParameter("state", state).list();
 	}
 
@@ -401,6 +943,8 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 */
 	public List<CountByName> getDistinctStates()
 	{
+		if (faceted()) return facets.getStates();
+
 		return namedQuery("getFacilityStates", CountByName.class).list();
 	}
 
@@ -411,15 +955,33 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	 * @throws ValidationException
 	 */
 	public QueryResults<FacilityValue, FacilityFilter> search(final FacilityFilter filter) throws ValidationException
+	{
+		if ((null == searchCache) || !FacilitySearchCache.cacheable(filter)) return query(filter);
+
+		var indexedAt = this.indexedAt;
+		var key = searchCache.key(filter, (null != indexedAt) ? indexedAt.getTime() : 0L);	// Canonicalizes the filter too.
+		var o = searchCache.get(key);
+		if (null != o) return o;
+
+		var epoch = searchCache.epoch();	// Capture before the search so that a concurrent write is not masked.
+		return searchCache.put(key, epoch, query(filter));
+	}
+
+	/** Helper method - searches the Facility entity without the cache. */
+	private QueryResults<FacilityValue, FacilityFilter> query(final FacilityFilter filter) throws ValidationException
 	{
 		var timer = new StopWatch();
 
 		if ((null != filter.from) && filter.from.valid())
 		{
 			filter.sortOn = "meters";	// Only sort by meters. Default to returning the closest first. DLS on 4/3/2020.
+			if (geoIndexed() && Boolean.TRUE.equals(filter.active)) return searchByIndex(filter.clean(), timer);	// Index only holds active facilities. DLS on 10/17/2026.
+
+			if (filter.seek()) throw new ValidationException("after", "The 'after' token is not supported by this distance search. Please use the 'page' instead.");
+
 			var builder = createNativeQuery(filter.clean(), SELECT_, FacilityX.class);
 			log.info("BUILT_QUERY: {}", timer.split());
-			var v = new QueryResults<FacilityValue, FacilityFilter>(builder.aggregate(COUNT_), filter);
+			QueryResults<FacilityValue, FacilityFilter> v = builder.count(COUNT_, filter, counts);
 			log.info("COUNT: {}", timer.split());
 			if (v.isEmpty()) return v;
 
@@ -430,9 +992,18 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		}
 		else
 		{
-			var builder = createQueryBuilder(filter.clean(), SELECT);
+			var builder = matchAttributeIndex(createQueryBuilder(filter.clean(), SELECT), filter);
 			log.info("BUILT_QUERY: {}", timer.split());
-			var v = new QueryResults<FacilityValue, FacilityFilter>(builder.aggregate(COUNT), filter);
+			if (filter.seek())
+			{
+				var v = new QueryResults<FacilityValue, FacilityFilter>(filter);
+				var records = builder.seek(ORDER, v);
+				log.info("SEEKED: {}", timer.split());
+
+				return v.withRecords(cmr(records.stream().map(o -> o.toValue()).collect(toList())));
+			}
+
+			QueryResults<FacilityValue, FacilityFilter> v = builder.count(COUNT, filter, counts);
 			log.info("COUNT: {}", timer.split());
 			if (v.isEmpty()) return v;
 
@@ -443,6 +1014,78 @@ public class FacilityDAO extends AbstractDAO<Facility>
 		}
 	}
 
+	/** Helper method - performs the radius search with the spatial index. The database is only asked for the candidates that match the
+	 *  remaining filter criteria and then for the single page of rows.
+	 */
+	private QueryResults<FacilityValue, FacilityFilter> searchByIndex(final FacilityFilter filter, final StopWatch timer)
+		throws ValidationException
+	{
+		var matches = matchGeoIndex(filter);
+		log.info("INDEXED: {} in {}", matches.size(), timer.split());
+
+		var v = filter.seek() ? new QueryResults<FacilityValue, FacilityFilter>(filter) : new QueryResults<FacilityValue, FacilityFilter>((long) matches.size(), filter);
+		if (v.isEmpty()) return v;
+
+		var sort = ORDER.normalize(v);
+		if (!sort.asc) Collections.reverse(matches);
+		var first = filter.seek() ? seek(matches, sort, Keyset.decode(filter.after)) : v.firstResult();
+		var last = Math.min(matches.size(), first + v.pageSize);
+		var records = toValues(matches.subList(first, last));
+		log.info("QUERIED: {}", timer.split());
+
+		if (filter.seek() && (last < matches.size()))
+		{
+			var o = matches.get(last - 1);
+			v.withAfter(new Keyset(sort.key, o.meters, o.id).encode());
+		}
+
+		return v.withRecords(cmr(records));
+	}
+
+	/** Helper method - finds the position of the first spatial index hit after the keyset. The hits are already in sort order.
+	 *
+	 * @param hits
+	 * @param sort
+	 * @param after
+	 * @return zero if no keyset is provided.
+	 * @throws ValidationException if the keyset does not belong to the distance sort.
+	 */
+	private int seek(final List<FacilityGeoIndex.Hit> hits, final Sort sort, final Keyset after) throws ValidationException
+	{
+		if (null == after) return 0;
+		if (!sort.key.equals(after.key) || !(after.value instanceof Long) || !(after.id instanceof Long))
+			throw new ValidationException("after", "The 'after' token does not match the '" + sort.key + "' sort.");
+
+		var o = new FacilityGeoIndex.Hit((Long) after.id, (Long) after.value);
+		var i = sort.asc ? Collections.binarySearch(hits, o) : Collections.binarySearch(hits, o, Collections.reverseOrder());
+
+		return (0 <= i) ? i + 1 : -(i + 1);
+	}
+
+	/** Helper method - finds the facilities within the radius that match the remaining filter criteria. The indices narrow the candidates
+	 *  and the database verifies them.
+	 *
+	 * @param filter
+	 * @return never NULL - ordered by distance ascending.
+	 * @throws ValidationException
+	 */
+	private List<FacilityGeoIndex.Hit> matchGeoIndex(final FacilityFilter filter) throws ValidationException
+	{
+		var indexedAt = this.indexedAt;	// Read before the indices so that the changed facilities cover anything missing from them.
+		var from = filter.from;
+		var hits = geoIndex.search(from.latitude, from.longitude, from.meters());
+		if (nameIndexed(filter.name))	// Narrow the IN list by the name candidates. The database still verifies the name. DLS on 10/17/2026.
+		{
+			var names = nameIndex.search(filter.name);
+			hits = hits.stream().filter(o -> names.contains(o.id)).collect(toList());
+		}
+		var attributes = attributeIndexed(filter) ? attributeIndex.search(filter) : null;
+		if (null != attributes)	// Narrow by the attribute candidates. The database still verifies the attributes. DLS on 10/17/2026.
+			hits = hits.stream().filter(o -> (Integer.MAX_VALUE >= o.id) && attributes.get((int) o.id)).collect(toList());
+
+		return verify((HibernateQueryBuilder<Facility>) createQueryBuilder(filter, null), hits, indexedAt, from.latitude, from.longitude, from.meters());
+	}
+
 	/** Counts the number of Facility entities based on the supplied filter.
 	 *
 	 * @param value
@@ -452,9 +1095,153 @@ public class FacilityDAO extends AbstractDAO<Facility>
 	public long count(final FacilityFilter filter) throws ValidationException
 	{
 		if ((null != filter.from) && filter.from.valid())
+		{
+			if (geoIndexed() && Boolean.TRUE.equals(filter.active)) return matchGeoIndex(filter.clean()).size();
+
 			return createNativeQuery(filter.clean(), null, FacilityX.class).aggregate(COUNT_);
+		}
 		else
-			return createQueryBuilder(filter.clean(), null).aggregate(COUNT);
+			return matchAttributeIndex(createQueryBuilder(filter.clean(), null), filter).aggregate(COUNT);
+	}
+
+	/** Streams every Facility that matches the supplied filter, with its test types, in identifier order. The rows are read
+	 *  through a forward-only cursor and the session is cleared periodically so that memory use does not grow with the catalog.
+	 *  Should be called with a read-only session on the replica.
+	 *
+	 * @param filter
+	 * @param consumer receives each facility in turn.
+	 * @return number of facilities exported.
+	 * @throws ValidationException if the filter contains a distance search.
+	 */
+	public long export(final FacilityFilter filter, final Consumer<FacilityValue> consumer) throws ValidationException
+	{
+		if ((null != filter.from) && filter.from.valid())
+			throw new ValidationException("from", "The distance search is not supported by the export. Please use the latitude and longitude ranges instead.");
+
+		var builder = (HibernateQueryBuilder<Facility>) createQueryBuilder(filter.clean(), null);
+		builder.joins("LEFT JOIN o.testTypes x").orderBy(EXPORT_ORDER);
+
+		var q = builder.bind(builder.create(SELECT_EXPORT, Object[].class), Object[].class)
+			.setReadOnly(true)
+			.setCacheMode(CacheMode.IGNORE)
+			.setFetchSize(mysql() ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE);	// MySQL Connector/J only streams the result set with MIN_VALUE.
+
+		long count = 0L;
+		FacilityValue value = null;
+		try (var rows = q.scroll(ScrollMode.FORWARD_ONLY))
+		{
+			while (rows.next())
+			{
+				var record = (Facility) rows.get(0);
+				var testType = (FacilityTestType) rows.get(1);
+				if ((null == value) || !value.id.equals(record.getId()))	// Rows are ordered by facility so the test types of each facility are adjacent.
+				{
+					if (null != value)
+					{
+						consumer.accept(value);
+						if (0L == (++count % EXPORT_CLEAR_SIZE)) currentSession().clear();
+					}
+					value = record.toValue();
+				}
+				if (null != testType)
+				{
+					if (null == value.testTypes) value.testTypes = new ArrayList<>();
+					value.testTypes.add(testType.toValue());
+				}
+			}
+		}
+
+		if (null != value)
+		{
+			consumer.accept(value);
+			count++;
+		}
+
+		return count;
+	}
+
+	/** Indicates whether radius searches should be narrowed with the spatial index. */
+	private boolean geoIndexed() { return (null != indexedAt) && (null != geoIndex) && geoIndex.loaded(); }
+
+	/** Indicates whether the alert counts of new facilities should be served from the activation timeline. */
+	private boolean timelined() { return (null != indexedAt) && (null != timeline) && timeline.loaded(); }
+
+	/** Gets the time before which the activation timeline holds every facility activation - the start of its last load less the lag.
+	 *  The activations made on the other nodes since then are only picked up by the next load, so the alert checks that use the
+	 *  timeline count the activations up to this time and record it as the time of the check.
+	 *
+	 * @return NULL if the timeline is not available.
+	 */
+	public Date timelinedAt() { return timelined() ? indexedAt : null; }
+
+	/** Gets the activation timeline once it has been loaded. Used by the AlertTask to match a batch of users without querying the new facilities.
+	 *
+	 * @return NULL if the timeline is not available.
+	 */
+	public FacilityActivationTimeline timeline() { return timelined() ? timeline : null; }
+
+	/** Indicates whether the name search should be narrowed with the name index. */
+	private boolean nameIndexed(final String name) { return (null != indexedAt) && (null != nameIndex) && nameIndex.loaded() && FacilityNameIndex.supports(name); }
+
+	/** Indicates whether the state and city counts should be served from the facet counts. */
+	private boolean faceted() { return (null != facets) && facets.loaded(); }
+
+	/** Indicates whether the attribute filters should be resolved by the attribute index. Index only holds active facilities. */
+	private boolean attributeIndexed(final FacilityFilter filter)
+	{
+		return (null != indexedAt) && (null != attributeIndex) && attributeIndex.loaded() && Boolean.TRUE.equals(filter.active) && FacilityAttributeIndex.supports(filter);
+	}
+
+	/** Helper method - narrows the query by the facilities that the attribute and name indices resolve from the filter. The query keeps
+	 *  all of its predicates, so the candidates only add an IN clause and the facilities changed since the indices were loaded are always included.
+	 *
+	 * @param builder query with all of the filter criteria.
+	 * @param filter
+	 * @return the supplied builder.
+	 */
+	private QueryBuilder<Facility> matchAttributeIndex(final QueryBuilder<Facility> builder, final FacilityFilter filter)
+	{
+		var indexedAt = this.indexedAt;	// Read before the indices so that the changed facilities cover anything missing from them.
+		if (!attributeIndexed(filter)) return builder;
+
+		var ids = attributeIndex.search(filter);
+		if (nameIndexed(filter.name)) ids.and(FacilityAttributeIndex.bitmap(nameIndex.search(filter.name)));
+
+		return (MAX_GEO_INDEX_IN >= ids.cardinality()) ? candidates(builder, FacilityAttributeIndex.ids(ids), indexedAt) : builder;	// Otherwise too many candidates to send to the database.
+	}
+
+	/** Rebuilds the spatial, name, and attribute indices, the activation timeline, and the facet counts from the active facilities. Called on startup and periodically thereafter.
+	 *  The indices only narrow the searches - the facilities updated since the start of the load, less the lag, are always checked by the database.
+	 *
+	 * @return the number of facilities indexed. -1 if there are no indices.
+	 */
+	public int loadIndices()
+	{
+		if ((null == geoIndex) && (null == nameIndex) && (null == facets) && (null == attributeIndex) && (null == timeline)) return -1;
+
+		var loadedAt = new Date(System.currentTimeMillis() - indexLag);	// Before the query so that any change the replica has not yet applied is covered.
+		var values = namedQuery("getActiveFacilityPoints", FacilityPoint.class).list();
+		if (null != facets)
+		{
+			var drift = facets.load(values.stream().map(o -> new FacilityFacets.Entry(o.id, o.state, o.city)).collect(toList()));
+			if (0 < drift) log.warn("FACETS_RECONCILED: {} state/city counts differed from the database", drift);
+		}
+		if (null != nameIndex)
+			nameIndex.load(values.stream().map(o -> new FacilityNameIndex.Entry(o.id, o.name)).collect(toList()));
+		if (null != geoIndex)
+			geoIndex.load(values.stream().map(o -> new FacilityGeoIndex.Point(o.id, o.latitude.doubleValue(), o.longitude.doubleValue())).collect(toList()));
+		if (null != attributeIndex)
+		{
+			var testTypes = namedQuery("getActiveFacilityTestTypes", Object[].class).stream()
+				.collect(groupingBy(o -> (Long) o[0], mapping(o -> (String) o[1], toSet())));
+			attributeIndex.load(values.stream().map(o -> new FacilityAttributeIndex.Entry(o, testTypes.get(o.id))).collect(toList()));
+		}
+		if (null != timeline)
+			timeline.load(values.stream().map(o -> FacilityActivationTimeline.Entry.of(o.id, o.latitude, o.longitude, o.activatedAt)).filter(Objects::nonNull).collect(toList()));
+
+		indexedAt = loadedAt;	// After the indices are swapped in. Until then, searches use the earlier time which covers more facilities.
+
+		return values.size();
 	}
 
 	/** Helper method - creates the a standard Hibernate query builder. */
@@ -599,12 +1386,43 @@ public class FacilityDAO extends AbstractDAO<Facility>
 			.addIn("excludeTestTypes", "NOT EXISTS (SELECT 1 FROM facility_test_type tt WHERE tt.facility_id = o.id AND tt.test_type_id IN {})", filter.excludeTestTypes)
 			.add("fromMeters", "ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:fromLongitude, :fromLatitude)) <= :fromMeters", filter.from.meters());
 
+		// Bounding box prefilter so that the index prunes the rows before the exact distance is calculated. DLS on 10/17/2026.
+		var box = filter.from.box();
+		if (null != box)
+		{
+			if (spatial())
+				o.add("fromBox", FacilityX.BOX.replace(":box", ":fromBox"), box.wkt());
+			else	// H2 fallback - no SPATIAL column so use the latitude/longitude index.
+				o.add("fromLatitudeFrom", "o.latitude >= :fromLatitudeFrom", box.latitudeFrom)
+					.add("fromLatitudeTo", "o.latitude <= :fromLatitudeTo", box.latitudeTo)
+					.add("fromLongitudeFrom", "o.longitude >= :fromLongitudeFrom", box.longitudeFrom)
+					.add("fromLongitudeTo", "o.longitude <= :fromLongitudeTo", box.longitudeTo);
+		}
+
 		o.parameters.put("fromLatitude", filter.from.latitude);
 		o.parameters.put("fromLongitude", filter.from.longitude);
 
 		return o;
 	}
 
+	/** Helper method - indicates whether the database supports the facility.location SPATIAL column. H2 falls back to the latitude/longitude index. */
+	private boolean spatial() { return mysql(); }
+
+	/** Helper method - indicates whether the current session is connected to MySQL. */
+	private boolean mysql()
+	{
+		return ((SessionFactoryImplementor) currentSession().getSessionFactory()).getJdbcServices().getDialect() instanceof MySQLDialect;
+	}
+
+	/** Helper method - gets the bounding box prefilter for the radius search.
+	 *
+	 * @return NULL if the database does not support the SPATIAL column or the box wraps a pole or the antimeridian.
+	 */
+	private GeoBox box(final BigDecimal latitude, final BigDecimal longitude, final long meters)
+	{
+		return spatial() ? GeoBox.of(latitude, longitude, meters) : null;
+	}
+
 	private List<FacilityValue> cmr(final List<FacilityValue> values)	// Populate children entities.
 	{
 		if (values.isEmpty()) return values;
@@ -0,0 +1,163 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.*;
+
+import app.allclear.common.ObjectUtils;
+import app.allclear.platform.entity.CountByName;
+
+/** In-process materialized view of the active facility counts by state and by city within a state. Serves the
+ *  landing page facets without the GROUP BY aggregations over the facility table.
+ *
+ *  Maintained incrementally from the facility writes and periodically reconciled against the database.
+ *  States and cities are grouped case insensitive like the database collation.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityFacets
+{
+	/** Represents the facet values of a single active facility. */
+	public static class Entry
+	{
+		public final long id;
+		public final String state;
+		public final String city;
+
+		public Entry(final long id, final String state, final String city)
+		{
+			this.id = id;
+			this.state = state;
+			this.city = city;
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	private final Map<Long, Entry> entries = new HashMap<>();
+	private final Map<String, Long> states = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private final Map<String, Map<String, Long>> cities = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+	private boolean loaded = false;
+
+	/** Indicates that the view has been fully loaded at least once. Requests should fall back to SQL until it has. */
+	public synchronized boolean loaded() { return loaded; }
+
+	/** Number of facilities in the view. */
+	public synchronized int size() { return entries.size(); }
+
+	/** Replaces the entire contents of the view with the supplied entries.
+	 *
+	 * @param values
+	 * @return the number of state and city counts that differed from the incrementally maintained view. Zero on the first load.
+	 */
+	public synchronized int load(final Collection<Entry> values)
+	{
+		var oldStates = getStates();
+		var oldCities = cityCounts();
+
+		entries.clear();
+		states.clear();
+		cities.clear();
+		values.forEach(this::add);
+
+		var drift = loaded ? difference(oldStates, getStates()) + difference(oldCities, cityCounts()) : 0;
+		loaded = true;
+
+		return drift;
+	}
+
+	/** Adds, moves or reactivates a single facility.
+	 *
+	 * @param id
+	 * @param state
+	 * @param city
+	 */
+	public synchronized void put(final Long id, final String state, final String city)
+	{
+		if ((null == id) || (null == state) || (null == city)) return;
+
+		remove(id);
+		add(new Entry(id, state, city));
+	}
+
+	/** Removes a single deactivated or deleted facility.
+	 *
+	 * @param id
+	 * @return TRUE if the facility was counted.
+	 */
+	public synchronized boolean remove(final Long id)
+	{
+		var o = entries.remove(id);
+		if (null == o) return false;
+
+		decrement(states, o.state);
+		var c = cities.get(o.state);
+		if (null != c)
+		{
+			decrement(c, o.city);
+			if (c.isEmpty()) cities.remove(o.state);
+		}
+
+		return true;
+	}
+
+	/** Gets the active facility counts by state.
+	 *
+	 * @return never NULL - ordered by state.
+	 */
+	public synchronized List<CountByName> getStates()
+	{
+		return states.entrySet().stream().map(o -> new CountByName(o.getKey(), o.getValue())).collect(toList());
+	}
+
+	/** Gets the active facility counts by city within the specified state.
+	 *
+	 * @param state
+	 * @return never NULL - ordered by city.
+	 */
+	public synchronized List<CountByName> getCitiesByState(final String state)
+	{
+		var o = (null != state) ? cities.get(state) : null;
+		if (null == o) return List.of();
+
+		return o.entrySet().stream().map(v -> new CountByName(v.getKey(), v.getValue())).collect(toList());
+	}
+
+	/** Helper method - counts a single facility. Must be called while holding the lock. */
+	private void add(final Entry value)
+	{
+		if ((null == value.state) || (null == value.city)) return;
+
+		entries.put(value.id, value);
+		states.merge(value.state, 1L, Long::sum);
+		cities.computeIfAbsent(value.state, k -> new TreeMap<>(String.CASE_INSENSITIVE_ORDER)).merge(value.city, 1L, Long::sum);
+	}
+
+	/** Helper method - flattens the city counts of every state for comparison. Must be called while holding the lock. */
+	private List<CountByName> cityCounts()
+	{
+		return cities.keySet().stream().flatMap(s -> getCitiesByState(s).stream().map(c -> new CountByName(s + "/" + c.name, c.total))).collect(toList());
+	}
+
+	/** Helper method - decrements a count and drops the facet once it reaches zero. */
+	private static void decrement(final Map<String, Long> counts, final String key)
+	{
+		counts.computeIfPresent(key, (k, v) -> (1L < v) ? v - 1L : null);
+	}
+
+	/** Helper method - counts the facets that are not identical in both lists. */
+	private static int difference(final List<CountByName> a, final List<CountByName> b)
+	{
+		var o = new HashSet<>(a);
+		o.removeAll(b);
+		var v = new HashSet<>(b);
+		v.removeAll(a);
+
+		return o.size() + v.size();
+	}
+}
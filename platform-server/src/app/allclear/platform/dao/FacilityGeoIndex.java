@@ -0,0 +1,244 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static app.allclear.platform.filter.GeoBox.EARTH_RADIUS;
+import static app.allclear.platform.filter.GeoBox.METERS_PER_DEGREE;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import app.allclear.common.ObjectUtils;
+
+/** In-process spatial index of the active facilities. Facilities are bucketed into a fixed grid of latitude/longitude cells
+ *  so that a radius search only visits the cells that overlap the radius' bounding box instead of every facility row.
+ *  Distances are calculated with the same spherical model as MySQL's ST_DISTANCE_SPHERE so that the results match the SQL search.
+ *
+ *  Reads are lock free. Writes are serialized and an entire reload swaps in a new grid so that searches never see a partial index.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityGeoIndex
+{
+	public static final double CELL_SIZE = 0.25d;	// Degrees - roughly 28 km of latitude.
+	public static final int ROWS = (int) (180d / CELL_SIZE);
+	public static final int COLUMNS = (int) (360d / CELL_SIZE);
+
+	/** Represents a single indexed facility. */
+	public static class Point
+	{
+		public final long id;
+		public final double latitude;
+		public final double longitude;
+		public final int cell;
+
+		public Point(final long id, final double latitude, final double longitude)
+		{
+			this.id = id;
+			this.latitude = latitude;
+			this.longitude = longitude;
+			this.cell = cell(row(latitude), column(longitude));
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	/** Represents a single search result - the facility identifier and its distance from the search origin. */
+	public static class Hit implements Comparable<Hit>
+	{
+		public final long id;
+		public final long meters;
+
+		public Hit(final long id, final long meters)
+		{
+			this.id = id;
+			this.meters = meters;
+		}
+
+		@Override
+		public int compareTo(final Hit o)
+		{
+			var v = Long.compare(meters, o.meters);
+			return (0 != v) ? v : Long.compare(id, o.id);
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	/** Holds the full state of the index so that a reload can be swapped in atomically. */
+	private static class Grid
+	{
+		private final Map<Long, Point> points = new ConcurrentHashMap<>();
+		private final Map<Integer, Map<Long, Point>> cells = new ConcurrentHashMap<>();
+
+		private void put(final Point value)
+		{
+			var o = points.put(value.id, value);
+			if ((null != o) && (o.cell != value.cell)) remove(o);
+			cells.computeIfAbsent(value.cell, k -> new ConcurrentHashMap<>()).put(value.id, value);
+		}
+
+		private void remove(final Point value)
+		{
+			var cell = cells.get(value.cell);
+			if (null == cell) return;
+
+			cell.remove(value.id);
+			if (cell.isEmpty()) cells.remove(value.cell, cell);
+		}
+	}
+
+	private volatile Grid grid = new Grid();
+	private volatile boolean loaded = false;
+
+	/** Indicates that the index has been fully loaded at least once. Searches should fall back to SQL until it has. */
+	public boolean loaded() { return loaded; }
+
+	/** Number of facilities in the index. */
+	public int size() { return grid.points.size(); }
+
+	/** Indicates whether the specified facility is indexed. */
+	public boolean contains(final Long id) { return grid.points.containsKey(id); }
+
+	/** Replaces the entire contents of the index with the supplied points.
+	 *
+	 * @param values
+	 * @return the number of facilities indexed.
+	 */
+	public synchronized int load(final Collection<Point> values)
+	{
+		var o = new Grid();
+		values.forEach(o::put);
+
+		grid = o;
+		loaded = true;
+
+		return o.points.size();
+	}
+
+	/** Adds or moves a single facility in the index.
+	 *
+	 * @param id
+	 * @param latitude
+	 * @param longitude
+	 */
+	public synchronized void put(final Long id, final BigDecimal latitude, final BigDecimal longitude)
+	{
+		if ((null == id) || (null == latitude) || (null == longitude)) return;
+
+		grid.put(new Point(id, latitude.doubleValue(), longitude.doubleValue()));
+	}
+
+	/** Removes a single facility from the index.
+	 *
+	 * @param id
+	 * @return TRUE if the facility was indexed.
+	 */
+	public synchronized boolean remove(final Long id)
+	{
+		var g = grid;
+		var o = g.points.remove(id);
+		if (null == o) return false;
+
+		g.remove(o);
+
+		return true;
+	}
+
+	/** Finds the facilities within the specified radius.
+	 *
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @return never NULL - ordered by distance ascending.
+	 */
+	public List<Hit> search(final BigDecimal latitude, final BigDecimal longitude, final long meters)
+	{
+		var g = grid;
+		var lat = latitude.doubleValue();
+		var lon = longitude.doubleValue();
+
+		var results = new ArrayList<Hit>();
+		for (var c : cells(lat, lon, meters))
+		{
+			var cell = g.cells.get(c);
+			if (null == cell) continue;
+
+			for (var p : cell.values())
+			{
+				var d = distance(lat, lon, p.latitude, p.longitude);
+				if (d <= meters) results.add(new Hit(p.id, Math.round(d)));
+			}
+		}
+
+		Collections.sort(results);
+
+		return results;
+	}
+
+	/** Gets the grid cells that overlap the bounding box of the specified radius.
+	 *
+	 * @param lat origin
+	 * @param lon origin
+	 * @param meters radius
+	 * @return never NULL
+	 */
+	static int[] cells(final double lat, final double lon, final long meters)
+	{
+		var deltaLat = meters / METERS_PER_DEGREE;
+		var rowFrom = row(Math.max(-90d, lat - deltaLat));
+		var rowTo = row(Math.min(90d, lat + deltaLat));
+
+		// Longitude degrees shrink toward the poles so widen the box by the widest latitude covered.
+		var maxLat = Math.min(90d, Math.abs(lat) + deltaLat);
+		var cos = Math.cos(Math.toRadians(maxLat));
+		var deltaLon = (0.000001d < cos) ? deltaLat / cos : 360d;
+		int colFrom, colTo;
+		if (180d <= deltaLon)
+		{
+			colFrom = 0;
+			colTo = COLUMNS - 1;
+		}
+		else
+		{
+			colFrom = (int) Math.floor((lon - deltaLon + 180d) / CELL_SIZE);
+			colTo = (int) Math.floor((lon + deltaLon + 180d) / CELL_SIZE);
+			if (COLUMNS <= (colTo - colFrom)) colTo = colFrom + COLUMNS - 1;
+		}
+
+		var o = new int[(rowTo - rowFrom + 1) * (colTo - colFrom + 1)];
+		int i = 0;
+		for (int r = rowFrom; r <= rowTo; r++)
+			for (int c = colFrom; c <= colTo; c++)
+				o[i++] = cell(r, Math.floorMod(c, COLUMNS));
+
+		return o;
+	}
+
+	/** Extracts the identifiers from a list of search hits preserving the order. */
+	public static List<Long> ids(final List<Hit> values)
+	{
+		return values.stream().map(o -> o.id).collect(toList());
+	}
+
+	/** Haversine distance in meters between two coordinates. */
+	public static double distance(final double lat1, final double lon1, final double lat2, final double lon2)
+	{
+		var dLat = Math.toRadians(lat2 - lat1);
+		var dLon = Math.toRadians(lon2 - lon1);
+		var a = Math.pow(Math.sin(dLat / 2d), 2d) +
+			Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.pow(Math.sin(dLon / 2d), 2d);
+
+		return 2d * EARTH_RADIUS * Math.asin(Math.min(1d, Math.sqrt(a)));
+	}
+
+	static int row(final double latitude) { return Math.min(ROWS - 1, (int) Math.floor((latitude + 90d) / CELL_SIZE)); }
+	static int column(final double longitude) { return Math.floorMod((int) Math.floor((longitude + 180d) / CELL_SIZE), COLUMNS); }
+	static int cell(final int row, final int column) { return (row * COLUMNS) + column; }
+}
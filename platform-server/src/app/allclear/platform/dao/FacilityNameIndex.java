@@ -0,0 +1,192 @@
+package app.allclear.platform.dao;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+
+import app.allclear.common.ObjectUtils;
+
+/** In-process trigram index of the active facility names. Resolves the substring (LIKE '%name%') searches to candidate
+ *  facility IDs without scanning the facility table - a leading wildcard LIKE can never use the name index.
+ *
+ *  Names are folded to lower case without accents to approximate the case and accent insensitive database collation.
+ *  The trigram postings only narrow the candidates - each candidate is verified against its folded name.
+ *
+ *  Reads are lock free. Writes are serialized and an entire reload swaps in a new set of postings so that searches never see a partial index.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityNameIndex
+{
+	public static final int GRAM = 3;
+
+	private static final Pattern PATTERN_MARKS = Pattern.compile("\\p{M}+");
+
+	/** Represents a single indexed facility. */
+	public static class Entry
+	{
+		public final long id;
+		public final String name;
+		public final String folded;
+
+		public Entry(final long id, final String name)
+		{
+			this.id = id;
+			this.name = name;
+			this.folded = fold(name);
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	/** Holds the full state of the index so that a reload can be swapped in atomically. */
+	private static class Postings
+	{
+		private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+		private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+		private void put(final Entry value)
+		{
+			var o = entries.put(value.id, value);
+			if (null != o) remove(o);
+			grams(value.folded).forEach(g -> grams.computeIfAbsent(g, k -> ConcurrentHashMap.newKeySet()).add(value.id));
+		}
+
+		private void remove(final Entry value)
+		{
+			for (var g : grams(value.folded))
+			{
+				var ids = grams.get(g);
+				if (null == ids) continue;
+
+				ids.remove(value.id);
+				if (ids.isEmpty()) grams.remove(g, ids);
+			}
+		}
+	}
+
+	private volatile Postings postings = new Postings();
+	private volatile boolean loaded = false;
+
+	/** Indicates that the index has been fully loaded at least once. Searches should fall back to SQL until it has. */
+	public boolean loaded() { return loaded; }
+
+	/** Number of facilities in the index. */
+	public int size() { return postings.entries.size(); }
+
+	/** Indicates whether the specified facility is indexed. */
+	public boolean contains(final Long id) { return postings.entries.containsKey(id); }
+
+	/** Replaces the entire contents of the index with the supplied entries.
+	 *
+	 * @param values
+	 * @return the number of facilities indexed.
+	 */
+	public synchronized int load(final Collection<Entry> values)
+	{
+		var o = new Postings();
+		values.forEach(o::put);
+
+		postings = o;
+		loaded = true;
+
+		return o.entries.size();
+	}
+
+	/** Adds or renames a single facility in the index.
+	 *
+	 * @param id
+	 * @param name
+	 */
+	public synchronized void put(final Long id, final String name)
+	{
+		if ((null == id) || (null == name)) return;
+
+		postings.put(new Entry(id, name));
+	}
+
+	/** Removes a single facility from the index.
+	 *
+	 * @param id
+	 * @return TRUE if the facility was indexed.
+	 */
+	public synchronized boolean remove(final Long id)
+	{
+		var p = postings;
+		var o = p.entries.remove(id);
+		if (null == o) return false;
+
+		p.remove(o);
+
+		return true;
+	}
+
+	/** Indicates whether the search text can be resolved by the index. SQL wildcard characters must be resolved by the database. */
+	public static boolean supports(final String name)
+	{
+		return StringUtils.isNotEmpty(name) && (0 > StringUtils.indexOfAny(name, '%', '_'));
+	}
+
+	/** Finds the facilities whose name contains the search text.
+	 *
+	 * @param name search text
+	 * @return never NULL - the matching facility IDs in no particular order.
+	 */
+	public Set<Long> search(final String name)
+	{
+		var p = postings;
+		var value = fold(name);
+		if (value.isEmpty()) return new HashSet<>(p.entries.keySet());
+
+		var results = new HashSet<Long>();
+		if (GRAM > value.length())	// Too short for a trigram - verify every name.
+		{
+			p.entries.values().stream().filter(o -> o.folded.contains(value)).forEach(o -> results.add(o.id));
+			return results;
+		}
+
+		// Start from the smallest postings list so that the candidate set stays small.
+		var lists = new ArrayList<Set<Long>>();
+		for (var g : grams(value))
+		{
+			var ids = p.grams.get(g);
+			if (null == ids) return results;
+			lists.add(ids);
+		}
+		lists.sort(Comparator.comparingInt(Set::size));
+
+		var candidates = lists.get(0);
+		for (var id : candidates)
+		{
+			var o = p.entries.get(id);
+			if ((null != o) && o.folded.contains(value)) results.add(id);
+		}
+
+		return results;
+	}
+
+	/** Folds the text to lower case without accents. */
+	static String fold(final String value)
+	{
+		if (null == value) return "";
+
+		return PATTERN_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/** Splits the folded text into its distinct trigrams. */
+	static Set<String> grams(final String value)
+	{
+		var o = new HashSet<String>();
+		for (int i = 0; i + GRAM <= value.length(); i++) o.add(value.substring(i, i + GRAM));
+
+		return o;
+	}
+}
@@ -0,0 +1,241 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static com.codahale.metrics.MetricRegistry.name;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.*;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.dao.QueryResults;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.RedisClient;
+import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.filter.GeoFilter;
+import app.allclear.platform.value.FacilityValue;
+
+/** Bounded, in-process cache of the active-only facility search results. Anonymous and regular users send a small set of
+ *  distinct filters so the cache avoids both the search and the child test type queries for the repeats.
+ *
+ *  Results are stored serialized so that each hit returns a private copy - the caller decorates the records per user.
+ *  Any facility write bumps a generation counter in Redis. Each node compares its generation with Redis at most once
+ *  per check interval and clears its entries when the generation has moved. The keys include the load time of the
+ *  node's facility indices so that an entry does not outlive the index candidates it was searched with.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilitySearchCache
+{
+	private static final Logger log = LoggerFactory.getLogger(FacilitySearchCache.class);
+	private static final TypeReference<QueryResults<FacilityValue, FacilityFilter>> TYPE = new TypeReference<QueryResults<FacilityValue, FacilityFilter>>() {};
+
+	public static final String GENERATION = "facility:search:generation";	// Redis key of the cross-node generation counter.
+	public static final int MAX_ENTRIES = 1000;
+	public static final long CHECK_INTERVAL = 1000L;	// Milliseconds between generation checks.
+	public static final int SCALE = 3;	// Decimal places of the GEO origin - roughly 110 meters.
+
+	private final int maxEntries;
+	private final long checkInterval;
+	private final RedisClient redis;
+	private final ObjectMapper mapper = JacksonUtils.createMapper();
+	private final Map<String, byte[]> entries;
+	private final Meter hits;
+	private final Meter misses;
+	private final Meter evictions;
+
+	private String generation = null;	// Guarded by "this".
+	private long checkedAt = 0L;	// Guarded by "this".
+	private long epoch = 0L;	// Guarded by "this". Incremented on each clear so that in-flight searches do not repopulate stale results.
+
+	public FacilitySearchCache(final RedisClient redis, final MetricRegistry metrics)
+	{
+		this(redis, metrics, MAX_ENTRIES, CHECK_INTERVAL);
+	}
+
+	public FacilitySearchCache(final RedisClient redis, final MetricRegistry metrics, final int maxEntries, final long checkInterval)
+	{
+		this.redis = redis;
+		this.maxEntries = maxEntries;
+		this.checkInterval = checkInterval;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {	// Access order - least recently used first.
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest)
+			{
+				if (size() <= FacilitySearchCache.this.maxEntries) return false;
+
+				evictions.mark();
+				return true;
+			}
+		};
+
+		hits = metrics.meter(name(FacilitySearchCache.class, "hits"));
+		misses = metrics.meter(name(FacilitySearchCache.class, "misses"));
+		evictions = metrics.meter(name(FacilitySearchCache.class, "evictions"));
+		metrics.register(name(FacilitySearchCache.class, "size"), (Gauge<Integer>) this::size);
+	}
+
+	/** Indicates whether the search can be served from the cache. Only the active-only view is cached. */
+	public static boolean cacheable(final FacilityFilter filter)
+	{
+		return Boolean.TRUE.equals(filter.active);
+	}
+
+	/** Canonicalizes the filter in place so that equivalent searches share an entry. The GEO origin is rounded and
+	 *  the test type lists are sorted. The search must then be run with the canonical filter so that the cached results match the key.
+	 *
+	 * @param filter
+	 * @return the cache key.
+	 */
+	public String key(final FacilityFilter filter)
+	{
+		return key(filter, 0L);
+	}
+
+	/** Canonicalizes the filter in place and builds the key for the version of this node's facility indices. Entries computed
+	 *  with the candidates of an earlier index load are not served once the indices are reloaded.
+	 *
+	 * @param filter
+	 * @param version load time of the facility indices - zero if none.
+	 * @return the cache key.
+	 */
+	public String key(final FacilityFilter filter, final long version)
+	{
+		filter.clean();
+		if (null != filter.from)
+		{
+			var o = filter.from;
+			filter.from = new GeoFilter(round(o.latitude), round(o.longitude), o.location, o.miles, o.km);
+		}
+		if (null != filter.includeTestTypes) filter.includeTestTypes = filter.includeTestTypes.stream().filter(Objects::nonNull).distinct().sorted().collect(toList());
+		if (null != filter.excludeTestTypes) filter.excludeTestTypes = filter.excludeTestTypes.stream().filter(Objects::nonNull).distinct().sorted().collect(toList());
+
+		try { return version + ":" + mapper.writeValueAsString(filter); }
+		catch (final JsonProcessingException ex) { throw new IllegalArgumentException(ex); }
+	}
+
+	/** Gets a private copy of the cached results.
+	 *
+	 * @param key
+	 * @return NULL if not found.
+	 */
+	public QueryResults<FacilityValue, FacilityFilter> get(final String key)
+	{
+		byte[] value;
+		synchronized (this)
+		{
+			value = current() ? entries.get(key) : null;
+		}
+
+		if (null == value)
+		{
+			misses.mark();
+			return null;
+		}
+
+		hits.mark();
+		try { return mapper.readValue(value, TYPE); }
+		catch (final IOException ex) { throw new IllegalStateException(ex); }
+	}
+
+	/** Gets the current epoch. Capture before running the search and pass to put. */
+	public synchronized long epoch() { return epoch; }
+
+	/** Caches the search results unless the cache was cleared since the search started.
+	 *
+	 * @param key
+	 * @param epoch captured before the search was run.
+	 * @param value
+	 * @return the supplied results.
+	 */
+	public QueryResults<FacilityValue, FacilityFilter> put(final String key, final long epoch, final QueryResults<FacilityValue, FacilityFilter> value)
+	{
+		byte[] o;
+		try { o = mapper.writeValueAsBytes(value); }
+		catch (final JsonProcessingException ex) { throw new IllegalArgumentException(ex); }
+
+		synchronized (this)
+		{
+			if (this.epoch == epoch) entries.put(key, o);
+		}
+
+		return value;
+	}
+
+	/** Clears the local entries and bumps the Redis generation so that the other nodes clear theirs. Called after a facility write commits. */
+	public void invalidate()
+	{
+		clear();
+
+		try
+		{
+			var o = redis.operation(j -> j.incr(GENERATION));
+			synchronized (this) { generation = String.valueOf(o); }
+		}
+		catch (final RuntimeException ex) { log.warn("INVALIDATE_FAILED: " + ex.getMessage(), ex); }	// Other nodes will pick up the change on their next successful check.
+	}
+
+	/** Removes all local entries. */
+	public synchronized void clear()
+	{
+		entries.clear();
+		epoch++;
+	}
+
+	/** Number of cached searches. */
+	public synchronized int size() { return entries.size(); }
+
+	/** Helper method - verifies that the local entries are still current with the Redis generation. Must be called while holding the lock.
+	 *
+	 * @return FALSE if the generation could not be read - the cache is bypassed.
+	 */
+	private boolean current()
+	{
+		var now = System.currentTimeMillis();
+		if (checkInterval > (now - checkedAt)) return true;
+
+		try
+		{
+			var o = redis.get(GENERATION);
+			if (!Objects.equals(generation, o))
+			{
+				log.info("GENERATION_CHANGED: {} to {} - clearing {} entries", generation, o, entries.size());
+				clear();
+				generation = o;
+			}
+			checkedAt = now;
+
+			return true;
+		}
+		catch (final RuntimeException ex)
+		{
+			log.warn("GENERATION_FAILED: " + ex.getMessage(), ex);
+			clear();
+
+			return false;
+		}
+	}
+
+	/** Helper method - rounds a GEO coordinate to the cache precision. */
+	static BigDecimal round(final BigDecimal value)
+	{
+		return (null != value) ? value.setScale(SCALE, RoundingMode.HALF_UP) : null;
+	}
+}
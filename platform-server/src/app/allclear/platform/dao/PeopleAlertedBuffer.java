@@ -0,0 +1,204 @@
+package app.allclear.platform.dao;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.slf4j.*;
+
+import app.allclear.common.ObjectUtils;
+import app.allclear.common.hibernate.AbstractHibernateRunner;
+import app.allclear.common.hibernate.DualSessionFactory;
+
+/** Write-behind buffer of the facility alert checks. The AlertTask records each check here instead of updating the People row
+ *  in its own transaction. The buffer writes the checks with a single JDBC batch UPDATE every "batchSize" checks or every
+ *  "interval" milliseconds, whichever comes first, and evicts only the updated People from the second-level cache.
+ *
+ *  Checks are only recorded after their alerts have been sent so a crash loses, at worst, the record of the check. The people
+ *  are then checked, and possibly alerted, again on the next alert run rather than skipped.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class PeopleAlertedBuffer implements AutoCloseable
+{
+	private static final Logger log = LoggerFactory.getLogger(PeopleAlertedBuffer.class);
+
+	public static final int BATCH_SIZE = 500;
+	public static final long INTERVAL = 1000L;	// Milliseconds between flushes.
+	public static final long CLOSE_TIMEOUT = 30000L;
+
+	/** Represents a single pending alert check. */
+	public static class Entry
+	{
+		public final String id;
+		public final int alertedOf;
+		public final Date alertedAt;
+
+		public Entry(final String id, final int alertedOf, final Date alertedAt)
+		{
+			this.id = id;
+			this.alertedOf = alertedOf;
+			this.alertedAt = alertedAt;
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
+
+	private final int batchSize;
+	private final Map<String, Entry> pending = new LinkedHashMap<>();	// Guarded by "this".
+	private final Object flushing = new Object();	// Serializes the flushes. Always acquired before "this".
+	private final AbstractHibernateRunner<List<Entry>, Integer> writer;
+	private final ScheduledExecutorService executor;
+	private final AtomicLong flushed = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	public long flushed() { return flushed.get(); }
+	public long failures() { return failures.get(); }
+	public synchronized int pending() { return pending.size(); }
+
+	public PeopleAlertedBuffer(final SessionFactory factory, final PeopleDAO dao, final int batchSize, final long interval)	// For tests
+	{
+		this(new DualSessionFactory(factory), dao, batchSize, interval);
+	}
+
+	public PeopleAlertedBuffer(final DualSessionFactory factory, final PeopleDAO dao)
+	{
+		this(factory, dao, BATCH_SIZE, INTERVAL);
+	}
+
+	public PeopleAlertedBuffer(final DualSessionFactory factory, final PeopleDAO dao, final int batchSize, final long interval)
+	{
+		this.batchSize = batchSize;
+		this.writer = new AbstractHibernateRunner<List<Entry>, Integer>(factory) {
+			@Override public boolean readOnly() { return false; }
+			@Override public boolean transactional() { return true; }
+			@Override public Integer run(final List<Entry> values, final Session s) { return dao.alerted(values); }
+		};
+		this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			var o = new Thread(r, "people-alerted-buffer");
+			o.setDaemon(true);
+			return o;
+		});
+		executor.scheduleWithFixedDelay(this::flushQuietly, interval, interval, MILLISECONDS);
+
+		log.info("INITIALIZED: batchSize {}, interval {}", batchSize, interval);
+	}
+
+	/** Records a single alert check. A later check of the same person replaces an earlier one that has not been written.
+	 *
+	 * @param id
+	 * @param alertedOf number of new facilities found.
+	 * @param alertedAt time of the check.
+	 */
+	public void add(final String id, final int alertedOf, final Date alertedAt)
+	{
+		int size;
+		synchronized (this)
+		{
+			var o = pending.get(id);
+			if ((null == o) || !o.alertedAt.after(alertedAt)) pending.put(id, new Entry(id, alertedOf, alertedAt));
+			size = pending.size();
+		}
+
+		if (batchSize <= size)
+		{
+			try { executor.execute(this::flushQuietly); }
+			catch (final RejectedExecutionException ex) {}	// Closing - the final flush picks it up.
+		}
+	}
+
+	/** Withdraws an alert check that has not been written yet. Waits for any flush in progress so that a FALSE result means
+	 *  the check is already in the database.
+	 *
+	 * @param id
+	 * @param alertedAt time of the check to withdraw.
+	 * @return TRUE if the check was withdrawn before being written.
+	 */
+	public boolean cancel(final String id, final Date alertedAt)
+	{
+		synchronized (flushing)
+		{
+			synchronized (this)
+			{
+				var o = pending.get(id);
+				if ((null == o) || !o.alertedAt.equals(alertedAt)) return false;
+
+				pending.remove(id);
+				return true;
+			}
+		}
+	}
+
+	/** Writes all the pending alert checks.
+	 *
+	 * @return number of People updated.
+	 * @throws Exception if a batch fails. The checks of the failed batch and of the batches after it are kept for the next flush.
+	 */
+	public int flush() throws Exception
+	{
+		synchronized (flushing)
+		{
+			List<Entry> values;
+			synchronized (this)
+			{
+				if (pending.isEmpty()) return 0;
+
+				values = new ArrayList<>(pending.values());
+				pending.clear();
+			}
+
+			int count = 0;
+			for (int i = 0; i < values.size(); i+= batchSize)
+			{
+				var batch = values.subList(i, Math.min(i + batchSize, values.size()));
+				try { count+= writer.run(batch); }
+				catch (final Exception ex)
+				{
+					failures.incrementAndGet();
+					restore(values.subList(i, values.size()));
+					throw ex;
+				}
+				flushed.addAndGet(batch.size());
+			}
+
+			return count;
+		}
+	}
+
+	/** Stops the scheduled flushes and writes the remaining alert checks. */
+	@Override
+	public void close() throws Exception
+	{
+		executor.shutdown();
+		if (!executor.awaitTermination(CLOSE_TIMEOUT, MILLISECONDS)) log.warn("CLOSE_TIMEOUT: the last scheduled flush did not complete");
+
+		var count = flush();
+		log.info("CLOSED: {} flushed, {} updated on close, {} failures", flushed(), count, failures());
+	}
+
+	/** Helper method - flushes from the scheduler, which must not see an exception or it stops. */
+	private void flushQuietly()
+	{
+		try
+		{
+			var count = flush();
+			if (0 < count) log.debug("FLUSHED: {}", count);
+		}
+		catch (final Exception ex) { log.error("FLUSH_FAILED: {} pending - {}", pending(), ex.getMessage(), ex); }
+	}
+
+	/** Helper method - puts back the checks of a failed flush unless a later check of the same person has since been added. */
+	private synchronized void restore(final List<Entry> values)
+	{
+		values.forEach(v -> pending.putIfAbsent(v.id, v));
+	}
+}
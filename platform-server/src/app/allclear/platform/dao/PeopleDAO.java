@@ -2,6 +2,10 @@ package app.allclear.platform.dao;
 
 import static app.allclear.common.dao.OrderByBuilder.*;
 
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -10,6 +14,8 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.id.IdentifierGenerationException;
 
 import app.allclear.common.dao.*;
@@ -18,6 +24,7 @@ import app.allclear.common.hibernate.AbstractDAO;
 import app.allclear.common.hibernate.NativeQueryBuilder;
 import app.allclear.common.value.CreatedValue;
 import app.allclear.platform.entity.*;
+import app.allclear.platform.filter.GeoBox;
 import app.allclear.platform.filter.PeopleFilter;
 import app.allclear.platform.model.PeopleFindRequest;
 import app.allclear.platform.type.*;
@@ -40,6 +47,8 @@ public class PeopleDAO extends AbstractDAO<People>
 	private static final String SELECT = "SELECT OBJECT(o) FROM People o";
 	private static final String SELECT_NAMES = "SELECT o.id, o.name FROM people o";
 	private static final String COUNT = "SELECT COUNT(o.id) FROM People o";
+	private static final String UPDATE_UNALERTED = "UPDATE people SET alerted_of = ?, alerted_at = ? WHERE id = ? AND alerted_at = ?";	// Only reverts a check that has not been superseded. DLS on 10/17/2026.
+	private static final String UPDATE_ALERTED = "UPDATE people SET alerted_of = ?, alerted_at = ?, updated_at = ? WHERE id = ? AND (alerted_at IS NULL OR alerted_at < ?)";	// Never moves a check backwards. DLS on 10/17/2026.
 	private static final OrderByBuilder.Sort SORT_NAME = new OrderByBuilder.Sort("name", "o.name", "ASC", true, null);
 	private static final OrderByBuilder ORDER = new OrderByBuilder('o', 
 		"id", ASC,
@@ -83,6 +92,8 @@ public class PeopleDAO extends AbstractDAO<People>
 	private static final String FRIEND_INCLUDE_SYMPTOMS = WHERE_INCLUDE_SYMPTOMS + " AND fa.visibilitySymptoms " + NOT_ME;
 	private static final String FRIEND_EXCLUDE_SYMPTOMS = WHERE_EXCLUDE_SYMPTOMS + " AND fa.visibilitySymptoms " + NOT_ME;
 
+	private final CountCache counts = new CountCache();	// Recent search COUNTs for estimated totals. DLS on 10/17/2026.
+
 	public PeopleDAO(final SessionFactory factory)
 	{
 		super(factory);
@@ -586,6 +597,228 @@ public class PeopleDAO extends AbstractDAO<People>
 			.list();
 	}
 
+	/** Gets a list of People IDs that are active, alertable, within a specific timezone, and before an ID. Used to page through
+	 *  a single ID range of the timezone.
+	 * 
+	 * @param lastId
+	 * @param idTo exclusive upper bound. NULL for no upper bound.
+	 * @param zone
+	 * @param pageSize
+	 * @return never NULL
+	 */
+	public List<String> getActiveAlertableIdsByLongitude(final String lastId, final String idTo, final Timezone zone, final int pageSize)
+	{
+		if (null == idTo) return getActiveAlertableIdsByLongitude(lastId, zone, pageSize);
+
+		return namedQuery("getActiveAlertablePeopleIdsByLongitudeAndIdTo", String.class)
+			.setParameter("lastId", lastId)
+			.setParameter("idTo", idTo)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.setMaxResults(pageSize)
+			.list();
+	}
+
+	/** Counts the People that are active, alertable, and within a specific timezone. Used to size the ID ranges of the alert run.
+	 * 
+	 * @param zone
+	 * @return zero if none
+	 */
+	public long countActiveAlertableByLongitude(final Timezone zone)
+	{
+		return namedQuery("countActiveAlertablePeopleByLongitude", Long.class)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.uniqueResult();
+	}
+
+	/** Gets the oldest last alert check of the People that are active, alertable, and within a specific timezone.
+	 *  Falls back to the authentication date for People that have never been checked.
+	 * 
+	 * @param zone
+	 * @return NULL if no People in the timezone have been checked or authenticated.
+	 */
+	public Date getActiveAlertableOldestAlertedAtByLongitude(final Timezone zone)
+	{
+		return namedQuery("getActiveAlertablePeopleOldestAlertedAtByLongitude", Date.class)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.uniqueResult();
+	}
+
+	/** Gets a page of the coordinates and last alert checks of the People that are active, alertable, and within a specific timezone.
+	 * 
+	 * @param lastId
+	 * @param zone
+	 * @param pageSize
+	 * @return never NULL
+	 */
+	public List<PeoplePoint> getActiveAlertablePointsByLongitude(final String lastId, final Timezone zone, final int pageSize)
+	{
+		return namedQuery("getActiveAlertablePeoplePointsByLongitude", PeoplePoint.class)
+			.setParameter("lastId", lastId)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.setMaxResults(pageSize)
+			.list();
+	}
+
+	/** Gets a page of the coordinates and last alert checks of the People that are active, alertable, within a specific timezone,
+	 *  and before an ID. Used to page through a single ID range of the timezone.
+	 * 
+	 * @param lastId
+	 * @param idTo exclusive upper bound. NULL for no upper bound.
+	 * @param zone
+	 * @param pageSize
+	 * @return never NULL
+	 */
+	public List<PeoplePoint> getActiveAlertablePointsByLongitude(final String lastId, final String idTo, final Timezone zone, final int pageSize)
+	{
+		if (null == idTo) return getActiveAlertablePointsByLongitude(lastId, zone, pageSize);
+
+		return namedQuery("getActiveAlertablePeoplePointsByLongitudeAndIdTo", PeoplePoint.class)
+			.setParameter("lastId", lastId)
+			.setParameter("idTo", idTo)
+			.setParameter("longitudeFrom", zone.longitudeFrom)
+			.setParameter("longitudeTo", zone.longitudeTo)
+			.setMaxResults(pageSize)
+			.list();
+	}
+
+	/** Gets the coordinates and last alert checks of the People that are active, alertable, and live within the radius.
+	 *  Used to push facility alerts to the people near a newly activated facility.
+	 * 
+	 * @param latitude origin
+	 * @param longitude origin
+	 * @param meters radius
+	 * @return never NULL
+	 */
+	public List<PeoplePoint> getActiveAlertablePointsByDistance(final BigDecimal latitude, final BigDecimal longitude, final long meters)
+	{
+		var box = GeoBox.of(latitude, longitude, meters);
+		var q = ((null != box) && mysql()) ?
+			namedQuery("getActiveAlertablePeoplePointsByBox", PeoplePoint.class).setParameter("box", box.wkt()) :
+			namedQuery("getActiveAlertablePeoplePointsByRange", PeoplePoint.class)	// Falls back to the whole globe when the box wraps a pole or the antimeridian.
+				.setParameter("latitudeFrom", BigDecimal.valueOf((null != box) ? box.latitudeFrom : -90d))
+				.setParameter("latitudeTo", BigDecimal.valueOf((null != box) ? box.latitudeTo : 90d))
+				.setParameter("longitudeFrom", BigDecimal.valueOf((null != box) ? box.longitudeFrom : -180d))
+				.setParameter("longitudeTo", BigDecimal.valueOf((null != box) ? box.longitudeTo : 180d));
+
+		var lat = latitude.doubleValue();
+		var lon = longitude.doubleValue();
+		return q.list()
+			.stream()
+			.filter(o -> FacilityGeoIndex.distance(lat, lon, o.latitude.doubleValue(), o.longitude.doubleValue()) <= meters)	// The box is only a prefilter.
+			.collect(Collectors.toList());
+	}
+
+	/** Gets the active, alertable People with the specified IDs. Used to process a batch of facility alerts with a single query.
+	 * 
+	 * @param ids
+	 * @return never NULL
+	 */
+	public List<People> findActiveAlertableByIds(final List<String> ids)
+	{
+		if (CollectionUtils.isEmpty(ids)) return List.of();
+
+		return namedQuery("findActiveAlertablePeopleByIds").setParameter("ids", ids).list();
+	}
+
+	/** Marks the specified People as checked for a facility alert without finding any new facilities.
+	 *  Performs a single bulk UPDATE instead of loading each entity.
+	 * 
+	 * @param ids
+	 * @param alertedAt
+	 * @return number of People updated.
+	 */
+	public int alerted(final List<String> ids, final Date alertedAt)
+	{
+		return alerted(ids, 0, alertedAt);
+	}
+
+	/** Marks the specified People as checked for a facility alert with the same number of new facilities found.
+	 *  Performs a single JDBC batch UPDATE instead of loading each entity.
+	 * 
+	 * @param ids
+	 * @param alertedOf number of new facilities found.
+	 * @param alertedAt
+	 * @return number of People updated.
+	 */
+	public int alerted(final List<String> ids, final int alertedOf, final Date alertedAt)
+	{
+		if (CollectionUtils.isEmpty(ids)) return 0;
+
+		return alerted(ids.stream().map(id -> new PeopleAlertedBuffer.Entry(id, alertedOf, alertedAt)).collect(Collectors.toList()));
+	}
+
+	/** Writes a batch of facility alert checks with a single JDBC batch UPDATE. Bypasses the bulk HQL update so that only the updated
+	 *  People, rather than the entire People cache region, are evicted from the second-level cache once the transaction commits.
+	 * 
+	 * @param values
+	 * @return number of People updated. People that have since been checked again are not updated.
+	 */
+	public int alerted(final Collection<PeopleAlertedBuffer.Entry> values)
+	{
+		if (CollectionUtils.isEmpty(values)) return 0;
+
+		var s = currentSession();
+		var now = new Timestamp(System.currentTimeMillis());	// The checks can be recorded at the timeline's last load, which is in the past.
+		var counts = s.doReturningWork(c -> {
+			try (var ps = c.prepareStatement(UPDATE_ALERTED))
+			{
+				for (var o : values)
+				{
+					var alertedAt = new Timestamp(o.alertedAt.getTime());
+					ps.setInt(1, o.alertedOf);
+					ps.setTimestamp(2, alertedAt);
+					ps.setTimestamp(3, now);
+					ps.setString(4, o.id);
+					ps.setTimestamp(5, alertedAt);
+					ps.addBatch();
+				}
+
+				return ps.executeBatch();
+			}
+		});
+
+		var cache = s.getSessionFactory().getCache();
+		var ids = values.stream().map(o -> o.id).collect(Collectors.toList());
+		afterTrans(() -> ids.forEach(id -> cache.evictEntityData(People.class, id)));
+
+		return Arrays.stream(counts).map(v -> (Statement.SUCCESS_NO_INFO == v) ? 1 : Math.max(0, v)).sum();
+	}
+
+	/** Reverts a facility alert check whose SMS could not be delivered so that the next alert run picks the person up again.
+	 *  Only reverts the check if the person has not been checked again since. Uses JDBC, like the checks, so that only the
+	 *  person is evicted from the second-level cache.
+	 * 
+	 * @param id
+	 * @param alertedOf the number of new facilities found before the check.
+	 * @param alertedAt the time of the previous check. Can be NULL.
+	 * @param checkedAt the time of the check to revert.
+	 * @return TRUE if the check was reverted.
+	 */
+	public boolean unalerted(final String id, final Integer alertedOf, final Date alertedAt, final Date checkedAt)
+	{
+		var s = currentSession();
+		var count = s.doReturningWork(c -> {
+			try (var ps = c.prepareStatement(UPDATE_UNALERTED))
+			{
+				ps.setObject(1, alertedOf, Types.INTEGER);
+				ps.setTimestamp(2, (null != alertedAt) ? new Timestamp(alertedAt.getTime()) : null);
+				ps.setString(3, id);
+				ps.setTimestamp(4, new Timestamp(checkedAt.getTime()));
+
+				return ps.executeUpdate();
+			}
+		});
+
+		var cache = s.getSessionFactory().getCache();
+		afterTrans(() -> cache.evictEntityData(People.class, id));
+
+		return 0 < count;
+	}
+
 	/** Gets a list of active People by wildcard ID and/or name search.
 	 * 
 	 * @param name
@@ -623,7 +856,13 @@ public class PeopleDAO extends AbstractDAO<People>
 	public QueryResults<PeopleValue, PeopleFilter> search(final PeopleFilter filter) throws ValidationException
 	{
 		var builder = createQueryBuilder(filter.clean(), SELECT);
-		var v = new QueryResults<PeopleValue, PeopleFilter>(builder.aggregate(COUNT), filter);
+		if (filter.seek())
+		{
+			var v = new QueryResults<PeopleValue, PeopleFilter>(filter);
+			return v.withRecords(builder.seek(ORDER, v).stream().map(o -> o.toValue(filter.who())).collect(Collectors.toList()));
+		}
+
+		QueryResults<PeopleValue, PeopleFilter> v = builder.count(COUNT, filter, counts);
 		if (v.isEmpty()) return v;
 
 		return v.withRecords(builder.orderBy(ORDER.normalize(v)).run(v).stream().map(o -> o.toValue(filter.who())).collect(Collectors.toList()));
@@ -741,4 +980,10 @@ public class PeopleDAO extends AbstractDAO<People>
 
 		return o;
 	}
+
+	/** Helper method - indicates whether the current session is connected to MySQL, which supports the people.location SPATIAL column. H2 falls back to the latitude/longitude index. */
+	private boolean mysql()
+	{
+		return ((SessionFactoryImplementor) currentSession().getSessionFactory()).getJdbcServices().getDialect() instanceof MySQLDialect;
+	}
 }
@@ -35,9 +35,12 @@ import app.allclear.platform.value.FacilityValue;
 @Table(name="facility", uniqueConstraints=@UniqueConstraint(name="unq_facility", columnNames="name"))
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="facility")
 @NamedQueries({@NamedQuery(name="existFacilityById", query="SELECT o.id FROM Facility o WHERE o.id = :id"),
+	@NamedQuery(name="findActiveFacilitiesByIds", query="SELECT OBJECT(o) FROM Facility o WHERE o.id IN (:ids) AND o.active = TRUE"),
 	@NamedQuery(name="findActiveFacilitiesByName", query="SELECT OBJECT(o) FROM Facility o WHERE o.name LIKE :name AND o.active = TRUE ORDER BY o.name"),
-	@NamedQuery(name="findFacility", query="SELECT OBJECT(o) FROM Facility o WHERE o.name = :name")})
+	@NamedQuery(name="findFacility", query="SELECT OBJECT(o) FROM Facility o WHERE o.name = :name"),
+	@NamedQuery(name="findFacilitiesByNames", query="SELECT OBJECT(o) FROM Facility o WHERE o.name IN (:names)")})
 @NamedNativeQueries({@NamedNativeQuery(name="getFacilityCitiesByState", query="SELECT o.city AS name, COUNT(o.city) AS total FROM facility o WHERE o.state = :state AND o.active = TRUE GROUP BY o.city ORDER BY o.city", resultClass=CountByName.class),
+	@NamedNativeQuery(name="getFacilityIdsByNames", query="SELECT o.id, o.name FROM facility o WHERE o.name IN (:names)", resultClass=Name.class),
 	@NamedNativeQuery(name="getFacilityNamesByIds", query="SELECT o.id, o.name FROM facility o WHERE o.id IN (:ids)", resultClass=Name.class),
 	@NamedNativeQuery(name="getFacilityStates", query="SELECT o.state AS name, COUNT(o.state) AS total FROM facility o WHERE o.active = TRUE GROUP BY o.state ORDER BY o.state", resultClass=CountByName.class)})
 public class Facility implements Serializable
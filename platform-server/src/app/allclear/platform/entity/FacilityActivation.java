@@ -0,0 +1,34 @@
+package app.allclear.platform.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.persistence.*;
+
+/** Lightweight projection of the Facility entity's coordinates and activation date. Used by the set-based alert engine to match new facilities against alertable people.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@Entity
+@NamedNativeQueries({@NamedNativeQuery(name="getFacilityActivationsByLongitude", query="SELECT o.id, o.latitude, o.longitude, o.activated_at FROM facility o WHERE o.activated_at >= :activatedAtFrom AND o.active = TRUE AND o.longitude >= :longitudeFrom AND o.longitude < :longitudeTo", resultClass=FacilityActivation.class)})
+public class FacilityActivation
+{
+	@Column(name="id") @Id public Long id;
+	@Column(name="latitude") public BigDecimal latitude;
+	@Column(name="longitude") public BigDecimal longitude;
+	@Column(name="activated_at") public Date activatedAt;
+
+	public FacilityActivation() {}
+
+	public FacilityActivation(final Long id, final BigDecimal latitude, final BigDecimal longitude, final Date activatedAt)
+	{
+		this.id = id;
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.activatedAt = activatedAt;
+	}
+}
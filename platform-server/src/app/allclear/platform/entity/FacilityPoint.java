@@ -0,0 +1,41 @@
+package app.allclear.platform.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.persistence.*;
+
+/** Lightweight projection of the Facility entity's name, location, coordinates, filterable attributes, and activation date. Used to load the in-process indices and facet counts.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@Entity
+@NamedNativeQueries({@NamedNativeQuery(name="getActiveFacilityPoints", query="SELECT o.id, o.name, o.city, o.state, o.latitude, o.longitude, o.type_id, o.drive_thru, o.appointment_required, o.accepts_third_party, o.referral_required, o.test_criteria_id, o.government_id_required, o.first_responder_friendly, o.telescreening_available, o.accepts_insurance, o.free_or_low_cost, o.can_donate_plasma, o.activated_at FROM facility o WHERE o.active = TRUE", resultClass=FacilityPoint.class)})
+public class FacilityPoint
+{
+	@Column(name="id") @Id public Long id;
+	@Column(name="name") public String name;
+	@Column(name="city") public String city;
+	@Column(name="state") public String state;
+	@Column(name="latitude") public BigDecimal latitude;
+	@Column(name="longitude") public BigDecimal longitude;
+	@Column(name="type_id") public String typeId;
+	@Column(name="drive_thru") public boolean driveThru;
+	@Column(name="appointment_required") public Boolean appointmentRequired;
+	@Column(name="accepts_third_party") public Boolean acceptsThirdParty;
+	@Column(name="referral_required") public boolean referralRequired;
+	@Column(name="test_criteria_id") public String testCriteriaId;
+	@Column(name="government_id_required") public boolean governmentIdRequired;
+	@Column(name="first_responder_friendly") public boolean firstResponderFriendly;
+	@Column(name="telescreening_available") public boolean telescreeningAvailable;
+	@Column(name="accepts_insurance") public boolean acceptsInsurance;
+	@Column(name="free_or_low_cost") public boolean freeOrLowCost;
+	@Column(name="can_donate_plasma") public boolean canDonatePlasma;
+	@Column(name="activated_at") public Date activatedAt;
+
+	public FacilityPoint() {}
+}
@@ -27,7 +27,8 @@ import app.allclear.platform.type.TestType;
 @Table(name="facility_test_type")
 @Cache(usage=CacheConcurrencyStrategy.READ_WRITE, region="facility_test_type")
 @NamedQueries({@NamedQuery(name="deleteFacilityTestTypes", query="DELETE FROM FacilityTestType o WHERE o.facilityId = :facilityId"),
-	@NamedQuery(name="findFacilityTestTypes", query="SELECT OBJECT(o) FROM FacilityTestType o WHERE o.facilityId IN (:facilityIds) ORDER BY o.facilityId, o.testTypeId")})
+	@NamedQuery(name="findFacilityTestTypes", query="SELECT OBJECT(o) FROM FacilityTestType o WHERE o.facilityId IN (:facilityIds) ORDER BY o.facilityId, o.testTypeId"),
+	@NamedQuery(name="getActiveFacilityTestTypes", query="SELECT o.facilityId, o.testTypeId FROM FacilityTestType o WHERE o.facility.active = TRUE")})
 public class FacilityTestType implements FacilityChild
 {
 	private final static long serialVersionUID = 1L;
@@ -20,15 +20,24 @@ import app.allclear.platform.value.FacilityValue;
 
 @Entity
 @NamedNativeQueries({@NamedNativeQuery(name="countFacilitiesActivatedAtByDistance",
-		query="SELECT COUNT(*) AS total FROM (SELECT o.activated_at FROM facility o WHERE o.activated_at IS NOT NULL AND ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) <= :meters ORDER BY ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) LIMIT :pageSize) a WHERE a.activated_at >= :activatedAtFrom",
+		query="SELECT COUNT(*) AS total FROM (SELECT o.activated_at FROM facility o WHERE o.activated_at IS NOT NULL AND o.active = TRUE AND ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) <= :meters ORDER BY ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) LIMIT :pageSize) a WHERE a.activated_at >= :activatedAtFrom",
+		resultClass=Total.class),
+	@NamedNativeQuery(name="countFacilitiesActivatedAtByBoxAndDistance",
+		query="SELECT COUNT(*) AS total FROM (SELECT o.activated_at FROM facility o WHERE o.activated_at IS NOT NULL AND o.active = TRUE AND " + FacilityX.BOX + " AND ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) <= :meters ORDER BY ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) LIMIT :pageSize) a WHERE a.activated_at >= :activatedAtFrom",
 		resultClass=Total.class),
 	@NamedNativeQuery(name="findActiveFacilitiesByNameAndDistance",
 		query="SELECT o.*, ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) AS meters FROM facility o WHERE o.name LIKE :name AND o.active = TRUE AND ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) <= :meters ORDER BY meters",
+		resultClass=FacilityX.class),
+	@NamedNativeQuery(name="findActiveFacilitiesByNameAndBoxAndDistance",
+		query="SELECT o.*, ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) AS meters FROM facility o WHERE o.name LIKE :name AND o.active = TRUE AND " + FacilityX.BOX + " AND ST_DISTANCE_SPHERE(POINT(o.longitude, o.latitude), POINT(:longitude, :latitude)) <= :meters ORDER BY meters",
 		resultClass=FacilityX.class)})
 public class FacilityX implements Serializable
 {
 	private static final long serialVersionUID = 1L;
 
+	/** MySQL only - bounding box prefilter that is resolved by the SPATIAL index on the facility.location column. The :box parameter is GeoBox.wkt(). DLS on 10/17/2026. */
+	public static final String BOX = "MBRContains(ST_GeomFromText(:box, 4326, 'axis-order=long-lat'), o.location)";
+
 	@Column(name="id", columnDefinition="BIGINT", nullable=false) @Id public Long id;
 	@Column(name="name", columnDefinition="VARCHAR(128)", nullable=false) public String name;
 	@Column(name="address", columnDefinition="VARCHAR(128)", nullable=false) public String address;
@@ -38,8 +38,12 @@ import app.allclear.platform.value.PeopleValue;
 	@NamedQuery(name="findPeople", query="SELECT OBJECT(o) FROM People o WHERE o.name = :name"),
 	@NamedQuery(name="findPeopleByEmail", query="SELECT OBJECT(o) FROM People o WHERE o.email = :email"),
 	@NamedQuery(name="findPeopleByPhone", query="SELECT OBJECT(o) FROM People o WHERE o.phone = :phone"),
+	@NamedQuery(name="findActiveAlertablePeopleByIds", query="SELECT OBJECT(o) FROM People o WHERE o.id IN (:ids) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id"),
 	@NamedQuery(name="findPeopleViaFriendship", query="SELECT OBJECT(o) FROM Friendship f INNER JOIN f.friend o WHERE f.personId = :personId AND f.friendId = :friendId AND o.active = TRUE"),
 	@NamedQuery(name="getActiveAlertablePeopleIdsByLongitude", query="SELECT o.id FROM People o WHERE o.id > :lastId AND o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id"),
+	@NamedQuery(name="getActiveAlertablePeopleIdsByLongitudeAndIdTo", query="SELECT o.id FROM People o WHERE o.id > :lastId AND o.id < :idTo AND o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id"),
+	@NamedQuery(name="countActiveAlertablePeopleByLongitude", query="SELECT COUNT(o.id) FROM People o WHERE o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE"),
+	@NamedQuery(name="getActiveAlertablePeopleOldestAlertedAtByLongitude", query="SELECT MIN(COALESCE(o.alertedAt, o.authAt)) FROM People o WHERE o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE"),
 	@NamedQuery(name="getPeopleIdByEmail", query="SELECT o.id FROM People o WHERE o.email = :email"),
 	@NamedQuery(name="getPeopleIdByPhone", query="SELECT o.id FROM People o WHERE o.phone = :phone")})
 @NamedNativeQueries({@NamedNativeQuery(name="findActivePeopleByIdOrName", query="SELECT * FROM people o WHERE o.id LIKE :name AND o.active = TRUE UNION DISTINCT SELECT * FROM people oo WHERE oo.name LIKE :name AND oo.active = TRUE ORDER BY name", resultClass=People.class),	// Leverages both indices with 2 SELECTs as opposed to a single SELECT with an OR conjunction. DLS on 4/28/2020.
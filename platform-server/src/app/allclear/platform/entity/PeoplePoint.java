@@ -0,0 +1,38 @@
+package app.allclear.platform.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import javax.persistence.*;
+
+/** Lightweight projection of the People entity's coordinates and last alert check. Used by the set-based alert engine to scan a timezone band
+ *  and by the facility activation push to find the people near a new facility without loading the full People entity. The alertedAt property falls back to the authAt property like People.alertedAt().
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@Entity
+@NamedNativeQueries({@NamedNativeQuery(name="getActiveAlertablePeoplePointsByLongitude", query="SELECT o.id, o.latitude, o.longitude, COALESCE(o.alerted_at, o.auth_at) AS alerted_at FROM people o WHERE o.id > :lastId AND o.latitude IS NOT NULL AND o.longitude >= :longitudeFrom AND o.longitude < :longitudeTo AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id", resultClass=PeoplePoint.class),
+	@NamedNativeQuery(name="getActiveAlertablePeoplePointsByLongitudeAndIdTo", query="SELECT o.id, o.latitude, o.longitude, COALESCE(o.alerted_at, o.auth_at) AS alerted_at FROM people o WHERE o.id > :lastId AND o.id < :idTo AND o.latitude IS NOT NULL AND o.longitude >= :longitudeFrom AND o.longitude < :longitudeTo AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id", resultClass=PeoplePoint.class),
+	@NamedNativeQuery(name="getActiveAlertablePeoplePointsByBox", query="SELECT o.id, o.latitude, o.longitude, COALESCE(o.alerted_at, o.auth_at) AS alerted_at FROM people o WHERE " + FacilityX.BOX + " AND o.latitude IS NOT NULL AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id", resultClass=PeoplePoint.class),
+	@NamedNativeQuery(name="getActiveAlertablePeoplePointsByRange", query="SELECT o.id, o.latitude, o.longitude, COALESCE(o.alerted_at, o.auth_at) AS alerted_at FROM people o WHERE o.latitude >= :latitudeFrom AND o.latitude <= :latitudeTo AND o.longitude >= :longitudeFrom AND o.longitude <= :longitudeTo AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id", resultClass=PeoplePoint.class)})
+public class PeoplePoint
+{
+	@Column(name="id") @Id public String id;
+	@Column(name="latitude") public BigDecimal latitude;
+	@Column(name="longitude") public BigDecimal longitude;
+	@Column(name="alerted_at") public Date alertedAt;
+
+	public PeoplePoint() {}
+
+	public PeoplePoint(final String id, final BigDecimal latitude, final BigDecimal longitude, final Date alertedAt)
+	{
+		this.id = id;
+		this.latitude = latitude;
+		this.longitude = longitude;
+		this.alertedAt = alertedAt;
+	}
+}
@@ -0,0 +1,230 @@
+package app.allclear.platform.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+import java.io.*;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.*;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import app.allclear.common.hibernate.AbstractHibernateRunner;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.mediatype.UTF8MediaType;
+import app.allclear.common.time.StopWatch;
+import app.allclear.platform.dao.FacilityDAO;
+import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.value.FacilityValue;
+
+/** Streams the facility catalog to the HTTP response. Runs in its own read-only session on the replica because the
+ *  resource method's unit of work is closed before the response body is written.
+ *
+ *  Each facility is written as soon as it is read from the cursor so that memory use stays flat regardless of the catalog size.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityExporter extends AbstractHibernateRunner<FacilityExporter.Request, Long>
+{
+	private static final Logger log = LoggerFactory.getLogger(FacilityExporter.class);
+
+	public static final String NDJSON = "application/x-ndjson; charset=UTF-8";
+
+	/** Represents the supported output formats. */
+	public enum Format
+	{
+		ndjson(NDJSON),
+		csv(UTF8MediaType.TEXT_CSV);
+
+		public final String mediaType;
+
+		Format(final String mediaType) { this.mediaType = mediaType; }
+
+		/** Finds the format by name. Defaults to NDJSON.
+		 *
+		 * @param name
+		 * @return NULL if the name is not a supported format.
+		 */
+		public static Format find(final String name)
+		{
+			if (StringUtils.isBlank(name)) return ndjson;
+
+			try { return valueOf(name.trim().toLowerCase()); }
+			catch (final IllegalArgumentException ex) { return null; }
+		}
+	}
+
+	/** Represents a single export request. */
+	public static class Request
+	{
+		public final FacilityFilter filter;
+		public final Format format;
+		public final OutputStream out;
+
+		public Request(final FacilityFilter filter, final Format format, final OutputStream out)
+		{
+			this.filter = filter;
+			this.format = format;
+			this.out = out;
+		}
+	}
+
+	/** CSV columns in output order. Test types are pipe delimited. */
+	public static final List<Pair<String, Function<FacilityValue, Object>>> COLUMNS = List.of(
+		Pair.of("id", v -> v.id),
+		Pair.of("name", v -> v.name),
+		Pair.of("address", v -> v.address),
+		Pair.of("city", v -> v.city),
+		Pair.of("state", v -> v.state),
+		Pair.of("latitude", v -> v.latitude),
+		Pair.of("longitude", v -> v.longitude),
+		Pair.of("phone", v -> v.phone),
+		Pair.of("appointmentPhone", v -> v.appointmentPhone),
+		Pair.of("email", v -> v.email),
+		Pair.of("url", v -> v.url),
+		Pair.of("appointmentUrl", v -> v.appointmentUrl),
+		Pair.of("hours", v -> v.hours),
+		Pair.of("typeId", v -> v.typeId),
+		Pair.of("driveThru", v -> v.driveThru),
+		Pair.of("appointmentRequired", v -> v.appointmentRequired),
+		Pair.of("acceptsThirdParty", v -> v.acceptsThirdParty),
+		Pair.of("referralRequired", v -> v.referralRequired),
+		Pair.of("testCriteriaId", v -> v.testCriteriaId),
+		Pair.of("otherTestCriteria", v -> v.otherTestCriteria),
+		Pair.of("testsPerDay", v -> v.testsPerDay),
+		Pair.of("governmentIdRequired", v -> v.governmentIdRequired),
+		Pair.of("minimumAge", v -> v.minimumAge),
+		Pair.of("doctorReferralCriteria", v -> v.doctorReferralCriteria),
+		Pair.of("firstResponderFriendly", v -> v.firstResponderFriendly),
+		Pair.of("telescreeningAvailable", v -> v.telescreeningAvailable),
+		Pair.of("acceptsInsurance", v -> v.acceptsInsurance),
+		Pair.of("insuranceProvidersAccepted", v -> v.insuranceProvidersAccepted),
+		Pair.of("freeOrLowCost", v -> v.freeOrLowCost),
+		Pair.of("canDonatePlasma", v -> v.canDonatePlasma),
+		Pair.of("notes", v -> v.notes),
+		Pair.of("active", v -> v.active),
+		Pair.of("activatedAt", v -> v.activatedAt),
+		Pair.of("createdAt", v -> v.createdAt),
+		Pair.of("updatedAt", v -> v.updatedAt),
+		Pair.of("testTypes", v -> (null != v.testTypes) ? v.testTypes.stream().map(o -> o.id).collect(joining("|")) : null));
+
+	private final FacilityDAO dao;
+	private final ObjectMapper mapper = JacksonUtils.createMapper();
+	private final ObjectWriter writer = mapper.writerFor(FacilityValue.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);	// Let the buffer fill before each write to the socket.
+
+	@Override public boolean readOnly() { return true; }
+	@Override public boolean transactional() { return false; }
+	@Override public CacheMode cacheMode() { return CacheMode.IGNORE; }
+
+	public FacilityExporter(final DualSessionFactory factory, final FacilityDAO dao)
+	{
+		super(factory);
+
+		this.dao = dao;
+	}
+
+	/** Creates the response body that exports the facilities once Jersey starts writing the response.
+	 *
+	 * @param filter
+	 * @param format
+	 * @return never NULL.
+	 */
+	public StreamingOutput stream(final FacilityFilter filter, final Format format)
+	{
+		return out -> {
+			var timer = new StopWatch();
+			try
+			{
+				log.info("EXPORTED: {} facilities as {} in {}", run(new Request(filter, format, out)), format, timer.total());
+			}
+			catch (final IOException | WebApplicationException ex) { throw ex; }
+			catch (final Exception ex) { throw new WebApplicationException(ex); }
+		};
+	}
+
+	@Override
+	public Long run(final Request request, final Session session) throws Exception
+	{
+		return (Format.csv == request.format) ? csv(request) : ndjson(request);
+	}
+
+	/** Helper method - writes one JSON object per line. */
+	private long ndjson(final Request request) throws Exception
+	{
+		try (var generator = mapper.getFactory().createGenerator(request.out))
+		{
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(null);	// Lines are separated explicitly below.
+
+			var count = dao.export(request.filter, v -> {
+				try
+				{
+					writer.writeValue(generator, v);
+					generator.writeRaw('\n');
+				}
+				catch (final IOException ex) { throw new UncheckedIOException(ex); }
+			});
+			generator.flush();
+
+			return count;
+		}
+		catch (final UncheckedIOException ex) { throw ex.getCause(); }
+	}
+
+	/** Helper method - writes a header line followed by one line per facility. */
+	private long csv(final Request request) throws Exception
+	{
+		var out = new BufferedWriter(new OutputStreamWriter(request.out, UTF_8));	// Not closed - Jersey owns the response stream.
+		try
+		{
+			out.write(COLUMNS.stream().map(Pair::getLeft).collect(joining(",")));
+			out.write("\r\n");
+
+			var count = dao.export(request.filter, v -> {
+				try
+				{
+					out.write(COLUMNS.stream().map(c -> escape(c.getRight().apply(v))).collect(joining(",")));
+					out.write("\r\n");
+				}
+				catch (final IOException ex) { throw new UncheckedIOException(ex); }
+			});
+			out.flush();
+
+			return count;
+		}
+		catch (final UncheckedIOException ex) { throw ex.getCause(); }
+	}
+
+	/** Formats a single CSV field per RFC 4180. Fields containing a comma, quote, or line break are quoted with any quotes doubled.
+	 *
+	 * @param value
+	 * @return empty string if NULL.
+	 */
+	public static String escape(final Object value)
+	{
+		if (null == value) return "";
+
+		var o = (value instanceof Date) ? JacksonUtils.timestamp((Date) value) : value.toString();
+		if (StringUtils.containsNone(o, ',', '"', '\r', '\n')) return o;
+
+		return "\"" + o.replace("\"", "\"\"") + "\"";
+	}
+}
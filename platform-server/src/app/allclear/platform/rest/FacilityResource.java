@@ -6,6 +6,7 @@ import java.math.BigDecimal;
 import java.util.List;
 
 import javax.ws.rs.*;
+import javax.ws.rs.core.Response;
 
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -29,6 +30,8 @@ import app.allclear.platform.dao.FacilityDAO;
 import app.allclear.platform.dao.SessionDAO;
 import app.allclear.platform.entity.CountByName;
 import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.model.FacilityImportResponse;
+import app.allclear.platform.task.FacilityImportTask;
 import app.allclear.platform.type.TestCriteria;
 import app.allclear.platform.value.FacilityValue;
 
@@ -53,16 +56,34 @@ public class FacilityResource
 	private final FacilityDAO dao;
 	private final SessionDAO sessionDao;
 	private final MapClient map;
+	private final FacilityExporter exporter;	// Optional - when NULL, the export is unavailable. DLS on 10/17/2026.
+	private final FacilityImportTask importer;	// Optional - when NULL, the import is unavailable. DLS on 10/17/2026.
+
+	/** Maximum number of rows in a single import request. */
+	public static final int MAX_IMPORT = 10000;
 
 	/** Populator.
 	 * 
 	 * @param dao
 	 */
 	public FacilityResource(final FacilityDAO dao, final SessionDAO sessionDao, final MapClient map)
+	{
+		this(dao, sessionDao, map, null, null);
+	}
+
+	/** Populator.
+	 * 
+	 * @param dao
+	 * @param exporter streams the bulk export.
+	 * @param importer performs the bulk import.
+	 */
+	public FacilityResource(final FacilityDAO dao, final SessionDAO sessionDao, final MapClient map, final FacilityExporter exporter, final FacilityImportTask importer)
 	{
 		this.dao = dao;
 		this.sessionDao = sessionDao;
 		this.map = map;
+		this.exporter = exporter;
+		this.importer = importer;
 	}
 
 	@GET
@@ -160,6 +181,41 @@ public class FacilityResource
 		return new OperationResponse(dao.remove(id));
 	}
 
+	@POST
+	@Path("/export") @Timed
+	@Produces({ FacilityExporter.NDJSON, UTF8MediaType.TEXT_CSV, UTF8MediaType.APPLICATION_JSON })
+	@ApiOperation(value="export", notes="Streams all the Facilitys that match the supplied filter as newline delimited JSON or CSV. Paging and sorting are ignored - facilities are written in identifier order.")
+	public Response export(@HeaderParam(Headers.HEADER_SESSION) final String sessionId,
+		@QueryParam("format") @ApiParam(name="format", value="Optional, 'ndjson' (default) or 'csv'") final String format,
+		final FacilityFilter filter) throws ValidationException
+	{
+		if (null == exporter) throw new ValidationException("The export is unavailable.");
+
+		var f = FacilityExporter.Format.find(format);
+		if (null == f) throw new ValidationException("format", "The format '" + format + "' is not supported. Please use 'ndjson' or 'csv'.");
+
+		var o = (null != filter) ? filter : new FacilityFilter();
+		if ((null != o.from) && o.from.valid())	// Validate before the response is committed.
+			throw new ValidationException("from", "The distance search is not supported by the export. Please use the latitude and longitude ranges instead.");
+		if (!sessionDao.currentOrAnon().admin()) o.withActive(true);	// Non-admins (people, customers, and anonymous) can only see active facilities.
+
+		return Response.ok(exporter.stream(o, f), f.mediaType).build();
+	}
+
+	@POST
+	@Path("/import") @Timed
+	@ApiOperation(value="importAll", notes="Adds or updates a batch of Facilitys matched by name. Returns the outcome of each row in the order supplied. Invalid rows are skipped.", response=FacilityImportResponse.class, responseContainer="List")
+	public List<FacilityImportResponse> importAll(@HeaderParam(Headers.HEADER_SESSION) final String sessionId,
+		final List<FacilityValue> values) throws Exception
+	{
+		var admin = sessionDao.checkEditor().canAdmin();
+		if (null == importer) throw new ValidationException("The import is unavailable.");
+		if (CollectionUtils.isEmpty(values)) throw new ValidationException("Please provide at least one facility.");
+		if (MAX_IMPORT < values.size()) throw new ValidationException("Please provide no more than " + MAX_IMPORT + " facilities per import.");
+
+		return importer.process(values, admin);
+	}
+
 	@POST
 	@Path("/search") @Timed @UnitOfWork(readOnly=true, transactional=false)
 	@ApiOperation(value="search", notes="Searches the Facilitys based on the supplied filter.", response=QueryResults.class)
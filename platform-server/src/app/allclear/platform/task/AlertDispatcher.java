@@ -0,0 +1,229 @@
+package app.allclear.platform.task;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.Date;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.*;
+
+import app.allclear.platform.dao.SessionDAO;
+
+/** Sends the facility alert SMS messages on a bounded pool of threads so that a slow SMS provider does not hold up the
+ *  alert transactions. At most "concurrency" messages are sent at once and at most "capacity" messages are in flight,
+ *  including the ones waiting to be retried. The dispatcher never blocks its callers - once the capacity is reached, new messages
+ *  are rejected. Callers that hold resources, such as a transaction's connection, reserve the capacity up front instead.
+ *
+ *  Failed messages are retried with an exponential backoff. A message that fails every try is counted and handed to
+ *  the caller's failure callback, which should undo the alert check so that the next alert run picks the user up again.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class AlertDispatcher implements AutoCloseable
+{
+	private static final Logger log = LoggerFactory.getLogger(AlertDispatcher.class);
+
+	public static final int CONCURRENCY = 10;
+	public static final int CAPACITY_FACTOR = 10;	// Number of in-flight messages per sending thread.
+	public static final int MAX_TRIES = 3;
+	public static final long RETRY_DELAY = 1000L;	// Milliseconds before the first retry. Doubles on each subsequent retry.
+	public static final long CLOSE_TIMEOUT = 60000L;
+
+	private final SessionDAO dao;
+	private final int capacity;
+	private final int maxTries;
+	private final long retryDelay;
+	private final Semaphore permits;
+	private final ScheduledExecutorService executor;
+	private final AtomicLong sent = new AtomicLong();
+	private final AtomicLong retried = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+
+	public int capacity() { return capacity; }
+	public int pending() { return capacity - permits.availablePermits(); }
+	public long sent() { return sent.get(); }
+	public long retried() { return retried.get(); }
+	public long failed() { return failed.get(); }
+	public long rejected() { return rejected.get(); }
+
+	public AlertDispatcher(final SessionDAO dao, final int concurrency)
+	{
+		this(dao, concurrency, concurrency * CAPACITY_FACTOR, MAX_TRIES, RETRY_DELAY);
+	}
+
+	public AlertDispatcher(final SessionDAO dao, final int concurrency, final int capacity, final int maxTries, final long retryDelay)
+	{
+		if (1 > concurrency) throw new IllegalArgumentException("The concurrency must be at least one.");
+		if (concurrency > capacity) throw new IllegalArgumentException("The capacity must be at least the concurrency.");
+
+		this.dao = dao;
+		this.capacity = capacity;
+		this.maxTries = maxTries;
+		this.retryDelay = retryDelay;
+		this.permits = new Semaphore(capacity);
+
+		var count = new AtomicInteger();
+		this.executor = Executors.newScheduledThreadPool(concurrency, r -> {
+			var o = new Thread(r, "alert-dispatcher-" + count.incrementAndGet());
+			o.setDaemon(true);
+			return o;
+		});
+
+		log.info("INITIALIZED: concurrency {}, capacity {}, maxTries {}", concurrency, capacity, maxTries);
+	}
+
+	/** Reserves capacity for the specified number of messages without waiting. Each reservation is either used by "alertReserved"
+	 *  or returned by "release".
+	 *
+	 * @param count
+	 * @return FALSE if the dispatcher does not have the capacity.
+	 */
+	public boolean reserve(final int count)
+	{
+		return permits.tryAcquire(count);
+	}
+
+	/** Returns reserved capacity that will not be used. */
+	public void release(final int count)
+	{
+		permits.release(count);
+	}
+
+	/** Queues a single facility alert SMS if the dispatcher has capacity. Never blocks.
+	 *
+	 * @param phone
+	 * @param lastAlertedAt
+	 * @param onFailure called with the last error once every try has failed or with a RejectedExecutionException if the dispatcher is at capacity. Can be NULL.
+	 * @return the completion handle that provides the alert token.
+	 */
+	public CompletableFuture<String> alert(final String phone, final Date lastAlertedAt, final Consumer<Exception> onFailure)
+	{
+		if (permits.tryAcquire()) return alertReserved(phone, lastAlertedAt, onFailure);
+
+		rejected.incrementAndGet();
+		var ex = new RejectedExecutionException("The alert dispatcher is at capacity.");
+		log.warn("REJECTED ({}): {}", phone, ex.getMessage());
+		try { if (null != onFailure) onFailure.accept(ex); }
+		catch (final RuntimeException e) { log.error("FAILURE_CALLBACK ({}): {}", phone, e.getMessage(), e); }
+
+		return CompletableFuture.failedFuture(ex);
+	}
+
+	/** Queues a single facility alert SMS on capacity already taken by "reserve". Never blocks.
+	 *
+	 * @param phone
+	 * @param lastAlertedAt
+	 * @param onFailure called with the last error once every try has failed. Can be NULL.
+	 * @return the completion handle that provides the alert token.
+	 */
+	public CompletableFuture<String> alertReserved(final String phone, final Date lastAlertedAt, final Consumer<Exception> onFailure)
+	{
+		return alertReserved(phone, lastAlertedAt, null, onFailure);
+	}
+
+	/** Queues a single facility alert SMS on capacity already taken by "reserve". Never blocks.
+	 *
+	 * @param phone
+	 * @param lastAlertedAt
+	 * @param onSuccess called with the alert token once sent. Runs before the capacity is released so that waiting for an idle dispatcher includes it. Can be NULL.
+	 * @param onFailure called with the last error once every try has failed. Can be NULL.
+	 * @return the completion handle that provides the alert token.
+	 */
+	public CompletableFuture<String> alertReserved(final String phone, final Date lastAlertedAt, final Consumer<String> onSuccess, final Consumer<Exception> onFailure)
+	{
+		var o = new CompletableFuture<String>();
+		try { executor.execute(() -> send(o, phone, lastAlertedAt, onSuccess, onFailure, 1)); }
+		catch (final RejectedExecutionException ex)
+		{
+			fail(o, phone, onFailure, ex);
+		}
+
+		return o;
+	}
+
+	/** Helper method - performs a single try and schedules the next one on failure. */
+	private void send(final CompletableFuture<String> future, final String phone, final Date lastAlertedAt, final Consumer<String> onSuccess, final Consumer<Exception> onFailure, final int tries)
+	{
+		try
+		{
+			var token = dao.alert(phone, lastAlertedAt);
+			sent.incrementAndGet();
+			succeed(future, phone, onSuccess, token);
+		}
+		catch (final Exception ex)
+		{
+			if (maxTries <= tries)
+			{
+				fail(future, phone, onFailure, ex);
+				return;
+			}
+
+			retried.incrementAndGet();
+			log.info("RETRYING ({} - {}): {}", phone, tries, ex.getMessage());
+			try { executor.schedule(() -> send(future, phone, lastAlertedAt, onSuccess, onFailure, tries + 1), retryDelay << (tries - 1), MILLISECONDS); }
+			catch (final RejectedExecutionException e)
+			{
+				fail(future, phone, onFailure, ex);
+			}
+		}
+	}
+
+	/** Helper method - completes a sent message. The callback runs before the capacity is released so that waiting for an idle dispatcher includes it. */
+	private void succeed(final CompletableFuture<String> future, final String phone, final Consumer<String> onSuccess, final String token)
+	{
+		try { if (null != onSuccess) onSuccess.accept(token); }
+		catch (final RuntimeException e) { log.error("SUCCESS_CALLBACK ({}): {}", phone, e.getMessage(), e); }
+		finally
+		{
+			permits.release();
+			future.complete(token);
+		}
+	}
+
+	/** Helper method - records a message that will not be retried. The callback runs before the capacity is released so that waiting for an idle dispatcher includes it. */
+	private void fail(final CompletableFuture<String> future, final String phone, final Consumer<Exception> onFailure, final Exception ex)
+	{
+		failed.incrementAndGet();
+		log.warn("FAILED ({}): {}", phone, ex.getMessage());
+		try { if (null != onFailure) onFailure.accept(ex); }
+		catch (final RuntimeException e) { log.error("FAILURE_CALLBACK ({}): {}", phone, e.getMessage(), e); }
+		finally
+		{
+			permits.release();
+			future.completeExceptionally(ex);
+		}
+	}
+
+	/** Waits until every queued message, including its retries, has completed.
+	 *
+	 * @param timeout in milliseconds.
+	 * @return TRUE if the dispatcher is idle.
+	 * @throws InterruptedException
+	 */
+	public boolean await(final long timeout) throws InterruptedException
+	{
+		if (!permits.tryAcquire(capacity, timeout, MILLISECONDS)) return false;
+
+		permits.release(capacity);
+		return true;
+	}
+
+	/** Stops accepting messages and waits for the messages already queued, including their scheduled retries, to complete. */
+	@Override
+	public void close() throws InterruptedException
+	{
+		executor.shutdown();
+		if (!executor.awaitTermination(CLOSE_TIMEOUT, MILLISECONDS))
+			log.warn("CLOSE_TIMEOUT: {} messages still pending", pending());
+
+		log.info("CLOSED: {} sent, {} retried, {} failed, {} rejected", sent(), retried(), failed(), rejected());
+	}
+}
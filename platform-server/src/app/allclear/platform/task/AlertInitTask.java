@@ -1,7 +1,10 @@
 package app.allclear.platform.task;
 
-import java.util.List;
+import java.util.*;
+import java.util.function.Predicate;
 
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
 import org.hibernate.*;
 import org.slf4j.*;
 
@@ -9,16 +12,31 @@ import com.azure.storage.queue.QueueClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.allclear.common.errors.AbortException;
+import app.allclear.common.hibernate.AbstractHibernateRunner;
 import app.allclear.common.hibernate.DualSessionFactory;
 import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.RedisLease;
 import app.allclear.common.task.AbstractHibernateTask;
 import app.allclear.common.time.StopWatch;
-import app.allclear.platform.dao.PeopleDAO;
+import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.PeoplePoint;
 import app.allclear.platform.model.AlertInitRequest;
 import app.allclear.platform.model.AlertRequest;
 import app.allclear.platform.type.Timezone;
 
 /** Task callback that handles Facility Alert initialization.
+ *  When supplied a FacilityDAO, the task matches the activated facilities in the timezone against all the alertable people in one
+ *  pass over an in-memory grid. Only the people with new facilities among their nearest facilities, the same rule as the AlertTask,
+ *  are enqueued for the AlertTask. The remaining people are marked as checked in bulk. Otherwise, every alertable person is enqueued.
+ *  The people are enqueued in batch AlertRequests of up to "batchSize" people each.
+ *  
+ *  With an AlertInitLeaseDAO, each timezone is split into "shards" ID ranges. Each range is scanned under an exclusive lease so
+ *  that two nodes never scan the same range at once, and the scan checkpoints its last ID so that a crashed scan is resumed
+ *  instead of started over. A request for a whole timezone is fanned out as one request per range when an alert-init queue is
+ *  supplied so that the ranges are spread across the nodes. With a "shardSize", the number of ranges grows with the number of
+ *  alertable people in the timezone so that each range is a similarly sized unit of work. The completed ranges are tallied to
+ *  report the progress of the whole timezone. The split of a run is fixed by its first request - later requests for the
+ *  timezone join the run with its split, and a request for a shard of a different split is dropped.
  * 
  * @author smalleyd
  * @version 1.0.109
@@ -31,25 +49,79 @@ public class AlertInitTask extends AbstractHibernateTask<AlertInitRequest>
 	private static final Logger log = LoggerFactory.getLogger(AlertInitTask.class);
 
 	private static final int PAGE_SIZE = 100;
+	public static final int MATCH_PAGE_SIZE = 1000;
+	public static final int SHARDS = 4;
+	public static final int SHARD_SIZE = 50000;	// Target number of people per ID range.
+	public static final String ID_CHARACTERS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";	// People IDs are upper case alphanumerics.
+	public static final int MAX_SHARDS = ID_CHARACTERS.length() * ID_CHARACTERS.length();	// Ranges are bounded by the first two characters of the ID.
 
 	private final PeopleDAO dao;
+	private final FacilityDAO facilityDao;
 	private final QueueClient queue;
+	private final int batchSize;	// Maximum number of users per AlertRequest.
 	private final ObjectMapper mapper = JacksonUtils.createMapperAzure();
+	private final AbstractHibernateRunner<Triple<String, String, Timezone>, List<PeoplePoint>> peopleSearch;	// Each page uses its own short read-replica session.
+	private final AbstractHibernateRunner<Pair<List<String>, Date>, Integer> peopleAlerted;	// Bulk update on the transaction data source.
+	private AlertInitLeaseDAO leases = null;	// Coordinates the shards across the cluster. Scans without leases when NULL.
+	private int shards = 1;	// Minimum number of ID ranges per timezone.
+	private int shardSize = 0;	// Target number of people per ID range. Always uses "shards" ranges when zero.
+	private QueueClient initQueue = null;	// Fans out the shards of a timezone. Scans the shards in turn when NULL.
 
 	@Override public boolean readOnly() { return true; }
 	@Override public boolean transactional() { return false; }
 
+	public AlertInitTask withLeases(final AlertInitLeaseDAO newLeases, final int newShards)
+	{
+		if ((1 > newShards) || (MAX_SHARDS < newShards)) throw new IllegalArgumentException("The shards must be between 1 and " + MAX_SHARDS + ".");
+
+		leases = newLeases;
+		shards = newShards;
+		return this;
+	}
+	public AlertInitTask withInitQueue(final QueueClient newValue) { initQueue = newValue; return this; }
+	public AlertInitTask withShardSize(final int newValue)
+	{
+		if (0 > newValue) throw new IllegalArgumentException("The shardSize cannot be negative.");
+
+		shardSize = newValue;
+		return this;
+	}
+
 	AlertInitTask(final SessionFactory factory, final PeopleDAO dao, final QueueClient queue)	// For tests
 	{
 		this(new DualSessionFactory(factory), dao, queue);
 	}
 
+	AlertInitTask(final SessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final QueueClient queue, final int batchSize)	// For tests
+	{
+		this(new DualSessionFactory(factory), dao, facilityDao, queue, batchSize);
+	}
+
 	public AlertInitTask(final DualSessionFactory factory, final PeopleDAO dao, final QueueClient queue)
+	{
+		this(factory, dao, null, queue, 1);
+	}
+
+	public AlertInitTask(final DualSessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final QueueClient queue, final int batchSize)
 	{
 		super(factory);
 
 		this.dao = dao;
+		this.facilityDao = facilityDao;
 		this.queue = queue;
+		this.batchSize = batchSize;
+		this.peopleSearch = new AbstractHibernateRunner<Triple<String, String, Timezone>, List<PeoplePoint>>(factory) {
+			@Override public boolean readOnly() { return true; }
+			@Override public boolean transactional() { return false; }
+			@Override public List<PeoplePoint> run(final Triple<String, String, Timezone> request, final Session s) {
+				return dao.getActiveAlertablePointsByLongitude(request.getLeft(), request.getMiddle(), request.getRight(), MATCH_PAGE_SIZE);
+			}
+		};
+		this.peopleAlerted = new AbstractHibernateRunner<Pair<List<String>, Date>, Integer>(factory) {
+			@Override public Integer run(final Pair<List<String>, Date> request, final Session s) {
+				return dao.alerted(request.getLeft(), request.getRight());
+			}
+		};
 
 		log.info("INITIALIZED");
 	}
@@ -62,24 +134,222 @@ public class AlertInitTask extends AbstractHibernateTask<AlertInitRequest>
 		var zone = Timezone.get(request.timezoneId);
 		if (null == zone) throw new AbortException("The timezone '" + request.timezoneId + "' does not receive alerts.");
 
-		log.info("PROCESSING: {}", zone);
+		if ((null != request.shards) && ((1 > request.shards) || (MAX_SHARDS < request.shards)))
+			throw new AbortException("The shards " + request.shards + " is not between 1 and " + MAX_SHARDS + ".");
+
+		if (request.sharded())
+		{
+			var shards = (null != request.shards) ? request.shards : this.shards;
+			if ((0 > request.shard) || (shards <= request.shard))
+				throw new AbortException("The shard " + request.shard + " is not between 0 and " + (shards - 1) + ".");
+
+			if (null != leases)
+			{
+				var split = leases.joined(zone, shards);
+				if (null == split) return starting(zone);
+				if (shards != split)
+					throw new AbortException("The shard " + request.shard + " of " + shards + " does not belong to the current run of " + split + " shards.");
+			}
+
+			log.info("PROCESSING: {} - shard {} of {}", zone, request.shard, shards);
+			return process(zone, shards, request.shard);
+		}
+
+		var shards = (null != request.shards) ? request.shards : shards(zone);
+		if (null != leases)
+		{
+			var split = leases.started(zone, shards);
+			if (null == split) return starting(zone);
+			shards = split;	// Joins the run that is already going.
+		}
+
+		log.info("PROCESSING: {} - {} shards", zone, shards);
+		if ((1 < shards) && (null != initQueue))
+		{
+			for (int i = 0; i < shards; i++) initQueue.sendMessage(mapper.writeValueAsString(new AlertInitRequest(zone.id, i, shards)));
+			log.info("FANNED_OUT ({}): {} shards", zone, shards);
+			return true;
+		}
+
+		var result = true;
+		for (int i = 0; i < shards; i++) result&= process(zone, shards, i);	// Scan every shard even if one is busy.
+
+		return result;
+	}
+
+	/** Helper method - another node is starting a run of the timezone so the request is retried later. */
+	private boolean starting(final Timezone zone)
+	{
+		log.info("STARTING ({}): another node is starting the run", zone);
+		return false;
+	}
+
+	/** Helper method - sizes the ID ranges of the timezone by its number of alertable people. */
+	private int shards(final Timezone zone)
+	{
+		if (0 == shardSize) return shards;
+
+		var count = dao.countActiveAlertableByLongitude(zone);
+		var value = (int) Math.min(MAX_SHARDS, Math.max(shards, (count + shardSize - 1L) / shardSize));
+		log.info("ESTIMATED ({}): {} people in {} shards", zone, count, value);
+
+		return value;
+	}
+
+	/** Scans a single shard under its lease.
+	 *
+	 * @return FALSE if another node holds the shard's lease so that the request is retried later. The retry resumes the shard
+	 *         if that node crashed, and is skipped once the shard is completed.
+	 */
+	private boolean process(final Timezone zone, final int shards, final int shard) throws Exception
+	{
+		var bounds = bounds(shards, shard);
+		if (null == leases)
+		{
+			scan(zone, bounds[0], bounds[1], v -> true);
+			return true;
+		}
 
-		var lastId = "";
+		var lease = leases.acquire(zone, shards, shard);
+		if (null == lease)
+		{
+			log.info("LEASED ({}): shard {} is being scanned by another node", zone, shard);
+			return false;
+		}
+
+		try
+		{
+			if (leases.completed(zone, shards, shard))
+			{
+				log.info("COMPLETED ({}): shard {} was already scanned", zone, shard);
+				leases.tally(lease, zone, shards, shard);
+				return true;
+			}
+
+			var lastId = leases.lastId(zone, shards, shard);
+			if (null != lastId) log.info("RESUMING ({}): shard {} after {} - token {}", zone, shard, lastId, lease.token);
+
+			var count = scan(zone, (null != lastId) ? lastId : bounds[0], bounds[1], v -> leases.checkpoint(lease, zone, shards, shard, v));
+			if (!leases.complete(lease, zone, shards, shard, count)) throw lost(lease);
+			log.info("PROGRESS ({}): {}", zone, leases.progress(zone));
+
+			return true;
+		}
+		finally { leases.release(lease); }
+	}
+
+	/** Helper method - scans the people after "idFrom" and before "idTo". The checkpoint receives the last ID of each page and
+	 *  returns FALSE to stop the scan.
+	 *
+	 * @return the number of people scanned.
+	 */
+	private int scan(final Timezone zone, final String idFrom, final String idTo, final Predicate<String> checkpoint) throws Exception
+	{
+		return (null != facilityDao) ? match(zone, idFrom, idTo, checkpoint) : fanOut(zone, idFrom, idTo, checkpoint);
+	}
+
+	/** Enqueues every alertable person in the timezone. */
+	private int fanOut(final Timezone zone, final String idFrom, final String idTo, final Predicate<String> checkpoint) throws Exception
+	{
+		var lastId = idFrom;
 		List<String> ids = null;
 		int count = 0, batches = 0;
 		var timer = new StopWatch();
-		while (!(ids = dao.getActiveAlertableIdsByLongitude(lastId, zone, PAGE_SIZE)).isEmpty())
+		while (!(ids = dao.getActiveAlertableIdsByLongitude(lastId, idTo, zone, PAGE_SIZE)).isEmpty())
 		{
-			for (var id : ids)
-				queue.sendMessage(mapper.writeValueAsString(new AlertRequest(lastId = id)));
+			send(ids);
 
 			int size = ids.size();
+			lastId = ids.get(size - 1);
+			if (!checkpoint.test(lastId)) throw lost(zone, lastId);
 			count+= size;
 			log.info("BATCH ({}): {} - {} out of {} in {} - {}", zone, ++batches, size, count, timer.split(), ids);
 		}
 
 		log.info("PROCESSED ({}): {} in {}", zone, count, timer.total());
 
-		return true;
+		return count;
+	}
+
+	/** Enqueues only the alertable people in the timezone with facilities activated since their last alert check. */
+	private int match(final Timezone zone, final String idFrom, final String idTo, final Predicate<String> checkpoint) throws Exception
+	{
+		var lastId = idFrom;
+		var timer = new StopWatch();
+		var now = new Date();	// Taken before loading the facilities so that facilities activated during the run are caught by the next run.
+		var oldest = dao.getActiveAlertableOldestAlertedAtByLongitude(zone);
+		var grid = new FacilityActivationGrid((null != oldest) ?	// The facilities activated before the oldest check still rank among the nearest.
+			facilityDao.getActivationsByLongitude(zone.longitudeFrom.subtract(AlertTask.MARGIN), zone.longitudeTo.add(AlertTask.MARGIN)) : List.of());
+		log.info("ACTIVATIONS ({}): {} for the checks since {} in {}", zone, grid.size(), oldest, timer.split());
+
+		List<PeoplePoint> values = null;
+		int count = 0, matched = 0, batches = 0;
+		while (!(values = peopleSearch.run(Triple.of(lastId, idTo, zone))).isEmpty())
+		{
+			var matches = new ArrayList<String>();
+			var unmatched = new ArrayList<String>(values.size());
+			for (var o : values)
+			{
+				if (0 < grid.count(o.latitude, o.longitude, AlertTask.METERS, o.alertedAt, AlertTask.PAGE_SIZE))
+					matches.add(o.id);
+				else
+					unmatched.add(o.id);
+			}
+			send(matches);
+			matched+= matches.size();
+			peopleAlerted.run(Pair.of(unmatched, now));	// Always mark that the user was checked for a possible facility alert.
+
+			lastId = values.get(values.size() - 1).id;
+			if (!checkpoint.test(lastId)) throw lost(zone, lastId);
+			count+= values.size();
+			log.info("BATCH ({}): {} - {} out of {} in {} - {} matched", zone, ++batches, values.size(), count, timer.split(), matched);
+		}
+
+		log.info("PROCESSED ({}): {} matched of {} in {}", zone, matched, count, timer.total());
+
+		return count;
+	}
+
+	/** Splits the ID space into contiguous ranges by the first two characters of the ID.
+	 *
+	 * @param shards number of ranges.
+	 * @param shard
+	 * @return the exclusive lower bound and the exclusive upper bound of the range. The upper bound of the last range is NULL.
+	 */
+	static String[] bounds(final int shards, final int shard)
+	{
+		return new String[] {
+			(0 == shard) ? "" : prefix((shard * MAX_SHARDS) / shards),
+			((shards - 1) == shard) ? null : prefix(((shard + 1) * MAX_SHARDS) / shards) };
+	}
+
+	/** Helper method - the two character ID prefix at a position. A prefix is less than every ID that starts with it, and a
+	 *  trailing "0" is dropped because no ID falls between the shorter prefix and the longer one.
+	 */
+	private static String prefix(final int position)
+	{
+		var size = ID_CHARACTERS.length();
+		var first = ID_CHARACTERS.charAt(position / size);
+		var second = ID_CHARACTERS.charAt(position % size);
+
+		return ('0' == second) ? String.valueOf(first) : new String(new char[] { first, second });
+	}
+
+	/** Helper method - the error that stops a scan whose lease was taken over by another node. */
+	private IllegalStateException lost(final RedisLease lease)
+	{
+		return new IllegalStateException("The lease '" + lease.name + "' with token " + lease.token + " was lost.");
+	}
+
+	private IllegalStateException lost(final Timezone zone, final String lastId)
+	{
+		return new IllegalStateException("The lease of the timezone " + zone.id + " was lost after " + lastId + ".");
+	}
+
+	/** Enqueues the users in batches of up to "batchSize" users per message. */
+	private void send(final List<String> ids) throws Exception
+	{
+		for (int i = 0; i < ids.size(); i+= batchSize)
+			queue.sendMessage(mapper.writeValueAsString(AlertRequest.of(ids.subList(i, Math.min(i + batchSize, ids.size())))));
 	}
 }
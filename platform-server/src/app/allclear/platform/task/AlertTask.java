@@ -1,21 +1,50 @@
 package app.allclear.platform.task;
 
-import java.util.Date;
+import static java.util.stream.Collectors.toList;
+import static app.allclear.common.value.Constants.milesToMeters;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.hibernate.Session;
 import org.slf4j.*;
 
+import com.azure.storage.queue.QueueClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.ObjectUtils;
 import app.allclear.common.hibernate.AbstractHibernateRunner;
 import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
 import app.allclear.common.task.AbstractHibernateTask;
 import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.People;
 import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.filter.GeoBox;
 import app.allclear.platform.filter.GeoFilter;
 import app.allclear.platform.model.AlertRequest;
 
 /** Task callback that looks for new Facilities near the specified.
  *  If new facilities are found, the user is messaged with a link to see their facilities.
  *  
+ *  A batch request loads its users with a single query, matches them against the activated facilities near them in one pass (or
+ *  against the FacilityDAO's activation timeline once loaded), and marks them as checked with one bulk update per distinct count.
+ *  A check served by the timeline only covers the activations before the timeline's last load, and is recorded at that time, so
+ *  that the activations made on the other nodes since are counted by the next check.
+ *  Both requests count the new facilities among the PAGE_SIZE nearest. The checks are committed before any alert is sent. Users whose
+ *  alert fails to send have their check reverted and are requeued as a smaller batch so that the users already alerted are not messaged again.
+ *  
+ *  With an AlertDispatcher, the alerts are sent once the checks have been committed so that the SMS provider's latency does not
+ *  hold the transaction open. The dispatcher's capacity is reserved before the commit - a request that finds the dispatcher full
+ *  fails without waiting and is retried by the queue. A user whose alert fails every retry has their check reverted so that the next run picks them up again.
+ *  
+ *  With a PeopleAlertedBuffer, the checks are recorded in the buffer and written in bulk later. The check of a user without new facilities
+ *  is recorded once the transaction commits. The check of a user alerted is only recorded once their alert has been sent so that a crash
+ *  before the alert is handed off leaves the user to the next run.
+ *  
  * @author smalleyd
  * @version 1.0.111
  * @since 4/15/2020
@@ -27,26 +56,69 @@ public class AlertTask extends AbstractHibernateTask<AlertRequest>
 	private static final Logger log = LoggerFactory.getLogger(AlertTask.class);
 	public static final int MILES_DEFAULT = 100;
 	public static final int PAGE_SIZE = 20;
+	public static final int MAX_TRIES = 5;	// Maximum number of times that the failed users of a batch are requeued.
+	public static final long METERS = milesToMeters(MILES_DEFAULT);
+
+	/** Facilities just outside a longitude range can be near people just inside it. The margin is the alert radius in degrees of longitude
+	 *  at 60 degrees latitude, which covers the continental timezones. DLS on 10/17/2026.
+	 */
+	public static final BigDecimal MARGIN = BigDecimal.valueOf(METERS / (GeoBox.METERS_PER_DEGREE * Math.cos(Math.toRadians(60d)))).setScale(8, RoundingMode.UP);
 
 	private final PeopleDAO dao;
+	private final FacilityDAO facilityDao;
 	private final SessionDAO sessionDao;
 	private final AbstractHibernateRunner<FacilityFilter, Long> facilitySearch;	// Ensure using read-replica instead of transaction data source.
+	private final AbstractHibernateRunner<List<People>, FacilityActivationTimeline> facilityActivations;	// Ensure using read-replica instead of transaction data source.
+	private final ObjectMapper mapper = JacksonUtils.createMapperAzure();
+	private final AbstractHibernateRunner<Pair<Map<Integer, List<String>>, Date>, Integer> peopleAlerted;	// Commits the checks of a batch before its alerts are sent.
+	private final AbstractHibernateRunner<Check, Boolean> peopleUnalerted;	// Reverts a check after its alert fails outside of the transaction.
+	private QueueClient queue = null;	// Requeues the failed users of a batch request.
+	private AlertDispatcher dispatcher = null;	// Sends the alerts after the transaction commits. Sends them inline when NULL.
+	private PeopleAlertedBuffer alerted = null;	// Writes the checks in bulk once committed or, for the users alerted, once sent. Writes them in the transaction when NULL.
 
 	@Override public boolean readOnly() { return false; }
 	@Override public boolean transactional() { return true; }
 
+	public AlertTask withQueue(final QueueClient newValue) { queue = newValue; return this; }
+	public AlertTask withDispatcher(final AlertDispatcher newValue) { dispatcher = newValue; return this; }
+	public AlertTask withAlerted(final PeopleAlertedBuffer newValue) { alerted = newValue; return this; }
+
 	public AlertTask(final DualSessionFactory factory, final PeopleDAO dao, final FacilityDAO facilityDao, final SessionDAO sessionDao)
 	{
 		super(factory);
 
 		this.dao = dao;
+		this.facilityDao = facilityDao;
 		this.sessionDao = sessionDao;
 		this.facilitySearch = new AbstractHibernateRunner<FacilityFilter, Long>(factory) {
 			@Override public boolean readOnly() { return true; }
 			@Override public boolean transactional() { return false; }
 			@Override public Long run(final FacilityFilter filter, final Session s) {
 				var f = filter.from;
-				return facilityDao.countActivatedAtByDistance(filter.activatedAtFrom, f.latitude, f.longitude, f.meters(), PAGE_SIZE);
+				return facilityDao.countActivatedAtByDistance(filter.activatedAtFrom, filter.activatedAtTo, f.latitude, f.longitude, f.meters(), PAGE_SIZE);
+			}
+		};
+		this.facilityActivations = new AbstractHibernateRunner<List<People>, FacilityActivationTimeline>(factory) {
+			@Override public boolean readOnly() { return true; }
+			@Override public boolean transactional() { return false; }
+			@Override public FacilityActivationTimeline run(final List<People> people, final Session s) {
+				var longitudes = people.stream().map(o -> o.getLongitude()).filter(Objects::nonNull).collect(toList());
+				if (longitudes.isEmpty()) return new FacilityActivationGrid(List.of());
+
+				// Includes the facilities activated before the users' checks because they still rank among the nearest.
+				return new FacilityActivationGrid(facilityDao.getActivationsByLongitude(Collections.min(longitudes).subtract(MARGIN), Collections.max(longitudes).add(MARGIN)));
+			}
+		};
+		this.peopleAlerted = new AbstractHibernateRunner<Pair<Map<Integer, List<String>>, Date>, Integer>(factory) {
+			@Override public Integer run(final Pair<Map<Integer, List<String>>, Date> request, final Session s) {
+				return request.getLeft().entrySet().stream().mapToInt(o -> dao.alerted(o.getValue(), o.getKey(), request.getRight())).sum();
+			}
+		};
+		this.peopleUnalerted = new AbstractHibernateRunner<Check, Boolean>(factory) {
+			@Override public boolean readOnly() { return false; }
+			@Override public boolean transactional() { return true; }
+			@Override public Boolean run(final Check o, final Session s) {
+				return dao.unalerted(o.id, o.alertedOf, o.alertedAt, o.checkedAt);
 			}
 		};
 
@@ -56,10 +128,23 @@ public class AlertTask extends AbstractHibernateTask<AlertRequest>
 	@Override
 	public boolean process(final AlertRequest request, final Session s) throws Exception
 	{
+		if (request.batch()) return (null != dispatcher) ? dispatchBatch(request, s) : processBatch(request, s);
+
 		var record = dao.findWithException(request.personId);
 		var lastAlertedAt = record.alertedAt();
+		var timelinedAt = timelinedAt(Collections.singletonList(lastAlertedAt));
 
-		var count = facilitySearch.run(new FacilityFilter().withActivatedAtFrom(lastAlertedAt).withFrom(new GeoFilter(record.getLatitude(), record.getLongitude(), MILES_DEFAULT)));
+		var count = facilitySearch.run(new FacilityFilter().withActivatedAtFrom(lastAlertedAt).withActivatedAtTo(timelinedAt).withFrom(new GeoFilter(record.getLatitude(), record.getLongitude(), MILES_DEFAULT)));
+
+		if (null != dispatcher)
+		{
+			var now = (null != timelinedAt) ? timelinedAt : checkedAt();
+			if (0L < count) dispatch(List.of(new Check(record, count.intValue(), now)));	// Before the record is marked so that the check holds the previous state.
+			if ((null == alerted) || (0L == count)) alerted(record, count.intValue(), now);	// The buffer receives an alerted user's check once the alert is sent.
+			log.info("{} ({}): {} new facilities.", (0L < count) ? "FOUND" : "NOT_FOUND", request.personId, count);
+
+			return true;
+		}
 
 		if (0L < count)
 		{
@@ -71,11 +156,205 @@ public class AlertTask extends AbstractHibernateTask<AlertRequest>
 			log.info("NOT_FOUND ({}): no new facilities.", request.personId);
 		}
 
-		var now = new Date();	// Get date right after checking facility search.
-		record.setAlertedOf(count.intValue());
-		record.setAlertedAt(now);	// Always mark that the user was checked for a possible facility alert.
-		record.setUpdatedAt(now);
+		var now = (null != timelinedAt) ? timelinedAt : new Date();	// Get date right after checking facility search.
+		alerted(record, count.intValue(), now);	// Always mark that the user was checked for a possible facility alert.
 
 		return true;
 	}
+
+	/** Processes a batch of users together. Users that are no longer active or alertable are ignored. The checks are committed
+	 *  before the alerts are sent so that a failure after sending cannot roll back the checks of users already messaged.
+	 */
+	private boolean processBatch(final AlertRequest request, final Session s) throws Exception
+	{
+		var people = dao.findActiveAlertableByIds(request.personIds);
+		var timelinedAt = timelinedAt(people.stream().map(o -> o.alertedAt()).collect(toList()));
+		var grid = (null != timelinedAt) ? facilityDao.timeline() : facilityActivations.run(people);
+
+		var now = (null != timelinedAt) ? timelinedAt : checkedAt();
+		var alerts = new ArrayList<Check>();
+		var counts = new TreeMap<Integer, List<String>>();	// Users grouped by the number of new facilities found.
+		for (var o : people)
+		{
+			var count = grid.count(o.getLatitude(), o.getLongitude(), METERS, o.alertedAt(), timelinedAt, PAGE_SIZE);
+			if (0 < count) alerts.add(new Check(o, count, now));
+
+			counts.computeIfAbsent(count, k -> new LinkedList<>()).add(o.getId());
+		}
+
+		// Always mark that the users were checked for a possible facility alert. The buffer only receives the checks of the users alerted once sent.
+		if (null == alerted) peopleAlerted.run(Pair.of(counts, now));
+		else alerted(counts.getOrDefault(0, List.of()), 0, now);
+
+		var failed = new LinkedList<String>();
+		for (var o : alerts)
+		{
+			try
+			{
+				sessionDao.alert(o.phone, o.lastAlertedAt);
+				sent(o);
+			}
+			catch (final Exception ex)
+			{
+				log.warn("FAILED ({}): {}", o.id, ex.getMessage());
+				failed.add(o.id);
+				unalerted(o);
+			}
+		}
+		log.info("BATCH: {} of {} found, {} failed, {} missing", alerts.size() - failed.size(), request.personIds.size(), failed.size(), request.personIds.size() - people.size());
+
+		if (!failed.isEmpty()) requeue(request, failed);
+
+		return true;
+	}
+
+	/** Processes a batch of users together and sends their alerts once the checks have been committed. */
+	private boolean dispatchBatch(final AlertRequest request, final Session s) throws Exception
+	{
+		var people = dao.findActiveAlertableByIds(request.personIds);
+		var timelinedAt = timelinedAt(people.stream().map(o -> o.alertedAt()).collect(toList()));
+		var grid = (null != timelinedAt) ? facilityDao.timeline() : facilityActivations.run(people);
+
+		var now = (null != timelinedAt) ? timelinedAt : checkedAt();
+		var alerts = new ArrayList<Check>();
+		var counts = new TreeMap<Integer, List<String>>();	// Users grouped by the number of new facilities found.
+		for (var o : people)
+		{
+			var count = grid.count(o.getLatitude(), o.getLongitude(), METERS, o.alertedAt(), timelinedAt, PAGE_SIZE);
+			if (0 < count) alerts.add(new Check(o, count, now));
+
+			counts.computeIfAbsent(count, k -> new LinkedList<>()).add(o.getId());
+		}
+
+		counts.forEach((k, v) -> { if ((null == alerted) || (0 == k)) alerted(v, k, now); });	// The buffer receives an alerted user's check once the alert is sent.
+		dispatch(alerts);
+		log.info("BATCH: {} of {} found, {} missing", alerts.size(), request.personIds.size(), request.personIds.size() - people.size());
+
+		return true;
+	}
+
+	/** Helper method - the time before which the FacilityDAO's activation timeline holds every facility activation, truncated to the
+	 *  precision of the checks. The checks served by the timeline only count the activations before this time and record it as the
+	 *  time of the check, so the activations made on the other nodes since the timeline was loaded are counted by the next check.
+	 *
+	 * @param lastAlertedAts the start of each user's new facility search.
+	 * @return NULL if the timeline is not loaded or was loaded before a user was last checked. The activations up to now are then counted from the database.
+	 */
+	private Date timelinedAt(final List<Date> lastAlertedAts)
+	{
+		var o = facilityDao.timelinedAt();
+		if (null == o) return null;
+
+		var v = DateUtils.truncate(o, Calendar.SECOND);
+		return lastAlertedAts.stream().filter(Objects::nonNull).allMatch(d -> d.before(v)) ? v : null;
+	}
+
+	/** Reserves the dispatcher's capacity for the alerts and hands them to the dispatcher once the transaction commits. A full
+	 *  dispatcher fails the request instead of waiting so that nothing blocks while the transaction holds its connection and
+	 *  a backlog of undelivered alerts slows down the queue instead of growing without bounds. With a buffer, each user's check
+	 *  is recorded once the dispatcher has sent the alert.
+	 *
+	 * @param alerts the users' state before the check.
+	 * @throws IllegalStateException if the dispatcher is at capacity. The checks are rolled back and the queue retries the request.
+	 */
+	private void dispatch(final List<Check> alerts)
+	{
+		if (alerts.isEmpty()) return;
+		if (!dispatcher.reserve(alerts.size()))
+			throw new IllegalStateException("The alert dispatcher does not have the capacity for " + alerts.size() + " alerts.");
+
+		dao.afterTrans(
+			() -> alerts.forEach(o -> dispatcher.alertReserved(o.phone, o.lastAlertedAt, t -> sent(o), ex -> unalerted(o))),
+			() -> dispatcher.release(alerts.size()));	// Not sent so return the capacity.
+	}
+
+	/** Helper method - marks a single user as checked. */
+	private void alerted(final People record, final int count, final Date now)
+	{
+		if (null != alerted)
+		{
+			alerted(List.of(record.getId()), count, now);
+			return;
+		}
+
+		record.setAlertedOf(count);
+		record.setAlertedAt(now);
+		record.setUpdatedAt(new Date());	// The check can be recorded at the timeline's last load, which is in the past.
+	}
+
+	/** Helper method - marks the users as checked. The buffer only receives the checks once the transaction commits. */
+	private void alerted(final List<String> ids, final int count, final Date now)
+	{
+		if (null == alerted) dao.alerted(ids, count, now);
+		else dao.afterTrans(() -> ids.forEach(id -> alerted.add(id, count, now)));
+	}
+
+	/** Helper method - records the check of a user whose alert was sent once a buffer writes the checks. */
+	private void sent(final Check o)
+	{
+		if (null != alerted) alerted.add(o.id, o.count, o.checkedAt);
+	}
+
+	/** Helper method - reverts the check of a user whose alert was not delivered. With a buffer, the check was never recorded. */
+	private void unalerted(final Check o)
+	{
+		if (null != alerted)
+		{
+			log.info("UNALERTED ({}): not recorded", o.id);
+			return;
+		}
+
+		try { log.info("UNALERTED ({}): {}", o.id, peopleUnalerted.run(o)); }
+		catch (final Exception ex) { log.error("UNALERTED_FAILED ({}): {}", o.id, ex.getMessage(), ex); }
+	}
+
+	/** Helper method - the time of the check truncated to the precision of the DATETIME column so that it can be matched when reverted. */
+	private Date checkedAt()
+	{
+		return DateUtils.truncate(new Date(), Calendar.SECOND);
+	}
+
+	/** Puts only the failed users of a batch back on the queue. Gives up once the batch has been requeued MAX_TRIES times.
+	 *  The checks of the failed users have been reverted so the next Alert-Init run picks them up again.
+	 */
+	private void requeue(final AlertRequest request, final List<String> failed) throws Exception
+	{
+		var tries = request.tries() + 1;
+		if ((null == queue) || (MAX_TRIES < tries))
+		{
+			log.warn("ABANDONED ({}): {}", tries, failed);
+			return;
+		}
+
+		queue.sendMessage(mapper.writeValueAsString(new AlertRequest(failed, tries)));
+		log.info("REQUEUED ({}): {}", tries, failed);
+	}
+
+	/** Represents a user's state before the check along with the time of the check. Sends the alert and reverts the check
+	 *  once the task's session has been closed.
+	 */
+	private static class Check
+	{
+		public final String id;
+		public final String phone;
+		public final Integer alertedOf;	// Before the check.
+		public final Date alertedAt;	// Before the check. Can be NULL.
+		public final Date lastAlertedAt;	// Start of the new facility search. The time of the last authentication if never checked.
+		public final int count;	// Number of new facilities found by the check.
+		public final Date checkedAt;
+
+		public Check(final People o, final int count, final Date checkedAt)
+		{
+			this.id = o.getId();
+			this.phone = o.getPhone();
+			this.alertedOf = o.getAlertedOf();
+			this.alertedAt = o.getAlertedAt();
+			this.lastAlertedAt = o.alertedAt();
+			this.count = count;
+			this.checkedAt = checkedAt;
+		}
+
+		@Override
+		public String toString() { return ObjectUtils.toString(this); }
+	}
 }
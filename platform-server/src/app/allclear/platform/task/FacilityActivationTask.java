@@ -0,0 +1,95 @@
+package app.allclear.platform.task;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.function.Consumer;
+
+import org.hibernate.*;
+import org.slf4j.*;
+
+import com.azure.storage.queue.QueueClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.errors.AbortException;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.task.AbstractHibernateTask;
+import app.allclear.common.time.StopWatch;
+import app.allclear.platform.dao.PeopleDAO;
+import app.allclear.platform.entity.FacilityActivation;
+import app.allclear.platform.model.AlertRequest;
+import app.allclear.platform.model.FacilityActivationRequest;
+
+/** Task callback that pushes Facility Alerts when a facility is activated. Finds the alertable people within the alert radius of the facility
+ *  with the spatial index on their home coordinates and enqueues AlertRequests only for them. Regions without new facilities cost nothing.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityActivationTask extends AbstractHibernateTask<FacilityActivationRequest>
+{
+	private static final Logger log = LoggerFactory.getLogger(FacilityActivationTask.class);
+
+	private final PeopleDAO dao;
+	private final int batchSize;	// Maximum number of users per AlertRequest.
+	private final ObjectMapper mapper = JacksonUtils.createMapperAzure();
+	private QueueClient queue = null;	// Alert queue.
+
+	@Override public boolean readOnly() { return true; }
+	@Override public boolean transactional() { return false; }
+
+	public FacilityActivationTask withQueue(final QueueClient newValue) { queue = newValue; return this; }
+
+	FacilityActivationTask(final SessionFactory factory, final PeopleDAO dao, final int batchSize)	// For tests
+	{
+		this(new DualSessionFactory(factory), dao, batchSize);
+	}
+
+	public FacilityActivationTask(final DualSessionFactory factory, final PeopleDAO dao, final int batchSize)
+	{
+		super(factory);
+
+		this.dao = dao;
+		this.batchSize = batchSize;
+
+		log.info("INITIALIZED");
+	}
+
+	@Override
+	public boolean process(final FacilityActivationRequest request, final Session s) throws Exception
+	{
+		if ((null == request.latitude) || (null == request.longitude)) throw new AbortException("The request is missing the facility coordinates.");
+
+		var timer = new StopWatch();
+		var ids = dao.getActiveAlertablePointsByDistance(request.latitude, request.longitude, AlertTask.METERS)
+			.stream()
+			.filter(o -> null != o.alertedAt)	// Never checked or authenticated so the AlertTask has no date to search from.
+			.map(o -> o.id)
+			.collect(toList());
+
+		for (int i = 0; i < ids.size(); i+= batchSize)
+			queue.sendMessage(mapper.writeValueAsString(AlertRequest.of(ids.subList(i, Math.min(i + batchSize, ids.size())))));
+
+		log.info("PROCESSED ({}): {} people in {}", request.facilityId, ids.size(), timer.total());
+
+		return true;
+	}
+
+	/** Creates the FacilityDAO activation listener that enqueues a request on the supplied queue. The listener runs after the activating
+	 *  transaction has committed so a failure is only logged - the next Alert-Init run still covers the facility.
+	 *
+	 * @param queue
+	 * @return never NULL
+	 */
+	public static Consumer<FacilityActivation> enqueue(final QueueClient queue)
+	{
+		var mapper = JacksonUtils.createMapperAzure();
+		return o -> {
+			try { queue.sendMessage(mapper.writeValueAsString(new FacilityActivationRequest(o.id, o.latitude, o.longitude, o.activatedAt))); }
+			catch (final Exception ex) { log.warn("ENQUEUE_FAILED ({}): {}", o.id, ex.getMessage()); }
+		};
+	}
+}
@@ -0,0 +1,135 @@
+package app.allclear.platform.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.Session;
+import org.slf4j.*;
+
+import app.allclear.common.hibernate.AbstractHibernateRunner;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.time.StopWatch;
+import app.allclear.platform.dao.FacilityDAO;
+import app.allclear.platform.model.FacilityImportResponse;
+import app.allclear.platform.value.FacilityValue;
+
+/** Task that imports a large facility feed. The feed is split into batches that are each imported in their own transaction
+ *  so that a single feed does not hold locks or undo space for thousands of rows at once.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityImportTask extends AbstractHibernateRunner<FacilityImportTask.Request, List<FacilityImportResponse>>
+{
+	private static final Logger log = LoggerFactory.getLogger(FacilityImportTask.class);
+
+	public static final int BATCH_SIZE = 500;
+
+	/** Represents a single batch of the feed. */
+	public static class Request
+	{
+		public final List<FacilityValue> values;
+		public final boolean admin;
+		private List<FacilityImportResponse> results = null;
+		private boolean committed = false;	// Set once the batch commits even if a later after-commit action fails.
+
+		public Request(final List<FacilityValue> values, final boolean admin)
+		{
+			this.values = values;
+			this.admin = admin;
+		}
+	}
+
+	private final FacilityDAO dao;
+	private final int batchSize;
+
+	public FacilityImportTask(final DualSessionFactory factory, final FacilityDAO dao)
+	{
+		this(factory, dao, BATCH_SIZE);
+	}
+
+	public FacilityImportTask(final DualSessionFactory factory, final FacilityDAO dao, final int batchSize)
+	{
+		super(factory);
+
+		this.dao = dao;
+		this.batchSize = batchSize;
+	}
+
+	/** Imports the whole feed one batch at a time. A failed batch does not roll back the batches already committed.
+	 *  A batch that fails to commit, usually because another writer added one of its names after the existing facilities were fetched,
+	 *  is retried once - the retry updates the facility instead. If it fails again, its rows are reported as errors and the remaining
+	 *  batches are still imported so that the response always accounts for every row. A batch that fails after it has committed is
+	 *  not retried so that its rows are neither imported nor audited twice.
+	 *
+	 * @param values
+	 * @param admin can the caller activate facilities?
+	 * @return one response per supplied row in the same order.
+	 */
+	public List<FacilityImportResponse> process(final List<FacilityValue> values, final boolean admin)
+	{
+		var timer = new StopWatch();
+		var results = new ArrayList<FacilityImportResponse>(values.size());
+		for (int i = 0; i < values.size(); i+= batchSize)
+		{
+			var offset = i;
+			var batch = values.subList(i, Math.min(i + batchSize, values.size()));
+			process(batch, admin, offset).forEach(o -> results.add(o.offset(offset)));
+			log.info("IMPORTED: {} of {} in {}", results.size(), values.size(), timer.split());
+		}
+
+		log.info("ERRORS: {} of {} in {}", results.stream().filter(o -> o.error()).count(), values.size(), timer.total());
+
+		return results;
+	}
+
+	/** Helper method - imports a single batch in its own transaction and retries it once if it fails to commit.
+	 *
+	 * @param values
+	 * @param admin
+	 * @param offset position of the batch in the feed - used for logging.
+	 * @return one response per supplied row with positions relative to the batch.
+	 */
+	private List<FacilityImportResponse> process(final List<FacilityValue> values, final boolean admin, final int offset)
+	{
+		var request = new Request(values, admin);
+		try { return run(request); }
+		catch (final Exception ex)
+		{
+			if (request.committed)
+			{
+				log.error("BATCH_COMMITTED: rows " + offset + " to " + (offset + values.size() - 1) + " - " + ex.getMessage(), ex);
+				return request.results;
+			}
+
+			log.warn("BATCH_RETRY: rows {} to {} - {}", offset, offset + values.size() - 1, ex.getMessage());
+		}
+
+		try { return run(new Request(values, admin)); }
+		catch (final Exception ex)
+		{
+			log.error("BATCH_FAILED: rows " + offset + " to " + (offset + values.size() - 1) + " - " + ex.getMessage(), ex);
+
+			var message = "The row's batch failed to import and was rolled back: " + ex.getMessage();
+			var results = new ArrayList<FacilityImportResponse>(values.size());
+			for (int i = 0; i < values.size(); i++)
+			{
+				var o = values.get(i);
+				results.add(new FacilityImportResponse(i, null, (null != o) ? o.name : null, FacilityImportResponse.ERROR, message));
+			}
+
+			return results;
+		}
+	}
+
+	@Override
+	public List<FacilityImportResponse> run(final Request request, final Session session) throws Exception
+	{
+		dao.afterTrans(() -> request.committed = true);	// Registered first so that it runs before the import's own after-commit actions.
+
+		return request.results = dao.importAll(request.values, request.admin);
+	}
+}
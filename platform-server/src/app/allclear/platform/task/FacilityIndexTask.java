@@ -0,0 +1,57 @@
+package app.allclear.platform.task;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.*;
+
+import app.allclear.common.hibernate.AbstractHibernateRunner;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.time.StopWatch;
+import app.allclear.platform.dao.FacilityDAO;
+
+/** Background task that rebuilds the in-process facility indices from the read replica.
+ *  Run once on startup and then periodically so that each node picks up the facility changes made by the other nodes.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityIndexTask extends AbstractHibernateRunner<Void, Integer> implements Runnable
+{
+	private static final Logger log = LoggerFactory.getLogger(FacilityIndexTask.class);
+
+	private final FacilityDAO dao;
+
+	@Override public boolean readOnly() { return true; }
+	@Override public boolean transactional() { return false; }
+	@Override public CacheMode cacheMode() { return CacheMode.IGNORE; }
+
+	public FacilityIndexTask(final DualSessionFactory factory, final FacilityDAO dao)
+	{
+		super(factory);
+
+		this.dao = dao;
+	}
+
+	@Override
+	public Integer run(final Void request, final Session session) throws Exception
+	{
+		return dao.loadIndices();
+	}
+
+	@Override
+	public void run()
+	{
+		var timer = new StopWatch();
+		try
+		{
+			log.info("LOADED: {} facilities in {}", run((Void) null), timer.total());
+		}
+		catch (final Exception ex)
+		{
+			log.error("LOAD_FAILED: " + ex.getMessage(), ex);	// Keep the existing index. Will retry on the next run.
+		}
+	}
+}
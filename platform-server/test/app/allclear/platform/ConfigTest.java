@@ -77,6 +77,7 @@ public class ConfigTest
 		Assertions.assertFalse(o.geocode.test, "Check geocode.test");
 		Assertions.assertEquals(60, o.task, "Check task");
 		Assertions.assertEquals(60000L, o.task(), "Check task()");
+		Assertions.assertEquals(Config.ALERT_CONCURRENCY, o.alertConcurrency, "Check alertConcurrency");
 		assertThat(o.queue).as("Check queue").startsWith("DefaultEndpointsProtocol=https;AccountName=allcleardevqueues;AccountKey=").endsWith(";EndpointSuffix=core.windows.net");
 		Assertions.assertNotNull(o.session, "Check session");
 		Assertions.assertEquals("allclear-dev.redis.cache.windows.net", o.session.host, "Check session.host");
@@ -154,6 +155,7 @@ public class ConfigTest
 		Assertions.assertFalse(o.geocode.test, "Check geocode.test");
 		Assertions.assertEquals(0, o.task, "Check task");
 		Assertions.assertEquals(0L, o.task(), "Check task()");
+		Assertions.assertEquals(Config.ALERT_CONCURRENCY, o.alertConcurrency, "Check alertConcurrency");
 		assertThat(o.queue).as("Check queue").startsWith("DefaultEndpointsProtocol=https;AccountName=allcleardevqueues;AccountKey=").endsWith(";EndpointSuffix=core.windows.net");
 		Assertions.assertNotNull(o.session, "Check session");
 		Assertions.assertEquals("localhost", o.session.host, "Check session.host");
@@ -231,6 +233,7 @@ public class ConfigTest
 		Assertions.assertFalse(o.geocode.test, "Check geocode.test");
 		Assertions.assertEquals(60, o.task, "Check task");
 		Assertions.assertEquals(60000L, o.task(), "Check task()");
+		Assertions.assertEquals(Config.ALERT_CONCURRENCY, o.alertConcurrency, "Check alertConcurrency");
 		assertThat(o.queue).as("Check queue").startsWith("DefaultEndpointsProtocol=https;AccountName=allclearprodqueues;AccountKey=").endsWith(";EndpointSuffix=core.windows.net");
 		Assertions.assertNotNull(o.session, "Check session");
 		Assertions.assertEquals("allclear-prod.redis.cache.windows.net", o.session.host, "Check session.host");
@@ -308,6 +311,7 @@ public class ConfigTest
 		Assertions.assertFalse(o.geocode.test, "Check geocode.test");
 		Assertions.assertEquals(60, o.task, "Check task");
 		Assertions.assertEquals(60000L, o.task(), "Check task()");
+		Assertions.assertEquals(Config.ALERT_CONCURRENCY, o.alertConcurrency, "Check alertConcurrency");
 		assertThat(o.queue).as("Check queue").startsWith("DefaultEndpointsProtocol=https;AccountName=allclearstagingqueues;AccountKey=").endsWith(";EndpointSuffix=core.windows.net");
 		Assertions.assertNotNull(o.session, "Check session");
 		Assertions.assertEquals("allclear-staging2.redis.cache.windows.net", o.session.host, "Check session.host");
@@ -385,6 +389,7 @@ public class ConfigTest
 		Assertions.assertTrue(o.geocode.test, "Check geocode.test");
 		Assertions.assertEquals(0, o.task, "Check task");
 		Assertions.assertEquals(0L, o.task(), "Check task()");
+		Assertions.assertEquals(Config.ALERT_CONCURRENCY, o.alertConcurrency, "Check alertConcurrency");
 		assertThat(o.queue).as("Check queue").startsWith("DefaultEndpointsProtocol=https;AccountName=allcleardevqueues;AccountKey=").endsWith(";EndpointSuffix=core.windows.net");
 		Assertions.assertNotNull(o.session, "Check session");
 		Assertions.assertNull(o.session.host, "Check session.host");
@@ -0,0 +1,72 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import app.allclear.platform.entity.FacilityActivation;
+
+/** Unit test class that verifies the in-memory grid of recently activated facilities.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class FacilityActivationGridTest
+{
+	private static final long HOUR = 60L * 60L * 1000L;
+	private static final Date NOW = new Date();
+	private static final Date HOUR_AGO = new Date(NOW.getTime() - HOUR);
+	private static final Date TWO_HOURS_AGO = new Date(NOW.getTime() - (2L * HOUR));
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+
+	private static final FacilityActivationGrid grid = new FacilityActivationGrid(List.of(
+		new FacilityActivation(1L, bg("36.1627"), bg("-86.7816"), NOW),	// Nashville
+		new FacilityActivation(2L, bg("36.1627"), bg("-86.7816"), TWO_HOURS_AGO),
+		new FacilityActivation(3L, bg("35.1495"), bg("-90.0490"), HOUR_AGO)));	// Memphis
+
+	public static Stream<Arguments> count()
+	{
+		return Stream.of(
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, TWO_HOURS_AGO, 2),
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, HOUR_AGO, 1),
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, NOW, 1),	// Inclusive
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, new Date(NOW.getTime() + 1L), 0),
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, null, 0),	// Never checked.
+			arguments(bg("36.1627"), bg("-86.7816"), 350000L, TWO_HOURS_AGO, 3),	// Reaches Memphis.
+			arguments(bg("35.1495"), bg("-90.0490"), 1000L, HOUR_AGO, 1),
+			arguments(bg("35.1495"), bg("-90.0490"), 1000L, NOW, 0),
+			arguments(bg("40.7128"), bg("-74.0060"), 160900L, TWO_HOURS_AGO, 0),	// New York
+			arguments(null, null, 160900L, TWO_HOURS_AGO, 0));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void count(final BigDecimal latitude, final BigDecimal longitude, final long meters, final Date activatedAtFrom, final int expected)
+	{
+		assertThat(grid.count(latitude, longitude, meters, activatedAtFrom)).as("Check count").isEqualTo(expected);
+	}
+
+	@Test
+	public void size()
+	{
+		assertThat(grid.size()).as("Check size").isEqualTo(3);
+		assertThat(grid.isEmpty()).as("Check isEmpty").isFalse();
+
+		var o = new FacilityActivationGrid(List.of());
+		assertThat(o.isEmpty()).as("Check empty").isTrue();
+		assertThat(o.count(bg("36.1627"), bg("-86.7816"), 1000L, TWO_HOURS_AGO)).as("Check empty count").isZero();
+	}
+}
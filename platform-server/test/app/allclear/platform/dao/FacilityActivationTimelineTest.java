@@ -0,0 +1,170 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Unit test class that verifies the in-process timeline of facility activations.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class FacilityActivationTimelineTest
+{
+	private static final long HOUR = 60L * 60L * 1000L;
+	private static final Date NOW = new Date();
+	private static final Date HOUR_AGO = new Date(NOW.getTime() - HOUR);
+	private static final Date TWO_HOURS_AGO = new Date(NOW.getTime() - (2L * HOUR));
+
+	private static final FacilityActivationTimeline timeline = new FacilityActivationTimeline();
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+
+	@Test
+	public void add()
+	{
+		assertThat(timeline.loaded()).as("Check loaded").isFalse();
+		assertThat(timeline.load(List.of(
+			new FacilityActivationTimeline.Entry(1L, 36.1627d, -86.7816d, NOW.getTime()),	// Nashville
+			new FacilityActivationTimeline.Entry(2L, 36.1627d, -86.7816d, TWO_HOURS_AGO.getTime()),
+			new FacilityActivationTimeline.Entry(3L, 35.1495d, -90.0490d, HOUR_AGO.getTime())))).as("Check load").isEqualTo(3);	// Memphis
+		assertThat(timeline.loaded()).as("Check loaded").isTrue();
+	}
+
+	public static Stream<Arguments> add_count()
+	{
+		return Stream.of(
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, TWO_HOURS_AGO, 2),
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, HOUR_AGO, 1),
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, NOW, 1),	// Inclusive
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, new Date(NOW.getTime() + 1L), 0),
+			arguments(bg("36.1627"), bg("-86.7816"), 1000L, null, 0),	// Never checked.
+			arguments(bg("36.1627"), bg("-86.7816"), 350000L, TWO_HOURS_AGO, 3),	// Reaches Memphis.
+			arguments(bg("36.1627"), bg("-86.7816"), 350000L, HOUR_AGO, 2),
+			arguments(bg("35.1495"), bg("-90.0490"), 1000L, HOUR_AGO, 1),
+			arguments(bg("35.1495"), bg("-90.0490"), 1000L, NOW, 0),
+			arguments(bg("40.7128"), bg("-74.0060"), 160900L, TWO_HOURS_AGO, 0),	// New York
+			arguments(null, null, 160900L, TWO_HOURS_AGO, 0));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void add_count(final BigDecimal latitude, final BigDecimal longitude, final long meters, final Date activatedAtFrom, final int expected)
+	{
+		assertThat(timeline.count(latitude, longitude, meters, activatedAtFrom)).as("Check count").isEqualTo(expected);
+	}
+
+	@Test
+	public void modify()
+	{
+		timeline.put(4L, bg("36.1744"), bg("-86.7679"), HOUR_AGO);	// East Nashville
+		timeline.put(null, bg("36.1744"), bg("-86.7679"), HOUR_AGO);
+		timeline.put(5L, null, bg("-86.7679"), HOUR_AGO);
+		timeline.put(6L, bg("36.1744"), bg("-86.7679"), null);	// Not activated.
+
+		assertThat(timeline.size()).as("Check size").isEqualTo(4);
+		assertThat(timeline.contains(4L)).as("Check contains").isTrue();
+		assertThat(timeline.contains(6L)).as("Check contains: not activated").isFalse();
+		assertThat(timeline.count(bg("36.1627"), bg("-86.7816"), 5000L, HOUR_AGO)).as("Check count").isEqualTo(2);
+	}
+
+	@Test
+	public void modify_move()
+	{
+		timeline.put(2L, bg("35.1495"), bg("-90.0490"), NOW);	// Moved to Memphis and re-dated.
+
+		assertThat(timeline.size()).as("Check size").isEqualTo(4);
+		assertThat(timeline.count(bg("36.1627"), bg("-86.7816"), 5000L, TWO_HOURS_AGO)).as("Check count: Nashville").isEqualTo(2);
+		assertThat(timeline.count(bg("35.1495"), bg("-90.0490"), 1000L, NOW)).as("Check count: Memphis").isEqualTo(1);
+	}
+
+	@Test
+	public void modify_remove()
+	{
+		assertThat(timeline.remove(3L)).as("Check remove").isTrue();
+		assertThat(timeline.remove(3L)).as("Check remove again").isFalse();
+		timeline.put(4L, bg("36.1744"), bg("-86.7679"), null);	// Deactivated.
+
+		assertThat(timeline.size()).as("Check size").isEqualTo(2);
+		assertThat(timeline.count(bg("35.1495"), bg("-90.0490"), 1000L, TWO_HOURS_AGO)).as("Check count: Memphis").isEqualTo(1);
+		assertThat(timeline.count(bg("36.1627"), bg("-86.7816"), 5000L, TWO_HOURS_AGO)).as("Check count: Nashville").isEqualTo(1);
+	}
+
+	/** Compares the counts against measuring every facility so that the whole cell counts are verified. */
+	@Test
+	public void testCount_random()
+	{
+		var random = new Random(20201017L);
+		var values = new ArrayList<FacilityActivationTimeline.Entry>();
+		for (long i = 0L; i < 5000L; i++)
+			values.add(new FacilityActivationTimeline.Entry(i, 35d + (random.nextDouble() * 4d), -90d + (random.nextDouble() * 4d), NOW.getTime() - (long) (random.nextDouble() * 10d * HOUR)));
+
+		var o = new FacilityActivationTimeline();
+		o.load(values);
+
+		for (int i = 0; i < 100; i++)
+		{
+			var lat = 35d + (random.nextDouble() * 4d);
+			var lon = -90d + (random.nextDouble() * 4d);
+			var meters = 10000L + (long) (random.nextDouble() * 200000d);
+			var from = NOW.getTime() - (long) (random.nextDouble() * 10d * HOUR);
+
+			var expected = values.stream().filter(v -> (v.activatedAt >= from) && (FacilityGeoIndex.distance(lat, lon, v.latitude, v.longitude) <= meters)).count();
+			assertThat(o.count(BigDecimal.valueOf(lat), BigDecimal.valueOf(lon), meters, new Date(from))).as("Check count: " + i).isEqualTo((int) expected);
+		}
+	}
+
+	/** Compares the counts among the nearest facilities against ranking every facility within the radius. */
+	@Test
+	public void testCount_nearest()
+	{
+		var random = new Random(20201018L);
+		var values = new ArrayList<FacilityActivationTimeline.Entry>();
+		for (long i = 0L; i < 2000L; i++)
+			values.add(new FacilityActivationTimeline.Entry(i, 35d + (random.nextDouble() * 4d), -90d + (random.nextDouble() * 4d), NOW.getTime() - (long) (random.nextDouble() * 10d * HOUR)));
+
+		var o = new FacilityActivationTimeline();
+		o.load(values);
+
+		for (int i = 0; i < 100; i++)
+		{
+			var lat = 35d + (random.nextDouble() * 4d);
+			var lon = -90d + (random.nextDouble() * 4d);
+			var meters = 10000L + (long) (random.nextDouble() * 200000d);
+			var from = NOW.getTime() - (long) (random.nextDouble() * 10d * HOUR);
+
+			var expected = values.stream()
+				.map(v -> new FacilityGeoIndex.Hit(v.id, Math.round(FacilityGeoIndex.distance(lat, lon, v.latitude, v.longitude))))
+				.filter(v -> v.meters <= meters)
+				.sorted()
+				.limit(20L)
+				.filter(v -> values.get((int) v.id).activatedAt >= from)
+				.count();
+			assertThat(o.count(BigDecimal.valueOf(lat), BigDecimal.valueOf(lon), meters, new Date(from), 20)).as("Check count: " + i).isEqualTo((int) expected);
+		}
+
+		assertThat(timeline.count(bg("36.1627"), bg("-86.7816"), 5000L, TWO_HOURS_AGO, 0)).as("Check count: none nearest").isEqualTo(0);
+	}
+
+	@Test
+	public void testWithin()
+	{
+		var cell = FacilityGeoIndex.cell(FacilityGeoIndex.row(36.1d), FacilityGeoIndex.column(-86.9d));	// 36.0 to 36.25, -87.0 to -86.75
+
+		assertThat(FacilityActivationTimeline.within(cell, 36.125d, -86.875d, 20000L)).as("Check inside").isTrue();
+		assertThat(FacilityActivationTimeline.within(cell, 36.125d, -86.875d, 15000L)).as("Check overlaps").isFalse();
+		assertThat(FacilityActivationTimeline.within(cell, 40.7128d, -74.0060d, 160900L)).as("Check outside").isFalse();
+	}
+}
@@ -0,0 +1,134 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import app.allclear.platform.filter.FacilityFilter;
+
+/** Unit test class that verifies the in-process bitmap index of the active facility attributes.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class FacilityAttributeIndexTest
+{
+	private static final FacilityAttributeIndex index = new FacilityAttributeIndex();
+
+	private static FacilityAttributeIndex.Entry entry(final long id, final String typeId, final boolean driveThru, final Boolean appointmentRequired,
+		final String testCriteriaId, final boolean freeOrLowCost, final String... testTypes)
+	{
+		return new FacilityAttributeIndex.Entry(id, typeId, driveThru, appointmentRequired, null, false, testCriteriaId,
+			false, false, false, false, freeOrLowCost, false, List.of(testTypes));
+	}
+
+	@Test
+	public void add()
+	{
+		assertThat(index.loaded()).as("Check loaded").isFalse();
+		assertThat(index.load(List.of(
+			entry(1L, "ur", true, true, "cd", true, "np", "ns"),
+			entry(2L, "ur", false, false, "cd", false, "ns"),
+			entry(3L, "hd", true, null, "ot", true),
+			entry(4L, "hd", false, true, null, true, "np"),
+			entry(5L, null, true, false, "cd", false, "np", "sa")))).as("Check load").isEqualTo(5);
+		assertThat(index.loaded()).as("Check loaded").isTrue();
+		assertThat(index.size()).as("Check size").isEqualTo(5);
+	}
+
+	public static Stream<Arguments> add_search()
+	{
+		return Stream.of(
+			arguments(new FacilityFilter(), List.of(1L, 2L, 3L, 4L, 5L)),
+			arguments(new FacilityFilter().withDriveThru(true), List.of(1L, 3L, 5L)),
+			arguments(new FacilityFilter().withDriveThru(false), List.of(2L, 4L)),
+			arguments(new FacilityFilter().withDriveThru(true).withFreeOrLowCost(true), List.of(1L, 3L)),
+			arguments(new FacilityFilter().withTypeId("ur"), List.of(1L, 2L)),
+			arguments(new FacilityFilter().withTypeId("UR"), List.of(1L, 2L)),	// Case insensitive.
+			arguments(new FacilityFilter().withTypeId("xx"), List.of()),
+			arguments(new FacilityFilter().withAppointmentRequired(true), List.of(1L, 4L)),
+			arguments(new FacilityFilter().withAppointmentRequired(false), List.of(2L, 5L)),	// NULL is neither.
+			arguments(new FacilityFilter().withTestCriteriaId("cd"), List.of(1L, 2L, 5L)),
+			arguments(new FacilityFilter().withNotTestCriteriaId("cd"), List.of(3L, 4L)),	// Includes the NULL test criteria.
+			arguments(new FacilityFilter().withIncludeTestTypes(List.of("np")), List.of(1L, 4L, 5L)),
+			arguments(new FacilityFilter().withIncludeTestTypes(List.of("np", "ns")), List.of(1L, 2L, 4L, 5L)),	// Any of the test types.
+			arguments(new FacilityFilter().withIncludeTestTypes(List.of("xx")), List.of()),
+			arguments(new FacilityFilter().withExcludeTestTypes(List.of("np")), List.of(2L, 3L)),
+			arguments(new FacilityFilter().withExcludeTestTypes(List.of("np", "ns")), List.of(3L)),	// None of the test types.
+			arguments(new FacilityFilter().withIncludeTestTypes(List.of("np")).withExcludeTestTypes(List.of("sa")).withDriveThru(true), List.of(1L)));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void add_search(final FacilityFilter filter, final List<Long> expected)
+	{
+		assertThat(FacilityAttributeIndex.ids(index.search(filter))).as("Check search").isEqualTo(expected);
+	}
+
+	@Test
+	public void add_supports()
+	{
+		assertThat(FacilityAttributeIndex.supports(new FacilityFilter())).as("Check empty").isFalse();
+		assertThat(FacilityAttributeIndex.supports(new FacilityFilter().withName("clinic"))).as("Check name").isFalse();
+		assertThat(FacilityAttributeIndex.supports(new FacilityFilter().withIncludeTestTypes(List.of()))).as("Check empty test types").isFalse();
+		assertThat(FacilityAttributeIndex.supports(new FacilityFilter().withCanDonatePlasma(false))).as("Check canDonatePlasma").isTrue();
+		assertThat(FacilityAttributeIndex.supports(new FacilityFilter().withNotTestCriteriaId("cd"))).as("Check notTestCriteriaId").isTrue();
+		assertThat(FacilityAttributeIndex.supports(new FacilityFilter().withExcludeTestTypes(List.of("np")))).as("Check excludeTestTypes").isTrue();
+	}
+
+	@Test
+	public void modify()
+	{
+		index.put(entry(2L, "hd", true, false, "cd", true, "np"));	// Changed.
+		index.put(entry(6L, "ur", true, null, null, false));	// Activated.
+
+		assertThat(index.size()).as("Check size").isEqualTo(6);
+		assertThat(FacilityAttributeIndex.ids(index.search(new FacilityFilter().withTypeId("ur")))).as("Check typeId").isEqualTo(List.of(1L, 6L));
+		assertThat(FacilityAttributeIndex.ids(index.search(new FacilityFilter().withDriveThru(true)))).as("Check driveThru").isEqualTo(List.of(1L, 2L, 3L, 5L, 6L));
+		assertThat(FacilityAttributeIndex.ids(index.search(new FacilityFilter().withIncludeTestTypes(List.of("ns"))))).as("Check includeTestTypes").isEqualTo(List.of(1L));
+	}
+
+	@Test
+	public void modify_remove()
+	{
+		assertThat(index.remove(1L)).as("Check remove").isTrue();
+		assertThat(index.remove(1L)).as("Check remove again").isFalse();
+		assertThat(index.contains(1L)).as("Check contains").isFalse();
+
+		assertThat(FacilityAttributeIndex.ids(index.search(new FacilityFilter()))).as("Check all").isEqualTo(List.of(2L, 3L, 4L, 5L, 6L));
+		assertThat(FacilityAttributeIndex.ids(index.search(new FacilityFilter().withIncludeTestTypes(List.of("ns"))))).as("Check emptied").isEmpty();
+	}
+
+	@Test
+	public void modify_remove_overflow()
+	{
+		index.put(entry(Integer.MAX_VALUE + 1L, "ur", true, null, null, false));
+		assertThat(index.loaded()).as("Check loaded").isFalse();	// Falls back to SQL.
+
+		index.load(List.of(entry(7L, "ur", true, null, null, false)));
+		assertThat(index.loaded()).as("Check reloaded").isTrue();
+		assertThat(index.size()).as("Check size").isEqualTo(1);
+	}
+
+	@Test
+	public void testBitmap()
+	{
+		var o = FacilityAttributeIndex.bitmap(Set.of(3L, 1L, Integer.MAX_VALUE + 1L));
+		assertThat(o.cardinality()).as("Check cardinality").isEqualTo(2);
+		assertThat(FacilityAttributeIndex.ids(o)).as("Check ids").isEqualTo(List.of(1L, 3L));
+		assertThat(FacilityAttributeIndex.ids(new BitSet())).as("Check empty").isEmpty();
+	}
+}
@@ -0,0 +1,191 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import app.allclear.junit.hibernate.*;
+import app.allclear.platform.App;
+import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.filter.GeoFilter;
+import app.allclear.platform.value.FacilityValue;
+
+/** Functional test class that verifies the index backed facility searches of the FacilityDAO when the indices of one node
+ *  are behind the writes made by another node.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class FacilityDAOIndexTest
+{
+	public static final HibernateRule DAO_RULE = new HibernateRule(App.ENTITIES);
+	public final HibernateTransactionRule transRule = new HibernateTransactionRule(DAO_RULE);
+
+	private static FacilityDAO local = null;	// Node that makes the writes - its indices are kept current.
+	private static FacilityDAO remote = null;	// Node whose indices are only loaded once.
+	private static FacilityValue ALPHA = null;
+	private static FacilityValue BETA = null;
+	private static FacilityValue DELTA = null;
+	private static FacilityValue GAMMA = null;
+	private static final BigDecimal LATITUDE = bg("36.16");
+	private static final BigDecimal LONGITUDE = bg("-86.78");
+	private static final int MILES = 5;
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+
+	@BeforeAll
+	public static void up()
+	{
+		var factory = DAO_RULE.getSessionFactory();
+		local = new FacilityDAO(factory, new TestAuditor(), new FacilityGeoIndex(), new FacilityNameIndex(), null, null, new FacilityAttributeIndex()).withIndexLag(0L);
+		remote = new FacilityDAO(factory, new TestAuditor(), new FacilityGeoIndex(), new FacilityNameIndex(), null, null, new FacilityAttributeIndex()).withIndexLag(0L);
+	}
+
+	@Test
+	public void add()
+	{
+		ALPHA = local.add(create("Alpha Clinic", "36.16", "-86.78"), true);
+		BETA = local.add(create("Beta Clinic", "36.17", "-86.77"), true);
+		GAMMA = local.add(create("Gamma Clinic", "35.15", "-90.05"), true);	// Outside of the radius.
+	}
+
+	@Test
+	public void add_load()
+	{
+		assertThat(local.loadIndices()).as("Check local").isEqualTo(3);
+		assertThat(remote.loadIndices()).as("Check remote").isEqualTo(3);
+	}
+
+	@Test
+	public void check()
+	{
+		check(local, ALPHA, BETA);
+		check(remote, ALPHA, BETA);
+	}
+
+	@Test
+	public void modify()
+	{
+		DELTA = local.add(create("Delta Clinic", "36.165", "-86.775"), true);	// Only added to the local indices.
+	}
+
+	@Test
+	public void modify_check()
+	{
+		check(local, ALPHA, DELTA, BETA);
+		check(remote, ALPHA, DELTA, BETA);
+	}
+
+	@Test
+	public void modify_deactivate()
+	{
+		local.update(ALPHA.withActive(false), true);	// Still in the remote indices.
+	}
+
+	@Test
+	public void modify_deactivate_check()
+	{
+		check(local, DELTA, BETA);
+		check(remote, DELTA, BETA);
+	}
+
+	@Test
+	public void modify_drive()
+	{
+		local.update(BETA.withDriveThru(true), true);	// Still not drive-thru in the remote attribute index.
+	}
+
+	@Test
+	public void modify_drive_check()
+	{
+		for (var dao : List.of(local, remote))
+		{
+			assertThat(ids(dao.search(new FacilityFilter().withActive(true).withDriveThru(true)).records)).as("Check search: drive-thru").containsOnly(BETA.id);
+			assertThat(ids(dao.search(new FacilityFilter().withActive(true).withDriveThru(false)).records)).as("Check search: not drive-thru").containsOnly(DELTA.id, GAMMA.id);
+			assertThat(dao.count(new FacilityFilter().withActive(true).withDriveThru(false))).as("Check count: not drive-thru").isEqualTo(2L);
+		}
+
+		check(local, DELTA, BETA);
+		check(remote, DELTA, BETA);
+	}
+
+	@Test
+	public void modify_move()
+	{
+		local.update(BETA.withLatitude(bg("40.5")), true);	// Still in the remote spatial index at the old location.
+	}
+
+	@Test
+	public void modify_move_check()
+	{
+		check(local, DELTA);
+		check(remote, DELTA);
+
+		assertThat(ids(remote.getActiveByName("Clinic"))).as("Check getActiveByName: moved").containsExactly(BETA.id, DELTA.id, GAMMA.id);
+	}
+
+	@Test
+	public void remove()
+	{
+		assertThat(local.remove(DELTA.id)).as("Check remove").isTrue();
+	}
+
+	@Test
+	public void remove_check()
+	{
+		check(local);
+		check(remote);
+	}
+
+	@Test
+	public void remove_reload()
+	{
+		assertThat(remote.loadIndices()).as("Check remote").isEqualTo(2);
+	}
+
+	@Test
+	public void remove_reload_check()
+	{
+		check(local);
+		check(remote);
+
+		assertThat(ids(remote.getActiveByName("Clinic"))).as("Check getActiveByName: reloaded").containsExactly(BETA.id, GAMMA.id);
+	}
+
+	/** Helper method - verifies the radius and name searches of a node against the expected facilities within the radius in distance order. */
+	private void check(final FacilityDAO dao, final FacilityValue... expected)
+	{
+		var ids = List.of(expected).stream().map(o -> o.id).collect(toList());
+		var filter = new FacilityFilter().withActive(true).withFrom(new GeoFilter(LATITUDE, LONGITUDE, MILES));
+
+		assertThat(ids(dao.search(filter).records)).as("Check search").isEqualTo(ids);
+		assertThat(dao.count(new FacilityFilter().withActive(true).withFrom(new GeoFilter(LATITUDE, LONGITUDE, MILES)))).as("Check count").isEqualTo((long) ids.size());
+		assertThat(ids(dao.getActiveByNameAndDistance("Clinic", LATITUDE, LONGITUDE, filter.from.meters()))).as("Check getActiveByNameAndDistance").isEqualTo(ids);
+		for (var o : expected)
+			assertThat(ids(dao.getActiveByName(o.name))).as("Check getActiveByName: " + o.name).containsExactly(o.id);
+	}
+
+	/** Helper method - extracts the identifiers. */
+	private List<Long> ids(final List<FacilityValue> values)
+	{
+		return (null != values) ? values.stream().map(o -> o.id).collect(toList()) : List.of();
+	}
+
+	/** Helper method - creates an active facility at the specified location. */
+	private FacilityValue create(final String name, final String latitude, final String longitude)
+	{
+		return FacilityDAOTest.createValid().withName(name).withLatitude(bg(latitude)).withLongitude(bg(longitude)).withActive(true);
+	}
+}
@@ -10,7 +10,9 @@ import static app.allclear.platform.type.TestCriteria.*;
 import static app.allclear.platform.type.TestType.*;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Stream;
 import javax.persistence.PersistenceException;
@@ -25,6 +27,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 
 import app.allclear.junit.hibernate.*;
+import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.ObjectNotFoundException;
 import app.allclear.common.errors.ValidationException;
 import app.allclear.common.value.CreatedValue;
@@ -33,6 +36,7 @@ import app.allclear.platform.entity.CountByName;
 import app.allclear.platform.entity.Facility;
 import app.allclear.platform.filter.FacilityFilter;
 import app.allclear.platform.filter.GeoFilter;
+import app.allclear.platform.model.FacilityImportResponse;
 import app.allclear.platform.value.FacilityValue;
 import app.allclear.platform.value.PeopleValue;
 
@@ -292,7 +296,7 @@ public class FacilityDAOTest
 	@Test
 	public void countActivatedAtByDistance()
 	{
-		assertThat(assertThrows(PersistenceException.class, () -> dao.countActivatedAtByDistance(new Date(), bg("45.5"), bg("-35.7"), 100000L, 20)))	// Function "ST_DISTANCE_SPHERE" not found
+		assertThat(assertThrows(PersistenceException.class, () -> dao.countActivatedAtByDistance(new Date(), null, bg("45.5"), bg("-35.7"), 100000L, 20)))	// Function "ST_DISTANCE_SPHERE" not found
 			.hasMessage("org.hibernate.exception.SQLGrammarException: could not prepare statement");
 	}
 
@@ -1077,6 +1081,67 @@ public class FacilityDAOTest
 		assertThat(ids).hasSize(2).containsOnly(CDC_CRITERIA.id, null);
 	}
 
+	@Test
+	public void z_01_add_others_search_count()
+	{
+		var filter = new FacilityFilter(1, 2);
+		filter.count = "none";
+		var v = dao.search(filter);
+		assertThat(v.total).as("Check total").isEqualTo(QueryResults.TOTAL_UNKNOWN);
+		assertThat(v.exact).as("Check exact").isFalse();
+		assertThat(v.pages).as("Check pages").isEqualTo(2);	// At least one more page.
+		assertThat(v.records).as("Check records").hasSize(2);
+
+		filter = new FacilityFilter(2, 2);
+		filter.count = "none";
+		v = dao.search(filter);
+		assertThat(v.total).as("Check total: last page").isEqualTo(3L);
+		assertThat(v.exact).as("Check exact: last page").isTrue();
+		assertThat(v.pages).as("Check pages: last page").isEqualTo(2);
+		assertThat(v.records).as("Check records: last page").hasSize(1);
+
+		filter = new FacilityFilter(1, 1).withNotTestCriteriaId(OTHER.id);	// Counted by z_01_add_others_search.
+		filter.count = "estimated";
+		v = dao.search(filter);
+		assertThat(v.total).as("Check total: estimated").isEqualTo(2L);
+		assertThat(v.exact).as("Check exact: estimated").isFalse();
+		assertThat(v.pages).as("Check pages: estimated").isEqualTo(2);
+		assertThat(v.records).as("Check records: estimated").hasSize(1);
+
+		filter = new FacilityFilter(2, 1).withNotTestCriteriaId(OTHER.id);
+		filter.count = "estimated";
+		v = dao.search(filter);
+		assertThat(v.total).as("Check total: estimated last page").isEqualTo(2L);
+		assertThat(v.exact).as("Check exact: estimated last page").isTrue();
+		assertThat(v.records).as("Check records: estimated last page").hasSize(1);
+
+		var invalid = new FacilityFilter(1, 2);
+		invalid.count = "approximate";
+		assertThat(assertThrows(ValidationException.class, () -> dao.search(invalid))).hasMessage("The count 'approximate' is invalid. Please use 'exact', 'estimated', or 'none'.");
+	}
+
+		@Test
+	public void z_01_add_others_search_export()
+	{
+		var values = new LinkedList<FacilityValue>();
+		assertThat(dao.export(new FacilityFilter(), values::add)).as("Check count").isEqualTo(3L);
+		assertThat(values.stream().map(v -> v.id).collect(toList())).as("Check ids").containsExactly(2L, 3L, 4L);
+		assertThat(values.get(0).testTypes).as("Check testTypes").containsExactly(ANTIBODY.created(), NASAL_SWAB.created());
+		assertThat(values.get(1).testTypes).as("Check testTypes: none").isNull();
+		assertThat(values.get(2).name).as("Check name").isEqualTo("restrictive-1");
+
+		values.clear();
+		assertThat(dao.export(new FacilityFilter().include(NASAL_SWAB), values::add)).as("Check count: include").isEqualTo(1L);
+		assertThat(values.get(0).testTypes).as("Check testTypes: include").containsExactly(ANTIBODY.created(), NASAL_SWAB.created());
+
+		values.clear();
+		assertThat(dao.export(new FacilityFilter().withName("restrictive").withTestCriteriaId(CDC_CRITERIA.id), values::add)).as("Check count: filtered").isEqualTo(1L);
+		assertThat(values.get(0).name).as("Check name: filtered").isEqualTo("restrictive-1");
+
+		assertThat(assertThrows(ValidationException.class, () -> dao.export(new FacilityFilter().withFrom(new GeoFilter(bg("45"), bg("-35"), 10)), values::add)))
+			.hasMessage("The distance search is not supported by the export. Please use the latitude and longitude ranges instead.");
+	}
+
 	public static Stream<Arguments> z_02_getDistinctCitiesByState()
 	{
 		return Stream.of(
@@ -1202,6 +1267,71 @@ public class FacilityDAOTest
 		Assertions.assertNull(v.testTypes, "Check testTypes");
 	}
 
+	@Test
+	public void z_20_importAll()
+	{
+		var results = dao.importAll(Arrays.asList(
+			createValid().withName("restrictive-0").withCity("Houston").withState("Texas").withActive(true).withTestTypes(ANTIBODY),
+			createValid().withName("imported-0").withActive(true).withTestTypes(NASAL_SWAB, ANTIBODY),
+			createValid().withName(null),
+			createValid().withName("IMPORTED-0"),
+			null,
+			createValid().withName("imported-1")), true);
+
+		assertThat(results).as("Check results").hasSize(6);
+		assertThat(results.get(0)).as("Check update").isEqualTo(new FacilityImportResponse(0, 3L, "restrictive-0", FacilityImportResponse.UPDATE));
+		assertThat(results.get(1)).as("Check add").isEqualTo(new FacilityImportResponse(1, 6L, "imported-0", FacilityImportResponse.ADD));
+		assertThat(results.get(2).error()).as("Check missing name").isTrue();
+		assertThat(results.get(3)).as("Check duplicate").isEqualTo(new FacilityImportResponse(3, null, "IMPORTED-0", FacilityImportResponse.ERROR, "The name 'IMPORTED-0' appears more than once in the import."));
+		assertThat(results.get(4)).as("Check empty").isEqualTo(new FacilityImportResponse(4, null, null, FacilityImportResponse.ERROR, "The row is empty."));
+		assertThat(results.get(5)).as("Check add inactive").isEqualTo(new FacilityImportResponse(5, 7L, "imported-1", FacilityImportResponse.ADD));
+
+		auditorAdds+= 2;
+		auditorUpdates++;
+	}
+
+	@Test
+	public void z_20_importAll_check()
+	{
+		var v = dao.getById(3L);
+		Assertions.assertEquals("Houston", v.city, "Check city");
+		assertThat(v.testTypes).as("Check testTypes").containsExactly(ANTIBODY.created());
+		assertThat(v.updatedAt).as("Check updatedAt").isAfter(v.createdAt).isCloseTo(new Date(), 1000L);
+
+		v = dao.getById(6L);
+		Assertions.assertTrue(v.active, "Check active");
+		assertThat(v.activatedAt).as("Check activatedAt").isNotNull().isEqualTo(v.createdAt);
+		assertThat(v.testTypes).as("Check testTypes").containsExactly(ANTIBODY.created(), NASAL_SWAB.created());
+
+		v = dao.getById(7L);
+		Assertions.assertFalse(v.active, "Check active");
+		Assertions.assertNull(v.activatedAt, "Check activatedAt");
+		Assertions.assertNull(v.testTypes, "Check testTypes");
+
+		count(new FacilityFilter().withCity("Houston"), 1L);
+		count(new FacilityFilter().withName("imported"), 2L);
+	}
+
+	@Test
+	public void z_21_importAll()
+	{
+		var results = dao.importAll(List.of(
+			createValid().withName("imported-0").withActive(true).withTestTypes(NASAL_SWAB),
+			createValid().withName("imported-1").withActive(true).withTypeId("$$")), true);
+
+		assertThat(results.get(0)).as("Check update").isEqualTo(new FacilityImportResponse(0, 6L, "imported-0", FacilityImportResponse.UPDATE));
+		assertThat(results.get(1).error()).as("Check invalid type").isTrue();
+
+		auditorUpdates++;
+	}
+
+	@Test
+	public void z_21_importAll_check()
+	{
+		assertThat(dao.getById(6L).testTypes).as("Check testTypes: removed").containsExactly(NASAL_SWAB.created());
+		Assertions.assertFalse(dao.getById(7L).active, "Check active: unchanged");
+	}
+
 	/** Helper method - calls the DAO count call and compares the expected total value.
 	 *
 	 * @param filter
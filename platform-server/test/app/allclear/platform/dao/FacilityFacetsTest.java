@@ -0,0 +1,83 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.platform.entity.CountByName;
+
+/** Unit test class that verifies the in-process facility state and city facet counts.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class FacilityFacetsTest
+{
+	private static final FacilityFacets facets = new FacilityFacets();
+
+	@Test
+	public void add()
+	{
+		assertThat(facets.loaded()).as("Check loaded").isFalse();
+		assertThat(facets.load(List.of(
+			new FacilityFacets.Entry(1L, "Tennessee", "Nashville"),
+			new FacilityFacets.Entry(2L, "Tennessee", "Nashville"),
+			new FacilityFacets.Entry(3L, "Tennessee", "Memphis"),
+			new FacilityFacets.Entry(4L, "Georgia", "Atlanta"),
+			new FacilityFacets.Entry(5L, "Georgia", null)))).as("Check load").isEqualTo(0);
+		assertThat(facets.loaded()).as("Check loaded").isTrue();
+		assertThat(facets.size()).as("Check size").isEqualTo(4);
+	}
+
+	@Test
+	public void add_check()
+	{
+		assertThat(facets.getStates()).as("Check states").containsExactly(new CountByName("Georgia", 1L), new CountByName("Tennessee", 3L));
+		assertThat(facets.getCitiesByState("Tennessee")).as("Check cities").containsExactly(new CountByName("Memphis", 1L), new CountByName("Nashville", 2L));
+		assertThat(facets.getCitiesByState("tennessee")).as("Check cities: case insensitive").containsExactly(new CountByName("Memphis", 1L), new CountByName("Nashville", 2L));
+		assertThat(facets.getCitiesByState("Alabama")).as("Check cities: missing").isEmpty();
+		assertThat(facets.getCitiesByState(null)).as("Check cities: null").isEmpty();
+	}
+
+	@Test
+	public void modify()
+	{
+		facets.put(6L, "Tennessee", "nashville");	// Activated.
+		facets.put(3L, "Georgia", "Atlanta");	// Moved.
+
+		assertThat(facets.getStates()).as("Check states").containsExactly(new CountByName("Georgia", 2L), new CountByName("Tennessee", 3L));
+		assertThat(facets.getCitiesByState("Tennessee")).as("Check cities").containsExactly(new CountByName("Nashville", 3L));
+		assertThat(facets.getCitiesByState("Georgia")).as("Check cities: moved").containsExactly(new CountByName("Atlanta", 2L));
+	}
+
+	@Test
+	public void modify_remove()
+	{
+		assertThat(facets.remove(3L)).as("Check remove").isTrue();
+		assertThat(facets.remove(4L)).as("Check remove").isTrue();
+		assertThat(facets.remove(4L)).as("Check remove again").isFalse();
+
+		assertThat(facets.getStates()).as("Check states").containsExactly(new CountByName("Tennessee", 3L));
+		assertThat(facets.getCitiesByState("Georgia")).as("Check cities: emptied").isEmpty();
+	}
+
+	@Test
+	public void modify_remove_reconcile()
+	{
+		facets.remove(6L);	// Missed the reactivation of 7.
+
+		assertThat(facets.load(List.of(
+			new FacilityFacets.Entry(1L, "Tennessee", "Nashville"),
+			new FacilityFacets.Entry(2L, "Tennessee", "Nashville"),
+			new FacilityFacets.Entry(7L, "Georgia", "Atlanta")))).as("Check drift").isEqualTo(2);
+
+		assertThat(facets.getStates()).as("Check states").containsExactly(new CountByName("Georgia", 1L), new CountByName("Tennessee", 2L));
+		assertThat(facets.getCitiesByState("Georgia")).as("Check cities").containsExactly(new CountByName("Atlanta", 1L));
+	}
+}
@@ -0,0 +1,120 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Unit test class that verifies the in-process spatial index of active facilities.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class FacilityGeoIndexTest
+{
+	private static final FacilityGeoIndex index = new FacilityGeoIndex();
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+
+	@Test
+	public void add()
+	{
+		assertThat(index.loaded()).as("Check loaded").isFalse();
+		assertThat(index.load(List.of(
+			new FacilityGeoIndex.Point(1L, 0d, 0d),
+			new FacilityGeoIndex.Point(2L, 0d, 1d),
+			new FacilityGeoIndex.Point(3L, 0d, -2d),
+			new FacilityGeoIndex.Point(4L, 36.1627d, -86.7816d),	// Nashville
+			new FacilityGeoIndex.Point(5L, 35.1495d, -90.0490d),	// Memphis
+			new FacilityGeoIndex.Point(6L, 0d, 179.9d),
+			new FacilityGeoIndex.Point(7L, 0d, -179.9d)))).as("Check load").isEqualTo(7);
+		assertThat(index.loaded()).as("Check loaded").isTrue();
+	}
+
+	@Test
+	public void add_put()
+	{
+		index.put(8L, bg("36.1744"), bg("-86.7679"));	// East Nashville
+		index.put(null, bg("36.1744"), bg("-86.7679"));
+		index.put(9L, null, bg("-86.7679"));
+
+		assertThat(index.size()).as("Check size").isEqualTo(8);
+		assertThat(index.contains(8L)).as("Check contains").isTrue();
+		assertThat(index.contains(9L)).as("Check contains: missing").isFalse();
+	}
+
+	@Test
+	public void distance()
+	{
+		assertThat(Math.round(FacilityGeoIndex.distance(0d, 0d, 0d, 1d))).as("Check one degree").isEqualTo(111195L);
+		assertThat(Math.round(FacilityGeoIndex.distance(0d, 0d, 0d, 0d))).as("Check same point").isEqualTo(0L);
+		assertThat(Math.round(FacilityGeoIndex.distance(0d, 179.9d, 0d, -179.9d))).as("Check antimeridian").isEqualTo(22239L);
+	}
+
+	public static Stream<Arguments> search()
+	{
+		return Stream.of(
+			arguments(bg("0"), bg("0"), 100L, List.of(1L)),
+			arguments(bg("0"), bg("0"), 111195L, List.of(1L, 2L)),
+			arguments(bg("0"), bg("0"), 250000L, List.of(1L, 2L, 3L)),
+			arguments(bg("0"), bg("0.6"), 250000L, List.of(2L, 1L)),
+			arguments(bg("36.16"), bg("-86.78"), 5000L, List.of(4L, 8L)),
+			arguments(bg("36.16"), bg("-86.78"), 400000L, List.of(4L, 8L, 5L)),
+			arguments(bg("35.15"), bg("-90.05"), 5000L, List.of(5L)),
+			arguments(bg("0"), bg("180"), 20000L, List.of(6L, 7L)),
+			arguments(bg("0"), bg("179.95"), 20000L, List.of(6L, 7L)),
+			arguments(bg("45"), bg("45"), 100000L, List.of()));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void search(final BigDecimal latitude, final BigDecimal longitude, final long meters, final List<Long> expected)
+	{
+		var hits = index.search(latitude, longitude, meters);
+
+		assertThat(FacilityGeoIndex.ids(hits)).as("Check ids").isEqualTo(expected);
+		assertThat(hits.stream().map(o -> o.meters).sorted().collect(toList())).as("Check ordered")
+			.isEqualTo(hits.stream().map(o -> o.meters).collect(toList()));
+		hits.forEach(o -> assertThat(o.meters).as("Check meters: " + o.id).isLessThanOrEqualTo(meters));
+	}
+
+	@Test
+	public void search_move()
+	{
+		index.put(8L, bg("35.1500"), bg("-90.0500"));	// Moved to Memphis.
+
+		assertThat(FacilityGeoIndex.ids(index.search(bg("36.16"), bg("-86.78"), 5000L))).as("Check old location").containsExactly(4L);
+		assertThat(FacilityGeoIndex.ids(index.search(bg("35.15"), bg("-90.05"), 5000L))).as("Check new location").containsExactly(8L, 5L);
+		assertThat(index.size()).as("Check size").isEqualTo(8);
+	}
+
+	@Test
+	public void search_remove()
+	{
+		assertThat(index.remove(5L)).as("Check remove").isTrue();
+		assertThat(index.remove(5L)).as("Check remove again").isFalse();
+
+		assertThat(FacilityGeoIndex.ids(index.search(bg("35.15"), bg("-90.05"), 5000L))).as("Check after remove").containsExactly(8L);
+		assertThat(index.size()).as("Check size").isEqualTo(7);
+	}
+
+	@Test
+	public void search_reload()
+	{
+		assertThat(index.load(List.of(new FacilityGeoIndex.Point(10L, 10d, 10d)))).as("Check load").isEqualTo(1);
+		assertThat(FacilityGeoIndex.ids(index.search(bg("0"), bg("0"), 250000L))).as("Check old points").isEmpty();
+		assertThat(FacilityGeoIndex.ids(index.search(bg("10"), bg("10"), 1L))).as("Check new points").containsExactly(10L);
+	}
+}
@@ -0,0 +1,120 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Unit test class that verifies the in-process trigram index of active facility names.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class FacilityNameIndexTest
+{
+	private static final FacilityNameIndex index = new FacilityNameIndex();
+
+	@Test
+	public void add()
+	{
+		assertThat(index.loaded()).as("Check loaded").isFalse();
+		assertThat(index.load(List.of(
+			new FacilityNameIndex.Entry(1L, "Vanderbilt Drive-Thru"),
+			new FacilityNameIndex.Entry(2L, "Nashville General"),
+			new FacilityNameIndex.Entry(3L, "East Nashville Clinic"),
+			new FacilityNameIndex.Entry(4L, "Clínica Médica"),
+			new FacilityNameIndex.Entry(5L, "CVS")))).as("Check load").isEqualTo(5);
+		assertThat(index.loaded()).as("Check loaded").isTrue();
+	}
+
+	@Test
+	public void add_put()
+	{
+		index.put(6L, "Memphis Drive-Thru");
+		index.put(null, "Memphis Drive-Thru");
+		index.put(7L, null);
+
+		assertThat(index.size()).as("Check size").isEqualTo(6);
+		assertThat(index.contains(6L)).as("Check contains").isTrue();
+		assertThat(index.contains(7L)).as("Check contains: missing").isFalse();
+	}
+
+	@Test
+	public void fold()
+	{
+		assertThat(FacilityNameIndex.fold("Clínica Médica")).as("Check accents").isEqualTo("clinica medica");
+		assertThat(FacilityNameIndex.fold(null)).as("Check null").isEmpty();
+		assertThat(FacilityNameIndex.grams("nash")).as("Check grams").containsOnly("nas", "ash");
+		assertThat(FacilityNameIndex.grams("na")).as("Check grams: short").isEmpty();
+	}
+
+	public static Stream<Arguments> search()
+	{
+		return Stream.of(
+			arguments("nashville", List.of(3L, 2L)),
+			arguments("NASHVILLE", List.of(3L, 2L)),
+			arguments("drive-thru", List.of(6L, 1L)),
+			arguments("clinic", List.of(4L, 3L)),
+			arguments("medica", List.of(4L)),
+			arguments("cv", List.of(5L)),
+			arguments("v", List.of(5L, 3L, 6L, 2L, 1L)),
+			arguments("ville gen", List.of(2L)),
+			arguments("nashvillx", List.of()),
+			arguments("icamed", List.of()));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void search(final String name, final List<Long> expected)
+	{
+		assertThat(index.search(name)).as("Check search").containsOnly(expected.toArray(new Long[0]));
+	}
+
+	@Test
+	public void search_put()
+	{
+		index.put(6L, "Germantown Drive-Thru");	// Renamed.
+
+		assertThat(index.search("memphis")).as("Check old name").isEmpty();
+		assertThat(index.search("germantown")).as("Check new name").containsOnly(6L);
+		assertThat(index.size()).as("Check size").isEqualTo(6);
+	}
+
+	@Test
+	public void search_remove()
+	{
+		assertThat(index.remove(3L)).as("Check remove").isTrue();
+		assertThat(index.remove(3L)).as("Check remove again").isFalse();
+
+		assertThat(index.search("nashville")).as("Check after remove").containsOnly(2L);
+		assertThat(index.size()).as("Check size").isEqualTo(5);
+	}
+
+	@Test
+	public void search_reset()
+	{
+		assertThat(index.load(List.of(new FacilityNameIndex.Entry(10L, "Knoxville")))).as("Check load").isEqualTo(1);
+		assertThat(index.search("nashville")).as("Check old names").isEmpty();
+		assertThat(index.search("knox")).as("Check new names").containsOnly(10L);
+	}
+
+	@Test
+	public void supports()
+	{
+		assertThat(FacilityNameIndex.supports("nash")).as("Check plain").isTrue();
+		assertThat(FacilityNameIndex.supports("na%sh")).as("Check percent").isFalse();
+		assertThat(FacilityNameIndex.supports("na_sh")).as("Check underscore").isFalse();
+		assertThat(FacilityNameIndex.supports("")).as("Check empty").isFalse();
+		assertThat(FacilityNameIndex.supports(null)).as("Check null").isFalse();
+	}
+}
@@ -0,0 +1,164 @@
+package app.allclear.platform.dao;
+
+import static java.util.stream.Collectors.toList;
+import static org.fest.assertions.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.*;
+
+import com.codahale.metrics.MetricRegistry;
+
+import app.allclear.common.dao.QueryResults;
+import app.allclear.common.redis.FakeRedisClient;
+import app.allclear.platform.filter.FacilityFilter;
+import app.allclear.platform.filter.GeoFilter;
+import app.allclear.platform.value.FacilityValue;
+
+/** Unit test class that verifies the in-process facility search cache.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class FacilitySearchCacheTest
+{
+	private static final FakeRedisClient redis = new FakeRedisClient();
+	private static final MetricRegistry metrics = new MetricRegistry();
+	private static final FacilitySearchCache cache = new FacilitySearchCache(redis, metrics, 2, 0L);
+	private static final FacilitySearchCache other = new FacilitySearchCache(redis, new MetricRegistry(), 2, 0L);	// Another node.
+
+	private static String KEY;
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+
+	private static FacilityFilter filter(final String city)
+	{
+		return new FacilityFilter(1, 20).withActive(true).withCity(city);
+	}
+
+	private static QueryResults<FacilityValue, FacilityFilter> results(final FacilityFilter filter, final String... names)
+	{
+		var o = new QueryResults<FacilityValue, FacilityFilter>((long) names.length, filter);
+		return o.withRecords(List.of(names).stream().map(v -> new FacilityValue().withName(v)).collect(toList()));
+	}
+
+	@BeforeAll
+	public static void up()
+	{
+		redis.clear();
+	}
+
+	@Test
+	public void cacheable()
+	{
+		assertThat(FacilitySearchCache.cacheable(new FacilityFilter())).as("Check no active").isFalse();
+		assertThat(FacilitySearchCache.cacheable(new FacilityFilter().withActive(false))).as("Check inactive").isFalse();
+		assertThat(FacilitySearchCache.cacheable(new FacilityFilter().withActive(true))).as("Check active").isTrue();
+	}
+
+	@Test
+	public void key()
+	{
+		var a = new FacilityFilter(1, 20).withActive(true)
+			.withFrom(new GeoFilter(bg("36.16271"), bg("-86.78159"), 10))
+			.withIncludeTestTypes(List.of("bb", "aa", "bb"));
+		var b = new FacilityFilter(1, 20).withActive(true)
+			.withFrom(new GeoFilter(bg("36.1627"), bg("-86.7816"), 10))
+			.withIncludeTestTypes(List.of("aa", "bb"));
+
+		assertThat(cache.key(a)).as("Check canonical").isEqualTo(cache.key(b));
+		assertThat(a.from.latitude).as("Check rounded latitude").isEqualTo(bg("36.163"));
+		assertThat(a.from.longitude).as("Check rounded longitude").isEqualTo(bg("-86.782"));
+		assertThat(a.includeTestTypes).as("Check sorted").containsExactly("aa", "bb");
+		assertThat(cache.key(filter(" Nashville "))).as("Check cleaned").isEqualTo(cache.key(filter("Nashville")));
+		assertThat(cache.key(filter("Nashville"))).as("Check different").isNotEqualTo(cache.key(filter("Memphis")));
+		assertThat(cache.key(filter("Nashville"), 1000L)).as("Check version").isNotEqualTo(cache.key(filter("Nashville"), 2000L));
+		assertThat(cache.key(filter("Nashville"), 0L)).as("Check no version").isEqualTo(cache.key(filter("Nashville")));
+	}
+
+	@Test
+	public void put()
+	{
+		var f = filter("Nashville");
+		KEY = cache.key(f);
+
+		assertThat(cache.get(KEY)).as("Check miss").isNull();
+		var epoch = cache.epoch();
+		var o = cache.put(KEY, epoch, results(f, "first", "second"));
+		o.records.get(0).favorite = true;	// Decorated after caching - should not leak into the cache.
+
+		assertThat(cache.size()).as("Check size").isEqualTo(1);
+	}
+
+	@Test
+	public void put_get()
+	{
+		var o = cache.get(KEY);
+		assertThat(o).as("Check hit").isNotNull();
+		assertThat(o.total).as("Check total").isEqualTo(2L);
+		assertThat(o.records).as("Check records").hasSize(2);
+		assertThat(o.records.get(0).name).as("Check name").isEqualTo("first");
+		assertThat(o.records.get(0).favorite).as("Check favorite").isNull();
+		assertThat(o.filter.city).as("Check filter").isEqualTo("Nashville");
+
+		o.records.get(1).favorite = true;
+		assertThat(cache.get(KEY).records.get(1).favorite).as("Check private copy").isNull();
+	}
+
+	@Test
+	public void put_get_stale()
+	{
+		var f = filter("Memphis");
+		var key = cache.key(f);
+		var epoch = cache.epoch();
+		cache.clear();	// A write committed while the search was running.
+		cache.put(key, epoch, results(f, "stale"));
+
+		assertThat(cache.get(key)).as("Check stale not cached").isNull();
+		assertThat(cache.get(KEY)).as("Check cleared").isNull();
+	}
+
+	@Test
+	public void put_get_stale_evict()
+	{
+		for (var i : List.of("Knoxville", "Chattanooga", "Memphis"))
+		{
+			var f = filter(i);
+			cache.put(cache.key(f), cache.epoch(), results(f, i));
+		}
+
+		assertThat(cache.size()).as("Check size").isEqualTo(2);
+		assertThat(cache.get(cache.key(filter("Knoxville")))).as("Check evicted").isNull();
+		assertThat(cache.get(cache.key(filter("Memphis")))).as("Check retained").isNotNull();
+		assertThat(metrics.meter(MetricRegistry.name(FacilitySearchCache.class, "evictions")).getCount()).as("Check evictions").isEqualTo(1L);
+	}
+
+	@Test
+	public void put_get_stale_evict_invalidate()
+	{
+		var f = filter("Memphis");
+		var key = other.key(f);
+		other.put(key, other.epoch(), results(f, "Memphis"));
+		assertThat(other.get(key)).as("Check other node hit").isNotNull();
+
+		cache.invalidate();	// Write on this node.
+
+		assertThat(redis.get(FacilitySearchCache.GENERATION)).as("Check generation").isEqualTo("1");
+		assertThat(cache.size()).as("Check local cleared").isEqualTo(0);
+		assertThat(other.get(key)).as("Check other node cleared").isNull();
+		assertThat(other.size()).as("Check other node size").isEqualTo(0);
+	}
+
+	@Test
+	public void put_get_stale_evict_invalidate_metrics()
+	{
+		assertThat(metrics.meter(MetricRegistry.name(FacilitySearchCache.class, "hits")).getCount()).as("Check hits").isEqualTo(3L);
+		assertThat(metrics.meter(MetricRegistry.name(FacilitySearchCache.class, "misses")).getCount()).as("Check misses").isEqualTo(4L);
+		assertThat(metrics.getGauges().get(MetricRegistry.name(FacilitySearchCache.class, "size")).getValue()).as("Check size gauge").isEqualTo(0);
+	}
+}
@@ -0,0 +1,149 @@
+package app.allclear.platform.dao;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static app.allclear.junit.hibernate.HibernateTransactionRule.doTrans;
+
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.Date;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import app.allclear.junit.hibernate.HibernateRule;
+import app.allclear.platform.App;
+import app.allclear.platform.value.PeopleValue;
+
+/** Functional test class that verifies the write-behind buffer of the facility alert checks.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class PeopleAlertedBufferTest
+{
+	public static final HibernateRule DAO_RULE = new HibernateRule(App.ENTITIES);
+
+	private static final long HOUR = 60L * 60L * 1000L;
+	private static final Date NOW = DateUtils.truncate(new Date(), Calendar.SECOND);	// The column only holds seconds.
+	private static final Date HOUR_AGO = new Date(NOW.getTime() - HOUR);
+
+	private static PeopleDAO dao;
+	private static PeopleAlertedBuffer buffer;
+	private static PeopleValue PERSON;
+	private static PeopleValue PERSON_1;
+
+	@BeforeAll
+	public static void up()
+	{
+		dao = new PeopleDAO(DAO_RULE.getSessionFactory());
+		buffer = new PeopleAlertedBuffer(DAO_RULE.getSessionFactory(), dao, 10, 60000L);	// Only flushes when asked.
+	}
+
+	@Test
+	public void add()
+	{
+		doTrans(DAO_RULE, s -> {
+			PERSON = dao.add(new PeopleValue("freya", "888-555-2000", true).withLatitude(new BigDecimal("40")).withLongitude(new BigDecimal("-70")));
+			PERSON_1 = dao.add(new PeopleValue("frigg", "888-555-2001", true).withLatitude(new BigDecimal("40")).withLongitude(new BigDecimal("-70")));
+		});
+	}
+
+	@Test
+	public void modify()
+	{
+		buffer.add(PERSON.id, 2, HOUR_AGO);
+		buffer.add(PERSON_1.id, 3, NOW);
+
+		assertThat(buffer.pending()).as("Check pending").isEqualTo(2);
+	}
+
+	@Test
+	public void modify_cancel()
+	{
+		assertThat(buffer.cancel(PERSON_1.id, HOUR_AGO)).as("Check cancel: other check").isFalse();
+		assertThat(buffer.cancel("INVALID", NOW)).as("Check cancel: invalid").isFalse();
+		assertThat(buffer.cancel(PERSON_1.id, NOW)).as("Check cancel").isTrue();
+		assertThat(buffer.pending()).as("Check pending").isEqualTo(1);
+	}
+
+	@Test
+	public void modify_later()
+	{
+		buffer.add(PERSON.id, 4, NOW);
+		buffer.add(PERSON.id, 1, HOUR_AGO);	// Older check is ignored.
+
+		assertThat(buffer.pending()).as("Check pending").isEqualTo(1);
+	}
+
+	@Test
+	public void modify_later_flush() throws Exception
+	{
+		assertThat(buffer.flush()).as("Check flush").isEqualTo(1);
+		assertThat(buffer.flush()).as("Check flush again").isEqualTo(0);
+		assertThat(buffer.pending()).as("Check pending").isEqualTo(0);
+		assertThat(buffer.flushed()).as("Check flushed").isEqualTo(1L);
+		assertThat(buffer.failures()).as("Check failures").isEqualTo(0L);
+	}
+
+	@Test
+	public void modify_later_flush_check()
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			assertThat(v.alertedOf).as("Check alertedOf").isEqualTo(4);
+			assertThat(v.alertedAt.getTime()).as("Check alertedAt").isEqualTo(NOW.getTime());
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 2000L);	// Time of the write rather than of the check.
+
+			var v1 = dao.getById(PERSON_1.id);
+			Assertions.assertNull(v1.alertedOf, "Check alertedOf: cancelled");
+			Assertions.assertNull(v1.alertedAt, "Check alertedAt: cancelled");
+		});
+	}
+
+	@Test
+	public void modify_older() throws Exception
+	{
+		buffer.add(PERSON.id, 5, HOUR_AGO);	// Not in the buffer anymore so it reaches the database.
+
+		assertThat(buffer.flush()).as("Check flush: never moves backwards").isEqualTo(0);
+		assertThat(buffer.flushed()).as("Check flushed").isEqualTo(2L);
+	}
+
+	@Test
+	public void modify_older_check()
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			assertThat(v.alertedOf).as("Check alertedOf").isEqualTo(4);
+			assertThat(v.alertedAt.getTime()).as("Check alertedAt").isEqualTo(NOW.getTime());
+		});
+	}
+
+	@Test
+	public void testClose() throws Exception
+	{
+		buffer.add(PERSON_1.id, 6, NOW);
+		buffer.close();
+
+		assertThat(buffer.pending()).as("Check pending").isEqualTo(0);
+		assertThat(buffer.flushed()).as("Check flushed").isEqualTo(3L);
+	}
+
+	@Test
+	public void testClose_check()
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON_1.id);
+			assertThat(v.alertedOf).as("Check alertedOf").isEqualTo(6);
+			assertThat(v.alertedAt.getTime()).as("Check alertedAt").isEqualTo(NOW.getTime());
+		});
+	}
+}
@@ -24,6 +24,8 @@ import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
 
 import app.allclear.junit.hibernate.*;
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
 import app.allclear.common.dao.QueryResults;
 import app.allclear.common.errors.*;
 import app.allclear.common.mediatype.UTF8MediaType;
@@ -74,7 +76,7 @@ public class FacilityResourceTest
 		.addResource(new AuthorizationExceptionMapper())
 		.addResource(new NotFoundExceptionMapper())
 		.addResource(new ValidationExceptionMapper())
-		.addResource(resource = new FacilityResource(dao, sessionDao, map)).build();
+		.addResource(resource = new FacilityResource(dao, sessionDao, map, new FacilityExporter(new DualSessionFactory(DAO_RULE.getSessionFactory()), dao), null)).build();
 
 	/** Primary URI to test. */
 	private static final String TARGET = "/facilities";
@@ -419,6 +421,59 @@ public class FacilityResourceTest
 		count(new FacilityFilter().include(NASAL_SWAB), 1L);
 	}
 
+	@Test
+	public void modify_export() throws Exception
+	{
+		var response = export(null, new FacilityFilter().withState("LA"));
+		Assertions.assertEquals(HTTP_STATUS_OK, response.getStatus(), "Status");
+		assertThat(response.getHeaderString("Content-Type")).as("Check Content-Type").startsWith("application/x-ndjson");
+
+		var lines = response.readEntity(String.class).split("\n");
+		assertThat(lines).as("Check lines").hasSize(1);
+
+		var value = JacksonUtils.createMapper().readValue(lines[0], FacilityValue.class);
+		Assertions.assertEquals(VALUE.id, value.id, "Check id");
+		Assertions.assertEquals("New Orleans", value.city, "Check city");
+		assertThat(value.testTypes).as("Check testTypes").containsExactly(NASAL_SWAB.created());
+	}
+
+	@Test
+	public void modify_export_csv()
+	{
+		var response = export("csv", new FacilityFilter().withId(VALUE.id));
+		Assertions.assertEquals(HTTP_STATUS_OK, response.getStatus(), "Status");
+		assertThat(response.getHeaderString("Content-Type")).as("Check Content-Type").startsWith("text/csv");
+
+		var lines = response.readEntity(String.class).split("\r\n");
+		assertThat(lines).as("Check lines").hasSize(2);
+		assertThat(lines[0]).as("Check header").startsWith("id,name,address,city,state,").endsWith(",testTypes");
+		assertThat(lines[1]).as("Check row").startsWith(VALUE.id + ",Julius,56 First Street,New Orleans,LA,").endsWith("," + NASAL_SWAB.id);
+	}
+
+	@Test
+	public void modify_export_empty()
+	{
+		var response = export("csv", new FacilityFilter().withState("KY"));
+		Assertions.assertEquals(HTTP_STATUS_OK, response.getStatus(), "Status");
+		assertThat(response.readEntity(String.class).split("\r\n")).as("Check lines: header only").hasSize(1);
+	}
+
+	@Test
+	public void modify_export_invalid()
+	{
+		Assertions.assertEquals(HTTP_STATUS_VALIDATION_EXCEPTION, export("xml", new FacilityFilter()).getStatus(), "Status: format");
+		Assertions.assertEquals(HTTP_STATUS_VALIDATION_EXCEPTION, export(null, new FacilityFilter().withFrom(new GeoFilter(bg("45"), bg("-35"), 10))).getStatus(), "Status: distance");
+	}
+
+	/** Helper method - calls the export endpoint. */
+	private Response export(final String format, final FacilityFilter filter)
+	{
+		var target = target().path("export");
+		if (null != format) target = target.queryParam("format", format);
+
+		return target.request().post(Entity.json(filter));
+	}
+
 	@Test
 	public void modify_get()
 	{
@@ -0,0 +1,143 @@
+package app.allclear.platform.task;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.*;
+
+import app.allclear.platform.dao.SessionDAO;
+
+/** Unit test class that verifies the bounded asynchronous sending of the facility alerts.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)	// Ensure that the methods are executed in order listed.
+public class AlertDispatcherTest
+{
+	private static final SessionDAO dao = mock(SessionDAO.class);
+	private static final AlertDispatcher dispatcher = new AlertDispatcher(dao, 2, 4, 3, 1L);
+	private static final Map<String, Integer> tries = new ConcurrentHashMap<>();
+	private static final Map<String, Integer> failures = new ConcurrentHashMap<>();	// Number of tries that fail per phone.
+	private static final List<String> unalerted = Collections.synchronizedList(new LinkedList<>());
+	private static CountDownLatch blocked = null;
+
+	@BeforeAll
+	public static void up()
+	{
+		when(dao.alert(any(String.class), any(Date.class))).thenAnswer(a -> {
+			var phone = a.getArgument(0, String.class);
+			var i = tries.merge(phone, 1, Integer::sum);
+			if ("blocked".equals(phone)) blocked.await();
+			if (failures.getOrDefault(phone, 0) >= i) throw new RuntimeException("Unreachable: " + phone);
+
+			return "token-" + phone;
+		});
+	}
+
+	@AfterAll
+	public static void down() throws Exception
+	{
+		dispatcher.close();
+	}
+
+	private CompletableFuture<String> alert(final String phone) throws Exception
+	{
+		return dispatcher.alert(phone, new Date(), ex -> unalerted.add(phone));
+	}
+
+	@Test
+	public void create_invalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AlertDispatcher(dao, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new AlertDispatcher(dao, 2, 1, 3, 1L));
+	}
+
+	@Test
+	public void send() throws Exception
+	{
+		Assertions.assertEquals("token-111", alert("111").get(5L, TimeUnit.SECONDS));
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertEquals(1L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(0L, dispatcher.retried(), "Check retried");
+		Assertions.assertEquals(0L, dispatcher.failed(), "Check failed");
+		Assertions.assertEquals(0, dispatcher.pending(), "Check pending");
+	}
+
+	@Test
+	public void send_retry() throws Exception
+	{
+		failures.put("222", 2);	// Succeeds on the last try.
+
+		Assertions.assertEquals("token-222", alert("222").get(5L, TimeUnit.SECONDS));
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertEquals(3, tries.get("222"), "Check tries");
+		Assertions.assertEquals(2L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(2L, dispatcher.retried(), "Check retried");
+		Assertions.assertEquals(0L, dispatcher.failed(), "Check failed");
+		assertThat(unalerted).as("Check unalerted").isEmpty();
+	}
+
+	@Test
+	public void send_retry_failure() throws Exception
+	{
+		failures.put("333", 3);	// Fails every try.
+
+		var o = alert("333");
+		var ex = Assertions.assertThrows(ExecutionException.class, () -> o.get(5L, TimeUnit.SECONDS));
+		Assertions.assertEquals("Unreachable: 333", ex.getCause().getMessage());
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertEquals(3, tries.get("333"), "Check tries");
+		Assertions.assertEquals(2L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(4L, dispatcher.retried(), "Check retried");
+		Assertions.assertEquals(1L, dispatcher.failed(), "Check failed");
+		assertThat(unalerted).as("Check unalerted").containsExactly("333");
+	}
+
+	@Test
+	public void send_wait() throws Exception
+	{
+		blocked = new CountDownLatch(1);
+		var futures = new LinkedList<CompletableFuture<String>>();
+		for (int i = 0; i < dispatcher.capacity(); i++) futures.add(alert("blocked"));
+		Assertions.assertEquals(4, dispatcher.pending(), "Check pending");
+		Assertions.assertFalse(dispatcher.await(100L), "Check await: busy");
+
+		var rejected = alert("444");	// Fails at once instead of waiting for capacity.
+		var ex = Assertions.assertThrows(ExecutionException.class, () -> rejected.get(100L, TimeUnit.MILLISECONDS));
+		assertThat(ex.getCause()).as("Check rejected").isInstanceOf(RejectedExecutionException.class);
+		Assertions.assertEquals(1L, dispatcher.rejected(), "Check rejected");
+		Assertions.assertFalse(dispatcher.reserve(1), "Check reserve: busy");
+		assertThat(unalerted).as("Check unalerted").containsExactly("333", "444");
+		Assertions.assertNull(tries.get("444"), "Check tries");
+
+		blocked.countDown();
+		for (var o : futures) Assertions.assertEquals("token-blocked", o.get(5L, TimeUnit.SECONDS));
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertEquals(6L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(0, dispatcher.pending(), "Check pending");
+	}
+
+	@Test
+	public void send_wait_reserved() throws Exception
+	{
+		Assertions.assertTrue(dispatcher.reserve(4), "Check reserve");
+		Assertions.assertEquals(4, dispatcher.pending(), "Check pending: reserved");
+		Assertions.assertFalse(dispatcher.reserve(1), "Check reserve: full");
+
+		var sent = new ArrayList<String>();
+		Assertions.assertEquals("token-555", dispatcher.alertReserved("555", new Date(), null).get(5L, TimeUnit.SECONDS));
+		Assertions.assertEquals("token-556", dispatcher.alertReserved("556", new Date(), t -> sent.add(t), null).get(5L, TimeUnit.SECONDS));
+		dispatcher.release(2);	// The remaining reservations were not used.
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertEquals(List.of("token-556"), sent, "Check onSuccess");
+		Assertions.assertEquals(8L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(0, dispatcher.pending(), "Check pending");
+	}
+}
@@ -20,12 +20,17 @@ import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import com.azure.storage.queue.QueueClient;
 
 import app.allclear.common.errors.*;
+import app.allclear.common.redis.FakeRedisClient;
+import app.allclear.common.redis.RedisClient;
 import app.allclear.junit.hibernate.*;
 import app.allclear.platform.App;
-import app.allclear.platform.dao.PeopleDAO;
+import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.Facility;
 import app.allclear.platform.entity.People;
+import app.allclear.platform.model.AlertInitProgress;
 import app.allclear.platform.model.AlertInitRequest;
 import app.allclear.platform.type.Timezone;
+import app.allclear.platform.value.FacilityValue;
 
 /** Functional test class that verifies the Alert-Init background task.
  * 
@@ -44,9 +49,17 @@ public class AlertInitTaskTest
 
 	private static PeopleDAO dao;
 	private static AlertInitTask task;
+	private static AlertInitTask engine;	// Set-based matching.
+	private static AlertInitTask leased;	// Scans the shards under leases.
+	private static AlertInitTask fanned;	// Fans out the shards.
+	private static AlertInitTask sized;	// Sizes the shards by the number of people.
+	private static AlertInitLeaseDAO leases;
+	private static final RedisClient redis = new FakeRedisClient();
 	private static final QueueClient queue = mock(QueueClient.class);
+	private static final QueueClient initQueue = mock(QueueClient.class);
 
 	private static List<String> sent = new LinkedList<>();
+	private static List<String> initSent = new LinkedList<>();
 	private static List<String> processed = new LinkedList<>();
 
 	private void processed(final String... personIds)
@@ -55,14 +68,31 @@ public class AlertInitTaskTest
 			processed.add(String.format("{\"personId\":\"%s\"}", personId));
 	}
 
+	private void processedBatch(final String... personIds)
+	{
+		processed.add(String.format("{\"personIds\":[\"%s\"]}", String.join("\",\"", personIds)));
+	}
+
 	@BeforeAll
 	public static void up()
 	{
 		var factory = DAO_RULE.getSessionFactory();
 		dao = new PeopleDAO(factory);
 		task = new AlertInitTask(factory, dao, queue);
+		engine = new AlertInitTask(factory, dao, new FacilityDAO(factory, new TestAuditor()), queue, 10);
+		leases = new AlertInitLeaseDAO(redis);
+		leased = new AlertInitTask(factory, dao, queue).withLeases(leases, 4);
+		fanned = new AlertInitTask(factory, dao, queue).withLeases(leases, 4).withInitQueue(initQueue);
+		sized = new AlertInitTask(factory, dao, queue).withLeases(leases, 1).withShardSize(5).withInitQueue(initQueue);
 
 		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { sent.add(a.getArgument(0, String.class)); return null; });
+		when(initQueue.sendMessage(any(String.class))).thenAnswer(a -> { initSent.add(a.getArgument(0, String.class)); return null; });
+	}
+
+	@AfterAll
+	public static void down()
+	{
+		redis.close();
 	}
 
 	@AfterEach
@@ -125,6 +155,142 @@ public class AlertInitTaskTest
 		assertThat(Assertions.assertThrows(expected, () -> task.process(new AlertInitRequest(timezoneId)))).hasMessage(message);
 	}
 
+	@Test
+	public void process_lease_00() throws Exception
+	{
+		Assertions.assertTrue(leased.process(new AlertInitRequest(Timezone.EST.id, 1)));
+		processed("AAAA", "CCCC", "DDDD", "EEEE", "FFFF", "GGGG", "HHHH");
+
+		assertThat(leases.completed(Timezone.EST, 4, 1)).as("Check completed").isTrue();
+		assertThat(redis.get(RedisClient.leaseKey(AlertInitLeaseDAO.name(Timezone.EST, 4, 1)))).as("Check released").isNull();
+	}
+
+	@Test
+	public void process_lease_01_completed() throws Exception
+	{
+		Assertions.assertTrue(leased.process(new AlertInitRequest(Timezone.EST.id, 1)));	// Duplicate request does not scan again.
+	}
+
+	@Test
+	public void process_lease_02_held() throws Exception
+	{
+		var lease = leases.acquire(Timezone.EST, 4, 2);
+		assertThat(lease).as("Check lease").isNotNull();
+
+		Assertions.assertFalse(leased.process(new AlertInitRequest(Timezone.EST.id, 2)));	// Retried later.
+		assertThat(leases.release(lease)).as("Check release").isTrue();
+	}
+
+	@Test
+	public void process_lease_03_resume() throws Exception
+	{
+		var lease = leases.acquire(Timezone.EST, 4, 3);
+		assertThat(leases.checkpoint(lease, Timezone.EST, 4, 3, "SSSS")).as("Check checkpoint").isTrue();
+		leases.release(lease);	// Crashed after RRRR & SSSS were sent.
+
+		Assertions.assertTrue(leased.process(new AlertInitRequest(Timezone.EST.id, 3)));
+		processed("TTTT", "UUUU");
+	}
+
+	@Test
+	public void process_lease_04_all() throws Exception
+	{
+		Assertions.assertTrue(leased.process(new AlertInitRequest(Timezone.EST.id)));	// Only the remaining shards are scanned.
+		processed("1111", "IIII", "JJJJ", "KKKK", "LLLL", "MMMM", "NNNN", "OOOO", "PPPP", "QQQQ");
+
+		for (int i = 0; i < 4; i++) assertThat(leases.completed(Timezone.EST, 4, i)).as("Check completed: " + i).isTrue();
+
+		var progress = leases.progress(Timezone.EST);
+		assertThat(progress.shards).as("Check progress.shards").isEqualTo(4);
+		assertThat(progress.completed).as("Check progress.completed").isEqualTo(4);
+		assertThat(progress.people).as("Check progress.people").isEqualTo(19);	// The resumed shard only counts TTTT & UUUU.
+		assertThat(progress.startedAt).as("Check progress.startedAt").isNotNull();
+		assertThat(progress.done()).as("Check progress.done").isTrue();
+	}
+
+	@Test
+	public void process_lease_05_fanOut() throws Exception
+	{
+		Assertions.assertTrue(fanned.process(new AlertInitRequest(Timezone.CST.id)));
+		assertThat(initSent).as("Check initSent").containsExactly(
+			"{\"timezoneId\":\"CST\",\"shard\":0,\"shards\":4}", "{\"timezoneId\":\"CST\",\"shard\":1,\"shards\":4}",
+			"{\"timezoneId\":\"CST\",\"shard\":2,\"shards\":4}", "{\"timezoneId\":\"CST\",\"shard\":3,\"shards\":4}");
+		var progress = leases.progress(Timezone.CST);
+		assertThat(progress).as("Check progress").isEqualTo(new AlertInitProgress(Timezone.CST.id, 4, 0, 0, progress.startedAt));
+	}
+
+	@Test
+	public void process_lease_06_fanOut_shard() throws Exception
+	{
+		Assertions.assertTrue(fanned.process(new AlertInitRequest(Timezone.CST.id, 3, 4)));
+		processed("VVVV");
+
+		var progress = leases.progress(Timezone.CST);
+		assertThat(progress).as("Check progress").isEqualTo(new AlertInitProgress(Timezone.CST.id, 4, 1, 1, progress.startedAt));
+	}
+
+	@Test
+	public void process_lease_07_sized() throws Exception
+	{
+		initSent.clear();
+		Assertions.assertTrue(sized.process(new AlertInitRequest(Timezone.EST.id)));	// 21 people in ranges of up to 5 people.
+		assertThat(initSent).as("Check initSent").hasSize(5).contains("{\"timezoneId\":\"EST\",\"shard\":4,\"shards\":5}");
+
+		var progress = leases.progress(Timezone.EST);
+		assertThat(progress.shards).as("Check progress.shards").isEqualTo(5);
+		assertThat(progress.completed).as("Check progress.completed").isEqualTo(0);	// Restarted.
+		assertThat(progress.done()).as("Check progress.done").isFalse();
+	}
+
+	@Test
+	public void process_lease_08_sized_shard() throws Exception
+	{
+		Assertions.assertTrue(sized.process(new AlertInitRequest(Timezone.EST.id, 2, 5)));	// Shard 2 of 5 is between "EE" & "LL".
+		processed("EEEE", "FFFF", "GGGG", "HHHH", "IIII", "JJJJ", "KKKK");
+
+		assertThat(leases.progress(Timezone.EST).people).as("Check progress.people").isEqualTo(7);
+	}
+
+	@Test
+	public void process_lease_09_joined() throws Exception
+	{
+		initSent.clear();
+		Assertions.assertTrue(fanned.process(new AlertInitRequest(Timezone.EST.id)));	// Joins the run of 5 shards instead of splitting it into 4.
+		assertThat(initSent).as("Check initSent").hasSize(5).contains("{\"timezoneId\":\"EST\",\"shard\":4,\"shards\":5}");
+
+		var progress = leases.progress(Timezone.EST);
+		assertThat(progress.shards).as("Check progress.shards").isEqualTo(5);
+		assertThat(progress.completed).as("Check progress.completed").isEqualTo(1);	// Not restarted.
+		assertThat(progress.people).as("Check progress.people").isEqualTo(7);
+
+		assertThat(Assertions.assertThrows(AbortException.class, () -> fanned.process(new AlertInitRequest(Timezone.EST.id, 3, 4))))
+			.hasMessage("The shard 3 of 4 does not belong to the current run of 5 shards.");
+	}
+
+	@Test
+	public void process_lease_10_starting() throws Exception
+	{
+		var lease = redis.lease(AlertInitLeaseDAO.startName(Timezone.MST), AlertInitLeaseDAO.START_DURATION);
+		assertThat(lease).as("Check lease").isNotNull();
+
+		Assertions.assertFalse(fanned.process(new AlertInitRequest(Timezone.MST.id)));	// Retried later.
+		assertThat(leases.progress(Timezone.MST)).as("Check progress").isNull();
+		assertThat(redis.release(lease)).as("Check release").isTrue();
+	}
+
+	@Test
+	public void process_lease_error()
+	{
+		assertThat(Assertions.assertThrows(AbortException.class, () -> leased.process(new AlertInitRequest(Timezone.EST.id, 4)))).hasMessage("The shard 4 is not between 0 and 3.");
+		assertThat(Assertions.assertThrows(AbortException.class, () -> leased.process(new AlertInitRequest(Timezone.EST.id, -1)))).hasMessage("The shard -1 is not between 0 and 3.");
+		assertThat(Assertions.assertThrows(AbortException.class, () -> leased.process(new AlertInitRequest(Timezone.EST.id, 5, 5)))).hasMessage("The shard 5 is not between 0 and 4.");
+		assertThat(Assertions.assertThrows(AbortException.class, () -> leased.process(new AlertInitRequest(Timezone.EST.id, 0, 0)))).hasMessage("The shards 0 is not between 1 and 1296.");
+		assertThat(Assertions.assertThrows(AbortException.class, () -> leased.process(new AlertInitRequest(Timezone.EST.id, null, 1297)))).hasMessage("The shards 1297 is not between 1 and 1296.");
+		Assertions.assertThrows(IllegalArgumentException.class, () -> leased.withLeases(leases, 0));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> leased.withLeases(leases, 1297));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> leased.withShardSize(-1));
+	}
+
 	public static Stream<Arguments> process_other()
 	{
 		return Stream.of(
@@ -140,4 +306,64 @@ public class AlertInitTaskTest
 		Assertions.assertTrue(task.process(new AlertInitRequest(zone.id)));
 		processed(personId);
 	}
+
+	@Test
+	public void testBounds()
+	{
+		assertThat(AlertInitTask.bounds(1, 0)).as("Check single").containsExactly("", null);
+		assertThat(AlertInitTask.bounds(4, 0)).as("Check shard 0").containsExactly("", "9");
+		assertThat(AlertInitTask.bounds(4, 1)).as("Check shard 1").containsExactly("9", "I");
+		assertThat(AlertInitTask.bounds(4, 2)).as("Check shard 2").containsExactly("I", "R");
+		assertThat(AlertInitTask.bounds(4, 3)).as("Check shard 3").containsExactly("R", null);
+		assertThat(AlertInitTask.bounds(5, 2)).as("Check shard 2 of 5").containsExactly("EE", "LL");
+		assertThat(AlertInitTask.bounds(10, 1)).as("Check shard 1 of 10").containsExactly("3L", "77");
+		assertThat(AlertInitTask.bounds(AlertInitTask.MAX_SHARDS, 1)).as("Check shard 1 of max").containsExactly("01", "02");
+	}
+
+	@Test
+	public void z_00_match() throws Exception
+	{
+		Assertions.assertTrue(engine.process(new AlertInitRequest(Timezone.EST.id)));	// No facilities so nobody is enqueued.
+
+		var s = transRule.getSession();
+		var o = s.get(People.class, "1111");
+		assertThat(o.getAlertedAt()).as("Check alertedAt").isNotNull();
+		assertThat(o.getAlertedOf()).as("Check alertedOf").isEqualTo(0);
+		assertThat(s.get(People.class, "4444").getAlertedAt()).as("Check inactive alertedAt").isNull();
+		assertThat(s.get(People.class, "VVVV").getAlertedAt()).as("Check other timezone alertedAt").isNull();
+	}
+
+	@Test
+	public void z_01_add()
+	{
+		var s = transRule.getSession();
+		var alertedAt = s.get(People.class, "1111").getAlertedAt();
+
+		var near = new Facility(new FacilityValue(1, "Athens", "GA", 34, -84, true));
+		near.setActivatedAt(new Date(alertedAt.getTime() + 1000L));
+		s.persist(near);
+
+		var old = new Facility(new FacilityValue(2, "Athens", "GA", 34, -84, true));
+		old.setActivatedAt(new Date(alertedAt.getTime() - 60000L));	// Already checked.
+		s.persist(old);
+
+		s.persist(new Facility(new FacilityValue(3, "Portland", "ME", 44, -70, true)));	// Too far.
+		s.persist(new Facility(new FacilityValue(4, "Athens", "GA", 34, -84, false)));	// Never activated.
+	}
+
+	@Test
+	public void z_02_match() throws Exception
+	{
+		Assertions.assertTrue(engine.process(new AlertInitRequest(Timezone.EST.id)));
+		processedBatch("1111", "AAAA", "CCCC", "DDDD", "EEEE", "FFFF", "GGGG", "HHHH", "IIII", "JJJJ");
+		processedBatch("KKKK", "LLLL", "MMMM", "NNNN", "OOOO", "PPPP", "QQQQ", "RRRR", "SSSS", "TTTT");
+		processed("UUUU");	// Single remainder.
+	}
+
+	@Test
+	public void z_02_match_other() throws Exception
+	{
+		Assertions.assertTrue(engine.process(new AlertInitRequest(Timezone.CST.id)));	// VVVV is too far from the new facility.
+		assertThat(transRule.getSession().get(People.class, "VVVV").getAlertedAt()).as("Check alertedAt").isNotNull();
+	}
 }
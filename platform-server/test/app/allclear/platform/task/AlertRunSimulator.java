@@ -0,0 +1,406 @@
+package app.allclear.platform.task;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.*;
+import java.util.*;
+import java.util.Date;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.SessionFactory;
+
+import com.azure.storage.queue.QueueClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.hibernate.DualSessionFactory;
+import app.allclear.common.jackson.JacksonUtils;
+import app.allclear.common.redis.FakeRedisClient;
+import app.allclear.junit.hibernate.HibernateRule;
+import app.allclear.platform.App;
+import app.allclear.platform.ConfigTest;
+import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.FacilityActivation;
+import app.allclear.platform.model.AlertInitRequest;
+import app.allclear.platform.model.AlertRequest;
+import app.allclear.platform.type.Timezone;
+import app.allclear.twilio.client.TwilioClient;
+import app.allclear.twilio.model.*;
+
+/** Simulates a complete facility alert run against a synthetic population so that changes to the alert path can be compared
+ *  run over run. Seeds an embedded H2 database with people clustered around random cities across all the alert timezones,
+ *  runs the AlertInitTask for each timezone, and then drains the resulting AlertRequests through the AlertTask.
+ *
+ *  The Azure queue, the Twilio client, and the FacilityDAO are stand-ins. The facilities are held in memory because H2 cannot
+ *  perform the MySQL spatial queries. The DB statement counts are therefore limited to the People queries and exclude the
+ *  bulk JDBC write-backs, which bypass the Hibernate statistics.
+ *
+ *  Run from the command line with "name=value" arguments, i.e. "people=1000000 facilities=50000 concurrency=10 buffered=true".
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class AlertRunSimulator implements AutoCloseable
+{
+	public static final long HOUR = 60L * 60L * 1000L;
+	public static final double LATITUDE_FROM = 25d;
+	public static final double LATITUDE_TO = 49d;
+	public static final double CITY_RADIUS = 0.5d;	// Degrees around a city center where its people and facilities are placed.
+
+	/** Represents the shape of the synthetic population and of the alert path under test. */
+	public static class Options
+	{
+		public int people = 10000;
+		public int facilities = 500;
+		public int cities = 50;
+		public double alertable = 0.8d;	// Fraction of the people who wish to receive alerts.
+		public double activated = 0.1d;	// Fraction of the facilities activated since the last alert run.
+		public int workers = 4;	// Number of AlertTask consumers.
+		public int batchSize = AlertRequest.BATCH_SIZE;
+		public int concurrency = 0;	// AlertDispatcher concurrency. Zero sends the alerts inline.
+		public boolean buffered = false;	// Write the alert checks back through the PeopleAlertedBuffer.
+		public boolean timeline = true;	// Serve the facility activations from the in-memory timeline.
+		public long smsDelay = 0L;	// Simulated SMS provider latency in milliseconds.
+		public long seed = 20201017L;
+
+		public Options withPeople(final int newValue) { people = newValue; return this; }
+		public Options withFacilities(final int newValue) { facilities = newValue; return this; }
+		public Options withCities(final int newValue) { cities = newValue; return this; }
+		public Options withAlertable(final double newValue) { alertable = newValue; return this; }
+		public Options withActivated(final double newValue) { activated = newValue; return this; }
+		public Options withWorkers(final int newValue) { workers = newValue; return this; }
+		public Options withBatchSize(final int newValue) { batchSize = newValue; return this; }
+		public Options withConcurrency(final int newValue) { concurrency = newValue; return this; }
+		public Options withBuffered(final boolean newValue) { buffered = newValue; return this; }
+		public Options withTimeline(final boolean newValue) { timeline = newValue; return this; }
+		public Options withSmsDelay(final long newValue) { smsDelay = newValue; return this; }
+		public Options withSeed(final long newValue) { seed = newValue; return this; }
+
+		/** Parses "name=value" arguments. */
+		public static Options parse(final String... args)
+		{
+			var o = new Options();
+			for (var arg : args)
+			{
+				var i = arg.indexOf('=');
+				if (0 > i) throw new IllegalArgumentException("Expected name=value but found '" + arg + "'.");
+
+				var value = arg.substring(i + 1);
+				switch (arg.substring(0, i))
+				{
+					case "people": o.people = Integer.parseInt(value); break;
+					case "facilities": o.facilities = Integer.parseInt(value); break;
+					case "cities": o.cities = Integer.parseInt(value); break;
+					case "alertable": o.alertable = Double.parseDouble(value); break;
+					case "activated": o.activated = Double.parseDouble(value); break;
+					case "workers": o.workers = Integer.parseInt(value); break;
+					case "batchSize": o.batchSize = Integer.parseInt(value); break;
+					case "concurrency": o.concurrency = Integer.parseInt(value); break;
+					case "buffered": o.buffered = Boolean.parseBoolean(value); break;
+					case "timeline": o.timeline = Boolean.parseBoolean(value); break;
+					case "smsDelay": o.smsDelay = Long.parseLong(value); break;
+					case "seed": o.seed = Long.parseLong(value); break;
+					default: throw new IllegalArgumentException("The option '" + arg.substring(0, i) + "' is not supported.");
+				}
+			}
+
+			return o;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("people %d, facilities %d, cities %d, alertable %.2f, activated %.2f, workers %d, batchSize %d, concurrency %d, buffered %b, timeline %b, smsDelay %d, seed %d",
+				people, facilities, cities, alertable, activated, workers, batchSize, concurrency, buffered, timeline, smsDelay, seed);
+		}
+	}
+
+	/** Represents the measurements of a single stage of the alert run. */
+	public static class Stage
+	{
+		public final String name;
+		public final int requests;	// Number of task requests processed.
+		public final long people;	// Number of people handled.
+		public final long elapsed;	// Milliseconds.
+		public final long statements;	// Hibernate prepared statements.
+		public final long queries;	// HQL and native queries.
+		public final long entities;	// Entities loaded from the database.
+		private final long[] latencies;	// Nanoseconds per request, sorted.
+
+		public Stage(final String name, final List<Long> latencies, final long people, final long elapsed, final SessionFactory factory)
+		{
+			var stats = factory.getStatistics();
+
+			this.name = name;
+			this.requests = latencies.size();
+			this.people = people;
+			this.elapsed = elapsed;
+			this.statements = stats.getPrepareStatementCount();
+			this.queries = stats.getQueryExecutionCount();
+			this.entities = stats.getEntityLoadCount();
+			this.latencies = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+		}
+
+		/** People handled per second. */
+		public double throughput() { return (0L < elapsed) ? (people * 1000d) / elapsed : 0d; }
+
+		/** Request latency in milliseconds at the percentile (0 to 100). */
+		public double percentile(final double value)
+		{
+			if (0 == latencies.length) return 0d;
+
+			var i = (int) Math.ceil((value / 100d) * latencies.length) - 1;
+			return latencies[Math.max(0, Math.min(i, latencies.length - 1))] / 1000000d;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%-6s %8d requests %10d people %8d ms %10.1f people/s - p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms - %d statements, %d queries, %d entities",
+				name, requests, people, elapsed, throughput(), percentile(50d), percentile(90d), percentile(99d), percentile(100d), statements, queries, entities);
+		}
+	}
+
+	/** Represents the outcome of an alert run. */
+	public static class Report
+	{
+		public final Options options;
+		public final int alertable;	// Number of people expected to be checked.
+		public final Stage init;
+		public final Stage alert;
+		public final long sent;	// Number of alert SMS messages sent.
+		public final long checked;	// Number of people whose alert check was recorded by the run.
+
+		public Report(final Options options, final int alertable, final Stage init, final Stage alert, final long sent, final long checked)
+		{
+			this.options = options;
+			this.alertable = alertable;
+			this.init = init;
+			this.alert = alert;
+			this.sent = sent;
+			this.checked = checked;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%s%n%s%n%s%nalertable %d, checked %d, sent %d", options, init, alert, alertable, checked, sent);
+		}
+	}
+
+	private final Options options;
+	private final Random random;
+	private final HibernateRule rule = new HibernateRule(App.ENTITIES).withDbName("simulator");
+	private final FacilityDAO facilityDao = mock(FacilityDAO.class);
+	private final TwilioClient twilio = mock(TwilioClient.class);
+	private final QueueClient queue = mock(QueueClient.class);
+	private final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+	private final ObjectMapper mapper = JacksonUtils.createMapperAzure();
+	private final AtomicLong sent = new AtomicLong();
+	private final List<double[]> cities = new ArrayList<>();
+	private final List<FacilityActivation> facilities = new ArrayList<>();
+	private AlertDispatcher dispatcher = null;
+	private PeopleAlertedBuffer buffer = null;
+
+	public static void main(final String... args) throws Exception
+	{
+		try (var o = new AlertRunSimulator(Options.parse(args)))
+		{
+			System.out.println(o.run());
+		}
+	}
+
+	public AlertRunSimulator(final Options options)
+	{
+		this.options = options;
+		this.random = new Random(options.seed);
+	}
+
+	/** Seeds the database and performs a complete alert run. Call once per instance. */
+	public Report run() throws Exception
+	{
+		rule.before();
+		var factory = rule.getSessionFactory();
+		var alertable = seed();
+		var timeline = new FacilityActivationTimeline();
+		timeline.load(facilities.stream().map(o -> FacilityActivationTimeline.Entry.of(o.id, o.latitude, o.longitude, o.activatedAt)).collect(toList()));
+		stub(timeline);
+
+		var dao = new PeopleDAO(factory);
+		var initTask = new AlertInitTask(factory, dao, facilityDao, queue, options.batchSize);
+		var sessionDao = new SessionDAO(new FakeRedisClient(), twilio, ConfigTest.loadTest());
+		var alertTask = new AlertTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao).withQueue(queue);
+		if (0 < options.concurrency) alertTask.withDispatcher(dispatcher = new AlertDispatcher(sessionDao, options.concurrency));
+		if (options.buffered) alertTask.withAlerted(buffer = new PeopleAlertedBuffer(factory, dao, PeopleAlertedBuffer.BATCH_SIZE, PeopleAlertedBuffer.INTERVAL));
+
+		var startedAt = DateUtils.truncate(new Date(), Calendar.SECOND);	// The alert checks only hold seconds.
+		var stats = factory.getStatistics();
+		stats.setStatisticsEnabled(true);
+
+		// Stage 1 - find the people with new facilities nearby in each timezone.
+		stats.clear();
+		var latencies = new ArrayList<Long>();
+		var start = System.currentTimeMillis();
+		for (var zone : Timezone.LIST)
+		{
+			var begin = System.nanoTime();
+			initTask.process(new AlertInitRequest(zone.id));
+			latencies.add(System.nanoTime() - begin);
+		}
+		var init = new Stage("init", latencies, alertable, System.currentTimeMillis() - start, factory);
+
+		// Stage 2 - check and alert the matched people.
+		stats.clear();
+		var people = new AtomicLong();
+		var alertLatencies = new ConcurrentLinkedQueue<Long>();
+		var executor = Executors.newFixedThreadPool(options.workers);
+		start = System.currentTimeMillis();
+		try
+		{
+			var workers = new ArrayList<Future<?>>(options.workers);
+			for (int i = 0; i < options.workers; i++)
+				workers.add(executor.submit(() -> {
+					for (String message; null != (message = messages.poll(100L, MILLISECONDS)); )	// Requeued users arrive shortly after their batch.
+					{
+						var request = mapper.readValue(message, AlertRequest.class);
+						var begin = System.nanoTime();
+						alertTask.process(request);
+						alertLatencies.add(System.nanoTime() - begin);
+						people.addAndGet(request.batch() ? request.personIds.size() : 1L);
+					}
+
+					return null;
+				}));
+			for (var o : workers) o.get();
+
+			if ((null != dispatcher) && !dispatcher.await(AlertDispatcher.CLOSE_TIMEOUT)) throw new TimeoutException("The dispatcher did not drain.");
+			if (null != buffer) buffer.flush();
+		}
+		finally { executor.shutdownNow(); }
+		var alert = new Stage("alert", new ArrayList<>(alertLatencies), people.get(), System.currentTimeMillis() - start, factory);
+
+		return new Report(options, alertable, init, alert, sent.get(), checked(startedAt));
+	}
+
+	@Override
+	public void close() throws Exception
+	{
+		if (null != dispatcher) dispatcher.close();
+		if (null != buffer) buffer.close();
+		rule.after();
+	}
+
+	/** Helper method - creates the cities, the facilities, and the people.
+	 *
+	 * @return number of alertable people.
+	 */
+	private int seed() throws SQLException
+	{
+		for (int i = 0; i < options.cities; i++)
+		{
+			var zone = Timezone.get(random.nextInt(Timezone.LIST.size()));
+			cities.add(new double[] {
+				between(LATITUDE_FROM, LATITUDE_TO),
+				between(zone.longitudeFrom.doubleValue() + CITY_RADIUS, zone.longitudeTo.doubleValue() - CITY_RADIUS) });
+		}
+
+		var now = System.currentTimeMillis();
+		for (long i = 1L; i <= options.facilities; i++)
+		{
+			var point = point();
+			var activatedAt = (random.nextDouble() < options.activated) ? now - (long) (random.nextDouble() * 12d * HOUR) : now - (long) ((2d + (random.nextDouble() * 28d)) * 24d * HOUR);
+			facilities.add(new FacilityActivation(i, point[0], point[1], new Date(activatedAt)));
+		}
+
+		int alertable = 0;
+		var sql = "INSERT INTO people (id, name, phone, active, alertable, latitude, longitude, auth_at, alerted_of, alerted_at, health_worker_status_id, created_at, updated_at) VALUES (?, ?, ?, TRUE, ?, ?, ?, ?, ?, ?, 'n', ?, ?)";
+		try (var conn = DriverManager.getConnection(rule.getDbUrl()); var ps = conn.prepareStatement(sql))
+		{
+			conn.setAutoCommit(false);
+			var createdAt = new Timestamp(now - (60L * 24L * HOUR));
+			var lastAlertedAt = new Timestamp(now - (24L * HOUR));	// The previous daily alert run.
+			for (int i = 0; i < options.people; i++)
+			{
+				var point = point();
+				var alerts = random.nextDouble() < options.alertable;
+				if (alerts) alertable++;
+
+				ps.setString(1, String.format("S%09d", i));
+				ps.setString(2, "sim" + i);
+				ps.setString(3, String.format("+1%010d", i));
+				ps.setBoolean(4, alerts);
+				ps.setBigDecimal(5, point[0]);
+				ps.setBigDecimal(6, point[1]);
+				ps.setTimestamp(7, createdAt);
+				ps.setInt(8, 0);
+				ps.setTimestamp(9, lastAlertedAt);
+				ps.setTimestamp(10, createdAt);
+				ps.setTimestamp(11, createdAt);
+				ps.addBatch();
+
+				if (0 == ((i + 1) % 1000)) { ps.executeBatch(); conn.commit(); }
+			}
+			ps.executeBatch();
+			conn.commit();
+		}
+
+		return alertable;
+	}
+
+	/** Helper method - the stand-ins for the FacilityDAO, the Twilio client, and the queue. */
+	private void stub(final FacilityActivationTimeline timeline)
+	{
+		when(facilityDao.timeline()).thenReturn(options.timeline ? timeline : null);
+		when(facilityDao.getActivationsByLongitude(any(BigDecimal.class), any(BigDecimal.class))).thenAnswer(a -> {
+			var longitudeFrom = a.getArgument(0, BigDecimal.class);
+			var longitudeTo = a.getArgument(1, BigDecimal.class);
+			return facilities.stream()
+				.filter(o -> (0 <= o.longitude.compareTo(longitudeFrom)) && (0 > o.longitude.compareTo(longitudeTo)))
+				.collect(toList());
+		});
+		when(facilityDao.timelinedAt()).thenAnswer(a -> options.timeline ? new Date() : null);	// The stand-in timeline holds every activation.
+		when(facilityDao.countActivatedAtByDistance(any(Date.class), nullable(Date.class), any(BigDecimal.class), any(BigDecimal.class), any(Long.class), any(Integer.class))).thenAnswer(a ->
+			(long) timeline.count(a.getArgument(2, BigDecimal.class), a.getArgument(3, BigDecimal.class), a.getArgument(4, Long.class), a.getArgument(0, Date.class), a.getArgument(1, Date.class), a.getArgument(5, Integer.class)));
+
+		when(twilio.send(any(SMSRequest.class))).thenAnswer(a -> {
+			if (0L < options.smsDelay) Thread.sleep(options.smsDelay);
+			sent.incrementAndGet();
+			return new SMSResponse(a.getArgument(0, SMSRequest.class));
+		});
+		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { messages.add(a.getArgument(0, String.class)); return null; });
+	}
+
+	/** Helper method - counts the people whose alert check was recorded since the start of the run. */
+	private long checked(final Date startedAt) throws SQLException
+	{
+		try (var conn = DriverManager.getConnection(rule.getDbUrl());
+		     var ps = conn.prepareStatement("SELECT COUNT(*) FROM people WHERE alerted_at >= ?"))
+		{
+			ps.setTimestamp(1, new Timestamp(startedAt.getTime()));
+			try (var rs = ps.executeQuery())
+			{
+				rs.next();
+				return rs.getLong(1);
+			}
+		}
+	}
+
+	/** Helper method - a random point near a random city. */
+	private BigDecimal[] point()
+	{
+		var city = cities.get(random.nextInt(cities.size()));
+		return new BigDecimal[] {
+			BigDecimal.valueOf(city[0] + (random.nextGaussian() * CITY_RADIUS / 3d)).setScale(5, RoundingMode.HALF_UP),
+			BigDecimal.valueOf(city[1] + Math.max(-CITY_RADIUS, Math.min(CITY_RADIUS, random.nextGaussian() * CITY_RADIUS / 3d))).setScale(5, RoundingMode.HALF_UP) };
+	}
+
+	private double between(final double from, final double to) { return from + (random.nextDouble() * (to - from)); }
+}
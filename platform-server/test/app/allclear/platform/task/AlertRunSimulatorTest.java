@@ -0,0 +1,56 @@
+package app.allclear.platform.task;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Functional test class that verifies that the alert run simulator completes a small run with each alert path.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class AlertRunSimulatorTest
+{
+	public static Stream<Arguments> run()
+	{
+		var o = new AlertRunSimulator.Options().withPeople(2000).withFacilities(200).withCities(10).withActivated(0.2d);
+		return Stream.of(
+			arguments(o),
+			arguments(AlertRunSimulator.Options.parse("people=2000", "facilities=200", "cities=10", "activated=0.2", "timeline=false", "batchSize=1")),
+			arguments(AlertRunSimulator.Options.parse("people=2000", "facilities=200", "cities=10", "activated=0.2", "concurrency=4", "buffered=true")));
+	}
+
+	@ParameterizedTest
+	@MethodSource
+	public void run(final AlertRunSimulator.Options options) throws Exception
+	{
+		try (var o = new AlertRunSimulator(options))
+		{
+			var v = o.run();
+
+			assertThat(v.alertable).as("Check alertable").isGreaterThan(0);
+			assertThat(v.checked).as("Check checked").isEqualTo((long) v.alertable);	// Every alertable person is checked by the run.
+			assertThat(v.init.requests).as("Check init.requests").isEqualTo(4);
+			assertThat(v.alert.people).as("Check alert.people").isGreaterThan(0L).isLessThanOrEqualTo((long) v.alertable);
+			assertThat(v.sent).as("Check sent").isEqualTo(v.alert.people);	// Only the matched people are enqueued.
+			assertThat(v.init.queries).as("Check init.queries").isGreaterThan(0L);
+			assertThat(v.alert.percentile(50d)).as("Check alert.p50").isLessThanOrEqualTo(v.alert.percentile(100d));
+		}
+	}
+
+	@Test
+	public void parse_invalid()
+	{
+		Assertions.assertThrows(IllegalArgumentException.class, () -> AlertRunSimulator.Options.parse("people"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> AlertRunSimulator.Options.parse("invalid=1"));
+	}
+}
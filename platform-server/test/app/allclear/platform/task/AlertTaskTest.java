@@ -6,19 +6,22 @@ import static app.allclear.junit.hibernate.HibernateTransactionRule.doTrans;
 import static app.allclear.testing.TestingUtils.*;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.util.*;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 
+import com.azure.storage.queue.QueueClient;
+
 import app.allclear.common.hibernate.DualSessionFactory;
 import app.allclear.common.redis.FakeRedisClient;
 import app.allclear.junit.hibernate.HibernateRule;
 import app.allclear.platform.App;
 import app.allclear.platform.ConfigTest;
 import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.FacilityActivation;
 import app.allclear.platform.model.AlertRequest;
 import app.allclear.platform.value.*;
 import app.allclear.twilio.client.TwilioClient;
@@ -41,18 +44,34 @@ public class AlertTaskTest
 	private static final FakeRedisClient redis = new FakeRedisClient();
 	private static final TwilioClient twilio = mock(TwilioClient.class);
 	private static AlertTask task;
+	private static AlertTask dispatchTask;
+	private static AlertDispatcher dispatcher;
+	private static AlertTask bufferTask;
+	private static PeopleAlertedBuffer buffer;
 	private static PeopleDAO dao;
 	private static final FacilityDAO facilityDao = mock(FacilityDAO.class);	// MUST mock because H2 can't perform the same mySQL spatial query.
 	private static final SessionDAO sessionDao = new SessionDAO(redis, twilio, ConfigTest.loadTest());
+	private static final QueueClient queue = mock(QueueClient.class);
+	private static final List<String> requeued = new LinkedList<>();
 
 	private static PeopleValue PERSON;
+	private static PeopleValue PERSON_1;
+	private static PeopleValue PERSON_2;
+	private static String FAILED_PHONE = null;
+	private static Date PERSON_1_ALERTED_AT = null;
 
 	private static Date LAST_ALERTED_AT = null;
 	private static SMSResponse LAST_SMS_RESPONSE = null;
 
 	private void changeCount(final long value)
 	{
-		when(facilityDao.countActivatedAtByDistance(any(Date.class), any(BigDecimal.class), any(BigDecimal.class), any(Long.class), any(Integer.class))).thenReturn(value);
+		when(facilityDao.countActivatedAtByDistance(any(Date.class), nullable(Date.class), any(BigDecimal.class), any(BigDecimal.class), any(Long.class), any(Integer.class))).thenReturn(value);
+	}
+
+	private void changeActivations(final Date activatedAt)
+	{
+		when(facilityDao.getActivationsByLongitude(any(BigDecimal.class), any(BigDecimal.class)))
+			.thenReturn(List.of(new FacilityActivation(1L, new BigDecimal("40.1"), new BigDecimal("-70.1"), activatedAt)));
 	}
 
 	@BeforeAll
@@ -60,9 +79,25 @@ public class AlertTaskTest
 	{
 		var factory = DAO_RULE.getSessionFactory();
 		dao = new PeopleDAO(factory);
-		task = new AlertTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao);
+		task = new AlertTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao).withQueue(queue);
+		dispatcher = new AlertDispatcher(sessionDao, 2, 4, 2, 1L);
+		dispatchTask = new AlertTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao).withQueue(queue).withDispatcher(dispatcher);
+		buffer = new PeopleAlertedBuffer(factory, dao, 10, 60000L);	// Only flushes when asked.
+		bufferTask = new AlertTask(new DualSessionFactory(factory), dao, facilityDao, sessionDao).withQueue(queue).withDispatcher(dispatcher).withAlerted(buffer);
 
-		when(twilio.send(any(SMSRequest.class))).thenAnswer(a -> LAST_SMS_RESPONSE = new SMSResponse(a.getArgument(0, SMSRequest.class)));
+		when(twilio.send(any(SMSRequest.class))).thenAnswer(a -> {
+			var request = a.getArgument(0, SMSRequest.class);
+			if (request.to.equals(FAILED_PHONE)) throw new RuntimeException("Unreachable: " + request.to);
+			return LAST_SMS_RESPONSE = new SMSResponse(request);
+		});
+		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { requeued.add(a.getArgument(0, String.class)); return null; });
+	}
+
+	@AfterAll
+	public static void down() throws Exception
+	{
+		dispatcher.close();
+		buffer.close();
 	}
 
 	@Test
@@ -109,7 +144,7 @@ public class AlertTaskTest
 			var v = dao.getById(PERSON.id);
 			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");
 			assertThat(LAST_ALERTED_AT = v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 1000L);
-			Assertions.assertEquals(v.alertedAt, v.updatedAt, "Check updatedAt");
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 1000L);
 		});
 	}
 
@@ -130,7 +165,7 @@ public class AlertTaskTest
 			var v = dao.getById(PERSON.id);
 			Assertions.assertEquals(0, v.alertedOf, "Check alertedOf");
 			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 1000L).isAfter(LAST_ALERTED_AT);	// Always changes
-			Assertions.assertEquals(v.alertedAt, v.updatedAt, "Check updatedAt");
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 1000L);
 
 			LAST_ALERTED_AT = v.alertedAt;
 		});
@@ -161,9 +196,214 @@ public class AlertTaskTest
 			var v = dao.getById(PERSON.id);
 			Assertions.assertEquals(5, v.alertedOf, "Check alertedOf");
 			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 1000L).isAfter(LAST_ALERTED_AT);
-			Assertions.assertEquals(v.alertedAt, v.updatedAt, "Check updatedAt");
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 2000L);
+
+			LAST_ALERTED_AT = v.alertedAt;
+		});
+	}
+
+	@Test
+	public void process_03_add()
+	{
+		doTrans(DAO_RULE, s -> {
+			PERSON_1 = dao.add(new PeopleValue("thor", "888-555-1001", true).withLatitude(new BigDecimal("40.05")).withLongitude(new BigDecimal("-70.05")).withAuthAt(hourAgo()));
+			PERSON_2 = dao.add(new PeopleValue("odin", "888-555-1002", true).withLatitude(new BigDecimal("30")).withLongitude(new BigDecimal("-90")).withAuthAt(hourAgo()));	// Too far.
+		});
+	}
+
+	@Test
+	public void process_03_batch() throws Exception
+	{
+		Thread.sleep(1000L);	// The checks only hold seconds so ensure that this one is later than the last.
+		changeActivations(new Date());
+		LAST_SMS_RESPONSE = null;
+
+		Assertions.assertTrue(task.process(new AlertRequest(List.of(PERSON.id, PERSON_1.id, PERSON_2.id, "MISSING"), null)));
+		Assertions.assertNotNull(LAST_SMS_RESPONSE, "Check LAST_SMS_RESPONSE: after");
+		assertThat(requeued).as("Check requeued").isEmpty();
+	}
+
+	@Test
+	public void process_03_batch_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");
+			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 2000L).isAfter(LAST_ALERTED_AT);
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 2000L);
+			LAST_ALERTED_AT = v.alertedAt;
+
+			var v1 = dao.getById(PERSON_1.id);
+			Assertions.assertEquals(1, v1.alertedOf, "Check alertedOf: PERSON_1");
+			assertThat(PERSON_1_ALERTED_AT = v1.alertedAt).as("Check alertedAt: PERSON_1").isEqualTo(LAST_ALERTED_AT);
+
+			var v2 = dao.getById(PERSON_2.id);
+			Assertions.assertEquals(0, v2.alertedOf, "Check alertedOf: PERSON_2");
+			assertThat(v2.alertedAt).as("Check alertedAt: PERSON_2").isEqualTo(LAST_ALERTED_AT);	// Always marked as checked.
+		});
+	}
+
+	@Test
+	public void process_04_batch_failure() throws Exception
+	{
+		Thread.sleep(1000L);
+		changeActivations(new Date());
+		FAILED_PHONE = PERSON_1.phone;
+
+		Assertions.assertTrue(task.process(new AlertRequest(List.of(PERSON.id, PERSON_1.id), null)));
+		assertThat(requeued).as("Check requeued").containsExactly(String.format("{\"personIds\":[\"%s\"],\"tries\":1}", PERSON_1.id));
+	}
+
+	@Test
+	public void process_04_batch_failure_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");
+			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isAfter(LAST_ALERTED_AT);
+			LAST_ALERTED_AT = v.alertedAt;
+
+			assertThat(dao.getById(PERSON_1.id).alertedAt).as("Check alertedAt: PERSON_1").isEqualTo(PERSON_1_ALERTED_AT);	// Reverted so the next run picks it up.
+		});
+	}
+
+	@Test
+	public void process_05_batch_abandoned() throws Exception
+	{
+		requeued.clear();
+
+		Assertions.assertTrue(task.process(new AlertRequest(List.of(PERSON_1.id), AlertTask.MAX_TRIES)));
+		assertThat(requeued).as("Check requeued").isEmpty();	// Gave up.
+
+		FAILED_PHONE = null;
+	}
+
+	@Test
+	public void process_06_dispatch() throws Exception
+	{
+		changeActivations(new Date());
+		FAILED_PHONE = PERSON_1.phone;
+		LAST_SMS_RESPONSE = null;
+
+		Assertions.assertTrue(dispatchTask.process(new AlertRequest(List.of(PERSON.id, PERSON_1.id), null)));
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertNotNull(LAST_SMS_RESPONSE, "Check LAST_SMS_RESPONSE: after");
+		assertThat(requeued).as("Check requeued").isEmpty();	// Retried by the dispatcher instead.
+		Assertions.assertEquals(1L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(1L, dispatcher.retried(), "Check retried");
+		Assertions.assertEquals(1L, dispatcher.failed(), "Check failed");
+	}
 
+	@Test
+	public void process_06_dispatch_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");
+			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 2000L).isNotEqualTo(LAST_ALERTED_AT);
 			LAST_ALERTED_AT = v.alertedAt;
+
+			var v1 = dao.getById(PERSON_1.id);
+			Assertions.assertEquals(1, v1.alertedOf, "Check alertedOf: PERSON_1");
+			assertThat(v1.alertedAt).as("Check alertedAt: PERSON_1").isEqualTo(PERSON_1_ALERTED_AT);	// Reverted after the failed alert.
+		});
+
+		FAILED_PHONE = null;
+	}
+
+	@Test
+	public void process_07_dispatch() throws Exception
+	{
+		changeCount(1L);
+		LAST_SMS_RESPONSE = null;
+
+		Assertions.assertTrue(dispatchTask.process(new AlertRequest(PERSON_1.id)));
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertNotNull(LAST_SMS_RESPONSE, "Check LAST_SMS_RESPONSE: after");
+		Assertions.assertEquals(2L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(1L, dispatcher.failed(), "Check failed");
+	}
+
+	@Test
+	public void process_07_dispatch_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON_1.id);
+			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");
+			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 2000L).isNotEqualTo(PERSON_1_ALERTED_AT);
+			PERSON_1_ALERTED_AT = v.alertedAt;
+		});
+	}
+
+	@Test
+	public void process_08_buffer() throws Exception
+	{
+		Thread.sleep(1000L);	// The checks only hold seconds so ensure that this one is later than the last.
+		changeActivations(new Date());
+		FAILED_PHONE = PERSON_1.phone;
+
+		Assertions.assertTrue(bufferTask.process(new AlertRequest(List.of(PERSON.id, PERSON_1.id), null)));
+		Assertions.assertTrue(dispatcher.await(5000L), "Check await");
+		Assertions.assertEquals(3L, dispatcher.sent(), "Check sent");
+		Assertions.assertEquals(2L, dispatcher.failed(), "Check failed");
+		Assertions.assertEquals(1, buffer.pending(), "Check pending");	// Only the sent alert was recorded.
+
+		FAILED_PHONE = null;
+	}
+
+	@Test
+	public void process_08_buffer_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			assertThat(dao.getById(PERSON.id).alertedAt).as("Check alertedAt: before flush").isEqualTo(LAST_ALERTED_AT);
+			assertThat(dao.getById(PERSON_1.id).alertedAt).as("Check alertedAt: PERSON_1").isEqualTo(PERSON_1_ALERTED_AT);
+		});
+	}
+
+	@Test
+	public void process_08_buffer_flush() throws Exception
+	{
+		Assertions.assertEquals(1, buffer.flush(), "Check flush");
+		Assertions.assertEquals(0, buffer.pending(), "Check pending");
+	}
+
+	@Test
+	public void process_08_buffer_flush_check() throws Exception
+	{
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");
+			assertThat(v.alertedAt).as("Check alertedAt").isNotNull().isCloseTo(new Date(), 2000L).isNotEqualTo(LAST_ALERTED_AT);
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 2000L);
+
+			assertThat(dao.getById(PERSON_1.id).alertedAt).as("Check alertedAt: PERSON_1").isEqualTo(PERSON_1_ALERTED_AT);	// Never written.
+		});
+	}
+
+	@Test
+	public void process_09_timeline() throws Exception
+	{
+		var timelinedAt = new Date(((System.currentTimeMillis() / 1000L) + 2L) * 1000L);	// Later than the last check and already truncated.
+		var timeline = new FacilityActivationTimeline();
+		timeline.load(List.of(new FacilityActivationTimeline.Entry(1L, 40.1d, -70.1d, timelinedAt.getTime() - 500L),
+			new FacilityActivationTimeline.Entry(2L, 40.1d, -70.1d, timelinedAt.getTime() + 1000L)));	// Activated on another node since the load.
+		when(facilityDao.timelinedAt()).thenReturn(timelinedAt);
+		when(facilityDao.timeline()).thenReturn(timeline);
+		LAST_SMS_RESPONSE = null;
+
+		try { Assertions.assertTrue(task.process(new AlertRequest(List.of(PERSON.id, PERSON_2.id), null))); }
+		finally
+		{
+			when(facilityDao.timelinedAt()).thenReturn(null);
+			when(facilityDao.timeline()).thenReturn(null);
+		}
+		Assertions.assertNotNull(LAST_SMS_RESPONSE, "Check LAST_SMS_RESPONSE: after");
+
+		doTrans(DAO_RULE, s -> {
+			var v = dao.getById(PERSON.id);
+			Assertions.assertEquals(1, v.alertedOf, "Check alertedOf");	// Only the activation before the load.
+			Assertions.assertEquals(timelinedAt, v.alertedAt, "Check alertedAt");	// The next check starts at the load.
+			assertThat(v.updatedAt).as("Check updatedAt").isNotNull().isCloseTo(new Date(), 2000L);
 		});
 	}
 
@@ -0,0 +1,159 @@
+package app.allclear.platform.task;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static app.allclear.testing.TestingUtils.*;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+
+import com.azure.storage.queue.QueueClient;
+
+import app.allclear.common.errors.AbortException;
+import app.allclear.junit.hibernate.*;
+import app.allclear.platform.App;
+import app.allclear.platform.dao.*;
+import app.allclear.platform.entity.FacilityActivation;
+import app.allclear.platform.entity.People;
+import app.allclear.platform.model.FacilityActivationRequest;
+import app.allclear.platform.value.FacilityValue;
+
+/** Functional test class that verifies the Facility Activation background task that pushes alerts to the people nearby.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+@TestMethodOrder(MethodOrderer.Alphanumeric.class)
+@ExtendWith(DropwizardExtensionsSupport.class)
+public class FacilityActivationTaskTest
+{
+	public static final HibernateRule DAO_RULE = new HibernateRule(App.ENTITIES);
+	public final HibernateTransactionRule transRule = new HibernateTransactionRule(DAO_RULE);
+
+	private static FacilityDAO facilityDao;
+	private static FacilityActivationTask task;
+	private static final QueueClient queue = mock(QueueClient.class);
+
+	private static final List<String> sent = new LinkedList<>();
+	private static final List<FacilityActivation> activations = new LinkedList<>();
+	private static FacilityValue VALUE = null;
+	private static FacilityValue VALUE_1 = null;
+
+	private static BigDecimal bg(final String value) { return new BigDecimal(value); }
+
+	@BeforeAll
+	public static void up()
+	{
+		var factory = DAO_RULE.getSessionFactory();
+		facilityDao = new FacilityDAO(factory, new TestAuditor()).withActivations(activations::add);
+		task = new FacilityActivationTask(factory, new PeopleDAO(factory), 10).withQueue(queue);
+
+		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { sent.add(a.getArgument(0, String.class)); return null; });
+	}
+
+	@BeforeEach
+	public void beforeEach()
+	{
+		sent.clear();
+	}
+
+	private People person(final String id, final String latitude, final String longitude, final boolean alertable, final Date authAt)
+	{
+		var o = new People(id, bg(latitude), bg(longitude), alertable, true);
+		o.setAuthAt(authAt);
+
+		return o;
+	}
+
+	@Test
+	public void add()
+	{
+		var s = transRule.getSession();
+		s.persist(person("AAAA", "33.9887165", "-83.8979573", true, hourAgo()));	// Athens, GA
+		s.persist(person("BBBB", "33.9887165", "-83.8979573", true, null));	// Never authenticated.
+		s.persist(person("CCCC", "33.9887165", "-83.8979573", false, hourAgo()));	// Not alertable.
+		s.persist(person("DDDD", "33.7490", "-84.3880", true, hourAgo()));	// Atlanta, GA
+		s.persist(person("EEEE", "40.7128", "-74.0060", true, hourAgo()));	// New York, NY
+	}
+
+	@Test
+	public void process() throws Exception
+	{
+		Assertions.assertTrue(task.process(new FacilityActivationRequest(1L, bg("34"), bg("-84"), new Date())));
+		assertThat(sent).as("Check sent").containsExactly("{\"personIds\":[\"AAAA\",\"DDDD\"]}");
+	}
+
+	@Test
+	public void process_error()
+	{
+		assertThat(Assertions.assertThrows(AbortException.class, () -> task.process(new FacilityActivationRequest(1L, null, null, new Date()))))
+			.hasMessage("The request is missing the facility coordinates.");
+		assertThat(sent).as("Check sent").isEmpty();
+	}
+
+	@Test
+	public void process_none() throws Exception
+	{
+		Assertions.assertTrue(task.process(new FacilityActivationRequest(1L, bg("47.6062"), bg("-122.3321"), new Date())));	// Seattle, WA
+		assertThat(sent).as("Check sent").isEmpty();
+	}
+
+	@Test
+	public void process_single() throws Exception
+	{
+		Assertions.assertTrue(task.process(new FacilityActivationRequest(1L, bg("40.7"), bg("-74"), new Date())));
+		assertThat(sent).as("Check sent").containsExactly("{\"personId\":\"EEEE\"}");
+	}
+
+	@Test
+	public void z_00_activate()
+	{
+		VALUE = facilityDao.add(new FacilityValue(0, "Athens", "GA", 34, -84, true), true);
+		VALUE_1 = facilityDao.add(new FacilityValue(1, "Athens", "GA", 34, -84, false), true);
+	}
+
+	@Test
+	public void z_00_activate_check()
+	{
+		assertThat(activations).as("Check activations").hasSize(1);
+		var o = activations.get(0);
+		assertThat(o.id).as("Check id").isEqualTo(VALUE.id);
+		assertThat(o.latitude).as("Check latitude").isEqualByComparingTo(bg("34"));
+		assertThat(o.activatedAt).as("Check activatedAt").isEqualTo(VALUE.activatedAt);
+	}
+
+	@Test
+	public void z_01_activate()
+	{
+		facilityDao.update(VALUE.withName("Changed"), true);	// Already activated.
+		facilityDao.update(VALUE_1.withActive(true), true);
+	}
+
+	@Test
+	public void z_01_activate_check()
+	{
+		assertThat(activations).as("Check activations").hasSize(2);
+		assertThat(activations.get(1).id).as("Check id").isEqualTo(VALUE_1.id);
+	}
+
+	@Test
+	public void z_02_deactivate()
+	{
+		facilityDao.update(VALUE_1.withActive(false), true);
+		facilityDao.update(VALUE_1.withActive(true), true);	// Re-activation keeps the original activatedAt.
+	}
+
+	@Test
+	public void z_02_deactivate_check()
+	{
+		assertThat(activations).as("Check activations").hasSize(2);
+	}
+}
@@ -1,8 +1,11 @@
 package app.allclear.platform.dao;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.jdbi.v3.sqlobject.SqlObject;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 
@@ -16,8 +19,13 @@ import app.allclear.platform.type.Timezone;
  *
  */
 
-public interface PeopleJDBi
+public interface PeopleJDBi extends SqlObject
 {
+	/** Number of rows fetched per round trip by the streaming scan where the driver supports it. DLS on 10/17/2026. */
+	public static final int FETCH_SIZE = 1000;
+
+	public static final String SELECT_ACTIVE_ALERTABLE_IDS = "SELECT o.id FROM people o WHERE o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id";
+
 	@SqlQuery("SELECT o.id FROM people o WHERE o.id > :lastId AND o.latitude IS NOT NULL AND ((o.longitude >= :longitudeFrom) AND (o.longitude < :longitudeTo)) AND o.alertable = TRUE AND o.active = TRUE ORDER BY o.id LIMIT :pageSize")
 	public List<String> getActiveAlertableIds(@Bind("lastId") final String lastId,
 		@Bind("longitudeFrom") final BigDecimal longitudeFrom,
@@ -28,4 +36,32 @@ public interface PeopleJDBi
 	{
 		return getActiveAlertableIds(lastId, zone.longitudeFrom, zone.longitudeTo, pageSize);
 	}
+
+	/** Streams the IDs of all the active alertable people of a timezone with a single query instead of a query per page.
+	 *  The rows are read from a server-side cursor so the result set is never held in memory. The consumer is called on the
+	 *  scanning thread while the cursor is open so it should hand off the IDs rather than perform any slow work itself.
+	 *
+	 * @param zone
+	 * @param consumer receives each ID in ascending order.
+	 * @return number of IDs streamed.
+	 * @throws SQLException
+	 */
+	public default int streamActiveAlertableIds(final Timezone zone, final Consumer<String> consumer) throws SQLException
+	{
+		var handle = getHandle();
+		var mysql = "MySQL".equalsIgnoreCase(handle.getConnection().getMetaData().getDatabaseProductName());
+
+		try (var it = handle.createQuery(SELECT_ACTIVE_ALERTABLE_IDS)
+			.bind("longitudeFrom", zone.longitudeFrom)
+			.bind("longitudeTo", zone.longitudeTo)
+			.setFetchSize(mysql ? Integer.MIN_VALUE : FETCH_SIZE)	// MySQL Connector/J only streams the result set with MIN_VALUE.
+			.mapTo(String.class)
+			.iterator())
+		{
+			int count = 0;
+			for (; it.hasNext(); count++) consumer.accept(it.next());
+
+			return count;
+		}
+	}
 }
@@ -0,0 +1,144 @@
+package app.allclear.platform.task;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+import org.slf4j.*;
+
+import com.azure.storage.queue.QueueClient;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.allclear.common.time.StopWatch;
+import app.allclear.platform.model.AlertRequest;
+
+/** Pipelined producer that serializes and sends the Alert requests on a separate thread while the scan of the alertable
+ *  people continues. The scan hands off the IDs in chunks through a bounded buffer so that a slow queue pauses the scan
+ *  instead of buffering the whole timezone in memory.
+ *
+ *  Each pipeline handles a single scan: accept every ID, then call finish to flush the last chunk and wait for the sends.
+ *
+ * @author smalleyd
+ * @version 1.1.97
+ * @since 10/17/2026
+ *
+ */
+
+public class AlertInitPipeline implements Consumer<String>, AutoCloseable
+{
+	private static final Logger log = LoggerFactory.getLogger(AlertInitPipeline.class);
+
+	public static final int CHUNK_SIZE = 100;	// Number of IDs handed off to the sender at once.
+	public static final int CAPACITY = 10;	// Number of chunks buffered before the scan waits for the sender.
+
+	private static final List<String> END = new ArrayList<>(0);	// Marks the end of the scan by identity.
+
+	private final String name;
+	private final ObjectMapper mapper;
+	private final QueueClient queue;
+	private final int batchSize;
+	private final int chunkSize;
+	private final BlockingQueue<List<String>> chunks;
+	private final Future<Integer> sender;
+	private List<String> chunk;
+	private boolean finished = false;
+
+	/** Populator - starts the sender.
+	 *
+	 * @param name identifies the scan in the logs.
+	 * @param executor runs the sender.
+	 * @param mapper
+	 * @param queue
+	 * @param batchSize number of people per Alert request.
+	 */
+	public AlertInitPipeline(final String name, final ExecutorService executor, final ObjectMapper mapper, final QueueClient queue, final int batchSize)
+	{
+		this.name = name;
+		this.mapper = mapper;
+		this.queue = queue;
+		this.batchSize = batchSize;
+		this.chunkSize = batchSize * ((CHUNK_SIZE + batchSize - 1) / batchSize);	// Whole batches only so that batches do not span chunks.
+		this.chunks = new ArrayBlockingQueue<>(CAPACITY);
+		this.chunk = new ArrayList<>(chunkSize);
+		this.sender = executor.submit(this::send);
+	}
+
+	/** Adds a single ID from the scan. Waits if the sender has fallen behind.
+	 *
+	 * @throws IllegalStateException if the sender has stopped or the scan is interrupted.
+	 */
+	@Override
+	public void accept(final String id)
+	{
+		chunk.add(id);
+		if (chunkSize <= chunk.size())
+		{
+			put(chunk);
+			chunk = new ArrayList<>(chunkSize);
+		}
+	}
+
+	/** Flushes the remaining IDs and waits for the sender to complete.
+	 *
+	 * @return number of people sent.
+	 * @throws Exception the sender's error.
+	 */
+	public int finish() throws Exception
+	{
+		if (!chunk.isEmpty()) put(chunk);
+		put(END);
+		finished = true;
+
+		try { return sender.get(); }
+		catch (final ExecutionException ex) { throw (ex.getCause() instanceof Exception) ? (Exception) ex.getCause() : ex; }
+	}
+
+	/** Stops the sender if the scan did not finish. */
+	@Override
+	public void close()
+	{
+		if (!finished) sender.cancel(true);
+	}
+
+	/** Helper method - hands off a chunk. Checks periodically that the sender is still running so a failed sender does not hang the scan. */
+	private void put(final List<String> value)
+	{
+		try
+		{
+			while (!chunks.offer(value, 1L, SECONDS))
+				if (sender.isDone()) throw new IllegalStateException("The alert sender stopped (" + name + ").", cause());
+		}
+		catch (final InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The alert scan was interrupted (" + name + ").", ex);
+		}
+	}
+
+	/** Helper method - the sender's error once it has stopped. */
+	private Throwable cause() throws InterruptedException
+	{
+		try { sender.get(); return null; }
+		catch (final CancellationException ex) { return ex; }
+		catch (final ExecutionException ex) { return ex.getCause(); }
+	}
+
+	/** Helper method - the sender's loop. Serializes each batch of IDs and puts it on the queue. */
+	private int send() throws Exception
+	{
+		int count = 0, chunks = 0;
+		var timer = new StopWatch();
+		for (List<String> o; END != (o = this.chunks.take()); )
+		{
+			for (int i = 0; i < o.size(); i+= batchSize)
+				queue.sendMessage(mapper.writeValueAsString(AlertRequest.of(o.subList(i, Math.min(i + batchSize, o.size())))));
+
+			count+= o.size();
+			log.info("SENT ({}): {} - {} out of {} in {}", name, ++chunks, o.size(), count, timer.split());
+		}
+
+		return count;
+	}
+}
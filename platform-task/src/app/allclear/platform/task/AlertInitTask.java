@@ -1,6 +1,9 @@
 package app.allclear.platform.task;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.*;
 
@@ -16,6 +19,10 @@ import app.allclear.platform.model.AlertRequest;
 import app.allclear.platform.type.Timezone;
 
 /** Task callback that handles Facility Alert initialization.
+ * 
+ *  In streaming mode, the alertable people of the timezone are read with a single cursor on the read replica and handed to an
+ *  AlertInitPipeline that serializes and sends the Alert requests on its own thread so that the scan and the sends overlap.
+ *  Otherwise, the people are paged by ID and each page is sent before the next is read.
  * 
  * @author smalleyd
  * @version 1.0.109
@@ -32,14 +39,34 @@ public class AlertInitTask implements TaskCallback<AlertInitRequest>
 	private final PeopleJDBi dao;
 	private final QueueClient queue;
 	private final ObjectMapper mapper;
+	private final int batchSize;	// Number of people per Alert request.
+	private final ExecutorService senders;	// Runs the pipeline senders. NULL when not streaming.
 
 	public AlertInitTask(final ObjectMapper mapper, final PeopleJDBi dao, final QueueClient queue)
+	{
+		this(mapper, dao, queue, 1, false);
+	}
+
+	public AlertInitTask(final ObjectMapper mapper, final PeopleJDBi dao, final QueueClient queue, final int batchSize, final boolean streaming)
 	{
 		this.dao = dao;
 		this.queue = queue;
 		this.mapper = mapper;
+		this.batchSize = batchSize;
+		this.senders = streaming ? sendersExecutor() : null;
 
-		log.info("INITIALIZED");
+		log.info("INITIALIZED: batchSize {}, streaming {}", batchSize, streaming);
+	}
+
+	/** Helper method - one daemon thread per concurrent scan. */
+	private static ExecutorService sendersExecutor()
+	{
+		var count = new AtomicInteger();
+		return Executors.newCachedThreadPool(r -> {
+			var o = new Thread(r, "alert-init-sender-" + count.incrementAndGet());
+			o.setDaemon(true);
+			return o;
+		});
 	}
 
 	@Override
@@ -52,14 +79,17 @@ public class AlertInitTask implements TaskCallback<AlertInitRequest>
 
 		log.info("PROCESSING: {}", zone);
 
+		if (null != senders) return stream(zone);
+
 		var lastId = "";
 		List<String> ids = null;
 		int count = 0, batches = 0;
 		var timer = new StopWatch();
 		while (!(ids = dao.getActiveAlertableIds(lastId, zone, PAGE_SIZE)).isEmpty())
 		{
-			for (var id : ids)
-				queue.sendMessage(mapper.writeValueAsString(new AlertRequest(lastId = id)));
+			for (int i = 0; i < ids.size(); i+= batchSize)
+				queue.sendMessage(mapper.writeValueAsString(AlertRequest.of(ids.subList(i, Math.min(i + batchSize, ids.size())))));
+			lastId = ids.get(ids.size() - 1);
 
 			int size = ids.size();
 			count+= size;
@@ -70,4 +100,19 @@ public class AlertInitTask implements TaskCallback<AlertInitRequest>
 
 		return true;
 	}
+
+	/** Helper method - scans the timezone with a single cursor while the pipeline sends the Alert requests. */
+	private boolean stream(final Timezone zone) throws Exception
+	{
+		var timer = new StopWatch();
+		try (var pipeline = new AlertInitPipeline(zone.id, senders, mapper, queue, batchSize))
+		{
+			var count = dao.streamActiveAlertableIds(zone, pipeline);
+			log.info("SCANNED ({}): {} in {}", zone, count, timer.split());
+
+			log.info("PROCESSED ({}): {} in {}", zone, pipeline.finish(), timer.total());
+		}
+
+		return true;
+	}
 }
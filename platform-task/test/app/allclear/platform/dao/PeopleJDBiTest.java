@@ -3,6 +3,7 @@ package app.allclear.platform.dao;
 import static org.fest.assertions.api.Assertions.assertThat;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 
+import java.util.LinkedList;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
@@ -62,4 +63,21 @@ public class PeopleJDBiTest
 		assertThat(ids).as("Check page 1").hasSize(20).containsExactly("1111", "AAAA", "CCCC", "DDDD", "EEEE", "FFFF", "GGGG", "HHHH", "IIII", "JJJJ", "KKKK", "LLLL", "MMMM", "NNNN", "OOOO", "PPPP", "QQQQ", "RRRR", "SSSS", "TTTT");
 		assertThat(dao.getActiveAlertableIds(ids.get(19), zone, 20)).as("Check page 2").hasSize(1).containsExactly("UUUU");
 	}
+
+	@ParameterizedTest
+	@MethodSource("getActiveAlertableIds")
+	public void streamActiveAlertableIds(final Timezone zone, final String expectedId) throws Exception
+	{
+		var ids = new LinkedList<String>();
+		assertThat(dao.streamActiveAlertableIds(zone, ids::add)).as("Check count").isEqualTo(1);
+		assertThat(ids).as("Check ids").containsExactly(expectedId);
+	}
+
+	@Test
+	public void streamActiveAlertableIds_EST() throws Exception
+	{
+		var ids = new LinkedList<String>();
+		assertThat(dao.streamActiveAlertableIds(Timezone.EST, ids::add)).as("Check count").isEqualTo(21);
+		assertThat(ids).as("Check ids").containsExactly("1111", "AAAA", "CCCC", "DDDD", "EEEE", "FFFF", "GGGG", "HHHH", "IIII", "JJJJ", "KKKK", "LLLL", "MMMM", "NNNN", "OOOO", "PPPP", "QQQQ", "RRRR", "SSSS", "TTTT", "UUUU");
+	}
 }
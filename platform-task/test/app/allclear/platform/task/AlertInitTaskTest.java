@@ -41,6 +41,8 @@ public class AlertInitTaskTest
 
 	private static PeopleJDBi dao;
 	private static AlertInitTask task;
+	private static AlertInitTask streamTask;
+	private static AlertInitTask batchTask;
 	private static final QueueClient queue = mock(QueueClient.class);
 	private static final ObjectMapper mapper = JacksonUtils.createMapperAzure();
 
@@ -53,11 +55,18 @@ public class AlertInitTaskTest
 			processed.add(String.format("{\"personId\":\"%s\"}", personId));
 	}
 
+	private void processedBatch(final String... personIds)
+	{
+		processed.add(String.format("{\"personIds\":[\"%s\"]}", String.join("\",\"", personIds)));
+	}
+
 	@BeforeAll
 	public static void up()
 	{
 		dao = RULE.dbi().onDemand(PeopleJDBi.class);
 		task = new AlertInitTask(mapper, dao, queue);
+		streamTask = new AlertInitTask(mapper, dao, queue, 1, true);
+		batchTask = new AlertInitTask(mapper, dao, queue, 10, true);
 
 		when(queue.sendMessage(any(String.class))).thenAnswer(a -> { sent.add(a.getArgument(0, String.class)); return null; });
 	}
@@ -105,4 +114,42 @@ public class AlertInitTaskTest
 		Assertions.assertTrue(task.process(new AlertInitRequest(zone.id)));
 		processed(personId);
 	}
+
+	@Test
+	public void process_stream() throws Exception
+	{
+		Assertions.assertTrue(streamTask.process(new AlertInitRequest(Timezone.EST.id)));
+		processed("1111", "AAAA", "CCCC", "DDDD", "EEEE", "FFFF", "GGGG", "HHHH", "IIII", "JJJJ", "KKKK", "LLLL", "MMMM", "NNNN", "OOOO", "PPPP", "QQQQ", "RRRR", "SSSS", "TTTT", "UUUU");
+	}
+
+	@Test
+	public void process_stream_batch() throws Exception
+	{
+		Assertions.assertTrue(batchTask.process(new AlertInitRequest(Timezone.EST.id)));
+		processedBatch("1111", "AAAA", "CCCC", "DDDD", "EEEE", "FFFF", "GGGG", "HHHH", "IIII", "JJJJ");
+		processedBatch("KKKK", "LLLL", "MMMM", "NNNN", "OOOO", "PPPP", "QQQQ", "RRRR", "SSSS", "TTTT");
+		processed("UUUU");
+	}
+
+	@ParameterizedTest
+	@MethodSource("process_other")
+	public void process_stream_other(final Timezone zone, final String personId) throws Exception
+	{
+		Assertions.assertTrue(streamTask.process(new AlertInitRequest(zone.id)));
+		processed(personId);
+	}
+
+	@Test
+	public void process_stream_failure()
+	{
+		doThrow(new IllegalStateException("Queue unavailable")).when(queue).sendMessage(any(String.class));
+		try
+		{
+			assertThat(Assertions.assertThrows(IllegalStateException.class, () -> streamTask.process(new AlertInitRequest(Timezone.EST.id)))).hasMessage("Queue unavailable");
+		}
+		finally
+		{
+			doAnswer(a -> { sent.add(a.getArgument(0, String.class)); return null; }).when(queue).sendMessage(any(String.class));
+		}
+	}
 }